@@ -0,0 +1,94 @@
+package com.axonivy.utils.persistence.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import ch.ivyteam.ivy.process.data.persistence.IIvyEntityManager;
+import ch.ivyteam.ivy.process.data.persistence.IIvyQuery;
+
+/**
+ * Ivy entity manager creating plain JPA entity managers of the in-memory persistence units in
+ * <code>META-INF/persistence.xml</code>.
+ *
+ * <p>
+ * Factories are shared by all threads and live as long as the benchmark JVM.
+ * </p>
+ */
+public class BenchEntityManager implements IIvyEntityManager {
+	private static final Map<String, EntityManagerFactory> factories = new ConcurrentHashMap<>();
+
+	private final EntityManagerFactory factory;
+
+	public BenchEntityManager(String persistenceUnitName) {
+		this.factory = factories.computeIfAbsent(persistenceUnitName, Persistence::createEntityManagerFactory);
+	}
+
+	/**
+	 * Get the factory of a persistence unit.
+	 *
+	 * @param persistenceUnitName persistence unit
+	 * @return factory or <code>null</code> if it was not used yet
+	 */
+	public static EntityManagerFactory getFactory(String persistenceUnitName) {
+		return factories.get(persistenceUnitName);
+	}
+
+	@Override
+	public EntityManager createEntityManager() {
+		return factory.createEntityManager();
+	}
+
+	@Override
+	public EntityManager createEntityManager(Map<?, ?> properties) {
+		return factory.createEntityManager(properties);
+	}
+
+	@Override public <T> T find(Class<T> entityClass, Object primaryKey) {
+		throw new NotMockedException();
+	}
+
+	@Override public <T> List<T> findAll(Class<T> entityClass) {
+		throw new NotMockedException();
+	}
+
+	@Override public <T> T persist(T entity) {
+		throw new NotMockedException();
+	}
+
+	@Override public <T> T merge(T entity) {
+		throw new NotMockedException();
+	}
+
+	@Override public <T> T refresh(T entity) {
+		throw new NotMockedException();
+	}
+
+	@Override public <T> T remove(T entity) {
+		throw new NotMockedException();
+	}
+
+	@Override public IIvyQuery createQuery(String qlString) {
+		throw new NotMockedException();
+	}
+
+	@Override public IIvyQuery createNamedQuery(String name) {
+		throw new NotMockedException();
+	}
+
+	@Override public IIvyQuery createNativeQuery(String sqlString) {
+		throw new NotMockedException();
+	}
+
+	@Override public IIvyQuery createNativeQuery(String sqlString, @SuppressWarnings("rawtypes") Class resultClass) {
+		throw new NotMockedException();
+	}
+
+	@Override public IIvyQuery createNativeQuery(String sqlString, String resultSetMapping) {
+		throw new NotMockedException();
+	}
+}
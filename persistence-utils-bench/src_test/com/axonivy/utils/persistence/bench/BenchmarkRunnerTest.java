@@ -0,0 +1,58 @@
+package com.axonivy.utils.persistence.bench;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks as part of the build.
+ *
+ * <p>
+ * Benchmarks only run, if the system property <code>bench</code> is set, e.g. <code>mvn verify -Dbench</code>.
+ * The value of the property is a regular expression selecting benchmarks, e.g.
+ * <code>-Dbench=QueryBenchmark.findById</code>. Throughput and allocation rate (gc profiler) are written to
+ * <code>target/jmh-result.json</code>, which can be compared between releases.
+ * </p>
+ */
+public class BenchmarkRunnerTest {
+	public static final String PROPERTY = "bench";
+	public static final String RESULT_FILE = "target/jmh-result.json";
+
+	@Test
+	@EnabledIfSystemProperty(named = PROPERTY, matches = ".*")
+	public void runBenchmarks() throws RunnerException {
+		Collection<RunResult> results = run(System.getProperty(PROPERTY));
+		assertThat(results).as("benchmarks run").isNotEmpty();
+	}
+
+	/**
+	 * Run benchmarks.
+	 *
+	 * @param include regular expression of benchmarks, all benchmarks if empty
+	 * @return results
+	 * @throws RunnerException
+	 */
+	public static Collection<RunResult> run(String include) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(include == null || include.isBlank() ? DAOBenchmark.class.getPackageName() + ".*" : include)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(RESULT_FILE)
+				.build();
+		return new Runner(options).run();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(args.length > 0 ? args[0] : null);
+	}
+}
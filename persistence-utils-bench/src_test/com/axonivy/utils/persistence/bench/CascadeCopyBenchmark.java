@@ -0,0 +1,28 @@
+package com.axonivy.utils.persistence.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import com.axonivy.utils.persistence.entities.Producer;
+
+/**
+ * {@link com.axonivy.utils.persistence.dao.AbstractDAO#cascadeCopy(Object, Class...)} of a producer with
+ * a cascading one to many relation to its products.
+ */
+public class CascadeCopyBenchmark extends DAOBenchmark {
+
+	@Param({"10", "1000"})
+	public int products;
+
+	private Producer producer;
+
+	@Override
+	protected void prepare() {
+		producer = newProducer("producer", products);
+	}
+
+	@Benchmark
+	public Producer cascadeCopy() {
+		return producerDAO.cascadeCopy(producer);
+	}
+}
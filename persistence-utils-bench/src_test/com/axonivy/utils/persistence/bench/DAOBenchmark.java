@@ -0,0 +1,133 @@
+package com.axonivy.utils.persistence.bench;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.TransactionRolledbackException;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axonivy.utils.persistence.daos.DepartmentDAO;
+import com.axonivy.utils.persistence.daos.PersonDAO;
+import com.axonivy.utils.persistence.daos.ProducerDAO;
+import com.axonivy.utils.persistence.entities.Department;
+import com.axonivy.utils.persistence.entities.Person;
+import com.axonivy.utils.persistence.entities.Producer;
+import com.axonivy.utils.persistence.entities.Product;
+
+/**
+ * Base of all DAO benchmarks.
+ *
+ * <p>
+ * Ivy statics are stubbed by {@link IvyStub} and the DAOs of the test project work on an in-memory HSQLDB.
+ * The stub is bound to the thread creating it, so the state is {@link Scope#Thread} and set up by the
+ * benchmark thread itself.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class DAOBenchmark {
+	protected static final String USER_NAME = "bench";
+
+	protected final DepartmentDAO departmentDAO = DepartmentDAO.getInstance();
+	protected final PersonDAO personDAO = PersonDAO.getInstance();
+	protected final ProducerDAO producerDAO = new ProducerDAO();
+
+	private IvyStub ivyStub;
+
+	@Setup(Level.Trial)
+	public void setupIvy() throws Exception {
+		ivyStub = IvyStub.start(USER_NAME);
+		prepare();
+	}
+
+	@TearDown(Level.Trial)
+	public void closeIvy() {
+		ivyStub.close();
+	}
+
+	/**
+	 * Prepare the data of the benchmark, Ivy is already stubbed.
+	 *
+	 * @throws Exception
+	 */
+	protected abstract void prepare() throws Exception;
+
+	/**
+	 * Save departments with persons.
+	 *
+	 * @param departments number of departments
+	 * @param personsPerDepartment number of persons in every department
+	 * @return saved persons
+	 * @throws TransactionRolledbackException
+	 */
+	protected List<Person> createPersons(int departments, int personsPerDepartment) throws TransactionRolledbackException {
+		List<Person> persons = new ArrayList<>();
+		for (int d = 0; d < departments; d++) {
+			Department department = new Department();
+			department.setName("department " + d);
+			department = departmentDAO.save(department);
+			List<Person> batch = new ArrayList<>();
+			for (int p = 0; p < personsPerDepartment; p++) {
+				Person person = new Person();
+				person.setFirstName("first " + p);
+				person.setLastName("last " + d + "-" + p);
+				person.setIvyUserName("user" + d + "-" + p);
+				person.setDepartment(department);
+				batch.add(person);
+			}
+			persons.addAll(personDAO.saveAll(batch));
+		}
+		return persons;
+	}
+
+	/**
+	 * Create a producer with products, which is not saved.
+	 *
+	 * @param name name of the producer
+	 * @param products number of products
+	 * @return producer
+	 */
+	protected Producer newProducer(String name, int products) {
+		Producer producer = new Producer();
+		producer.setName(name);
+		Set<Product> set = new LinkedHashSet<>();
+		for (int i = 0; i < products; i++) {
+			set.add(newProduct(producer, i));
+		}
+		producer.setProducts(set);
+		return producer;
+	}
+
+	/**
+	 * Create a product, which is not saved.
+	 *
+	 * @param producer producer
+	 * @param index used for the name
+	 * @return product
+	 */
+	protected Product newProduct(Producer producer, int index) {
+		Product product = new Product();
+		product.setName("product " + index);
+		product.setPrice(index);
+		product.setProducer(producer);
+		return product;
+	}
+}
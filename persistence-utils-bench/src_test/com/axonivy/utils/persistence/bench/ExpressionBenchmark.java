@@ -0,0 +1,57 @@
+package com.axonivy.utils.persistence.bench;
+
+import javax.persistence.Tuple;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.axonivy.utils.persistence.dao.CriteriaQueryGenericContext;
+import com.axonivy.utils.persistence.dao.ExpressionMap;
+import com.axonivy.utils.persistence.daos.PersonDAO;
+import com.axonivy.utils.persistence.daos.ProducerDAO;
+import com.axonivy.utils.persistence.entities.Department_;
+import com.axonivy.utils.persistence.entities.Person;
+import com.axonivy.utils.persistence.entities.Person_;
+import com.axonivy.utils.persistence.entities.Producer;
+import com.axonivy.utils.persistence.entities.Producer_;
+import com.axonivy.utils.persistence.entities.Product_;
+
+/**
+ * Building of criteria queries with joins by {@link com.axonivy.utils.persistence.dao.AbstractDAO#getExpression}.
+ *
+ * <p>
+ * The queries are not executed, only the expressions are built. Every join is requested several times,
+ * like it happens when the same path is used in selection, filter and order.
+ * </p>
+ */
+public class ExpressionBenchmark extends DAOBenchmark {
+
+	@Override
+	protected void prepare() {
+		// no data needed
+	}
+
+	@Benchmark
+	public void singularJoins(Blackhole blackhole) {
+		try (CriteriaQueryGenericContext<Person, Tuple> q = personDAO.initializeQuery(Person.class, Tuple.class)) {
+			ExpressionMap expressionMap = q.getCurrentExpressionMap();
+			for (int i = 0; i < 3; i++) {
+				blackhole.consume(PersonDAO.getExpression(expressionMap, q.r, Person_.firstName));
+				blackhole.consume(PersonDAO.getExpression(expressionMap, q.r, Person_.department, Department_.name));
+				blackhole.consume(PersonDAO.getExpression(expressionMap, q.r, Person_.department, Department_.id));
+			}
+		}
+	}
+
+	@Benchmark
+	public void pluralJoins(Blackhole blackhole) {
+		try (CriteriaQueryGenericContext<Producer, Tuple> q = producerDAO.initializeQuery(Producer.class, Tuple.class)) {
+			ExpressionMap expressionMap = q.getCurrentExpressionMap();
+			for (int i = 0; i < 3; i++) {
+				blackhole.consume(ProducerDAO.getExpression(expressionMap, q.r, Producer_.name));
+				blackhole.consume(ProducerDAO.getExpression(expressionMap, q.r, Producer_.products, Product_.name));
+				blackhole.consume(ProducerDAO.getExpression(expressionMap, q.r, Producer_.products, Product_.price));
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.axonivy.utils.persistence.bench;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import com.axonivy.utils.persistence.IvyUtilities;
+
+import ch.ivyteam.ivy.environment.Ivy;
+import ch.ivyteam.ivy.process.data.persistence.IPersistenceContext;
+import ch.ivyteam.ivy.workflow.IWorkflowSession;
+
+/**
+ * Ivy statics needed by the DAOs, stubbed with Mockito the same way <code>IvyTestBase</code> of the test
+ * project does it.
+ *
+ * <p>
+ * Static mocks of Mockito are bound to the thread creating them, so every thread calling DAOs must start
+ * its own stub and close it on the same thread.
+ * </p>
+ */
+public class IvyStub implements AutoCloseable {
+	private final MockedStatic<Ivy> ivy;
+	private final MockedStatic<IvyUtilities> ivyUtilities;
+
+	private IvyStub(String userName) {
+		IWorkflowSession session = Mockito.mock(IWorkflowSession.class);
+		Mockito.when(session.getSessionUserName()).thenReturn(userName);
+		IPersistenceContext persistenceContext = Mockito.mock(IPersistenceContext.class);
+		Mockito.when(persistenceContext.get(Mockito.anyString())).thenAnswer(i -> new BenchEntityManager(i.getArgument(0)));
+
+		ivy = Mockito.mockStatic(Ivy.class);
+		Mockito.when(Ivy.session()).thenReturn(session);
+		Mockito.when(Ivy.persistence()).thenReturn(persistenceContext);
+		ivyUtilities = Mockito.mockStatic(IvyUtilities.class);
+		Mockito.when(IvyUtilities.getProcessModelName()).thenReturn("BenchProcessModel");
+	}
+
+	/**
+	 * Stub Ivy for the current thread.
+	 *
+	 * @param userName name of the session user
+	 * @return stub to close on the same thread
+	 */
+	public static IvyStub start(String userName) {
+		return new IvyStub(userName);
+	}
+
+	@Override
+	public void close() {
+		ivyUtilities.close();
+		ivy.close();
+	}
+}
@@ -0,0 +1,23 @@
+package com.axonivy.utils.persistence.bench;
+
+/**
+ * Thrown by stubs for calls the benchmarks do not need, like <code>NotMockedException</code> of the test project.
+ *
+ * The message names the calling method.
+ */
+public class NotMockedException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public NotMockedException() {
+		super(getFunction());
+	}
+
+	private static String getFunction() {
+		String result = "<unknown>";
+		StackTraceElement[] st = new RuntimeException().getStackTrace();
+		if (st.length > 2) {
+			result = st[2].toString();
+		}
+		return result;
+	}
+}
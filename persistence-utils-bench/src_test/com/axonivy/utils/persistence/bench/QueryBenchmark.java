@@ -0,0 +1,91 @@
+package com.axonivy.utils.persistence.bench;
+
+import java.util.List;
+
+import javax.persistence.Tuple;
+import javax.persistence.criteria.Expression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.axonivy.utils.persistence.dao.CriteriaQueryGenericContext;
+import com.axonivy.utils.persistence.dao.QuerySettings;
+import com.axonivy.utils.persistence.daos.PersonDAO;
+import com.axonivy.utils.persistence.daos.markers.AccessMarker;
+import com.axonivy.utils.persistence.entities.Person;
+import com.axonivy.utils.persistence.entities.Person_;
+import com.axonivy.utils.persistence.entities.Producer;
+import com.axonivy.utils.persistence.entities.Producer_;
+import com.axonivy.utils.persistence.enums.PersonSearchField;
+import com.axonivy.utils.persistence.search.FindByExample;
+import com.axonivy.utils.persistence.search.SearchFilter;
+
+/**
+ * Read operations of {@link com.axonivy.utils.persistence.dao.GenericDAO} on a database of persons in
+ * departments and producers.
+ */
+public class QueryBenchmark extends DAOBenchmark {
+	/**
+	 * The stubbed session user is not the system user, so searches for persons must not be restricted.
+	 */
+	private static final QuerySettings<Person> ALL = QuerySettings.<Person>create().withMarkers(AccessMarker.ALL);
+
+	@Param({"1000"})
+	public int persons;
+
+	private List<Person> saved;
+	private int next;
+	private SearchFilter filter;
+	private FindByExample<Producer> example;
+
+	@Override
+	protected void prepare() throws Exception {
+		saved = createPersons(10, persons / 10);
+		for (int i = 0; i < 100; i++) {
+			producerDAO.save(newProducer("producer " + i, 0));
+		}
+
+		filter = new SearchFilter()
+				.add(PersonSearchField.ID)
+				.add(PersonSearchField.FIRST_NAME)
+				.add(PersonSearchField.LAST_NAME)
+				.add(PersonSearchField.DEPARTMENT_NAME, "department 1")
+				.addSort(PersonSearchField.LAST_NAME, true);
+
+		example = FindByExample.getInstance(Producer.class);
+		example.getE().setName("producer 42");
+	}
+
+	private String nextId() {
+		next = (next + 1) % saved.size();
+		return saved.get(next).getId();
+	}
+
+	@Benchmark
+	public Person findById() {
+		return personDAO.findById(nextId());
+	}
+
+	@Benchmark
+	public List<Tuple> findByCriteria() {
+		try (CriteriaQueryGenericContext<Person, Tuple> q = personDAO.initializeQuery(Person.class, Tuple.class)) {
+			Expression<String> lastName = PersonDAO.getExpression(null, q.r, Person_.lastName);
+			q.q.where(q.c.like(lastName, "last 3-%"));
+			q.q.multiselect(lastName, PersonDAO.getExpression(null, q.r, Person_.firstName));
+			q.setQuerySettings(ALL);
+			return personDAO.findByCriteria(q);
+		}
+	}
+
+	@Benchmark
+	public void findAndCountBySearchFilter(Blackhole blackhole) {
+		blackhole.consume(personDAO.findBySearchFilter(filter, ALL));
+		blackhole.consume(personDAO.countBySearchFilter(filter, ALL));
+	}
+
+	@Benchmark
+	public List<Producer> findByExample() {
+		return producerDAO.findByExample(example, Producer_.name);
+	}
+}
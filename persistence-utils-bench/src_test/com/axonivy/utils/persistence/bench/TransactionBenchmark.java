@@ -0,0 +1,36 @@
+package com.axonivy.utils.persistence.bench;
+
+import javax.transaction.TransactionRolledbackException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Nested {@link com.axonivy.utils.persistence.dao.AbstractDAO#beginTransaction()} and
+ * {@link com.axonivy.utils.persistence.dao.AbstractDAO#commitTransaction()} without any statement.
+ */
+public class TransactionBenchmark extends DAOBenchmark {
+
+	@Param({"1", "3"})
+	public int depth;
+
+	@Override
+	protected void prepare() {
+		// no data needed
+	}
+
+	@Benchmark
+	public void nestedTransactions() throws TransactionRolledbackException {
+		personDAO.beginSession();
+		try {
+			for (int i = 0; i < depth; i++) {
+				personDAO.beginTransaction();
+			}
+			for (int i = 0; i < depth; i++) {
+				personDAO.commitTransaction();
+			}
+		} finally {
+			personDAO.closeSession();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.axonivy.utils.persistence.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.transaction.TransactionRolledbackException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Producer;
+import com.axonivy.utils.persistence.entities.Product;
+
+/**
+ * {@link com.axonivy.utils.persistence.dao.GenericDAO#save(Object)} and
+ * {@link com.axonivy.utils.persistence.dao.GenericDAO#saveAll(List)} of new entities.
+ */
+public class WriteBenchmark extends DAOBenchmark {
+	private final ProductDAO productDAO = new ProductDAO();
+
+	@Param({"10", "100"})
+	public int batchSize;
+
+	private Producer producer;
+	private int counter;
+
+	@Override
+	protected void prepare() {
+		producer = producerDAO.save(newProducer("producer", 0));
+	}
+
+	@Benchmark
+	public Product save() {
+		return productDAO.save(newProduct(producer, counter++));
+	}
+
+	@Benchmark
+	public List<Product> saveAll() throws TransactionRolledbackException {
+		List<Product> products = new ArrayList<>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			products.add(newProduct(producer, counter++));
+		}
+		return productDAO.saveAll(products);
+	}
+}
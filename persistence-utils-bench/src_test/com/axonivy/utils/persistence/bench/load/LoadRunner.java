@@ -0,0 +1,314 @@
+package com.axonivy.utils.persistence.bench.load;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.transaction.TransactionRolledbackException;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import com.axonivy.utils.persistence.bench.BenchEntityManager;
+import com.axonivy.utils.persistence.bench.IvyStub;
+import com.axonivy.utils.persistence.bench.load.LoadScenario.Operation;
+import com.axonivy.utils.persistence.dao.QuerySettings;
+import com.axonivy.utils.persistence.daos.PersonDAO;
+import com.axonivy.utils.persistence.daos.markers.AccessMarker;
+import com.axonivy.utils.persistence.entities.Department;
+import com.axonivy.utils.persistence.entities.Person;
+import com.axonivy.utils.persistence.enums.PersonSearchField;
+import com.axonivy.utils.persistence.leaks.LeakDetector;
+import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.search.SearchFilter;
+
+/**
+ * Multi-threaded load and soak test of the DAOs.
+ *
+ * <p>
+ * After generating synthetic data, the scenario is run once for every configured number of threads. Every
+ * thread picks operations according to the mix of the scenario until the duration is over. Latencies are
+ * recorded per operation in HdrHistograms and reported in intervals, so a soak run over hours shows
+ * trends. At the end of every step the runner reports Hibernate sessions which were opened but not closed,
+ * threads which ended inside a transaction and transactions reported as leaked by the {@link LeakDetector}.
+ * </p>
+ */
+public class LoadRunner {
+	private static final Logger LOG = Logger.getLogger(LoadRunner.class);
+
+	private static final String PERSISTENCE_UNIT = "jpa_demo_test";
+	private static final String USER_NAME = "load";
+	private static final long NANOS_PER_MICRO = 1_000L;
+
+	/**
+	 * The stubbed session user is not the system user, so searches for persons must not be restricted.
+	 */
+	private static final QuerySettings<Person> SEARCH_SETTINGS = QuerySettings.<Person>create()
+			.withMarkers(AccessMarker.ALL).withMaxResults(50);
+	private static final QuerySettings<Person> COUNT_SETTINGS = QuerySettings.<Person>create()
+			.withMarkers(AccessMarker.ALL);
+
+	private final LoadScenario scenario;
+	private final PersonDAO personDAO = PersonDAO.getInstance();
+	private List<String> personIds;
+	private List<Department> departments;
+	private AtomicLong nextPersonIndex;
+
+	public LoadRunner(LoadScenario scenario) {
+		this.scenario = scenario;
+	}
+
+	/**
+	 * Generate the data and run all steps of the scenario.
+	 *
+	 * @return result of every step
+	 * @throws Exception
+	 */
+	public List<StepResult> run() throws Exception {
+		LOG.info("Running {0}", scenario);
+		try (IvyStub stub = IvyStub.start(USER_NAME)) {
+			SyntheticDataGenerator generator = new SyntheticDataGenerator(scenario.getSeed());
+			generator.generate(scenario.getDepartments(), scenario.getPersons(), scenario.getProducers(), scenario.getMeanProducts());
+			personIds = generator.getPersonIds();
+			departments = generator.getDepartments();
+			nextPersonIndex = new AtomicLong(scenario.getPersons());
+		}
+		LeakDetector.getInstance().setEnabled(true);
+
+		Statistics statistics = BenchEntityManager.getFactory(PERSISTENCE_UNIT).unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+
+		List<StepResult> results = new ArrayList<>();
+		for (int threads : scenario.getThreads()) {
+			StepResult result = runStep(threads, statistics);
+			LOG.info("Finished step{0}{1}", System.lineSeparator(), result);
+			results.add(result);
+		}
+		return results;
+	}
+
+	private StepResult runStep(int threads, Statistics statistics) throws InterruptedException {
+		Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+		Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+		StepResult result = new StepResult(threads);
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new Recorder(3));
+			errors.put(operation, new LongAdder());
+		}
+		LongAdder threadsInTransaction = new LongAdder();
+		long openSessionsBefore = statistics.getSessionOpenCount() - statistics.getSessionCloseCount();
+		LeakDetector leakDetector = LeakDetector.getInstance();
+		long leakedTransactionsBefore = leakDetector.getLeakedTransactions();
+
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.SECONDS.toNanos(scenario.getDurationSeconds());
+		List<Thread> workerThreads = new CopyOnWriteArrayList<>();
+		ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable);
+			workerThreads.add(thread);
+			return thread;
+		});
+		List<Future<?>> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			workers.add(pool.submit(() -> work(deadline, recorders, errors, threadsInTransaction)));
+		}
+		pool.shutdown();
+
+		long interval = TimeUnit.SECONDS.toMillis(scenario.getReportIntervalSeconds());
+		while (!pool.awaitTermination(interval, TimeUnit.MILLISECONDS)) {
+			StringBuilder report = new StringBuilder();
+			for (Operation operation : Operation.values()) {
+				Histogram histogram = recorders.get(operation).getIntervalHistogram();
+				result.histograms.get(operation).add(histogram);
+				report.append(System.lineSeparator()).append(format(operation, histogram, interval * 1_000_000L, 0));
+			}
+			LOG.info("{0} threads, {1} s elapsed:{2}", threads, (System.nanoTime() - start) / 1_000_000_000L, report);
+		}
+		for (Future<?> worker : workers) {
+			try {
+				worker.get();
+			} catch (Exception e) {
+				LOG.error("Load worker failed", e);
+			}
+		}
+		for (Operation operation : Operation.values()) {
+			result.histograms.get(operation).add(recorders.get(operation).getIntervalHistogram());
+			result.errors.put(operation, errors.get(operation).sum());
+		}
+		result.durationNanos = System.nanoTime() - start;
+		// transactions of ended threads are reported by the next check
+		for (Thread thread : workerThreads) {
+			thread.join();
+		}
+		leakDetector.check();
+		result.leakedSessions = statistics.getSessionOpenCount() - statistics.getSessionCloseCount() - openSessionsBefore;
+		result.leakedTransactions = leakDetector.getLeakedTransactions() - leakedTransactionsBefore;
+		result.threadsInTransaction = threadsInTransaction.sum();
+		return result;
+	}
+
+	private void work(long deadline, Map<Operation, Recorder> recorders, Map<Operation, LongAdder> errors, LongAdder threadsInTransaction) {
+		Random random = ThreadLocalRandom.current();
+		int totalRatio = scenario.getTotalRatio();
+		try (IvyStub stub = IvyStub.start(USER_NAME)) {
+			while (System.nanoTime() < deadline) {
+				Operation operation = scenario.pick(random.nextInt(totalRatio));
+				long start = System.nanoTime();
+				try {
+					execute(operation, random);
+					recorders.get(operation).recordValue((System.nanoTime() - start) / NANOS_PER_MICRO);
+				} catch (RuntimeException | TransactionRolledbackException e) {
+					errors.get(operation).increment();
+					LOG.debug("{0} failed", e, operation);
+				}
+			}
+			if (personDAO.isTransactionActive()) {
+				threadsInTransaction.increment();
+			}
+		}
+	}
+
+	private void execute(Operation operation, Random random) throws TransactionRolledbackException {
+		switch (operation) {
+		case READ:
+			personDAO.findById(randomPersonId(random));
+			break;
+		case SEARCH:
+			SearchFilter filter = new SearchFilter()
+			.add(PersonSearchField.ID)
+			.add(PersonSearchField.LAST_NAME, SyntheticDataGenerator.lastName(random))
+			.add(PersonSearchField.DEPARTMENT_NAME, randomDepartment(random).getName());
+			personDAO.findBySearchFilter(filter, SEARCH_SETTINGS);
+			personDAO.countBySearchFilter(filter, COUNT_SETTINGS);
+			break;
+		case SAVE:
+			personDAO.save(SyntheticDataGenerator.newPerson(random, nextPersonIndex.getAndIncrement(), randomDepartment(random)));
+			break;
+		case DELETE:
+			Person person = personDAO.findById(randomPersonId(random));
+			if (person != null && !person.isDeleted()) {
+				personDAO.delete(person);
+			}
+			break;
+		}
+	}
+
+	private String randomPersonId(Random random) {
+		return personIds.get(random.nextInt(personIds.size()));
+	}
+
+	private Department randomDepartment(Random random) {
+		return departments.get(random.nextInt(departments.size()));
+	}
+
+	private static String format(Operation operation, Histogram histogram, long durationNanos, long errors) {
+		long count = histogram.getTotalCount();
+		return String.format("  %-6s %10d ops %10.1f ops/s  p50 %8.2f ms  p90 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  max %8.2f ms  errors %d",
+				operation, count, count * 1e9 / Math.max(1, durationNanos),
+				millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+				millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+				millis(histogram.getMaxValue()), errors);
+	}
+
+	private static double millis(long micros) {
+		return micros / 1000.0;
+	}
+
+	/**
+	 * Result of running the scenario with a number of threads.
+	 */
+	public static class StepResult {
+		private final int threads;
+		private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+		private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+		private long durationNanos;
+		private long leakedSessions;
+		private long leakedTransactions;
+		private long threadsInTransaction;
+
+		private StepResult(int threads) {
+			this.threads = threads;
+			for (Operation operation : Operation.values()) {
+				histograms.put(operation, new Histogram(3));
+			}
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		/**
+		 * Get the latencies of an operation.
+		 *
+		 * @param operation operation
+		 * @return histogram of latencies in microseconds
+		 */
+		public Histogram getHistogram(Operation operation) {
+			return histograms.get(operation);
+		}
+
+		public long getErrors(Operation operation) {
+			return errors.getOrDefault(operation, 0L);
+		}
+
+		/**
+		 * Get the throughput of all operations.
+		 *
+		 * @return operations per second
+		 */
+		public double getThroughput() {
+			return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum() * 1e9 / Math.max(1, durationNanos);
+		}
+
+		/**
+		 * Get the number of Hibernate sessions opened and not closed during this step.
+		 *
+		 * @return number of sessions
+		 */
+		public long getLeakedSessions() {
+			return leakedSessions;
+		}
+
+		/**
+		 * Get the number of transactions reported as leaked by the {@link LeakDetector} during this step.
+		 *
+		 * @return number of transactions
+		 */
+		public long getLeakedTransactions() {
+			return leakedTransactions;
+		}
+
+		/**
+		 * Get the number of worker threads which ended inside a transaction.
+		 *
+		 * @return number of threads
+		 */
+		public long getThreadsInTransaction() {
+			return threadsInTransaction;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder result = new StringBuilder(String.format("%d threads, %d s, %.1f ops/s", threads,
+					durationNanos / 1_000_000_000L, getThroughput()));
+			for (Operation operation : Operation.values()) {
+				result.append(System.lineSeparator()).append(format(operation, histograms.get(operation), durationNanos, getErrors(operation)));
+			}
+			result.append(System.lineSeparator()).append(String.format("  leaked sessions %d, leaked transactions %d, threads ended in transaction %d",
+					leakedSessions, leakedTransactions, threadsInTransaction));
+			return result.toString();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.axonivy.utils.persistence.bench.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.axonivy.utils.persistence.bench.load.LoadRunner.StepResult;
+
+/**
+ * Run the load scenario as part of the build.
+ *
+ * <p>
+ * The load test only runs, if the system property <code>load</code> is set, e.g.
+ * <code>mvn verify -Dload -Dload.threads=1,16,64 -Dload.persons=1000000</code>. For a soak test set a long
+ * duration per step, e.g. <code>-Dload.threads=32 -Dload.duration=14400</code>. See {@link LoadScenario}
+ * for all properties.
+ * </p>
+ */
+public class LoadRunnerTest {
+	public static final String PROPERTY = "load";
+
+	@Test
+	@EnabledIfSystemProperty(named = PROPERTY, matches = ".*")
+	public void runLoad() throws Exception {
+		List<StepResult> results = new LoadRunner(LoadScenario.fromSystemProperties()).run();
+
+		for (StepResult result : results) {
+			assertThat(result.getLeakedSessions()).as("leaked sessions with %d threads", result.getThreads()).isZero();
+			assertThat(result.getLeakedTransactions()).as("leaked transactions with %d threads", result.getThreads()).isZero();
+			assertThat(result.getThreadsInTransaction()).as("threads ended in transaction with %d threads", result.getThreads()).isZero();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		new LoadRunner(LoadScenario.fromSystemProperties()).run();
+	}
+}
@@ -0,0 +1,209 @@
+package com.axonivy.utils.persistence.bench.load;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration of a load or soak run.
+ *
+ * <p>
+ * All values can be set by system properties, e.g.
+ * <code>-Dload.threads=1,8,64 -Dload.duration=3600 -Dload.mix=read:60,search:25,save:10,delete:5</code>.
+ * </p>
+ */
+public class LoadScenario {
+	public static final String PREFIX = "load.";
+
+	/**
+	 * Operations of a scenario.
+	 */
+	public enum Operation {
+		/** find a person by id */
+		READ,
+		/** find and count persons by search filter */
+		SEARCH,
+		/** save a new person */
+		SAVE,
+		/** soft delete a person */
+		DELETE
+	}
+
+	private int[] threads = {1, 2, 4, 8, 16, 32, 64};
+	private long durationSeconds = 60;
+	private long reportIntervalSeconds = 10;
+	private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+	private int departments = 100;
+	private long persons = 100_000;
+	private int producers = 1_000;
+	private int meanProducts = 20;
+	private long seed = 42;
+
+	public LoadScenario() {
+		mix.put(Operation.READ, 60);
+		mix.put(Operation.SEARCH, 25);
+		mix.put(Operation.SAVE, 10);
+		mix.put(Operation.DELETE, 5);
+	}
+
+	/**
+	 * Create a scenario from <code>load.*</code> system properties, using defaults for missing ones.
+	 *
+	 * @return scenario
+	 */
+	public static LoadScenario fromSystemProperties() {
+		LoadScenario scenario = new LoadScenario();
+		String value = property("threads");
+		if (value != null) {
+			scenario.setThreads(Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray());
+		}
+		value = property("duration");
+		if (value != null) {
+			scenario.setDurationSeconds(Long.parseLong(value));
+		}
+		value = property("report");
+		if (value != null) {
+			scenario.setReportIntervalSeconds(Long.parseLong(value));
+		}
+		value = property("mix");
+		if (value != null) {
+			scenario.mix.clear();
+			for (String part : value.split(",")) {
+				String[] ratio = part.split(":");
+				scenario.setRatio(Operation.valueOf(ratio[0].trim().toUpperCase()), Integer.parseInt(ratio[1].trim()));
+			}
+		}
+		value = property("departments");
+		if (value != null) {
+			scenario.setDepartments(Integer.parseInt(value));
+		}
+		value = property("persons");
+		if (value != null) {
+			scenario.setPersons(Long.parseLong(value));
+		}
+		value = property("producers");
+		if (value != null) {
+			scenario.setProducers(Integer.parseInt(value));
+		}
+		value = property("products");
+		if (value != null) {
+			scenario.setMeanProducts(Integer.parseInt(value));
+		}
+		value = property("seed");
+		if (value != null) {
+			scenario.setSeed(Long.parseLong(value));
+		}
+		return scenario;
+	}
+
+	private static String property(String name) {
+		String value = System.getProperty(PREFIX + name);
+		return value == null || value.isBlank() ? null : value.trim();
+	}
+
+	/**
+	 * Pick an operation according to the mix.
+	 *
+	 * @param value random value between 0 (inclusive) and {@link #getTotalRatio()} (exclusive)
+	 * @return operation
+	 */
+	public Operation pick(int value) {
+		int sum = 0;
+		Operation last = null;
+		for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+			sum += entry.getValue();
+			last = entry.getKey();
+			if (value < sum) {
+				break;
+			}
+		}
+		return last;
+	}
+
+	/**
+	 * Get the sum of all ratios of the mix.
+	 *
+	 * @return sum
+	 */
+	public int getTotalRatio() {
+		return mix.values().stream().mapToInt(Integer::intValue).sum();
+	}
+
+	public int[] getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int... threads) {
+		this.threads = threads;
+	}
+
+	public long getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public void setDurationSeconds(long durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+
+	public long getReportIntervalSeconds() {
+		return reportIntervalSeconds;
+	}
+
+	public void setReportIntervalSeconds(long reportIntervalSeconds) {
+		this.reportIntervalSeconds = reportIntervalSeconds;
+	}
+
+	public Map<Operation, Integer> getMix() {
+		return mix;
+	}
+
+	public void setRatio(Operation operation, int ratio) {
+		mix.put(operation, ratio);
+	}
+
+	public int getDepartments() {
+		return departments;
+	}
+
+	public void setDepartments(int departments) {
+		this.departments = departments;
+	}
+
+	public long getPersons() {
+		return persons;
+	}
+
+	public void setPersons(long persons) {
+		this.persons = persons;
+	}
+
+	public int getProducers() {
+		return producers;
+	}
+
+	public void setProducers(int producers) {
+		this.producers = producers;
+	}
+
+	public int getMeanProducts() {
+		return meanProducts;
+	}
+
+	public void setMeanProducts(int meanProducts) {
+		this.meanProducts = meanProducts;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("LoadScenario [threads=%s, duration=%ds, mix=%s, departments=%d, persons=%d, producers=%d, seed=%d]",
+				Arrays.toString(threads), durationSeconds, mix, departments, persons, producers, seed);
+	}
+}
@@ -0,0 +1,237 @@
+package com.axonivy.utils.persistence.bench.load;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import javax.transaction.TransactionRolledbackException;
+
+import com.axonivy.utils.persistence.daos.DepartmentDAO;
+import com.axonivy.utils.persistence.daos.PersonDAO;
+import com.axonivy.utils.persistence.daos.ProducerDAO;
+import com.axonivy.utils.persistence.entities.Department;
+import com.axonivy.utils.persistence.entities.Person;
+import com.axonivy.utils.persistence.entities.Producer;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.enums.MaritalStatus;
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Generator of synthetic test data with realistic distributions.
+ *
+ * <ul>
+ * <li>department sizes follow a Zipf distribution, a few departments are large, most are small</li>
+ * <li>ages are normally distributed around 42 years between 18 and 67</li>
+ * <li>salaries are log-normally distributed around a median of 70000</li>
+ * <li>marital status is weighted, most persons are single or married</li>
+ * <li>products per producer are exponentially distributed</li>
+ * </ul>
+ *
+ * <p>
+ * Data is saved in batches, so millions of rows can be generated without keeping them in memory. Only a
+ * sample of the person ids is kept to be used by load scenarios.
+ * </p>
+ */
+public class SyntheticDataGenerator {
+	private static final Logger LOG = Logger.getLogger(SyntheticDataGenerator.class);
+
+	private static final String[] FIRST_NAMES = {
+			"Anna", "Ben", "Chiara", "David", "Elena", "Felix", "Giulia", "Hans", "Ines", "Jonas",
+			"Katrin", "Lukas", "Maria", "Nico", "Olivia", "Peter", "Rita", "Stefan", "Tanja", "Urs"
+	};
+	private static final String[] LAST_NAMES = {
+			"Mueller", "Meier", "Schmid", "Keller", "Weber", "Huber", "Schneider", "Meyer", "Steiner", "Fischer",
+			"Gerber", "Brunner", "Baumann", "Frei", "Zimmermann", "Moser", "Widmer", "Wyss", "Graf", "Roth"
+	};
+	private static final MaritalStatus[] MARITAL_STATUS = MaritalStatus.values();
+	private static final double[] MARITAL_STATUS_WEIGHTS = cumulative(
+			// SINGLE, MARRIED, WIDOWED, DIVORCED, PARTNERSHIP, PARTNER_PASSED_AWAY, PARTNERSHIP_CANCELED
+			40, 45, 3, 9, 2, 0.5, 0.5);
+
+	private static final int BATCH_SIZE = 1000;
+	private static final int ID_SAMPLE_SIZE = 100_000;
+
+	private final DepartmentDAO departmentDAO = DepartmentDAO.getInstance();
+	private final PersonDAO personDAO = PersonDAO.getInstance();
+	private final ProducerDAO producerDAO = new ProducerDAO();
+
+	private final Random random;
+	private final List<Department> departments = new ArrayList<>();
+	private final List<String> personIds = new ArrayList<>();
+	private long personsSeen;
+
+	/**
+	 * Create a generator.
+	 *
+	 * @param seed seed of the random numbers, the same seed generates the same data
+	 */
+	public SyntheticDataGenerator(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Generate and save departments with persons and producers with products.
+	 *
+	 * @param departmentCount number of departments
+	 * @param personCount number of persons
+	 * @param producerCount number of producers
+	 * @param meanProductsPerProducer mean number of products of a producer
+	 * @throws TransactionRolledbackException
+	 */
+	public void generate(int departmentCount, long personCount, int producerCount, int meanProductsPerProducer) throws TransactionRolledbackException {
+		long start = System.nanoTime();
+		generateDepartments(departmentCount);
+		generatePersons(personCount);
+		long products = generateProducers(producerCount, meanProductsPerProducer);
+		LOG.info("Generated {0} departments, {1} persons, {2} producers and {3} products in {4} s",
+				departmentCount, personCount, producerCount, products, (System.nanoTime() - start) / 1_000_000_000L);
+	}
+
+	private void generateDepartments(int count) {
+		for (int i = 0; i < count; i++) {
+			Department department = new Department();
+			department.setName(String.format("department %05d", i));
+			departments.add(departmentDAO.save(department));
+		}
+	}
+
+	private void generatePersons(long count) throws TransactionRolledbackException {
+		double[] departmentWeights = zipf(departments.size());
+		List<Person> batch = new ArrayList<>(BATCH_SIZE);
+		for (long i = 0; i < count; i++) {
+			batch.add(newPerson(random, i, departments.get(pick(random, departmentWeights))));
+			if (batch.size() == BATCH_SIZE || i == count - 1) {
+				for (Person person : personDAO.saveAll(batch)) {
+					sampleId(person.getId());
+				}
+				batch.clear();
+			}
+			if (i > 0 && i % 100_000 == 0) {
+				LOG.info("Generated {0} of {1} persons", i, count);
+			}
+		}
+	}
+
+	private long generateProducers(int count, int meanProducts) throws TransactionRolledbackException {
+		long products = 0;
+		List<Producer> batch = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Producer producer = new Producer();
+			producer.setName("producer " + i);
+			int productCount = 1 + (int) (-Math.log(1 - random.nextDouble()) * (meanProducts - 1));
+			Set<Product> set = new LinkedHashSet<>();
+			for (int p = 0; p < productCount; p++) {
+				Product product = new Product();
+				product.setName("product " + i + "-" + p);
+				product.setPrice(Math.round(Math.exp(Math.log(50) + random.nextGaussian()) * 100) / 100.0);
+				product.setProducer(producer);
+				set.add(product);
+			}
+			producer.setProducts(set);
+			products += productCount;
+			batch.add(producer);
+			if (batch.size() * meanProducts >= BATCH_SIZE || i == count - 1) {
+				producerDAO.saveAll(batch);
+				batch.clear();
+			}
+		}
+		return products;
+	}
+
+	/**
+	 * Create a new person, which is not saved.
+	 *
+	 * @param random random numbers
+	 * @param index unique index of the person, used for the unique Ivy user name
+	 * @param department department
+	 * @return person
+	 */
+	public static Person newPerson(Random random, long index, Department department) {
+		Person person = new Person();
+		person.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+		person.setLastName(lastName(random));
+		person.setIvyUserName("user" + index);
+		person.setDepartment(department);
+		double age = Math.max(18, Math.min(67, 42 + 11 * random.nextGaussian()));
+		person.setBirthdate(Date.valueOf(LocalDate.now().minusDays((long) (age * 365.25))));
+		double salary = Math.exp(Math.log(70_000) + 0.35 * random.nextGaussian());
+		person.setSalary(BigDecimal.valueOf(salary).setScale(2, RoundingMode.HALF_UP));
+		person.setMaritalStatus(MARITAL_STATUS[pick(random, MARITAL_STATUS_WEIGHTS)]);
+		return person;
+	}
+
+	/**
+	 * Pick one of the generated last names.
+	 *
+	 * @param random random numbers
+	 * @return last name
+	 */
+	public static String lastName(Random random) {
+		return LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+	}
+
+	/**
+	 * Keep a uniform sample of all ids (reservoir sampling).
+	 */
+	private void sampleId(String id) {
+		personsSeen++;
+		if (personIds.size() < ID_SAMPLE_SIZE) {
+			personIds.add(id);
+		} else {
+			long slot = (long) (random.nextDouble() * personsSeen);
+			if (slot < ID_SAMPLE_SIZE) {
+				personIds.set((int) slot, id);
+			}
+		}
+	}
+
+	private static int pick(Random random, double[] cumulativeWeights) {
+		double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+		int index = Arrays.binarySearch(cumulativeWeights, value);
+		return Math.min(index < 0 ? -index - 1 : index, cumulativeWeights.length - 1);
+	}
+
+	private static double[] zipf(int count) {
+		double[] weights = new double[count];
+		for (int i = 0; i < count; i++) {
+			weights[i] = 1.0 / (i + 1);
+		}
+		return cumulative(weights);
+	}
+
+	private static double[] cumulative(double... weights) {
+		double[] result = new double[weights.length];
+		double sum = 0;
+		for (int i = 0; i < weights.length; i++) {
+			sum += weights[i];
+			result[i] = sum;
+		}
+		return result;
+	}
+
+	/**
+	 * Get the generated departments.
+	 *
+	 * @return departments
+	 */
+	public List<Department> getDepartments() {
+		return Collections.unmodifiableList(departments);
+	}
+
+	/**
+	 * Get a uniform sample of the ids of the generated persons.
+	 *
+	 * @return ids
+	 */
+	public List<String> getPersonIds() {
+		return Collections.unmodifiableList(personIds);
+	}
+}
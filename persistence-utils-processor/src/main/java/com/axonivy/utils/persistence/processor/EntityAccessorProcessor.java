@@ -0,0 +1,348 @@
+package com.axonivy.utils.persistence.processor;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generate an <code>&lt;Entity&gt;_Accessor</code> for every entity and embeddable class.
+ *
+ * <p>
+ * The generated classes extend <code>com.axonivy.utils.persistence.accessor.EntityAccessor</code> and
+ * read and write properties by plain getter and setter calls, so
+ * <code>ReflectionUtilitities</code> does not need reflection for them. The processor reads annotations
+ * by name only and therefore needs no dependencies.
+ * </p>
+ */
+@SupportedAnnotationTypes({ EntityAccessorProcessor.ENTITY, EntityAccessorProcessor.EMBEDDABLE })
+public class EntityAccessorProcessor extends AbstractProcessor {
+	static final String ENTITY = "javax.persistence.Entity";
+	static final String EMBEDDABLE = "javax.persistence.Embeddable";
+
+	private static final String COLUMN = "javax.persistence.Column";
+	private static final String EMBEDDED = "javax.persistence.Embedded";
+	private static final String EMBEDDED_ID = "javax.persistence.EmbeddedId";
+	private static final String ACCESSOR = "com.axonivy.utils.persistence.accessor.EntityAccessor";
+	private static final String SUFFIX = "_Accessor";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+				if (isSupported(type)) {
+					try {
+						generate(type);
+					} catch (IOException e) {
+						processingEnv.getMessager().printMessage(Kind.ERROR, "Could not generate accessor: " + e, type);
+					}
+				}
+			}
+		}
+		// other processors (e.g. the JPA metamodel generator) need the same annotations
+		return false;
+	}
+
+	private boolean isSupported(TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		return type.getKind() == ElementKind.CLASS && type.getNestingKind() == NestingKind.TOP_LEVEL
+				&& modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.ABSTRACT)
+				&& type.getTypeParameters().isEmpty();
+	}
+
+	private void generate(TypeElement type) throws IOException {
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String simpleName = type.getSimpleName() + SUFFIX;
+		String entity = type.getQualifiedName().toString();
+
+		Map<String, VariableElement> fields = collectFields(type);
+		Map<String, ExecutableElement> getters = new LinkedHashMap<>();
+		Map<String, ExecutableElement> setters = new LinkedHashMap<>();
+		collectProperties(type, getters, setters);
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(entity + SUFFIX, type);
+		try (PrintWriter out = new PrintWriter(file.openWriter())) {
+			if (!packageName.isEmpty()) {
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Generated accessor of {@link " + entity + "}, do not edit.");
+			out.println(" */");
+			out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+			out.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+			out.println("public class " + simpleName + " extends " + ACCESSOR + "<" + entity + "> {");
+			out.println();
+			out.println("\tpublic " + simpleName + "() {");
+			out.println("\t\tsuper(" + entity + ".class);");
+			out.println("\t}");
+
+			// field maps
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic java.util.Map<String, java.lang.reflect.Field> createFieldMap() {");
+			out.println("\t\tjava.util.Map<String, java.lang.reflect.Field> map = new java.util.HashMap<>();");
+			for (VariableElement field : fields.values()) {
+				out.println("\t\tmap.put(\"" + field.getSimpleName() + "\", " + fieldLookup(entity, field) + ");");
+			}
+			out.println("\t\treturn map;");
+			out.println("\t}");
+
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic java.util.Map<String, java.lang.reflect.Field> createColumnFieldMap() {");
+			out.println("\t\tjava.util.Map<String, java.lang.reflect.Field> map = new java.util.HashMap<>();");
+			for (VariableElement field : fields.values()) {
+				AnnotationMirror column = annotation(field, COLUMN);
+				if (column != null) {
+					out.println("\t\tmap.put(" + literal(columnName(column)) + ", " + fieldLookup(entity, field) + ");");
+				} else if (annotation(field, EMBEDDED) != null || annotation(field, EMBEDDED_ID) != null) {
+					out.println("\t\tmap.putAll(com.axonivy.utils.persistence.ReflectionUtilitities.getColumnFieldMap("
+							+ erasure(field.asType()) + ".class));");
+				}
+			}
+			out.println("\t\treturn map;");
+			out.println("\t}");
+
+			// getters
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic Object getValue(" + entity + " entity, String property) {");
+			out.println("\t\tswitch (property) {");
+			for (Entry<String, ExecutableElement> getter : getters.entrySet()) {
+				out.println("\t\tcase " + literal(getter.getKey()) + ":");
+				out.println("\t\t\treturn entity." + getter.getValue().getSimpleName() + "();");
+			}
+			out.println("\t\tdefault:");
+			out.println("\t\t\treturn UNKNOWN;");
+			out.println("\t\t}");
+			out.println("\t}");
+
+			// setters
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic boolean setValue(" + entity + " entity, String property, Object value) {");
+			out.println("\t\tswitch (property) {");
+			for (Entry<String, ExecutableElement> setter : setters.entrySet()) {
+				out.println("\t\tcase " + literal(setter.getKey()) + ":");
+				out.println("\t\t\tentity." + setter.getValue().getSimpleName() + "((" + boxed(parameterType(type, setter.getValue())) + ") value);");
+				out.println("\t\t\treturn true;");
+			}
+			out.println("\t\tdefault:");
+			out.println("\t\t\treturn false;");
+			out.println("\t\t}");
+			out.println("\t}");
+
+			// copy
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic void copyProperties(" + entity + " target, " + entity + " source) {");
+			for (Entry<String, ExecutableElement> setter : setters.entrySet()) {
+				ExecutableElement getter = getters.get(setter.getKey());
+				if (getter != null && processingEnv.getTypeUtils().isSameType(
+						processingEnv.getTypeUtils().erasure(returnType(type, getter)),
+						processingEnv.getTypeUtils().erasure(parameterType(type, setter.getValue())))) {
+					out.println("\t\ttarget." + setter.getValue().getSimpleName() + "(source." + getter.getSimpleName() + "());");
+				}
+			}
+			out.println("\t}");
+
+			out.println("}");
+		}
+	}
+
+	/**
+	 * Collect the most specific versions of all fields, like <code>ReflectionUtilitities.getFieldMap</code>.
+	 */
+	private Map<String, VariableElement> collectFields(TypeElement type) {
+		Map<String, VariableElement> fields = new LinkedHashMap<>();
+		for (TypeElement current = type; current != null; current = superclass(current)) {
+			for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				fields.putIfAbsent(field.getSimpleName().toString(), field);
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * Collect public getters and setters by property name, preferring methods of sub classes.
+	 */
+	private void collectProperties(TypeElement type, Map<String, ExecutableElement> getters, Map<String, ExecutableElement> setters) {
+		Set<String> seen = new HashSet<>();
+		for (TypeElement current = type; current != null; current = superclass(current)) {
+			for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+				Set<Modifier> modifiers = method.getModifiers();
+				if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)
+						|| !seen.add(signature(method))) {
+					continue;
+				}
+				String name = method.getSimpleName().toString();
+				if (method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID) {
+					if (name.startsWith("get") && name.length() > 3) {
+						getters.putIfAbsent(Introspector.decapitalize(name.substring(3)), method);
+					} else if (name.startsWith("is") && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+						// like the bean introspector, prefer isX over getX for boolean
+						getters.put(Introspector.decapitalize(name.substring(2)), method);
+					}
+				} else if (method.getParameters().size() == 1 && method.getReturnType().getKind() == TypeKind.VOID
+						&& name.startsWith("set") && name.length() > 3) {
+					setters.putIfAbsent(Introspector.decapitalize(name.substring(3)), method);
+				}
+			}
+		}
+
+		// prefer setters matching the type of the getter
+		for (Entry<String, ExecutableElement> setter : new ArrayList<>(setters.entrySet())) {
+			ExecutableElement getter = getters.get(setter.getKey());
+			if (getter == null) {
+				continue;
+			}
+			TypeMirror getterType = processingEnv.getTypeUtils().erasure(returnType(type, getter));
+			for (ExecutableElement candidate : setterCandidates(type, setter.getValue().getSimpleName().toString())) {
+				if (processingEnv.getTypeUtils().isSameType(getterType, processingEnv.getTypeUtils().erasure(parameterType(type, candidate)))) {
+					setters.put(setter.getKey(), candidate);
+					break;
+				}
+			}
+		}
+	}
+
+	private String signature(ExecutableElement method) {
+		StringBuilder result = new StringBuilder(method.getSimpleName()).append('(');
+		for (VariableElement parameter : method.getParameters()) {
+			result.append(processingEnv.getTypeUtils().erasure(parameter.asType())).append(',');
+		}
+		return result.append(')').toString();
+	}
+
+	private List<ExecutableElement> setterCandidates(TypeElement type, String name) {
+		List<ExecutableElement> result = new ArrayList<>();
+		for (TypeElement current = type; current != null; current = superclass(current)) {
+			for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+				if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1
+						&& method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC)) {
+					result.add(method);
+				}
+			}
+		}
+		return result;
+	}
+
+	private TypeElement superclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+		return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+	}
+
+	private TypeMirror returnType(TypeElement type, ExecutableElement method) {
+		return memberType(type, method).getReturnType();
+	}
+
+	private TypeMirror parameterType(TypeElement type, ExecutableElement method) {
+		return memberType(type, method).getParameterTypes().get(0);
+	}
+
+	/**
+	 * Type of a method with type variables of generic super classes resolved.
+	 */
+	private ExecutableType memberType(TypeElement type, ExecutableElement method) {
+		return (ExecutableType) processingEnv.getTypeUtils().asMemberOf((DeclaredType) type.asType(), method);
+	}
+
+	private String fieldLookup(String entity, VariableElement field) {
+		TypeElement declaring = (TypeElement) field.getEnclosingElement();
+		return "field(" + entity + ".class, " + literal(processingEnv.getElementUtils().getBinaryName(declaring).toString())
+		+ ", " + literal(field.getSimpleName().toString()) + ")";
+	}
+
+	private String boxed(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+		return erasure(type);
+	}
+
+	private String erasure(TypeMirror type) {
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		if (erasure.getKind() == TypeKind.DECLARED) {
+			Element element = ((DeclaredType) erasure).asElement();
+			if (element instanceof TypeElement) {
+				return ((TypeElement) element).getQualifiedName().toString();
+			}
+		}
+		return erasure.toString();
+	}
+
+	private static AnnotationMirror annotation(Element element, String name) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			Element annotationType = mirror.getAnnotationType().asElement();
+			if (annotationType instanceof TypeElement && ((TypeElement) annotationType).getQualifiedName().contentEquals(name)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	private static String columnName(AnnotationMirror column) {
+		for (Entry<? extends ExecutableElement, ? extends AnnotationValue> value : column.getElementValues().entrySet()) {
+			if (value.getKey().getSimpleName().contentEquals("name")) {
+				return String.valueOf(value.getValue().getValue());
+			}
+		}
+		return "";
+	}
+
+	private static String literal(String value) {
+		StringBuilder result = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			switch (c) {
+			case '"':
+				result.append("\\\"");
+				break;
+			case '\\':
+				result.append("\\\\");
+				break;
+			default:
+				result.append(c);
+				break;
+			}
+		}
+		return result.append('"').toString();
+	}
+}
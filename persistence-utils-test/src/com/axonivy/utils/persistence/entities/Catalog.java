@@ -0,0 +1,70 @@
+package com.axonivy.utils.persistence.entities;
+
+import java.util.Set;
+import java.util.SortedSet;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.JoinTable;
+import javax.persistence.ManyToMany;
+import javax.persistence.Table;
+
+import com.axonivy.utils.persistence.beans.AuditableEntity;
+
+@Entity
+@Table(name = "catalog")
+public class Catalog extends AuditableEntity {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	@Column
+	private String name;
+
+	@ManyToMany(cascade = CascadeType.ALL)
+	@JoinTable(name = "catalog_label")
+	private SortedSet<Label> labels;
+
+	@ManyToMany
+	@JoinTable(name = "catalog_pinned_label")
+	private Set<Label> pinnedLabels;
+
+	@ManyToMany
+	@JoinTable(name = "catalog_product")
+	private Set<Product> products;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public SortedSet<Label> getLabels() {
+		return labels;
+	}
+
+	public void setLabels(SortedSet<Label> labels) {
+		this.labels = labels;
+	}
+
+	public Set<Label> getPinnedLabels() {
+		return pinnedLabels;
+	}
+
+	public void setPinnedLabels(Set<Label> pinnedLabels) {
+		this.pinnedLabels = pinnedLabels;
+	}
+
+	public Set<Product> getProducts() {
+		return products;
+	}
+
+	public void setProducts(Set<Product> products) {
+		this.products = products;
+	}
+}
@@ -8,7 +8,7 @@ import com.axonivy.utils.persistence.beans.AuditableEntity;
 import com.axonivy.utils.persistence.daos.AuditHandler;
 
 @Entity
-@Audit(handler = AuditHandler.class)
+@Audit(handler = AuditHandler.class, indexedAttributes = { "firstName", "lastName" })
 public class HistorizedPerson extends AuditableEntity {
 
 	/**
@@ -0,0 +1,33 @@
+package com.axonivy.utils.persistence.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import com.axonivy.utils.persistence.beans.AuditableEntity;
+
+@Entity
+@Table(name = "product_label")
+public class Label extends AuditableEntity implements Comparable<Label> {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	@Column
+	private String name;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public int compareTo(Label other) {
+		return name.compareTo(other.name);
+	}
+}
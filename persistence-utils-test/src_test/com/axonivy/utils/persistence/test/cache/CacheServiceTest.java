@@ -0,0 +1,87 @@
+package com.axonivy.utils.persistence.test.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.cache.AbstractCache;
+import com.axonivy.utils.persistence.cache.CacheService;
+import com.axonivy.utils.persistence.cache.CacheStatistics;
+import com.axonivy.utils.persistence.management.MBeanRegistry;
+
+
+public class CacheServiceTest {
+
+	public static class CountingCache extends AbstractCache {
+		private int builds = 0;
+
+		@Override
+		public boolean build() {
+			builds++;
+			return true;
+		}
+
+		@Override
+		public long getEntryCount() {
+			return builds;
+		}
+	}
+
+	@Test
+	public void testStatistics() {
+		CountingCache cache = CacheService.getInstance().registerLongTermCache(new CountingCache());
+		cache.getStatistics().reset();
+
+		cache.validate();
+		cache.validate();
+		cache.validate();
+		cache.invalidate();
+		cache.validate();
+
+		CacheStatistics statistics = CacheService.getInstance().getStatistics(cache.getName());
+		assertThat(statistics.getMisses()).as("Misses").isEqualTo(2);
+		assertThat(statistics.getHits()).as("Hits").isEqualTo(2);
+		assertThat(statistics.getBuilds()).as("Builds").isEqualTo(2);
+		assertThat(statistics.getLastBuildTime()).as("Last build").isNotNull();
+		assertThat(statistics.getBuildDurationHistogram().values().stream().mapToLong(Long::longValue).sum())
+		.as("Builds in histogram").isEqualTo(2);
+		assertThat(cache.getHits()).as("Hits since last build").isEqualTo(0);
+
+		statistics.reset();
+		assertThat(statistics.getBuilds()).isEqualTo(0);
+		assertThat(statistics.getLastBuildTime()).as("Last build after reset").isNull();
+		assertThat(statistics.getLastBuildMillis()).isEqualTo(0);
+	}
+
+	@Test
+	public void testSingleCacheOperations() {
+		CountingCache cache = CacheService.getInstance().registerLongTermCache(new CountingCache());
+
+		assertThat(CacheService.getInstance().getCacheNames()).contains(cache.getName());
+		assertThat(CacheService.getInstance().refreshCache(cache.getName())).isTrue();
+		assertThat(cache.isValid()).isTrue();
+		assertThat(CacheService.getInstance().invalidateCache(cache.getName())).isTrue();
+		assertThat(cache.isValid()).isFalse();
+		assertThat(CacheService.getInstance().invalidateCache("unknown")).isFalse();
+	}
+
+	@Test
+	public void testManagementBean() throws Exception {
+		CountingCache cache = CacheService.getInstance().registerLongTermCache(new CountingCache());
+		cache.refresh();
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = MBeanRegistry.objectName("Cache", cache.getName());
+
+		assertThat(server.isRegistered(name)).isTrue();
+		assertThat(server.getAttribute(name, "EntryCount")).isEqualTo(1L);
+
+		server.invoke(name, "invalidate", new Object[0], new String[0]);
+		assertThat(cache.isValid()).isFalse();
+	}
+}
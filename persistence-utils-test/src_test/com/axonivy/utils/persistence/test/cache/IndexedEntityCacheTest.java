@@ -0,0 +1,171 @@
+package com.axonivy.utils.persistence.test.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.Tuple;
+import javax.transaction.TransactionRolledbackException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.cache.IndexedEntityCache;
+import com.axonivy.utils.persistence.dao.CriteriaQueryGenericContext;
+import com.axonivy.utils.persistence.dao.QuerySettings;
+import com.axonivy.utils.persistence.dao.markers.AuditableMarker;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.enums.ProductSearchField;
+import com.axonivy.utils.persistence.search.SearchFilter;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class IndexedEntityCacheTest extends DemoTestBase {
+
+	private static ProductDAO productDAO = new ProductDAO();
+	private List<Product> products;
+	private IndexedEntityCache<Product> cache;
+
+	@BeforeEach
+	public void prepare() throws TransactionRolledbackException {
+		products = productDAO.saveAll(getProducts());
+		cache = new IndexedEntityCache<>(Product.class, productDAO::findAll)
+				.withLike(ProductSearchField.FILTER_NAME_PRODUCT, Product::getName);
+	}
+
+	@AfterEach
+	public void cleanup() {
+		productDAO.deleteAll(products);
+	}
+
+	@Test
+	public void testLikeMatchesDatabase() {
+		for (String value : new String[] { null, "", "%", "Samsung", "%Samsung", "6", "s_", "Iphone 7", "Nokia" }) {
+			SearchFilter searchFilter = new SearchFilter()
+					.add(ProductSearchField.FILTER_NAME_PRODUCT, value)
+					.addSort(ProductSearchField.FILTER_NAME_PRODUCT, true);
+
+			assertThat(names(cache.findTuples(searchFilter, null)))
+			.as("Cached result for ''%s''", value)
+			.isEqualTo(names(productDAO.findBySearchFilter(searchFilter)));
+			assertThat(cache.count(searchFilter))
+			.as("Cached count for ''%s''", value)
+			.isEqualTo(productDAO.countBySearchFilter(searchFilter));
+		}
+	}
+
+	@Test
+	public void testOrderAndPaging() {
+		SearchFilter searchFilter = new SearchFilter()
+				.add(ProductSearchField.FILTER_NAME_PRODUCT)
+				.addSort(ProductSearchField.FILTER_NAME_PRODUCT, false);
+
+		QuerySettings<Product> querySettings = new QuerySettings<Product>().withFirstResult(1).withMaxResults(2);
+
+		assertThat(names(cache.findTuples(searchFilter, querySettings)))
+		.isEqualTo(names(productDAO.findBySearchFilter(searchFilter, querySettings)))
+		.hasSize(2);
+	}
+
+	@Test
+	public void testCanAnswer() {
+		SearchFilter searchFilter = new SearchFilter().add(ProductSearchField.FILTER_NAME_PRODUCT, "Iphone");
+
+		assertThat(cache.canAnswer(searchFilter, null)).isTrue();
+		assertThat(cache.canAnswer(searchFilter, new QuerySettings<Product>().withMaxResults(1))).isTrue();
+		assertThat(cache.canAnswer(searchFilter, new QuerySettings<Product>().withMarkers(AuditableMarker.ALL))).isFalse();
+		assertThat(cache.canAnswer(null, null)).isFalse();
+	}
+
+	@Test
+	public void testInvalidate() {
+		SearchFilter searchFilter = new SearchFilter().add(ProductSearchField.FILTER_NAME_PRODUCT, "Nokia");
+		assertThat(cache.find(searchFilter, null)).isEmpty();
+
+		Product product = new Product();
+		product.setName("Nokia 3310");
+		products.add(productDAO.save(product));
+
+		assertThat(cache.find(searchFilter, null)).as("Stale cache").isEmpty();
+		cache.invalidate();
+		assertThat(cache.find(searchFilter, null)).as("Rebuilt cache").hasSize(1);
+	}
+
+	@Test
+	public void testEstimatedSize() {
+		assertThat(cache.getEstimatedSize()).as("Not built").isEqualTo(-1L);
+		cache.validate();
+		assertThat(cache.getEstimatedSize()).as("Entities and indexes").isGreaterThan(cache.size() * 40L);
+	}
+
+	@Test
+	public void testDaoInvalidatesAfterCommit() throws TransactionRolledbackException {
+		ProductDAO cachedDAO = new ProductDAO() {
+			@Override
+			protected IndexedEntityCache<Product> getIndexedEntityCache() {
+				return cache;
+			}
+		};
+		SearchFilter searchFilter = new SearchFilter().add(ProductSearchField.FILTER_NAME_PRODUCT, "Nokia");
+		assertThat(cachedDAO.countBySearchFilter(searchFilter)).isEqualTo(0);
+		assertThat(cache.getStatistics().getBuilds()).as("Answered by cache").isEqualTo(1);
+
+		IvyEntityManager.getInstance().beginSession();
+		try {
+			cachedDAO.beginTransaction();
+			try {
+				Product product = new Product();
+				product.setName("Nokia 3310");
+				products.add(cachedDAO.save(product));
+				assertThat(cache.isValid()).as("Not invalidated before commit").isTrue();
+			} finally {
+				cachedDAO.commitTransaction();
+			}
+		} finally {
+			IvyEntityManager.getInstance().closeSession();
+		}
+		assertThat(cache.isValid()).as("Invalidated after commit").isFalse();
+		assertThat(cachedDAO.findBySearchFilter(searchFilter)).hasSize(1);
+		assertThat(cache.getStatistics().getBuilds()).isEqualTo(2);
+	}
+
+	@Test
+	public void testDaoWithQueryRestrictionsIgnoresCache() {
+		ProductDAO restrictedDAO = new ProductDAO() {
+			@Override
+			protected IndexedEntityCache<Product> getIndexedEntityCache() {
+				return cache;
+			}
+
+			@Override
+			protected <U> void manipulateCriteriaFactory(CriteriaQueryGenericContext<Product, U> context) {
+				super.manipulateCriteriaFactory(context);
+			}
+		};
+		SearchFilter searchFilter = new SearchFilter().add(ProductSearchField.FILTER_NAME_PRODUCT, "Iphone");
+		assertThat(restrictedDAO.findBySearchFilter(searchFilter)).hasSize(2);
+		assertThat(cache.getStatistics().getBuilds()).as("Not answered by cache").isEqualTo(0);
+	}
+
+	private List<String> names(List<Tuple> tuples) {
+		return tuples.stream().map(t -> t.get(0, String.class)).collect(Collectors.toList());
+	}
+
+	private List<Product> getProducts() {
+		List<Product> result = new ArrayList<>();
+		for (String name : new String[] { "Iphone 7s", "Iphone 6s", "Samsung 6 plus", "Samsung 8 plus", "Pixel 6" }) {
+			Product product = new Product();
+			product.setName(name);
+			result.add(product);
+		}
+		return result;
+	}
+}
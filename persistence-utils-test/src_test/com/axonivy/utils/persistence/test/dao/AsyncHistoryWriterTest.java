@@ -0,0 +1,86 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.daos.HistorizedPersonDAO;
+import com.axonivy.utils.persistence.entities.HistorizedPerson;
+import com.axonivy.utils.persistence.enums.UpdateType;
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.beans.HistoryPK;
+import com.axonivy.utils.persistence.history.dao.HistoryDAO;
+import com.axonivy.utils.persistence.history.writer.AsyncHistoryWriter;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class AsyncHistoryWriterTest extends DemoTestBase {
+	private static final HistorizedPersonDAO DAO = HistorizedPersonDAO.getInstance();
+
+	@BeforeEach
+	public void prepare() throws Exception {
+		switchToSystemUser();
+		prepareTestDataAndMocking(true);
+	}
+
+	@Test
+	public void testBatchedWrite() {
+		String pu = DAO.getPersistenceUnitName();
+		AsyncHistoryWriter writer = AsyncHistoryWriter.getInstance(pu);
+		assertThat(AsyncHistoryWriter.getInstance(pu)).as("One writer per session factory").isSameAs(writer);
+		long written = writer.getWritten() + writer.getWrittenByCaller();
+
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < 1200; i++) {
+			writer.enqueue(history("async-" + (i % 3), now + i));
+		}
+
+		assertThat(writer.flush(30000L)).as("Queue drained").isTrue();
+		assertThat(writer.getPending()).as("No record in progress").isZero();
+		assertThat(writer.getWritten() + writer.getWrittenByCaller() - written).as("All records written").isEqualTo(1200);
+		assertThat(writer.getFailed()).as("No failed records").isZero();
+
+		HistoryDAO historyDAO = new HistoryDAO(pu);
+		List<History> result = historyDAO.findByTypeAndId(HistorizedPerson.class, "async-0");
+		assertThat(result).as("Found history of first entity").hasSize(400);
+		assertThat(result.get(0).getId().getTimestamp()).as("Sorted by timestamp")
+			.isAfter(result.get(1).getId().getTimestamp());
+	}
+
+	@Test
+	public void testFailingRecordDoesNotLoseBatch() {
+		String pu = DAO.getPersistenceUnitName();
+		AsyncHistoryWriter writer = AsyncHistoryWriter.getInstance(pu);
+		long failed = writer.getFailed();
+
+		long now = System.currentTimeMillis();
+		writer.enqueue(history("async-dup", now));
+		writer.enqueue(history("async-dup", now));
+		writer.enqueue(history("async-dup", now + 1));
+		assertThat(writer.flush(30000L)).as("Queue drained").isTrue();
+
+		HistoryDAO historyDAO = new HistoryDAO(pu);
+		assertThat(historyDAO.findByTypeAndId(HistorizedPerson.class, "async-dup")).as("Unique records written").hasSize(2);
+		assertThat(writer.getFailed() - failed).as("Duplicate failed").isEqualTo(1);
+	}
+
+	private static History history(String entityId, long time) {
+		HistoryPK pk = new HistoryPK();
+		pk.setEntityType(HistorizedPerson.class.getName());
+		pk.setEntityId(entityId);
+		pk.setTimestamp(new Timestamp(time));
+		History history = new History();
+		history.setId(pk);
+		history.setUserName("test");
+		history.setUpdateType(UpdateType.UPDATE.name());
+		history.setJsonData("{\"id\":\"" + entityId + "\"}");
+		return history;
+	}
+}
@@ -0,0 +1,114 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.transaction.TransactionRolledbackException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.dao.BatchLoader;
+import com.axonivy.utils.persistence.dao.GenericIdEntityDAO;
+import com.axonivy.utils.persistence.daos.BaseDAO;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.entities.Product_;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class BatchLoaderTest extends DemoTestBase {
+
+	private static ProductDAO productDAO = new ProductDAO();
+	private List<Product> products;
+
+	@BeforeEach
+	public void prepare() throws TransactionRolledbackException {
+		products = new ArrayList<>();
+		for (String name : new String[] { "Iphone 7s", "Iphone 6s", "Samsung 6 plus" }) {
+			Product product = new Product();
+			product.setName(name);
+			products.add(product);
+		}
+		products = productDAO.saveAll(products);
+	}
+
+	@AfterEach
+	public void cleanup() {
+		productDAO.deleteAll(products);
+	}
+
+	@Test
+	public void testSingleQuery() {
+		try (BatchLoader<Product> loader = productDAO.batchLoader()) {
+			List<BatchLoader.Handle<Product>> handles = new ArrayList<>();
+			for (Product product : products) {
+				handles.add(loader.load(product.getId()));
+			}
+			BatchLoader.Handle<Product> unknown = loader.load("unknown");
+
+			assertThat(handles.get(0).isResolved()).as("Lazy").isFalse();
+			for (int i = 0; i < products.size(); i++) {
+				assertThat(handles.get(i).get().getName()).isEqualTo(products.get(i).getName());
+			}
+			assertThat(unknown.get()).as("Not found").isNull();
+			assertThat(loader.getQueries()).as("Queries").isEqualTo(1);
+			assertThat(loader.load(products.get(0).getId())).as("Same handle").isSameAs(handles.get(0));
+		}
+	}
+
+	@Test
+	public void testPersistenceContextFirst() {
+		UnrestrictedProductDAO unrestrictedDAO = new UnrestrictedProductDAO();
+		try (BatchLoader<Product> loader = unrestrictedDAO.batchLoader()) {
+			Product managed = unrestrictedDAO.findById(products.get(0).getId());
+
+			BatchLoader.Handle<Product> handle = loader.load(managed.getId());
+
+			assertThat(handle.isResolved()).as("Resolved from persistence context").isTrue();
+			assertThat(handle.get()).isSameAs(managed);
+			assertThat(loader.getQueries()).isEqualTo(0);
+			assertThat(loader.getFromPersistenceContext()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testRestrictedDaoQueriesManagedEntities() {
+		try (BatchLoader<Product> loader = productDAO.batchLoader()) {
+			Product managed = productDAO.findById(products.get(0).getId());
+
+			BatchLoader.Handle<Product> handle = loader.load(managed.getId());
+
+			assertThat(handle.isResolved()).as("Auditable restriction must be applied").isFalse();
+			assertThat(handle.get()).isSameAs(managed);
+			assertThat(loader.getQueries()).isEqualTo(1);
+			assertThat(loader.getFromPersistenceContext()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	public void testCloseDispatches() {
+		BatchLoader.Handle<Product> handle;
+		try (BatchLoader<Product> loader = productDAO.batchLoader()) {
+			handle = loader.load(products.get(1).getId());
+		}
+		assertThat(handle.toFuture()).isCompleted();
+		assertThat(handle.get().getId()).isEqualTo(products.get(1).getId());
+	}
+
+	/**
+	 * Product DAO without the restrictions of the {@link com.axonivy.utils.persistence.dao.AuditableDAO}.
+	 */
+	private static class UnrestrictedProductDAO extends GenericIdEntityDAO<Product_, Product> implements BaseDAO {
+		@Override
+		protected Class<Product> getType() {
+			return Product.class;
+		}
+	}
+}
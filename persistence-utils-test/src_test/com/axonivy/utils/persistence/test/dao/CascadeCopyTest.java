@@ -0,0 +1,100 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.daos.ProducerDAO;
+import com.axonivy.utils.persistence.entities.Catalog;
+import com.axonivy.utils.persistence.entities.Label;
+import com.axonivy.utils.persistence.entities.Producer;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class CascadeCopyTest extends DemoTestBase {
+	private static final ProducerDAO producerDAO = new ProducerDAO();
+
+	@BeforeEach
+	public void prepare() throws Exception {
+		switchToSystemUser();
+	}
+
+	@Test
+	public void testCascadingOneToMany() {
+		Producer producer = new Producer();
+		Set<Product> products = new LinkedHashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			Product product = new Product();
+			product.setName("product " + i);
+			product.setProducer(producer);
+			products.add(product);
+		}
+		producer.setProducts(products);
+
+		Producer copy = producerDAO.cascadeCopy(producer);
+
+		assertThat(copy).isNotSameAs(producer);
+		assertThat(copy.getProducts()).hasSize(1000);
+		for (Product product : copy.getProducts()) {
+			assertThat(products).as("products are copied").doesNotContain(product);
+			assertThat(product.getProducer()).as("back reference points to the copy").isSameAs(copy);
+		}
+	}
+
+	@Test
+	public void testNonCascadingManyToOne() {
+		Producer producer = new Producer();
+		Product product = new Product();
+		product.setProducer(producer);
+
+		Product copy = producerDAO.cascadeCopy(product);
+
+		assertThat(copy).isNotSameAs(product);
+		assertThat(copy.getProducer()).as("non cascading relation is shared").isSameAs(producer);
+		assertThat(copy.getId()).isNull();
+	}
+
+	@Test
+	public void testManyToMany() {
+		Label label = label("new");
+		Label otherLabel = label("sale");
+		Product product = new Product();
+		product.setName("Iphone 7s");
+
+		Catalog catalog = new Catalog();
+		catalog.setLabels(new TreeSet<>(Set.of(label, otherLabel)));
+		catalog.setPinnedLabels(new LinkedHashSet<>(Set.of(label)));
+		catalog.setProducts(new LinkedHashSet<>(Set.of(product)));
+
+		Catalog copy = producerDAO.cascadeCopy(catalog);
+
+		assertThat(copy.getLabels()).as("cascading relation is copied").isInstanceOf(TreeSet.class)
+		.isNotSameAs(catalog.getLabels()).hasSize(2)
+		.doesNotContain(label, otherLabel)
+		.extracting(Label::getName).containsExactly("new", "sale");
+
+		Label copiedLabel = copy.getLabels().first();
+		assertThat(copy.getPinnedLabels()).as("non cascading relation takes the copy made before")
+		.isInstanceOf(LinkedHashSet.class).isNotSameAs(catalog.getPinnedLabels())
+		.containsExactly(copiedLabel);
+
+		assertThat(copy.getProducts()).as("non cascading relation shares the other side")
+		.isInstanceOf(LinkedHashSet.class).isNotSameAs(catalog.getProducts())
+		.containsExactly(product);
+	}
+
+	private static Label label(String name) {
+		Label label = new Label();
+		label.setName(name);
+		return label;
+	}
+}
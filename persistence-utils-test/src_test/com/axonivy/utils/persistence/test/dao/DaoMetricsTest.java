@@ -0,0 +1,163 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.axonivy.utils.persistence.dao.CriteriaQueryContext;
+import com.axonivy.utils.persistence.dao.CriteriaQueryGenericContext.TypedQueryInterceptor;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.management.MBeanRegistry;
+import com.axonivy.utils.persistence.metrics.DaoMetrics;
+import com.axonivy.utils.persistence.metrics.DaoStatistics;
+import com.axonivy.utils.persistence.metrics.LatencyHistogram;
+import com.axonivy.utils.persistence.metrics.QueryOperation;
+import com.axonivy.utils.persistence.metrics.SlowQuery;
+import com.axonivy.utils.persistence.metrics.SlowQueryLog;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class DaoMetricsTest extends DemoTestBase {
+
+	private static ProductDAO productDAO = new ProductDAO();
+
+	private long threshold;
+	private int size;
+
+	@BeforeEach
+	public void rememberSettings() {
+		SlowQueryLog log = DaoMetrics.getInstance().getSlowQueryLog();
+		threshold = log.getThresholdMillis();
+		size = log.getSize();
+		DaoMetrics.getInstance().resetStatistics();
+	}
+
+	@AfterEach
+	public void restoreSettings() {
+		SlowQueryLog log = DaoMetrics.getInstance().getSlowQueryLog();
+		log.setThresholdMillis(threshold);
+		log.setSize(size);
+		log.clear();
+	}
+
+	@Test
+	public void testOperationsAreRecorded() {
+		Product product = new Product();
+		product.setName("Iphone 7s");
+		product = productDAO.save(product);
+		productDAO.findAll();
+		productDAO.findAll();
+		productDAO.delete(product);
+
+		DaoStatistics statistics = DaoMetrics.getInstance().getStatistics(ProductDAO.class);
+		assertThat(statistics.getHistogram(QueryOperation.SAVE).getCount()).as("Saves").isEqualTo(1);
+		assertThat(statistics.getHistogram(QueryOperation.FIND).getCount()).as("Finds").isGreaterThanOrEqualTo(2);
+		assertThat(statistics.getHistogram(QueryOperation.FIND).getRows()).as("Rows found").isGreaterThanOrEqualTo(2);
+		assertThat(statistics.getHistogram(QueryOperation.DELETE).getCount()
+				+ statistics.getHistogram(QueryOperation.UPDATE).getCount()).as("Deletes").isGreaterThanOrEqualTo(1);
+
+		LatencyHistogram histogram = statistics.getHistogram(QueryOperation.FIND);
+		assertThat(histogram.getLatencyHistogram().values().stream().mapToLong(Long::longValue).sum())
+		.as("Finds in histogram").isEqualTo(histogram.getCount());
+		assertThat(histogram.getPercentileMillis(99)).isLessThanOrEqualTo(histogram.getMaxNanos() / 1_000_000.0);
+
+		assertThat(statistics.getShapes(QueryOperation.FIND)).as("Query shapes").isNotEmpty();
+		assertThat(statistics.getShapes(QueryOperation.FIND).values().stream().mapToLong(LatencyHistogram::getCount).sum())
+		.as("Finds in shapes").isEqualTo(histogram.getCount());
+	}
+
+	@Test
+	public void testSlowQueryLogKeepsWorst() {
+		SlowQueryLog log = DaoMetrics.getInstance().getSlowQueryLog();
+		log.setThresholdMillis(0);
+		log.setSize(2);
+
+		productDAO.findAll();
+		productDAO.findAll();
+		productDAO.findAll();
+
+		List<SlowQuery> slowQueries = log.getSlowQueries();
+		assertThat(slowQueries).hasSize(2);
+		assertThat(slowQueries.get(0).getNanos()).as("Slowest first").isGreaterThanOrEqualTo(slowQueries.get(1).getNanos());
+		SlowQuery slowQuery = slowQueries.get(0);
+		assertThat(slowQuery.getDao()).isEqualTo(ProductDAO.class.getName());
+		assertThat(slowQuery.getOperation()).isEqualTo(QueryOperation.FIND);
+		assertThat(slowQuery.getQuery()).containsIgnoringCase("select");
+		assertThat(slowQuery.getStackTrace()).as("Stack of the caller").isNotEmpty();
+		assertThat(slowQuery.getStackTrace().get(0)).doesNotContain(SlowQueryLog.class.getName());
+	}
+
+	@Test
+	public void testFailuresAreRecorded() {
+		SlowQueryLog log = DaoMetrics.getInstance().getSlowQueryLog();
+		log.setThresholdMillis(0);
+
+		try (CriteriaQueryContext<Product> query = productDAO.initializeQuery()) {
+			query.setTypedQueryInterceptor(new TypedQueryInterceptor<Product>() {
+				@Override
+				public List<Product> afterGetResultList(List<Product> resultList) {
+					throw new IllegalStateException("failing on purpose");
+				}
+			});
+			assertThatThrownBy(() -> productDAO.findByCriteria(query)).isInstanceOf(PersistenceException.class);
+		}
+
+		DaoStatistics statistics = DaoMetrics.getInstance().getStatistics(ProductDAO.class);
+		assertThat(statistics.getFailures()).as("Failures").isEqualTo(1);
+		assertThat(statistics.getHistogram(QueryOperation.FIND).getCount()).as("Failed find measured").isEqualTo(1);
+		assertThat(log.getSlowQueries()).as("Failed find logged").hasSize(1);
+		assertThat(log.getSlowQueries().get(0).isFailed()).isTrue();
+		assertThat(log.getSlowQueries().get(0).getQuery()).containsIgnoringCase("select");
+	}
+
+	@Test
+	public void testManagementBeans() throws Exception {
+		productDAO.findAll();
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName statistics = MBeanRegistry.objectName("DaoStatistics", ProductDAO.class.getName());
+		ObjectName metrics = MBeanRegistry.objectName("DaoMetrics", null);
+
+		assertThat(server.isRegistered(statistics)).isTrue();
+		assertThat(server.getAttribute(statistics, "Operations")).isNotNull();
+		assertThat((String[]) server.getAttribute(metrics, "DaoNames")).contains(ProductDAO.class.getName());
+
+		server.invoke(statistics, "resetStatistics", new Object[0], new String[0]);
+		assertThat(DaoMetrics.getInstance().getStatistics(ProductDAO.class).getHistogram(QueryOperation.FIND).getCount()).isZero();
+	}
+
+	@Test
+	public void testDetachedWhenSessionFactoryCloses() {
+		DaoMetrics metrics = DaoMetrics.getInstance();
+		SessionFactoryImplementor sessionFactory = Mockito.mock(SessionFactoryImplementor.class);
+		Mockito.when(sessionFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+
+		metrics.attach(sessionFactory);
+		metrics.attach(sessionFactory);
+		ArgumentCaptor<SessionFactoryObserver> observer = ArgumentCaptor.forClass(SessionFactoryObserver.class);
+		Mockito.verify(sessionFactory, Mockito.times(1)).addObserver(observer.capture());
+
+		observer.getValue().sessionFactoryClosing(sessionFactory);
+		metrics.attach(sessionFactory);
+		Mockito.verify(sessionFactory, Mockito.times(2)).addObserver(Mockito.any());
+		metrics.detach(sessionFactory);
+	}
+}
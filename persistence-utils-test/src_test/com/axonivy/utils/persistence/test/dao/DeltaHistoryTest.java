@@ -0,0 +1,106 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.daos.HistorizedPersonDAO;
+import com.axonivy.utils.persistence.entities.HistorizedPerson;
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.dao.HistoryDAO;
+import com.axonivy.utils.persistence.history.handler.DefaultAbstractAuditHandler;
+import com.axonivy.utils.persistence.history.handler.HistoryEncoding;
+import com.axonivy.utils.persistence.history.util.JsonPatch;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class DeltaHistoryTest extends DemoTestBase {
+	private static final HistorizedPersonDAO DAO = HistorizedPersonDAO.getInstance();
+
+	private final DefaultAbstractAuditHandler handler = new DefaultAbstractAuditHandler() {
+		@Override
+		public String getHandlerPersistenceUnitName() {
+			return DAO.getPersistenceUnitName();
+		}
+
+		@Override
+		protected HistoryEncoding getHistoryEncoding() {
+			return HistoryEncoding.DELTA;
+		}
+
+		@Override
+		protected int getSnapshotInterval() {
+			return 3;
+		}
+	};
+
+	@BeforeEach
+	public void prepare() throws Exception {
+		switchToSystemUser();
+		prepareTestDataAndMocking(true);
+	}
+
+	@Test
+	public void testPatch() {
+		HistorizedPerson from = person("id", "Sepp", "Mayer");
+		HistorizedPerson to = person("id", null, "Maier/Huber");
+
+		JsonNode before = JsonPatch.toTree(from);
+		JsonNode patch = JsonPatch.diff(before, JsonPatch.toTree(to));
+		assertThat(patch).as("Only changed fields are in the patch").hasSize(2);
+		assertThat(JsonPatch.apply(before.deepCopy(), patch)).as("Patch transforms state").isEqualTo(JsonPatch.toTree(to));
+		assertThat(JsonPatch.diff(before, before)).as("Equal states create an empty patch").isEmpty();
+	}
+
+	@Test
+	public void testReplay() throws Exception {
+		HistoryDAO historyDAO = new HistoryDAO(DAO.getPersistenceUnitName());
+		String id = "delta-person";
+		String[] names = { "A", "B", "C", "D", "E", "F", "G", "H" };
+		List<Timestamp> validFrom = new ArrayList<>();
+
+		HistorizedPerson current = person(id, "Sepp", names[0]);
+		for (int i = 1; i < names.length; i++) {
+			Thread.sleep(5);
+			HistorizedPerson next = person(id, "Sepp", names[i]);
+			handler.handleUpdate(current, next);
+			Thread.sleep(5);
+			validFrom.add(new Timestamp(System.currentTimeMillis()));
+			current = next;
+		}
+
+		List<History> rows = historyDAO.findByTypeAndId(HistorizedPerson.class, id);
+		assertThat(rows).as("One row per change").hasSize(names.length - 1);
+		assertThat(rows.stream().filter(row -> row.getJsonData() != null).count()).as("Snapshot every 3 rows").isEqualTo(3);
+		assertThat(rows.stream().allMatch(row -> row.getPatchData() != null)).as("Every update has a patch").isTrue();
+
+		for (int i = 0; i < validFrom.size(); i++) {
+			HistorizedPerson state = historyDAO.findStateAt(HistorizedPerson.class, id, validFrom.get(i));
+			assertThat(state.getLastName()).as("State after change %d", i + 1).isEqualTo(names[i + 1]);
+		}
+
+		Thread.sleep(5);
+		handler.handleDelete(current);
+		assertThat(historyDAO.findStateAt(HistorizedPerson.class, id, new Timestamp(System.currentTimeMillis() + 1000)))
+			.as("Deleted entity has no state").isNull();
+		assertThat(historyDAO.findStateAt(HistorizedPerson.class, id, validFrom.get(validFrom.size() - 1)).getLastName())
+			.as("State before delete").isEqualTo(names[names.length - 1]);
+	}
+
+	private static HistorizedPerson person(String id, String firstName, String lastName) {
+		HistorizedPerson person = new HistorizedPerson();
+		person.setId(id);
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		return person;
+	}
+}
@@ -0,0 +1,102 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.EntityMetadata;
+import com.axonivy.utils.persistence.EntityMetadata.Mapping;
+import com.axonivy.utils.persistence.EntityMetadata.PersistentField;
+import com.axonivy.utils.persistence.ReflectionUtilitities;
+import com.axonivy.utils.persistence.accessor.EntityAccessor;
+import com.axonivy.utils.persistence.daos.AuditHandler;
+import com.axonivy.utils.persistence.entities.HistorizedPerson;
+import com.axonivy.utils.persistence.entities.Person;
+import com.axonivy.utils.persistence.history.beans.History;
+
+
+public class EntityMetadataTest {
+
+	@Test
+	public void testAudit() {
+		EntityMetadata audited = EntityMetadata.of(HistorizedPerson.class);
+		assertThat(audited.isAudited()).isTrue();
+		assertThat(audited.getAuditHandler()).isInstanceOf(AuditHandler.class);
+		assertThat(audited.getAuditHandler()).as("handler is shared").isSameAs(audited.getAuditHandler());
+
+		EntityMetadata notAudited = EntityMetadata.of(Person.class);
+		assertThat(notAudited.isAudited()).isFalse();
+		assertThat(notAudited.getAuditHandler()).isNull();
+	}
+
+	@Test
+	public void testFields() {
+		EntityMetadata metadata = EntityMetadata.of(Person.class);
+		assertThat(metadata.getIdField().getName()).isEqualTo("id");
+		assertThat(metadata.getVersionField().getName()).isEqualTo("version");
+		assertThat(metadata.getFieldMap()).containsKeys("id", "version", "firstName", "department");
+		// columns are keyed by Column.name, which is not set in the test entities
+		assertThat(metadata.getColumnFieldMap()).containsOnlyKeys("");
+		assertThat(ReflectionUtilitities.getFieldMap(Person.class)).isSameAs(metadata.getFieldMap());
+		assertThat(ReflectionUtilitities.getTablename(History.class)).isEqualTo(EntityMetadata.of(History.class).getTableName());
+		assertThatThrownBy(() -> metadata.getFieldMap().clear()).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	public void testCopyOrder() {
+		List<PersistentField> fields = EntityMetadata.of(Person.class).getCopyOrder();
+		List<String> names = fields.stream().map(PersistentField::getName).collect(Collectors.toList());
+		assertThat(names).isSorted();
+
+		PersistentField department = fields.stream().filter(f -> f.getName().equals("department")).findFirst().get();
+		assertThat(department.getMapping()).isEqualTo(Mapping.MANY_TO_ONE);
+		assertThat(department.isCascade()).isFalse();
+		assertThat(fields.stream().filter(f -> f.getName().equals("id")).findFirst().get().getMapping()).isEqualTo(Mapping.ID);
+		assertThat(fields.stream().filter(f -> f.getName().equals("syncToIvy")).findFirst().get().getMapping()).isEqualTo(Mapping.NONE);
+	}
+
+	@Test
+	public void testGeneratedAccessor() throws Exception {
+		EntityAccessor<?> accessor = EntityMetadata.of(Person.class).getAccessor();
+		assertThat(accessor).as("accessor generated at build time").isNotNull();
+		assertThat(accessor.getType()).isEqualTo(Person.class);
+		assertThat(accessor.createFieldMap()).isEqualTo(ReflectionUtilitities.getFieldMap(Person.class));
+
+		Person person = new Person();
+		ReflectionUtilitities.setValue(person, "firstName", "Jane");
+		assertThat(person.getFirstName()).isEqualTo("Jane");
+		assertThat(ReflectionUtilitities.getValue(person, "firstName")).isEqualTo("Jane");
+
+		Person copy = new Person();
+		ReflectionUtilitities.copyProperties(copy, person);
+		assertThat(copy.getFirstName()).isEqualTo("Jane");
+
+		ReflectionUtilitities.clearField(copy, EntityMetadata.of(Person.class).getFieldMap().get("firstName"));
+		assertThat(copy.getFirstName()).isNull();
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		Set<Object> seen = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 64; i++) {
+			executor.submit(() -> {
+				EntityMetadata metadata = EntityMetadata.of(HistorizedPerson.class);
+				seen.add(metadata);
+				seen.add(metadata.getAuditHandler());
+			});
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(seen).hasSize(2);
+	}
+}
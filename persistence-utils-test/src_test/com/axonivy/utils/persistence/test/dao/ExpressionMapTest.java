@@ -0,0 +1,115 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.Tuple;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.axonivy.utils.persistence.dao.AttributePath;
+import com.axonivy.utils.persistence.dao.CriteriaQueryGenericContext;
+import com.axonivy.utils.persistence.dao.ExpressionMap;
+import com.axonivy.utils.persistence.daos.PersonDAO;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Department_;
+import com.axonivy.utils.persistence.entities.Person;
+import com.axonivy.utils.persistence.entities.Person_;
+import com.axonivy.utils.persistence.entities.Producer;
+import com.axonivy.utils.persistence.entities.Producer_;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.entities.Product_;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class ExpressionMapTest extends DemoTestBase {
+	private static PersonDAO personDAO = new PersonDAO();
+	private static ProductDAO productDAO = new ProductDAO();
+
+	@Test
+	public void testPathsAreInterned() {
+		AttributePath path = AttributePath.of(Person.class).child("department").child("name");
+		assertThat(AttributePath.of(Person.class).child("department").child("name")).isSameAs(path);
+		assertThat(path.toString()).isEqualTo(Person.class.getCanonicalName() + ".department.name");
+	}
+
+	@Test
+	public void testMapGrows() {
+		ExpressionMap map = ExpressionMap.createNewExpressionMap();
+		AttributePath root = AttributePath.of(Person.class);
+		for (int i = 0; i < 100; i++) {
+			map.put(root.child("attribute" + i), Mockito.mock(Expression.class));
+		}
+		assertThat(map.size()).isEqualTo(100);
+		for (int i = 0; i < 100; i++) {
+			assertThat(map.get(root.child("attribute" + i))).as("attribute" + i).isNotNull();
+		}
+		assertThat(map.get(root.child("unknown"))).isNull();
+
+		map.clear();
+		assertThat(map.isEmpty()).isTrue();
+		assertThat(map.get(root.child("attribute0"))).isNull();
+	}
+
+	@Test
+	public void testMapByPathString() {
+		ExpressionMap map = ExpressionMap.createNewExpressionMap();
+		AttributePath department = AttributePath.of(Person.class).child("department");
+		Expression<?> expression = Mockito.mock(Expression.class);
+		map.put(department, expression);
+
+		String key = Person.class.getCanonicalName() + ".department";
+		assertThat(map.containsKey(key)).isTrue();
+		assertThat(map.get(key)).isSameAs(expression);
+		assertThat(map).containsOnlyKeys(key);
+
+		Expression<?> name = Mockito.mock(Expression.class);
+		map.put(key + ".name", name);
+		assertThat(map.get(department.child("name"))).isSameAs(name);
+
+		assertThat(map.remove(key)).isSameAs(expression);
+		assertThat(map.get(department)).isNull();
+		assertThat(map.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void testJoinSeededByPathStringIsReused() {
+		try (CriteriaQueryGenericContext<Product, Tuple> q = productDAO.initializeQuery(Product.class, Tuple.class)) {
+			ExpressionMap expressionMap = q.getCurrentExpressionMap();
+			// seeded before the path of the entity was used by any DAO
+			Join<Product, Producer> producer = q.r.join(Product_.producer, JoinType.LEFT);
+			expressionMap.put(Product.class.getCanonicalName() + ".producer", producer);
+
+			Expression<String> name = ProductDAO.getExpression(expressionMap, q.r, Product_.producer, Producer_.name);
+
+			assertThat(q.r.getJoins()).as("Seeded join reused").hasSize(1);
+			assertThat(((Path<?>) name).getParentPath()).isSameAs(producer);
+			assertThat(expressionMap.get(AttributePath.of(Product.class).child(Product_.producer))).isSameAs(producer);
+			assertThat(expressionMap).containsKey(Product.class.getCanonicalName() + ".producer.name");
+		}
+	}
+
+	@Test
+	public void testJoinsAreReused() {
+		try (CriteriaQueryGenericContext<Person, Tuple> q = personDAO.initializeQuery(Person.class, Tuple.class)) {
+			ExpressionMap expressionMap = q.getCurrentExpressionMap();
+			Expression<String> name = PersonDAO.getExpression(expressionMap, q.r, Person_.department, Department_.name);
+			Expression<String> id = PersonDAO.getExpression(expressionMap, q.r, Person_.department, Department_.id);
+
+			assertThat(PersonDAO.getExpression(expressionMap, q.r, Person_.department, Department_.name)).isSameAs(name);
+			assertThat(q.r.getJoins()).as("Single join of department").hasSize(1);
+			assertThat(((Path<?>) id).getParentPath())
+			.isSameAs(((Path<?>) name).getParentPath());
+			assertThat(expressionMap.get(AttributePath.of(Person.class).child(Person_.department)))
+			.isInstanceOf(From.class);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.daos.HistorizedPersonDAO;
+import com.axonivy.utils.persistence.entities.HistorizedPerson;
+import com.axonivy.utils.persistence.history.beans.HistoryAttribute;
+import com.axonivy.utils.persistence.history.dao.HistoryAttributeDAO;
+import com.axonivy.utils.persistence.history.util.HistoryAttributes;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class HistoryAttributeDAOTest extends DemoTestBase {
+	private static final HistorizedPersonDAO DAO = HistorizedPersonDAO.getInstance();
+
+	@BeforeEach
+	public void prepare() throws Exception {
+		switchToSystemUser();
+		prepareTestDataAndMocking(true);
+	}
+
+	@Test
+	public void testChangedAttributesAreIndexed() {
+		HistoryAttributeDAO attributeDAO = new HistoryAttributeDAO(DAO.getPersistenceUnitName());
+
+		HistorizedPerson person = new HistorizedPerson();
+		person.setFirstName("Sepp");
+		person.setLastName("Mayer");
+		person = DAO.save(person);
+
+		person.setLastName("Maier");
+		person = DAO.save(person);
+
+		List<HistoryAttribute> result = attributeDAO.findByValue(HistorizedPerson.class, "lastName", "Maier", null, null);
+		assertThat(result).as("Change of last name found").hasSize(1);
+		assertThat(result.get(0).getId().getEntityId()).as("Entity of change").isEqualTo(person.getId());
+		assertThat(result.get(0).getUpdateType()).as("Type of change").isEqualTo("UPDATE");
+
+		assertThat(attributeDAO.findByValue(HistorizedPerson.class, "firstName", "Sepp", null, null))
+			.as("Unchanged attributes are not indexed").isEmpty();
+
+		DAO.delete(person);
+		assertThat(attributeDAO.findByValue(HistorizedPerson.class, "firstName", "Sepp", null, null))
+			.as("All attributes are indexed on delete").hasSize(1);
+	}
+
+	@Test
+	public void testTypedValues() {
+		HistoryAttribute attribute = new HistoryAttribute();
+		HistoryAttributes.setValue(attribute, 42);
+		assertThat(attribute.getNumberValue()).as("Number column").isEqualByComparingTo(new BigDecimal(42));
+		assertThat(attribute.getStringValue()).as("Other columns empty").isNull();
+
+		HistoryAttributes.setValue(attribute, Boolean.TRUE);
+		assertThat(attribute.getBooleanValue()).as("Boolean column").isTrue();
+		assertThat(attribute.getNumberValue()).as("Previous value cleared").isNull();
+	}
+}
@@ -0,0 +1,167 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.axonivy.utils.persistence.daos.HistorizedPersonDAO;
+import com.axonivy.utils.persistence.entities.HistorizedPerson;
+import com.axonivy.utils.persistence.enums.UpdateType;
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.beans.HistoryPK;
+import com.axonivy.utils.persistence.history.dao.HistoryAttributeDAO;
+import com.axonivy.utils.persistence.history.dao.HistoryDAO;
+import com.axonivy.utils.persistence.history.retention.HistoryBucketNaming;
+import com.axonivy.utils.persistence.history.retention.HistoryBucketNaming.Period;
+import com.axonivy.utils.persistence.history.retention.HistoryRetentionJob;
+import com.axonivy.utils.persistence.history.retention.RetentionPolicy;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class HistoryRetentionJobTest extends DemoTestBase {
+	private static final HistorizedPersonDAO DAO = HistorizedPersonDAO.getInstance();
+	private static final long DAY = 24L * 3600 * 1000;
+
+	@TempDir
+	Path archiveDirectory;
+
+	@BeforeEach
+	public void prepare() throws Exception {
+		switchToSystemUser();
+		prepareTestDataAndMocking(true);
+	}
+
+	@Test
+	public void testKeepDaysWithArchive() throws Exception {
+		HistoryDAO historyDAO = new HistoryDAO(DAO.getPersistenceUnitName());
+		long now = System.currentTimeMillis();
+		for (int day = 0; day < 30; day++) {
+			historyDAO.save(history("retention-days", now - day * DAY));
+		}
+
+		Map<String, Long> result = new HistoryRetentionJob(DAO.getPersistenceUnitName())
+				.withPolicy(RetentionPolicy.forType(HistorizedPerson.class).keepDays(10))
+				.withChunkSize(7)
+				.withArchiveDirectory(archiveDirectory)
+				.run(new Timestamp(now));
+
+		assertThat(result.get(HistorizedPerson.class.getName())).as("Deleted entries").isEqualTo(19L);
+		assertThat(historyDAO.findByTypeAndId(HistorizedPerson.class, "retention-days")).as("Kept entries").hasSize(11);
+
+		List<Path> files;
+		try (Stream<Path> list = Files.list(archiveDirectory)) {
+			files = list.collect(Collectors.toList());
+		}
+		assertThat(files).as("One archive file").hasSize(1);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(files.get(0))), StandardCharsets.UTF_8))) {
+			List<String> lines = reader.lines().collect(Collectors.toList());
+			assertThat(lines).as("Archived entries").hasSize(19);
+			assertThat(lines.get(0)).as("NDJSON line").startsWith("{").contains("\"entityId\":\"retention-days\"");
+		}
+	}
+
+	@Test
+	public void testKeepVersions() {
+		HistoryDAO historyDAO = new HistoryDAO(DAO.getPersistenceUnitName());
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < 12; i++) {
+			historyDAO.save(history("retention-versions-1", now - i * 1000));
+			historyDAO.save(history("retention-versions-2", now - i * 1000));
+		}
+		historyDAO.save(history("retention-versions-3", now));
+
+		new HistoryRetentionJob(DAO.getPersistenceUnitName())
+				.withPolicy(RetentionPolicy.forType(HistorizedPerson.class).keepVersions(5))
+				.withChunkSize(2)
+				.run();
+
+		assertThat(historyDAO.findByTypeAndId(HistorizedPerson.class, "retention-versions-1")).as("Newest versions kept").hasSize(5);
+		assertThat(historyDAO.findByTypeAndId(HistorizedPerson.class, "retention-versions-2")).as("Newest versions kept").hasSize(5);
+		assertThat(historyDAO.findByTypeAndId(HistorizedPerson.class, "retention-versions-3")).as("Single version kept").hasSize(1);
+	}
+
+	@Test
+	public void testKeepSnapshotOfRemainingDeltas() {
+		HistoryDAO historyDAO = new HistoryDAO(DAO.getPersistenceUnitName());
+		long now = System.currentTimeMillis();
+		int[] deltaCounts = { 0, 1, 2, 0, 1, 2 };
+		for (int i = 0; i < deltaCounts.length; i++) {
+			History history = history("retention-delta", now - (deltaCounts.length - i) * DAY);
+			history.setDeltaCount(deltaCounts[i]);
+			history.setPatchData("[]");
+			if (deltaCounts[i] > 0) {
+				history.setJsonData(null);
+			}
+			historyDAO.save(history);
+		}
+
+		new HistoryRetentionJob(DAO.getPersistenceUnitName())
+				.withPolicy(RetentionPolicy.forType(HistorizedPerson.class).keepVersions(2))
+				.run(new Timestamp(now));
+		assertThat(historyDAO.findByTypeAndId(HistorizedPerson.class, "retention-delta")).as("Snapshot of kept deltas kept").hasSize(3);
+
+		new HistoryRetentionJob(DAO.getPersistenceUnitName())
+				.withPolicy(RetentionPolicy.forType(HistorizedPerson.class).keepDays(1))
+				.run(new Timestamp(now));
+		assertThat(historyDAO.findByTypeAndId(HistorizedPerson.class, "retention-delta")).as("Snapshot of kept deltas kept").hasSize(3);
+	}
+
+	@Test
+	public void testAttributesDeletedWithEntries() {
+		HistoryAttributeDAO attributeDAO = new HistoryAttributeDAO(DAO.getPersistenceUnitName());
+		HistorizedPerson person = new HistorizedPerson();
+		person.setFirstName("Sepp");
+		person.setLastName("Mayer");
+		person = DAO.save(person);
+		person.setLastName("Maier");
+		DAO.save(person);
+		assertThat(attributeDAO.findByValue(HistorizedPerson.class, "lastName", "Maier", null, null)).as("Attribute written").hasSize(1);
+
+		new HistoryRetentionJob(DAO.getPersistenceUnitName())
+				.withPolicy(RetentionPolicy.forType(HistorizedPerson.class).keepDays(1))
+				.run(new Timestamp(System.currentTimeMillis() + 2 * DAY));
+		assertThat(attributeDAO.findByValue(HistorizedPerson.class, "lastName", "Maier", null, null)).as("Attribute deleted").isEmpty();
+	}
+
+	@Test
+	public void testBucketNaming() {
+		HistoryBucketNaming naming = new HistoryBucketNaming("History", Period.MONTH);
+		assertThat(naming.tableName(Timestamp.valueOf(LocalDateTime.of(2026, 10, 19, 12, 0)))).isEqualTo("History_202610");
+		assertThat(naming.bucketEnd("HISTORY_202612")).isEqualTo(Timestamp.valueOf(LocalDateTime.of(2027, 1, 1, 0, 0)));
+		assertThat(naming.expired(Arrays.asList("History_202608", "History_202609", "History_202610", "History", "Person_202601"),
+				Timestamp.valueOf(LocalDateTime.of(2026, 10, 1, 0, 0))))
+			.as("Only complete buckets before the limit").containsExactly("History_202608", "History_202609");
+	}
+
+	private static History history(String entityId, long time) {
+		HistoryPK pk = new HistoryPK();
+		pk.setEntityType(HistorizedPerson.class.getName());
+		pk.setEntityId(entityId);
+		pk.setTimestamp(new Timestamp(time));
+		History history = new History();
+		history.setId(pk);
+		history.setUserName("test");
+		history.setUpdateType(UpdateType.UPDATE.name());
+		history.setJsonData("{\"id\":\"" + entityId + "\"}");
+		return history;
+	}
+}
@@ -0,0 +1,85 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.daos.HistorizedPersonDAO;
+import com.axonivy.utils.persistence.entities.HistorizedPerson;
+import com.axonivy.utils.persistence.enums.UpdateType;
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.beans.HistoryPK;
+import com.axonivy.utils.persistence.history.beans.HistoryTimelineEntry;
+import com.axonivy.utils.persistence.history.dao.HistoryDAO;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class HistoryTimelineTest extends DemoTestBase {
+	private static final HistorizedPersonDAO DAO = HistorizedPersonDAO.getInstance();
+
+	private HistoryDAO historyDAO;
+	private long now;
+
+	@BeforeEach
+	public void prepare() throws Exception {
+		switchToSystemUser();
+		prepareTestDataAndMocking(true);
+		historyDAO = new HistoryDAO(DAO.getPersistenceUnitName());
+		now = System.currentTimeMillis();
+		for (int i = 0; i < 25; i++) {
+			historyDAO.save(history("timeline-1", now - i * 1000, "user" + i));
+		}
+		for (int i = 0; i < 3; i++) {
+			historyDAO.save(history("timeline-2", now - i * 1000, "user" + i));
+		}
+	}
+
+	@Test
+	public void testKeysetPaging() {
+		List<HistoryTimelineEntry> page1 = historyDAO.findTimeline(HistorizedPerson.class, "timeline-1", null, 20);
+		assertThat(page1).as("First page").hasSize(20);
+		assertThat(page1.get(0).getTimestamp()).as("Newest first").isEqualTo(new Timestamp(now));
+		assertThat(page1.get(0).getUserName()).as("User projected").isEqualTo("user0");
+
+		List<HistoryTimelineEntry> page2 = historyDAO.findTimeline(HistorizedPerson.class, "timeline-1",
+				page1.get(page1.size() - 1).getTimestamp(), 20);
+		assertThat(page2).as("Second page").hasSize(5);
+		assertThat(page2.get(0).getUserName()).as("Continues after first page").isEqualTo("user20");
+
+		History history = historyDAO.findEntry(page2.get(0));
+		assertThat(history.getJsonData()).as("Payload loaded on demand").contains("timeline-1");
+	}
+
+	@Test
+	public void testMultipleEntities() {
+		Map<String, List<HistoryTimelineEntry>> timelines = historyDAO.findTimelines(HistorizedPerson.class,
+				Arrays.asList("timeline-1", "timeline-2", "timeline-3"), null, 5);
+
+		assertThat(timelines).as("Entities with history").containsOnlyKeys("timeline-1", "timeline-2");
+		assertThat(timelines.get("timeline-1")).as("Limited per entity").hasSize(5);
+		assertThat(timelines.get("timeline-1").get(0).getUserName()).as("Newest first").isEqualTo("user0");
+		assertThat(timelines.get("timeline-2")).as("All entries of small timeline").hasSize(3);
+	}
+
+	private static History history(String entityId, long time, String userName) {
+		HistoryPK pk = new HistoryPK();
+		pk.setEntityType(HistorizedPerson.class.getName());
+		pk.setEntityId(entityId);
+		pk.setTimestamp(new Timestamp(time));
+		History history = new History();
+		history.setId(pk);
+		history.setUserName(userName);
+		history.setUpdateType(UpdateType.UPDATE.name());
+		history.setJsonData("{\"id\":\"" + entityId + "\"}");
+		return history;
+	}
+}
@@ -0,0 +1,86 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.transaction.TransactionRolledbackException;
+
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.dao.LargeInStrategies;
+import com.axonivy.utils.persistence.dao.QueryGenericContext;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class LargeInStrategiesTest extends DemoTestBase {
+
+	private static ProductDAO productDAO = new ProductDAO();
+
+	@Test
+	public void testPaddedSize() {
+		assertThat(QueryGenericContext.paddedSize(1)).isEqualTo(1);
+		assertThat(QueryGenericContext.paddedSize(3)).isEqualTo(4);
+		assertThat(QueryGenericContext.paddedSize(64)).isEqualTo(64);
+		assertThat(QueryGenericContext.paddedSize(65)).isEqualTo(128);
+		assertThat(QueryGenericContext.paddedSize(600)).isEqualTo(999);
+		assertThat(QueryGenericContext.paddedSize(999)).isEqualTo(999);
+	}
+
+	@Test
+	public void testChunked() {
+		List<Integer> values = Arrays.asList(1, 2, 3, 4, 5, 6, 7);
+		AtomicInteger queries = new AtomicInteger();
+
+		List<Integer> result = LargeInStrategies.chunked(3).execute(values, chunk -> {
+			queries.incrementAndGet();
+			return chunk;
+		});
+
+		assertThat(result).isEqualTo(values);
+		assertThat(queries.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void testFindByManyIds() throws TransactionRolledbackException {
+		List<Product> products = new ArrayList<>();
+		for (String name : new String[] { "Iphone 7s", "Iphone 6s", "Samsung 6 plus" }) {
+			Product product = new Product();
+			product.setName(name);
+			products.add(product);
+		}
+		products = productDAO.saveAll(products);
+
+		try {
+			for (int size : new int[] { 10, 2500, LargeInStrategies.SINGLE_QUERY_LIMIT + 10 }) {
+				List<String> ids = new ArrayList<>();
+				for (int i = 0; i < size; i++) {
+					ids.add(UUID.randomUUID().toString().replace("-", ""));
+				}
+				ids.set(1, products.get(0).getId());
+				ids.set(size - 1, products.get(2).getId());
+				// duplicates are ignored
+				ids.add(products.get(0).getId());
+
+				Collection<Product> found = productDAO.findByIds(ids);
+
+				assertThat(found.stream().map(Product::getId).collect(Collectors.toList()))
+				.as("Found for %d ids", size)
+				.containsExactlyInAnyOrder(products.get(0).getId(), products.get(2).getId());
+			}
+		} finally {
+			productDAO.deleteAll(products);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.leaks.LeakDetector;
+import com.axonivy.utils.persistence.leaks.OpenResource;
+import com.axonivy.utils.persistence.leaks.ResourceKind;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class LeakDetectorTest extends DemoTestBase {
+
+	private static ProductDAO productDAO = new ProductDAO();
+
+	private double sampleRate;
+	private long threshold;
+
+	@BeforeEach
+	public void rememberSettings() {
+		LeakDetector detector = LeakDetector.getInstance();
+		sampleRate = detector.getSampleRate();
+		threshold = detector.getThresholdMillis();
+		detector.setSampleRate(1.0);
+		detector.resetStatistics();
+	}
+
+	@AfterEach
+	public void restoreSettings() {
+		LeakDetector detector = LeakDetector.getInstance();
+		detector.setSampleRate(sampleRate);
+		detector.setThresholdMillis(threshold);
+	}
+
+	@Test
+	public void testOpenSessionIsReported() throws Exception {
+		LeakDetector detector = LeakDetector.getInstance();
+		int openSessions = detector.getOpenSessions();
+
+		IvyEntityManager.getInstance().beginSession();
+		try {
+			productDAO.findAll();
+			assertThat(detector.getOpenSessions()).isEqualTo(openSessions + 1);
+
+			detector.setThresholdMillis(0);
+			Thread.sleep(5);
+			List<OpenResource> leaks = detector.check();
+			assertThat(leaks).extracting(OpenResource::getKind).contains(ResourceKind.SESSION);
+			OpenResource leak = leaks.stream().filter(r -> r.getKind() == ResourceKind.SESSION).findFirst().get();
+			assertThat(leak.getThreadName()).isEqualTo(Thread.currentThread().getName());
+			assertThat(leak.getStackTrace().get(0)).as("Opened by the test").contains(LeakDetectorTest.class.getName());
+			assertThat(detector.getLeakedSessions()).isGreaterThanOrEqualTo(1);
+
+			assertThat(detector.check()).as("Reported once").isEmpty();
+		} finally {
+			IvyEntityManager.getInstance().closeSession();
+		}
+		assertThat(detector.getOpenSessions()).isEqualTo(openSessions);
+	}
+
+	@Test
+	public void testOpenTransactionIsReported() throws Exception {
+		LeakDetector detector = LeakDetector.getInstance();
+
+		IvyEntityManager.getInstance().beginSession();
+		try {
+			productDAO.beginTransaction();
+			try {
+				assertThat(detector.getOpenTransactions()).isGreaterThanOrEqualTo(1);
+				detector.setThresholdMillis(0);
+				Thread.sleep(5);
+				assertThat(detector.check()).extracting(OpenResource::getKind).contains(ResourceKind.TRANSACTION);
+				assertThat(detector.getLeakedTransactions()).isGreaterThanOrEqualTo(1);
+			} finally {
+				productDAO.rollbackTransaction();
+			}
+			assertThat(detector.getOpenResources()).noneMatch(r -> r.getKind() == ResourceKind.TRANSACTION
+					&& r.getThreadId() == Thread.currentThread().getId());
+		} finally {
+			IvyEntityManager.getInstance().closeSession();
+		}
+	}
+
+	@Test
+	public void testSessionOfEndedThreadIsReported() throws Exception {
+		LeakDetector detector = LeakDetector.getInstance();
+		Thread thread = new Thread(() -> IvyEntityManager.getInstance().beginSession(), "leaking-thread");
+		thread.start();
+		thread.join();
+
+		List<OpenResource> leaks = detector.check();
+		assertThat(leaks).extracting(OpenResource::getThreadName).contains("leaking-thread");
+		assertThat(detector.getOpenResources()).extracting(OpenResource::getThreadName).doesNotContain("leaking-thread");
+	}
+
+	@Test
+	public void testDetachedWhenSessionFactoryCloses() {
+		LeakDetector detector = LeakDetector.getInstance();
+		SessionFactoryImplementor sessionFactory = Mockito.mock(SessionFactoryImplementor.class);
+		Mockito.when(sessionFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+
+		detector.attach(sessionFactory);
+		detector.attach(sessionFactory);
+		ArgumentCaptor<SessionFactoryObserver> observer = ArgumentCaptor.forClass(SessionFactoryObserver.class);
+		Mockito.verify(sessionFactory, Mockito.times(1)).addObserver(observer.capture());
+
+		observer.getValue().sessionFactoryClosing(sessionFactory);
+		detector.attach(sessionFactory);
+		Mockito.verify(sessionFactory, Mockito.times(2)).addObserver(Mockito.any());
+		detector.detach(sessionFactory);
+	}
+}
@@ -0,0 +1,94 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.StringUtilities;
+import com.axonivy.utils.persistence.daos.HistorizedPersonDAO;
+import com.axonivy.utils.persistence.entities.HistorizedPerson;
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.dao.HistoryDAO;
+import com.axonivy.utils.persistence.history.handler.DefaultAbstractAuditHandler;
+import com.axonivy.utils.persistence.history.util.ClobUtil;
+import com.axonivy.utils.persistence.history.util.PayloadCodec;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class PayloadCodecTest extends DemoTestBase {
+	private static final HistorizedPersonDAO DAO = HistorizedPersonDAO.getInstance();
+
+	@BeforeEach
+	public void prepare() throws Exception {
+		switchToSystemUser();
+		prepareTestDataAndMocking(true);
+	}
+
+	@Test
+	public void testRoundTrip() {
+		HistorizedPerson person = person("id", "Sepp", StringUtils.repeat("Mayer", 200));
+
+		byte[] compressed = PayloadCodec.encode(person);
+		assertThat(PayloadCodec.isCompressed(compressed)).as("Compressed").isTrue();
+		assertThat(compressed.length).as("Smaller than plain JSON").isLessThan(StringUtilities.fromObjectToJSON(person).length());
+		assertThat(PayloadCodec.decode(compressed, HistorizedPerson.class).getLastName()).as("Decoded").isEqualTo(person.getLastName());
+	}
+
+	@Test
+	public void testPlainJsonIsReadable() {
+		byte[] plain = StringUtilities.fromObjectToJSON(person("id", "Sepp", "Mayer")).getBytes(StandardCharsets.UTF_8);
+		assertThat(PayloadCodec.isCompressed(plain)).as("Plain JSON is not detected as compressed").isFalse();
+		assertThat(PayloadCodec.decode(plain, HistorizedPerson.class).getLastName()).as("Plain JSON decoded").isEqualTo("Mayer");
+	}
+
+	@Test
+	public void testLobs() {
+		HistorizedPerson person = person("id", "Sepp", "Mayer");
+
+		Clob clob = ClobUtil.convertObjectToClobData(person);
+		assertThat(ClobUtil.convertClobDataToObject(clob, HistorizedPerson.class).getLastName()).as("Clob").isEqualTo("Mayer");
+
+		Blob blob = ClobUtil.convertObjectToBlobData(person);
+		assertThat(ClobUtil.convertBlobDataToObject(blob, HistorizedPerson.class).getLastName()).as("Blob").isEqualTo("Mayer");
+	}
+
+	@Test
+	public void testCompressedHistory() {
+		DefaultAbstractAuditHandler handler = new DefaultAbstractAuditHandler() {
+			@Override
+			public String getHandlerPersistenceUnitName() {
+				return DAO.getPersistenceUnitName();
+			}
+
+			@Override
+			protected boolean isHistoryCompressed() {
+				return true;
+			}
+		};
+
+		handler.handleUpdate(person("compressed-person", "Sepp", "Mayer"), person("compressed-person", "Sepp", "Maier"));
+
+		List<History> result = new HistoryDAO(DAO.getPersistenceUnitName()).findByTypeAndId(HistorizedPerson.class, "compressed-person");
+		assertThat(result).as("Found exactly one history entry").hasSize(1);
+		assertThat(result.get(0).getJsonData()).as("No plain JSON").isNull();
+		assertThat(result.get(0).readData(HistorizedPerson.class).getLastName()).as("Compressed state").isEqualTo("Mayer");
+	}
+
+	private static HistorizedPerson person(String id, String firstName, String lastName) {
+		HistorizedPerson person = new HistorizedPerson();
+		person.setId(id);
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		return person;
+	}
+}
@@ -0,0 +1,69 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.jfr.DaoOperationEvent;
+import com.axonivy.utils.persistence.jfr.PersistenceEvents;
+import com.axonivy.utils.persistence.jfr.SessionEvent;
+import com.axonivy.utils.persistence.jfr.TransactionEvent;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+
+@IvyTest
+public class PersistenceEventsTest extends DemoTestBase {
+
+	private static ProductDAO productDAO = new ProductDAO();
+
+	@Test
+	public void testEventsAreRecorded() throws Exception {
+		PersistenceEvents.register();
+		Path file = Files.createTempFile("persistence", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(DaoOperationEvent.NAME);
+			recording.enable(TransactionEvent.NAME);
+			recording.enable(SessionEvent.NAME);
+			recording.start();
+
+			Product product = new Product();
+			product.setName("Iphone 7s");
+			product = productDAO.save(product);
+			productDAO.findAll();
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.deleteIfExists(file);
+
+		List<RecordedEvent> operations = events.stream()
+				.filter(e -> e.getEventType().getName().equals(DaoOperationEvent.NAME)).collect(Collectors.toList());
+		assertThat(operations).extracting(e -> e.getString("operation")).contains("SAVE", "FIND");
+		RecordedEvent find = operations.stream().filter(e -> e.getString("operation").equals("FIND")).findFirst().get();
+		assertThat(find.getClass("dao").getName()).isEqualTo(ProductDAO.class.getName());
+		assertThat(find.getClass("entity").getName()).isEqualTo(Product.class.getName());
+		assertThat(find.getString("query")).containsIgnoringCase("select");
+		assertThat(find.getBoolean("success")).isTrue();
+
+		RecordedEvent transaction = events.stream()
+				.filter(e -> e.getEventType().getName().equals(TransactionEvent.NAME)).findFirst().get();
+		assertThat(transaction.getString("outcome")).isEqualTo(TransactionEvent.COMMIT);
+		assertThat(transaction.getInt("depth")).isGreaterThanOrEqualTo(1);
+
+		assertThat(events).anyMatch(e -> e.getEventType().getName().equals(SessionEvent.NAME));
+	}
+}
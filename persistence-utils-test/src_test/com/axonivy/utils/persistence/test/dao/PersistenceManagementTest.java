@@ -0,0 +1,101 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.IvyUtilities;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.management.MBeanRegistry;
+import com.axonivy.utils.persistence.management.PersistenceManagement;
+import com.axonivy.utils.persistence.management.ThreadActivity;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class PersistenceManagementTest extends DemoTestBase {
+
+	private static ProductDAO productDAO = new ProductDAO();
+
+	@Test
+	public void testThreadActivity() {
+		PersistenceManagement management = PersistenceManagement.getInstance();
+		long threadId = Thread.currentThread().getId();
+
+		IvyEntityManager.getInstance().beginSession();
+		try {
+			productDAO.beginTransaction();
+			try {
+				productDAO.findAll();
+				ThreadActivity activity = management.getThreads().stream()
+						.filter(a -> a.getThreadId() == threadId).findFirst().get();
+				assertThat(activity.getThreadName()).isEqualTo(Thread.currentThread().getName());
+				assertThat(activity.getTransactionDepth()).isEqualTo(1);
+				assertThat(activity.getTransactionStatus()).isEqualTo("ACTIVE");
+				assertThat(management.getOpenTransactions()).isGreaterThanOrEqualTo(1);
+			} finally {
+				productDAO.rollbackTransaction();
+			}
+		} finally {
+			IvyEntityManager.getInstance().closeSession();
+		}
+		assertThat(management.getThreads()).noneMatch(a -> a.getThreadId() == threadId);
+	}
+
+	@Test
+	public void testHibernateStatisticsArePublished() throws Exception {
+		productDAO.findAll();
+
+		PersistenceManagement management = PersistenceManagement.getInstance();
+		String name = IvyUtilities.getProcessModelVersionName() + "/jpa_demo_test";
+		assertThat(management.getPersistenceUnitNames()).contains(name);
+		assertThat(ManagementFactory.getPlatformMBeanServer()
+				.isRegistered(MBeanRegistry.objectName("HibernateStatistics", name))).isTrue();
+		assertThat(ManagementFactory.getPlatformMBeanServer()
+				.isRegistered(MBeanRegistry.objectName("Persistence", null))).isTrue();
+	}
+
+	@Test
+	public void testHibernateStatisticsAreUnpublishedOnClose() throws Exception {
+		SessionFactoryImplementor sessionFactory = Mockito.mock(SessionFactoryImplementor.class);
+		Mockito.when(sessionFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+
+		PersistenceManagement management = PersistenceManagement.getInstance();
+		management.registerSessionFactory("closing_unit", sessionFactory);
+		String name = IvyUtilities.getProcessModelVersionName() + "/closing_unit";
+		assertThat(management.getPersistenceUnitNames()).contains(name);
+
+		ArgumentCaptor<SessionFactoryObserver> observer = ArgumentCaptor.forClass(SessionFactoryObserver.class);
+		Mockito.verify(sessionFactory).addObserver(observer.capture());
+		observer.getValue().sessionFactoryClosing(sessionFactory);
+
+		assertThat(management.getPersistenceUnitNames()).doesNotContain(name);
+		assertThat(ManagementFactory.getPlatformMBeanServer()
+				.isRegistered(MBeanRegistry.objectName("HibernateStatistics", name))).isFalse();
+	}
+
+	@Test
+	public void testUpdateJournal() {
+		PersistenceManagement management = PersistenceManagement.getInstance();
+		int size = management.getUpdateJournalSize();
+
+		Product product = new Product();
+		product.setName("Iphone 8");
+		productDAO.save(product);
+
+		assertThat(management.getUpdateJournalSize()).isGreaterThan(size);
+		assertThat(management.getUpdateJournalSize()).isLessThanOrEqualTo(management.getUpdateJournalCapacity());
+
+		management.resetStatistics();
+	}
+}
@@ -25,6 +25,7 @@ import com.axonivy.utils.persistence.entities.Producer;
 import com.axonivy.utils.persistence.entities.Producer_;
 import com.axonivy.utils.persistence.entities.Product;
 import com.axonivy.utils.persistence.search.FindByExample;
+import com.axonivy.utils.persistence.search.FindByExamplePlan;
 import com.axonivy.utils.persistence.test.DemoTestBase;
 
 import ch.ivyteam.ivy.environment.IvyTest;
@@ -171,6 +172,23 @@ public class ProducerDAOTest extends DemoTestBase {
 		assertThat(producers).isNotEmpty();
 	}
 
+	@Test
+	public void testFindByExamplePlanIsReused() throws TransactionRolledbackException {
+		producerDAO.saveAll(createFakeDatas());
+		FindByExample<Producer> example = FindByExample.getInstance(Producer.class);
+		example.getE().setName("xon");
+		assertThat(producerDAO.findByExample(example, Producer_.name)).isNotEmpty();
+
+		// the plan was built by the first search, no metamodel needed anymore
+		FindByExamplePlan plan = FindByExamplePlan.of(null, Producer.class, Producer.class);
+		assertThat(plan).isSameAs(FindByExamplePlan.of(null, Producer.class, Producer.class));
+		List<String> names = plan.getAccessors().stream().map(FindByExamplePlan.Accessor::getAttributeName).collect(Collectors.toList());
+		assertThat(names).contains("name", "address").doesNotContain("id", "version", "header");
+
+		example.getE().setName("no such producer");
+		assertThat(producerDAO.findByExample(example, Producer_.name)).isEmpty();
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testFindByExampleWithParameterOrLikeIsAscending() throws TransactionRolledbackException {
@@ -0,0 +1,125 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.dao.QueryCoalescer;
+import com.axonivy.utils.persistence.entities.Product;
+
+
+public class QueryCoalescerTest {
+
+	@Test
+	public void testConcurrentCallersShareExecution() throws Exception {
+		int callers = 8;
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Object> key = QueryCoalescer.key(Product.class, "select p from Product p", "user");
+
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<List<Product>>> futures = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				futures.add(executor.submit(() -> QueryCoalescer.getInstance().execute(key, () -> {
+					executions.incrementAndGet();
+					started.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					Product product = new Product();
+					product.setName("Iphone 7s");
+					return Arrays.asList(product);
+				})));
+			}
+
+			started.await(10, TimeUnit.SECONDS);
+			// give the other callers time to join the leader
+			Thread.sleep(200);
+			release.countDown();
+
+			List<Product> first = futures.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<List<Product>> future : futures) {
+				List<Product> result = future.get(10, TimeUnit.SECONDS);
+				assertThat(result).hasSize(1);
+				assertThat(result.get(0).getName()).isEqualTo("Iphone 7s");
+				if (result != first) {
+					assertThat(result.get(0)).as("Every caller gets its own copy").isNotSameAs(first.get(0));
+				}
+			}
+			assertThat(executions.get()).as("Executions").isLessThan(callers);
+			assertThat(QueryCoalescer.getInstance().getInFlightCount()).isEqualTo(0);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testUnreadableCopyLetsFollowerExecute() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Object> key = QueryCoalescer.key("unreadable");
+		ClassLoader failingClassLoader = new ClassLoader(null) {
+			@Override
+			protected Class<?> loadClass(String name, boolean resolve) {
+				throw new IllegalStateException("class " + name + " not visible");
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<List<String>> leader = executor.submit(() -> QueryCoalescer.getInstance().execute(key, () -> {
+				executions.incrementAndGet();
+				started.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return Arrays.asList("leader");
+			}));
+			started.await(10, TimeUnit.SECONDS);
+			Future<List<String>> follower = executor.submit(() -> QueryCoalescer.getInstance().execute(key,
+					failingClassLoader, () -> {
+						executions.incrementAndGet();
+						return Arrays.asList("follower");
+					}));
+			// give the follower time to join the leader
+			Thread.sleep(200);
+			release.countDown();
+
+			assertThat(leader.get(10, TimeUnit.SECONDS)).containsExactly("leader");
+			assertThat(follower.get(10, TimeUnit.SECONDS)).as("Executed by the follower").containsExactly("follower");
+			assertThat(executions.get()).isEqualTo(2);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFailedLeaderLetsFollowersExecute() {
+		List<Object> key = QueryCoalescer.key("failing");
+		try {
+			QueryCoalescer.getInstance().execute(key, () -> {
+				throw new IllegalStateException("failed");
+			});
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertThat(QueryCoalescer.getInstance().execute(key, () -> Arrays.asList("ok"))).containsExactly("ok");
+	}
+}
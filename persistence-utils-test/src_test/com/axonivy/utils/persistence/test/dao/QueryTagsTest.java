@@ -0,0 +1,105 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import javax.persistence.PersistenceException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.dao.AutoCloseTransaction;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.metrics.DaoMetrics;
+import com.axonivy.utils.persistence.metrics.DaoStatisticsManagement;
+import com.axonivy.utils.persistence.metrics.LatencySummary;
+import com.axonivy.utils.persistence.metrics.QueryOperation;
+import com.axonivy.utils.persistence.statements.QueryTags;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class QueryTagsTest extends DemoTestBase {
+
+	private static ProductDAO productDAO = new ProductDAO();
+
+	@AfterEach
+	public void disableTags() {
+		QueryTags.setEnabled(false);
+		QueryTags.setRequestId(null);
+	}
+
+	@Test
+	public void testCommentIsCachedPerShape() {
+		String comment = QueryTags.getComment(ProductDAO.class, QueryOperation.FIND, "select p from Product p");
+		assertThat(comment).isEqualTo("/* dao=" + ProductDAO.class.getName() + " op=FIND shape="
+				+ QueryTags.shapeId("select p from Product p") + " */ ");
+		assertThat(QueryTags.getComment(ProductDAO.class, QueryOperation.FIND, "select p from Product p")).isSameAs(comment);
+		assertThat(QueryTags.getComment(ProductDAO.class, QueryOperation.SAVE, null))
+		.isEqualTo("/* dao=" + ProductDAO.class.getName() + " op=SAVE */ ");
+	}
+
+	@Test
+	public void testStatementsAreTagged() {
+		assertThat(QueryTags.tag("select 1")).as("No operation").isEqualTo("select 1");
+
+		QueryTags.setEnabled(true);
+		String previous = QueryTags.begin(ProductDAO.class, QueryOperation.DELETE, null);
+		try {
+			assertThat(QueryTags.tag("delete from Product"))
+			.isEqualTo("/* dao=" + ProductDAO.class.getName() + " op=DELETE */ delete from Product");
+
+			QueryTags.setRequestId("4711");
+			assertThat(QueryTags.getRequestId()).isEqualTo("4711");
+			assertThat(QueryTags.tag("delete from Product")).as("Request id not tagged by default")
+			.isEqualTo("/* dao=" + ProductDAO.class.getName() + " op=DELETE */ delete from Product");
+
+			QueryTags.setRequestId("4711 */ drop", true);
+			assertThat(QueryTags.tag("delete from Product"))
+			.isEqualTo("/* dao=" + ProductDAO.class.getName() + " op=DELETE request=4711____drop */ delete from Product");
+		} finally {
+			QueryTags.end(previous);
+		}
+		assertThat(QueryTags.tag("select 1")).as("Operation ended").isEqualTo("select 1");
+	}
+
+	@Test
+	public void testRequestIdEndsWithSession() {
+		QueryTags.setEnabled(true);
+		try (AutoCloseTransaction session = IvyEntityManager.getInstance().beginSession()) {
+			QueryTags.setRequestId("4711", true);
+			Product product = new Product();
+			product.setName("Iphone 7s");
+			productDAO.save(product);
+			assertThat(productDAO.findAll()).as("Tagged statements are executed").isNotEmpty();
+		} catch (Exception e) {
+			throw new PersistenceException(e);
+		}
+
+		String previous = QueryTags.begin(ProductDAO.class, QueryOperation.FIND, null);
+		try {
+			assertThat(QueryTags.tag("select 1")).doesNotContain("request=");
+			assertThat(QueryTags.getRequestId()).isNull();
+		} finally {
+			QueryTags.end(previous);
+		}
+	}
+
+	@Test
+	public void testShapeIdsMatchMetrics() {
+		QueryTags.setEnabled(true);
+		productDAO.findAll();
+
+		List<LatencySummary> shapes = new DaoStatisticsManagement(DaoMetrics.getInstance().getStatistics(ProductDAO.class))
+				.getQueryShapes();
+		assertThat(shapes).isNotEmpty();
+		for (LatencySummary shape : shapes) {
+			assertThat(shape.getShapeId()).isEqualTo(QueryTags.shapeId(shape.getQuery()));
+		}
+	}
+}
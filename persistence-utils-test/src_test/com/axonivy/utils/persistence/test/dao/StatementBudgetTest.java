@@ -0,0 +1,114 @@
+package com.axonivy.utils.persistence.test.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import javax.persistence.PersistenceException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.dao.AutoCloseTransaction;
+import com.axonivy.utils.persistence.daos.ProducerDAO;
+import com.axonivy.utils.persistence.daos.ProductDAO;
+import com.axonivy.utils.persistence.entities.Producer;
+import com.axonivy.utils.persistence.entities.Product;
+import com.axonivy.utils.persistence.statements.SessionStatements;
+import com.axonivy.utils.persistence.statements.StatementBudget;
+import com.axonivy.utils.persistence.statements.StatementBudgetExceededException;
+import com.axonivy.utils.persistence.statements.StatementBudgetMode;
+import com.axonivy.utils.persistence.test.DemoTestBase;
+
+import ch.ivyteam.ivy.environment.IvyTest;
+
+
+@IvyTest
+public class StatementBudgetTest extends DemoTestBase {
+
+	private static ProducerDAO producerDAO = new ProducerDAO();
+	private static ProductDAO productDAO = new ProductDAO();
+
+	private int threshold;
+	private StatementBudgetMode mode;
+
+	@BeforeEach
+	public void rememberBudget() {
+		threshold = StatementBudget.getThreshold();
+		mode = StatementBudget.getMode();
+	}
+
+	@AfterEach
+	public void restoreBudget() {
+		StatementBudget.setThreshold(threshold);
+		StatementBudget.setMode(mode);
+	}
+
+	private void createProducers(int count) {
+		for (int i = 0; i < count; i++) {
+			Producer producer = new Producer();
+			producer.setName("producer " + i);
+			Product product = new Product();
+			product.setName("product " + i);
+			product.setProducer(producer);
+			producer.setProducts(Collections.singleton(product));
+			producerDAO.save(producer);
+		}
+	}
+
+	@Test
+	public void testStatementsAreCountedPerSession() {
+		Product product = new Product();
+		product.setName("Iphone 7s");
+		product = productDAO.save(product);
+
+		assertThat(SessionStatements.current()).as("No session").isNull();
+
+		try (AutoCloseTransaction session = IvyEntityManager.getInstance().beginSession()) {
+			productDAO.findById(product.getId());
+			SessionStatements statements = SessionStatements.current();
+			assertThat(statements).isNotNull();
+			int count = statements.getCount();
+			assertThat(count).isGreaterThanOrEqualTo(1);
+
+			productDAO.findById(product.getId());
+			assertThat(statements.getCount()).as("Second find is answered by the session").isEqualTo(count);
+		} catch (Exception e) {
+			throw new PersistenceException(e);
+		}
+
+		assertThat(SessionStatements.current()).as("Session closed").isNull();
+	}
+
+	@Test
+	public void testShape() {
+		String sql = "/* comment */ select p.name from Product p where p.id in (?, ?,?) and p.price>10";
+		String shape = SessionStatements.shape(sql);
+		assertThat(shape).isEqualTo("select p.name from Product p where p.id in (?) and p.price>?");
+		assertThat(SessionStatements.shape(sql)).as("Cached").isSameAs(shape);
+	}
+
+	@Test
+	public void testNPlusOneFailsInTestMode() {
+		createProducers(4);
+		StatementBudget.setThreshold(2);
+		StatementBudget.setMode(StatementBudgetMode.FAIL);
+
+		PersistenceException exception = Assertions.assertThrows(PersistenceException.class, () -> productDAO.findAll(),
+				"Loading the eager producers one by one exceeds the budget");
+		assertThat(exception).hasRootCauseInstanceOf(StatementBudgetExceededException.class)
+		.as("Call site").hasStackTraceContaining("(N+1?) at " + StatementBudgetTest.class.getName());
+	}
+
+	@Test
+	public void testNPlusOneWarns() {
+		createProducers(4);
+		StatementBudget.setThreshold(2);
+		StatementBudget.setMode(StatementBudgetMode.WARN);
+
+		assertThat(productDAO.findAll()).hasSizeGreaterThanOrEqualTo(4);
+	}
+}
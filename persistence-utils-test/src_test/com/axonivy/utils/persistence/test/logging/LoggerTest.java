@@ -0,0 +1,102 @@
+package com.axonivy.utils.persistence.test.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.axonivy.utils.persistence.logging.Logger;
+
+
+public class LoggerTest {
+	private static final String NAME = LoggerTest.class.getName();
+	private static final Logger LOG = Logger.getLogger(NAME);
+
+	private final List<LoggingEvent> events = new ArrayList<>();
+	private final AppenderSkeleton appender = new AppenderSkeleton() {
+		@Override
+		protected void append(LoggingEvent event) {
+			events.add(event);
+		}
+
+		@Override
+		public boolean requiresLayout() {
+			return false;
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+
+	@BeforeEach
+	public void addAppender() {
+		org.apache.log4j.Logger.getLogger(NAME).addAppender(appender);
+		org.apache.log4j.Logger.getLogger(NAME).setLevel(Level.DEBUG);
+	}
+
+	@AfterEach
+	public void removeAppender() {
+		org.apache.log4j.Logger.getLogger(NAME).removeAppender(appender);
+		org.apache.log4j.Logger.getLogger(NAME).setLevel(null);
+	}
+
+	private String lastMessage() {
+		return events.get(events.size() - 1).getRenderedMessage();
+	}
+
+	@Test
+	public void testFormatLikeMessageFormat() {
+		Date date = new Date(0);
+		Object[][] cases = {
+				{ "plain" },
+				{ "count {0} of {1}", 12345, "x" },
+				{ "it''s {0}, '{quoted}' {1}", null, date },
+				{ "missing {2} {0}", 1.5 },
+				{ "typed {0,number,#.##}", 1.2345 },
+		};
+		for (Object[] c : cases) {
+			String pattern = (String) c[0];
+			Object[] args = new Object[c.length - 1];
+			System.arraycopy(c, 1, args, 0, args.length);
+			LOG.info(pattern, args);
+			assertThat(lastMessage()).as(pattern).isEqualTo(MessageFormat.format(pattern, args));
+		}
+	}
+
+	@Test
+	public void testFixedArityOverloads() {
+		LOG.debug("thread {0}", 4711L);
+		assertThat(lastMessage()).isEqualTo(MessageFormat.format("thread {0}", 4711L));
+
+		LOG.debug("{0} and {1} and {2}", "a", 'b', true);
+		assertThat(lastMessage()).isEqualTo("a and b and true");
+
+		RuntimeException exception = new RuntimeException("failed");
+		LOG.debug("failure {0}", exception, "x");
+		assertThat(lastMessage()).isEqualTo("failure x");
+		assertThat(events.get(events.size() - 1).getThrowableInformation().getThrowable()).isSameAs(exception);
+
+		LOG.info(() -> "supplied");
+		assertThat(lastMessage()).isEqualTo("supplied");
+	}
+
+	@Test
+	public void testDisabledLevelDoesNotFormat() {
+		org.apache.log4j.Logger.getLogger(NAME).setLevel(Level.INFO);
+		LOG.debug(() -> {
+			throw new IllegalStateException("must not be called");
+		});
+		LOG.debug("value {0}", 1L);
+		assertThat(events).isEmpty();
+	}
+}
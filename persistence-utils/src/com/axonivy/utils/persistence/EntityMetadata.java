@@ -0,0 +1,447 @@
+package com.axonivy.utils.persistence;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.Cacheable;
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Id;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import javax.persistence.PersistenceException;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import com.axonivy.utils.persistence.accessor.EntityAccessor;
+import com.axonivy.utils.persistence.annotations.Audit;
+import com.axonivy.utils.persistence.annotations.CascadeCopy;
+import com.axonivy.utils.persistence.beans.Updatable;
+import com.axonivy.utils.persistence.history.handler.AuditHandler;
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Metadata of a class, which is read once by reflection and then shared.
+ *
+ * <p>
+ * Annotation lookups and field scans are not repeated on every DAO call. Metadata is created on
+ * first access by {@link #of(Class)} and kept in a {@link ClassValue}, so it can be used by any
+ * number of threads without locking. The metadata references the class, its fields and its audit
+ * handler, it is not evicted while the class is in use.
+ * </p>
+ */
+public final class EntityMetadata {
+	private static final Logger LOG = Logger.getLogger(EntityMetadata.class);
+
+	private static final ClassValue<EntityMetadata> REGISTRY = new ClassValue<EntityMetadata>() {
+		@Override
+		protected EntityMetadata computeValue(Class<?> type) {
+			return new EntityMetadata(type);
+		}
+	};
+
+	/**
+	 * Mapping of a field as seen by {@link com.axonivy.utils.persistence.dao.AbstractDAO#cascadeCopy(Object, Class...)}.
+	 *
+	 * If a field has multiple annotations, the first in this order wins.
+	 */
+	public enum Mapping {
+		ID,
+		VERSION,
+		COLUMN,
+		EMBEDDED,
+		ONE_TO_ONE,
+		MANY_TO_ONE,
+		ONE_TO_MANY,
+		MANY_TO_MANY,
+		NONE
+	}
+
+	private final Class<?> type;
+	private final Audit audit;
+	private final boolean updatable;
+	private final boolean cacheable;
+	private final String tableName;
+	private final EntityAccessor<?> accessor;
+	private final Map<String, Field> fieldMap;
+	private final Map<String, Field> columnFieldMap;
+	private final Field idField;
+	private final Field versionField;
+	private volatile List<PersistentField> copyOrder;
+	private volatile AuditHandler auditHandler;
+
+	private EntityMetadata(Class<?> type) {
+		this.type = type;
+		this.audit = type.getAnnotation(Audit.class);
+		this.updatable = Updatable.class.isAssignableFrom(type);
+		Cacheable cacheableAnnotation = type.getAnnotation(Cacheable.class);
+		this.cacheable = cacheableAnnotation != null && cacheableAnnotation.value();
+		Table table = type.getAnnotation(Table.class);
+		this.tableName = table != null ? table.name() : "";
+
+		EntityAccessor<?> generated = EntityAccessor.find(type);
+		Map<String, Field> fields = null;
+		Map<String, Field> columns = null;
+		if (generated != null) {
+			try {
+				fields = generated.createFieldMap();
+				columns = generated.createColumnFieldMap();
+			} catch (RuntimeException e) {
+				LOG.warn("ignoring generated accessor of {0}", e, type.getName());
+				generated = null;
+			}
+		}
+		this.accessor = generated;
+
+		if (generated == null) {
+			fields = new HashMap<>();
+			collectFields(type, fields);
+			columns = new HashMap<>();
+			for (Field field : fields.values()) {
+				Column column = field.getAnnotation(Column.class);
+				if (column != null) {
+					columns.put(column.name(), field);
+				} else if (field.isAnnotationPresent(EmbeddedId.class) || field.isAnnotationPresent(Embedded.class)) {
+					columns.putAll(of(field.getType()).getColumnFieldMap());
+				}
+			}
+		}
+		this.fieldMap = Collections.unmodifiableMap(fields);
+		this.columnFieldMap = Collections.unmodifiableMap(columns);
+
+		Field id = null;
+		Field version = null;
+		for (Field field : fields.values()) {
+			if (field.isAnnotationPresent(Id.class) || field.isAnnotationPresent(EmbeddedId.class)) {
+				id = field;
+			} else if (field.isAnnotationPresent(Version.class)) {
+				version = field;
+			}
+		}
+		this.idField = id;
+		this.versionField = version;
+	}
+
+	/**
+	 * Get the metadata of a class.
+	 *
+	 * @param type class
+	 * @return metadata, never <code>null</code>
+	 */
+	public static EntityMetadata of(Class<?> type) {
+		return REGISTRY.get(type);
+	}
+
+	/**
+	 * Collect most specific versions of fields, walking up the class hierarchy.
+	 */
+	private static void collectFields(Class<?> clazz, Map<String, Field> map) {
+		for (Field field : clazz.getDeclaredFields()) {
+			map.putIfAbsent(field.getName(), field);
+		}
+		Class<?> superClass = clazz.getSuperclass();
+		if (superClass != null) {
+			collectFields(superClass, map);
+		}
+	}
+
+	/**
+	 * Get the accessor generated at build time.
+	 *
+	 * @return accessor or <code>null</code> if none was generated
+	 */
+	public EntityAccessor<?> getAccessor() {
+		return accessor;
+	}
+
+	/**
+	 * Get the class.
+	 *
+	 * @return class
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Is the class annotated with {@link Audit}?
+	 *
+	 * @return <code>true</code> if audited
+	 */
+	public boolean isAudited() {
+		return audit != null;
+	}
+
+	/**
+	 * Get the {@link Audit} annotation.
+	 *
+	 * @return annotation or <code>null</code>
+	 */
+	public Audit getAudit() {
+		return audit;
+	}
+
+	/**
+	 * Get the audit handler of an audited class.
+	 *
+	 * The handler is created on first use and shared afterwards.
+	 *
+	 * @return handler or <code>null</code> if the class is not audited
+	 */
+	public AuditHandler getAuditHandler() {
+		if (audit == null) {
+			return null;
+		}
+		AuditHandler handler = auditHandler;
+		if (handler == null) {
+			synchronized (this) {
+				handler = auditHandler;
+				if (handler == null) {
+					try {
+						handler = audit.handler().getDeclaredConstructor().newInstance();
+					} catch (ReflectiveOperationException | RuntimeException e) {
+						throw new PersistenceException("Could not create audit handler " + audit.handler() + " for " + type, e);
+					}
+					LOG.debug("created audit handler {0} for {1}", audit.handler().getName(), type.getName());
+					auditHandler = handler;
+				}
+			}
+		}
+		return handler;
+	}
+
+	/**
+	 * Does the class implement {@link Updatable}?
+	 *
+	 * @return <code>true</code> if updatable
+	 */
+	public boolean isUpdatable() {
+		return updatable;
+	}
+
+	/**
+	 * Is the class annotated as {@link Cacheable} for the second level cache?
+	 *
+	 * @return <code>true</code> if cacheable
+	 */
+	public boolean isCacheable() {
+		return cacheable;
+	}
+
+	/**
+	 * Get the name of the table.
+	 *
+	 * @return name from the {@link Table} annotation or an empty string
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * Get the field annotated with {@link Id} or {@link EmbeddedId}.
+	 *
+	 * @return field or <code>null</code>
+	 */
+	public Field getIdField() {
+		return idField;
+	}
+
+	/**
+	 * Get the field annotated with {@link Version}.
+	 *
+	 * @return field or <code>null</code>
+	 */
+	public Field getVersionField() {
+		return versionField;
+	}
+
+	/**
+	 * Get the most specific versions of all fields, see {@link ReflectionUtilitities#getFieldMap(Class)}.
+	 *
+	 * @return unmodifiable map of field name to field
+	 */
+	public Map<String, Field> getFieldMap() {
+		return fieldMap;
+	}
+
+	/**
+	 * Get the fields annotated as {@link Column}, including columns of embedded fields,
+	 * see {@link ReflectionUtilitities#getColumnFieldMap(Class)}.
+	 *
+	 * @return unmodifiable map of column name to field
+	 */
+	public Map<String, Field> getColumnFieldMap() {
+		return columnFieldMap;
+	}
+
+	/**
+	 * Get all fields in the order used for a cascading copy.
+	 *
+	 * Fields are sorted by name, fields which reference other fields by {@link CascadeCopy#reference()} come last.
+	 * The list is built on first use, because only entities are copied.
+	 *
+	 * @return unmodifiable list of fields
+	 */
+	public List<PersistentField> getCopyOrder() {
+		List<PersistentField> result = copyOrder;
+		if (result == null) {
+			List<PersistentField> first = new ArrayList<>(fieldMap.size());
+			List<PersistentField> referenced = new ArrayList<>();
+			for (Field field : fieldMap.values()) {
+				PersistentField persistentField = new PersistentField(field);
+				if (persistentField.isReference()) {
+					referenced.add(persistentField);
+				} else {
+					first.add(persistentField);
+				}
+			}
+
+			// sort by name, so debugging will be easier
+			first.sort((left, right) -> left.getName().compareTo(right.getName()));
+			referenced.sort((left, right) -> left.getName().compareTo(right.getName()));
+			first.addAll(referenced);
+			result = Collections.unmodifiableList(first);
+			copyOrder = result;
+		}
+		return result;
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return "EntityMetadata [type=" + type.getName() + ", tableName=" + tableName + ", audited=" + isAudited()
+		+ ", updatable=" + updatable + ", cacheable=" + cacheable + ", fields=" + fieldMap.size() + "]";
+	}
+
+	/**
+	 * A field with its mapping annotations.
+	 */
+	public static final class PersistentField {
+		private final Field field;
+		private final Mapping mapping;
+		private final boolean cascade;
+		private final CascadeCopy cascadeCopy;
+
+		private PersistentField(Field field) {
+			this.field = field;
+			this.cascadeCopy = field.getAnnotation(CascadeCopy.class);
+
+			OneToOne oneToOne = field.getAnnotation(OneToOne.class);
+			ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+			OneToMany oneToMany = field.getAnnotation(OneToMany.class);
+			ManyToMany manyToMany = field.getAnnotation(ManyToMany.class);
+
+			if (field.isAnnotationPresent(Id.class) || field.isAnnotationPresent(EmbeddedId.class)) {
+				mapping = Mapping.ID;
+			} else if (field.isAnnotationPresent(Version.class)) {
+				mapping = Mapping.VERSION;
+			} else if (field.isAnnotationPresent(Column.class)) {
+				mapping = Mapping.COLUMN;
+			} else if (field.isAnnotationPresent(Embedded.class)) {
+				mapping = Mapping.EMBEDDED;
+			} else if (oneToOne != null) {
+				mapping = Mapping.ONE_TO_ONE;
+			} else if (manyToOne != null) {
+				mapping = Mapping.MANY_TO_ONE;
+			} else if (oneToMany != null) {
+				mapping = Mapping.ONE_TO_MANY;
+			} else if (manyToMany != null) {
+				mapping = Mapping.MANY_TO_MANY;
+			} else {
+				mapping = Mapping.NONE;
+			}
+
+			switch (mapping) {
+			case ONE_TO_ONE:
+				cascade = isCascade(oneToOne.cascade());
+				break;
+			case MANY_TO_ONE:
+				cascade = isCascade(manyToOne.cascade());
+				break;
+			case ONE_TO_MANY:
+				cascade = isCascade(oneToMany.cascade());
+				break;
+			case MANY_TO_MANY:
+				cascade = isCascade(manyToMany.cascade());
+				break;
+			default:
+				cascade = false;
+				break;
+			}
+
+		}
+
+		private static boolean isCascade(CascadeType[] cascadeTypes) {
+			for (CascadeType cascadeType : cascadeTypes) {
+				if (cascadeType == CascadeType.ALL || cascadeType == CascadeType.MERGE) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Get the field.
+		 *
+		 * @return field
+		 */
+		public Field getField() {
+			return field;
+		}
+
+		/**
+		 * Get the name of the field.
+		 *
+		 * @return name
+		 */
+		public String getName() {
+			return field.getName();
+		}
+
+		/**
+		 * Get the mapping of the field.
+		 *
+		 * @return mapping
+		 */
+		public Mapping getMapping() {
+			return mapping;
+		}
+
+		/**
+		 * Is the relation cascading (by {@link CascadeType#ALL} or {@link CascadeType#MERGE})?
+		 *
+		 * @return <code>true</code> for cascading relations
+		 */
+		public boolean isCascade() {
+			return cascade;
+		}
+
+		/**
+		 * Get the {@link CascadeCopy} annotation.
+		 *
+		 * @return annotation or <code>null</code>
+		 */
+		public CascadeCopy getCascadeCopy() {
+			return cascadeCopy;
+		}
+
+		/**
+		 * Does the field reference another field by {@link CascadeCopy#reference()}?
+		 *
+		 * @return <code>true</code> if it is copied after all other fields
+		 */
+		public boolean isReference() {
+			return cascadeCopy != null && !cascadeCopy.reference().equals(CascadeCopy.NOREF);
+		}
+	}
+}
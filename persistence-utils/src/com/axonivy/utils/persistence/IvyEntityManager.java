@@ -7,7 +7,15 @@ import java.util.Map.Entry;
 import org.hibernate.Session;
 
 import com.axonivy.utils.persistence.dao.AutoCloseTransaction;
+import com.axonivy.utils.persistence.jfr.SessionEvent;
+import com.axonivy.utils.persistence.leaks.LeakDetector;
+import com.axonivy.utils.persistence.leaks.OpenResource;
+import com.axonivy.utils.persistence.leaks.ResourceKind;
 import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.management.PersistenceManagement;
+import com.axonivy.utils.persistence.metrics.DaoMetrics;
+import com.axonivy.utils.persistence.statements.QueryTags;
+import com.axonivy.utils.persistence.statements.SessionStatements;
 
 import ch.ivyteam.ivy.environment.Ivy;
 import ch.ivyteam.ivy.process.data.persistence.IIvyEntityManager;
@@ -26,6 +34,10 @@ public class IvyEntityManager {
 
 	private final ThreadLocal<Integer> sessions = new ThreadLocal<>();
 
+	private final ThreadLocal<SessionEvent> sessionEvents = new ThreadLocal<>();
+
+	private final ThreadLocal<OpenResource> openSessions = new ThreadLocal<>();
+
 	private final ThreadLocal<Map<String, PersistenceContext>> threadLocalPersistenceContexts = new ThreadLocal<>();
 
 
@@ -170,6 +182,9 @@ public class IvyEntityManager {
 						Thread.currentThread().getId(), session, oldSession);
 			}
 			persistentContext.setHibernateSession(session);
+			PersistenceManagement.getInstance().registerSessionFactory(persistenceIdentifier, session.getSessionFactory());
+			LeakDetector.getInstance().attach(session.getSessionFactory());
+			DaoMetrics.getInstance().attach(session.getSessionFactory());
 		}
 
 		return session;
@@ -190,9 +205,26 @@ public class IvyEntityManager {
 		Integer count = sessions.get();
 		if (count == null) {
 			count = 0;
+			SessionStatements.begin();
+			SessionEvent event = SessionEvent.start();
+			if (event != null) {
+				sessionEvents.set(event);
+			}
+			OpenResource openSession = LeakDetector.getInstance().open(ResourceKind.SESSION);
+			if (openSession != null) {
+				openSessions.set(openSession);
+			}
 		}
 		sessions.set(++count);
-		LOG.debug("thread {0} began a new session, nesting count is now {1}", Thread.currentThread().getId(), count);
+		if (count > 1) {
+			OpenResource openSession = openSessions.get();
+			if (openSession != null) {
+				openSession.setDepth(count);
+			}
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("thread {0} began a new session, nesting count is now {1}", Thread.currentThread().getId(), count);
+		}
 		return () -> closeSession(); // call closeSession automatically when invoked via try with resources call ,
 										// e.g. try( AutoCloseTransaction autoclose = beginSession) {...
 	}
@@ -210,6 +242,7 @@ public class IvyEntityManager {
 		count--;
 
 		boolean closedEm = false;
+		int closedEms = 0;
 		if (count <= 0) {
 			if (count < 0) {
 				LOG.warn("thread {0} closed a session which was not opened, count is {1}",
@@ -225,21 +258,42 @@ public class IvyEntityManager {
 					if (session != null && session.isOpen()) {
 						session.clear();
 						session.close();
+						closedEms++;
 					}
 					persistenceContext.setHibernateSession(null);
-					LOG.debug("thread {0} context {1} closed entity manager: {2} because session nesting count was 0",
-							Thread.currentThread().getId(), entry.getKey(), session);
+					if (LOG.isDebugEnabled()) {
+						LOG.debug("thread {0} context {1} closed entity manager: {2} because session nesting count was 0",
+								Thread.currentThread().getId(), entry.getKey(), session);
+					}
 					closedEm = true;
 				}
 			}
 
 			sessions.remove();
+			SessionStatements.end();
+			QueryTags.endSession();
+			SessionEvent event = sessionEvents.get();
+			if (event != null) {
+				sessionEvents.remove();
+				event.end(closedEms);
+			}
+			OpenResource openSession = openSessions.get();
+			if (openSession != null) {
+				openSessions.remove();
+				LeakDetector.getInstance().close(openSession);
+			}
 		} else {
 			sessions.set(count);
+			OpenResource openSession = openSessions.get();
+			if (openSession != null) {
+				openSession.setDepth(count);
+			}
 		}
 
-		LOG.debug("thread {0} closed a session, nesting count is now {1} {2}", Thread.currentThread().getId(), count,
-				closedEm ? "(the entity manager was closed)" : "");
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("thread {0} closed a session, nesting count is now {1} {2}", Thread.currentThread().getId(), count,
+					closedEm ? "(the entity manager was closed)" : "");
+		}
 	}
 	
 }
\ No newline at end of file
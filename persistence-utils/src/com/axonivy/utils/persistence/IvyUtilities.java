@@ -12,6 +12,7 @@ import ch.ivyteam.ivy.security.ISecurityContext;
 import ch.ivyteam.ivy.server.ServerFactory;
 import ch.ivyteam.ivy.security.IRole;
 import ch.ivyteam.ivy.application.IApplication;
+import ch.ivyteam.ivy.application.IProcessModelVersion;
 
 /**
  * Some Ivy Utilities for the process.
@@ -44,6 +45,24 @@ public class IvyUtilities {
 		return result;
 	}
 
+	/**
+	 * Get the qualified name of the currently active process model version.
+	 *
+	 * @return name like <code>application/processModel$version</code> or <code>null</code> if there is none
+	 */
+	public static String getProcessModelVersionName() {
+		String result = null;
+		try {
+			result = asSystem(() -> {
+				IProcessModelVersion pmv = Ivy.request().getProcessModelVersion();
+				return pmv.getApplication().getName() + "/" + pmv.getProcessModel().getName() + "$" + pmv.getVersionName();
+			});
+		} catch (Exception e) {
+			LOG.warn("Could not get process model version name, returning {0}", e, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Execute a call via the system context, where more permissions are allowed
 	 * 
@@ -15,10 +15,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import javax.persistence.Column;
-import javax.persistence.Embedded;
-import javax.persistence.EmbeddedId;
-import javax.persistence.Table;
 import javax.persistence.metamodel.PluralAttribute;
 import javax.persistence.metamodel.SingularAttribute;
 
@@ -26,6 +22,7 @@ import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.axonivy.utils.persistence.accessor.EntityAccessor;
 import com.axonivy.utils.persistence.beans.GenericEntity;
 import com.axonivy.utils.persistence.logging.Logger;
 
@@ -35,8 +32,6 @@ import com.axonivy.utils.persistence.logging.Logger;
  */
 public class ReflectionUtilitities {
 
-	private static Map<Class<?>, Map<String, Field>> columnFieldsByClass = new HashMap<>();
-	private static Map<Class<?>, Map<String, Field>> fieldsByClass = new HashMap<>();
 	private static final Logger LOG = Logger.getLogger(ReflectionUtilitities.class);
 
 	private ReflectionUtilitities() {
@@ -50,7 +45,7 @@ public class ReflectionUtilitities {
 	 * I.e. if a field is defined in a sub-class, the "upper-most" version will be
 	 * taken.
 	 *
-	 * Maps are cached and will be reused if called again.
+	 * Maps are cached in {@link EntityMetadata} and must not be modified.
 	 *
 	 * @param object the object
 	 * @return a map represent of most specific versions of {@link Field}s
@@ -63,7 +58,7 @@ public class ReflectionUtilitities {
 	 * Recursively walk through class and build a map of most specific versions of
 	 * {@link Field}s.
 	 *
-	 * Maps are cached and will be reused if called again.
+	 * Maps are cached in {@link EntityMetadata} and must not be modified.
 	 *
 	 * I.e. if a field is defined in a sub-class, the "upper-most" version will be
 	 * taken.
@@ -72,15 +67,7 @@ public class ReflectionUtilitities {
 	 * @return a map represent of most specific versions of {@link Field}s
 	 */
 	public static Map<String, Field> getFieldMap(Class<?> clazz) {
-		Map<String, Field> fieldMap = fieldsByClass.get(clazz);
-		if (fieldMap == null) {
-			fieldMap = internalGetFieldMap(clazz, null);
-			synchronized (fieldsByClass) {
-				fieldsByClass.put(clazz, fieldMap);
-			}
-		}
-
-		return fieldMap;
+		return EntityMetadata.of(clazz).getFieldMap();
 	}
 
 	/**
@@ -114,38 +101,6 @@ public class ReflectionUtilitities {
 		return result;
 	}
 
-	/**
-	 * Recursively walk through class and collect most specific versions of
-	 * {@link Field}s.
-	 *
-	 * @param clazz the class
-	 * @param oldMap the map
-	 * @return a map represent of most specific versions of {@link Field}s
-	 */
-	private static Map<String, Field> internalGetFieldMap(Class<?> clazz,
-			Map<String, Field> oldMap) {
-		Map<String, Field> map = oldMap;
-		if (map == null) {
-			map = new HashMap<>();
-		}
-
-		for (Field field : clazz.getDeclaredFields()) {
-			String name = field.getName();
-			Field storedField = map.get(name);
-
-			if (storedField == null) {
-				map.put(name, field);
-			}
-		}
-
-		Class<?> superClass = clazz.getSuperclass();
-		if (superClass != null) {
-			internalGetFieldMap(superClass, map);
-		}
-
-		return map;
-	}
-
 	/**
 	 * Get a list of method names with a given prefix.
 	 *
@@ -271,6 +226,21 @@ public class ReflectionUtilitities {
 	 */
 	public static Object getValue(Object object, String fieldName)
 			throws NoSuchMethodException {
+		EntityAccessor<Object> accessor = accessor(object);
+		if (accessor != null) {
+			try {
+				Object value = accessor.getValue(object, fieldName);
+				if (value != EntityAccessor.UNKNOWN) {
+					return value;
+				}
+			} catch (RuntimeException e) {
+				LOG.debug("getter method problem ", e);
+				throw new NoSuchMethodException("getter method for "
+						+ object.getClass().getCanonicalName() + "." + fieldName
+						+ " failed");
+			}
+		}
+
 		Method method = getGetterMethod(object.getClass(), fieldName);
 		if (method != null) {
 			try {
@@ -297,11 +267,23 @@ public class ReflectionUtilitities {
 	 */
 	public static <T extends Object> void setValue(Object object,
 			String fieldName, T value) throws NoSuchMethodException {
+		EntityAccessor<Object> accessor = accessor(object);
+		if (accessor != null && value != null) {
+			try {
+				if (accessor.setValue(object, fieldName, value)) {
+					return;
+				}
+			} catch (ClassCastException e) {
+				LOG.debug("generated setter does not accept {0}, using reflection", value.getClass());
+			}
+		}
+
 		Method method = getSetterMethod(object.getClass(), fieldName,
 				value.getClass());
 		if (method != null) {
 			try {
 				method.invoke(object, value);
+				return;
 			} catch (IllegalAccessException | IllegalArgumentException
 					| InvocationTargetException e) {
 				LOG.error("setter method error", e);
@@ -329,43 +311,15 @@ public class ReflectionUtilitities {
 
 	/**
 	 * Recursively walk through class and collect most specific versions of
-	 * {@link Field}s which are annotated as being {@link Column}s.
+	 * {@link Field}s which are annotated as being {@link javax.persistence.Column}s.
 	 *
-	 * Cache result.
+	 * The result is cached in {@link EntityMetadata} and must not be modified.
 	 *
 	 * @param clazz the class
 	 * @return column field map
 	 */
 	public static Map<String, Field> getColumnFieldMap(Class<?> clazz) {
-		Map<String, Field> columnFieldMap = columnFieldsByClass.get(clazz);
-		if (columnFieldMap == null) {
-			columnFieldMap = getColumnFieldMap(clazz,
-					new HashMap<String, Field>());
-			synchronized (columnFieldsByClass) {
-				columnFieldsByClass.put(clazz, columnFieldMap);
-			}
-		}
-		return columnFieldMap;
-	}
-
-	private static Map<String, Field> getColumnFieldMap(Class<?> clazz,
-			Map<String, Field> columnFieldMap) {
-		Map<String, Field> fieldMap = internalGetFieldMap(clazz, null);
-
-		for (Field field : fieldMap.values()) {
-			Column columnAnnotation = field.getAnnotation(Column.class);
-			if (columnAnnotation != null) {
-				String name = columnAnnotation.name();
-				if (name != null) {
-					columnFieldMap.put(name, field);
-				}
-			} else if (field.getAnnotation(EmbeddedId.class) != null
-					|| field.getAnnotation(Embedded.class) != null) {
-				// recursive call
-				getColumnFieldMap(field.getType(), columnFieldMap);
-			}
-		}
-		return columnFieldMap;
+		return EntityMetadata.of(clazz).getColumnFieldMap();
 	}
 
 	/**
@@ -375,14 +329,7 @@ public class ReflectionUtilitities {
 	 * @return the name of table
 	 */
 	public static String getTablename(Class<?> type) {
-		String tablename = "";
-
-		Table annotation = type.getAnnotation(Table.class);
-		if (annotation != null) {
-			tablename = annotation.name();
-		}
-
-		return tablename;
+		return EntityMetadata.of(type).getTableName();
 	}
 
 	/**
@@ -391,6 +338,12 @@ public class ReflectionUtilitities {
 	 * @param current origin bean whose properties are retrieved
 	 */
 	public static void copyProperties(Object histBean, Object current) {
+		EntityAccessor<Object> accessor = accessor(current);
+		if (accessor != null && histBean != null && histBean.getClass() == current.getClass()) {
+			accessor.copyProperties(histBean, current);
+			return;
+		}
+
 		try {
 			PropertyUtils.copyProperties(histBean, current);
 		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
@@ -533,6 +486,11 @@ public class ReflectionUtilitities {
 	 * @param field the object
 	 */
 	public static void clearField(GenericEntity<?> instance, Field field) {
+		EntityAccessor<Object> accessor = accessor(instance);
+		if (accessor != null && accessor.clearField(instance, field.getName())) {
+			return;
+		}
+
 		try {
 			field.setAccessible(true);
 			field.set(instance, null);
@@ -542,4 +500,14 @@ public class ReflectionUtilitities {
 		}
 	}
 
+	/**
+	 * Get the generated accessor for the class of an object.
+	 *
+	 * @param object the object
+	 * @return accessor or <code>null</code>
+	 */
+	@SuppressWarnings("unchecked")
+	private static EntityAccessor<Object> accessor(Object object) {
+		return object != null ? (EntityAccessor<Object>) EntityMetadata.of(object.getClass()).getAccessor() : null;
+	}
 }
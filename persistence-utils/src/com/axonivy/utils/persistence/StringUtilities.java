@@ -19,7 +19,10 @@ import com.axonivy.utils.persistence.logging.Logger;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.type.CollectionType;
 
 /**
@@ -30,6 +33,11 @@ public class StringUtilities {
 	private static final String CLASS_SEPARATOR_STRING = ".class:";
 	private static final String CLASS_SEPARATOR_REGEX = "\\"+CLASS_SEPARATOR_STRING;
 	private static final Logger LOG = Logger.getLogger(StringUtilities.class);
+	/**
+	 * Mappers are thread safe once configured and expensive to create, so they are shared.
+	 */
+	private static final ObjectMapper WRITING_MAPPER = new ObjectMapper().setSerializationInclusion(Include.NON_EMPTY);
+	private static final ObjectMapper READING_MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
 	private StringUtilities(){
 		//no init needed
@@ -391,8 +399,7 @@ public class StringUtilities {
 	 * @return converted class
 	 */
 	public static <T,U> T fromJSONToObject(String jsonValue, Class<T> clazz, Class<U> clazzEntry) {
-		ObjectMapper objMap = new ObjectMapper();
-		objMap.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		ObjectMapper objMap = READING_MAPPER;
 		T deserializedInstance;
 		if(jsonValue!= null){
 			String jsonString = jsonValue.replaceFirst(".*" + CLASS_SEPARATOR_REGEX, "");
@@ -426,9 +433,7 @@ public class StringUtilities {
 	public static String fromObjectToJSON(Object value) {
 		if(value != null){
 			try {
-				ObjectMapper objectMapper = new ObjectMapper();
-				objectMapper.setSerializationInclusion(Include.NON_EMPTY);
-				return objectMapper.writeValueAsString(value);
+				return WRITING_MAPPER.writeValueAsString(value);
 			} catch (JsonProcessingException e) {
 				LOG.error("Could not serialize value {0} into json string", e, value);
 			}
@@ -437,6 +442,38 @@ public class StringUtilities {
 		return null;
 	}
 
+	/**
+	 * Convert an object to a JSON tree with the settings of {@link #fromObjectToJSON(Object)}.
+	 *
+	 * @param value object
+	 * @return tree, a <code>null</code> node for <code>null</code>
+	 */
+	public static JsonNode fromObjectToJSONTree(Object value) {
+		return WRITING_MAPPER.valueToTree(value);
+	}
+
+	/**
+	 * Get a writer with the settings of {@link #fromObjectToJSON(Object)}.
+	 *
+	 * Writers are immutable, settings can be changed on copies, e.g. with {@link ObjectWriter#without(com.fasterxml.jackson.core.JsonGenerator.Feature)}.
+	 *
+	 * @return writer
+	 */
+	public static ObjectWriter getJSONWriter() {
+		return WRITING_MAPPER.writer();
+	}
+
+	/**
+	 * Get a reader with the settings of {@link #fromJSONToObject(String, Class)}.
+	 *
+	 * Readers are immutable, settings can be changed on copies, e.g. with {@link ObjectReader#forType(Class)}.
+	 *
+	 * @return reader
+	 */
+	public static ObjectReader getJSONReader() {
+		return READING_MAPPER.reader();
+	}
+
 	/**
 	 * Remove leading and trailing spaces, replace multiple space-characters by single space.
 	 *
@@ -0,0 +1,187 @@
+package com.axonivy.utils.persistence.accessor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Plain Java access to the properties of an entity, generated at build time.
+ *
+ * <p>
+ * Implementations are generated by the <code>persistence-utils-processor</code> annotation processor
+ * for every entity and embeddable class as <code>&lt;Entity&gt;_Accessor</code> in the package of the entity.
+ * {@link com.axonivy.utils.persistence.ReflectionUtilitities} dispatches to them, if they exist,
+ * and uses reflection otherwise.
+ * </p>
+ *
+ * @param <E> entity
+ */
+public abstract class EntityAccessor<E> {
+	private static final Logger LOG = Logger.getLogger(EntityAccessor.class);
+
+	/**
+	 * Suffix of generated accessor classes.
+	 */
+	public static final String SUFFIX = "_Accessor";
+
+	/**
+	 * Returned by {@link #getValue(Object, String)} for properties without getter.
+	 */
+	public static final Object UNKNOWN = new Object();
+
+	private final Class<E> type;
+	private volatile Map<String, VarHandle> nullableFields;
+
+	/**
+	 * Create an accessor.
+	 *
+	 * @param type entity class
+	 */
+	protected EntityAccessor(Class<E> type) {
+		this.type = type;
+	}
+
+	/**
+	 * Find the generated accessor of a class.
+	 *
+	 * @param type class
+	 * @return accessor or <code>null</code> if none was generated
+	 */
+	public static EntityAccessor<?> find(Class<?> type) {
+		ClassLoader classLoader = type.getClassLoader();
+		if (classLoader == null || type.isArray() || type.isPrimitive()) {
+			return null;
+		}
+		try {
+			Class<?> accessorClass = Class.forName(type.getName() + SUFFIX, true, classLoader);
+			if (EntityAccessor.class.isAssignableFrom(accessorClass)) {
+				EntityAccessor<?> accessor = (EntityAccessor<?>) accessorClass.getDeclaredConstructor().newInstance();
+				if (accessor.getType() == type) {
+					return accessor;
+				}
+			}
+			LOG.warn("ignoring {0}, it is no accessor of {1}", accessorClass.getName(), type.getName());
+		} catch (ClassNotFoundException e) {
+			// nothing generated, use reflection
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+			LOG.warn("could not create generated accessor of {0}", e, type.getName());
+		}
+		return null;
+	}
+
+	/**
+	 * Get the entity class.
+	 *
+	 * @return class
+	 */
+	public Class<E> getType() {
+		return type;
+	}
+
+	/**
+	 * Create the map of the most specific versions of all fields.
+	 *
+	 * @return map of field name to field
+	 */
+	public abstract Map<String, Field> createFieldMap();
+
+	/**
+	 * Create the map of all fields annotated as {@link javax.persistence.Column}, including embedded columns.
+	 *
+	 * @return map of column name to field
+	 */
+	public abstract Map<String, Field> createColumnFieldMap();
+
+	/**
+	 * Read a property by its getter.
+	 *
+	 * @param entity entity
+	 * @param property property name
+	 * @return value or {@link #UNKNOWN} if there is no getter
+	 */
+	public abstract Object getValue(E entity, String property);
+
+	/**
+	 * Write a property by its setter.
+	 *
+	 * @param entity entity
+	 * @param property property name
+	 * @param value value
+	 * @return <code>false</code> if there is no setter
+	 * @throws ClassCastException if the value does not match the setter
+	 */
+	public abstract boolean setValue(E entity, String property, Object value);
+
+	/**
+	 * Copy all properties which have a getter and a setter.
+	 *
+	 * @param target entity to write to
+	 * @param source entity to read from
+	 */
+	public abstract void copyProperties(E target, E source);
+
+	/**
+	 * Set a field to <code>null</code> by direct assignment, the setter is not called.
+	 *
+	 * @param entity entity
+	 * @param field field name
+	 * @return <code>false</code> if the field is primitive, final, static or not accessible
+	 */
+	public boolean clearField(E entity, String field) {
+		VarHandle handle = getNullableFields().get(field);
+		if (handle == null) {
+			return false;
+		}
+		handle.set(entity, (Object) null);
+		return true;
+	}
+
+	private Map<String, VarHandle> getNullableFields() {
+		Map<String, VarHandle> result = nullableFields;
+		if (result == null) {
+			result = new HashMap<>();
+			for (Field field : createFieldMap().values()) {
+				int modifiers = field.getModifiers();
+				if (field.getType().isPrimitive() || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+					continue;
+				}
+				try {
+					result.put(field.getName(), MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field));
+				} catch (IllegalAccessException | RuntimeException e) {
+					LOG.debug("field {0} is cleared by reflection", e, field);
+				}
+			}
+			result = Collections.unmodifiableMap(result);
+			nullableFields = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Look up a field known at build time.
+	 *
+	 * @param type class of the entity
+	 * @param declaringClass name of the class declaring the field, the entity or a super class
+	 * @param name name of the field
+	 * @return field
+	 * @throws IllegalStateException if the field does not exist (anymore)
+	 */
+	protected static Field field(Class<?> type, String declaringClass, String name) {
+		for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+			if (clazz.getName().equals(declaringClass)) {
+				try {
+					return clazz.getDeclaredField(name);
+				} catch (NoSuchFieldException e) {
+					throw new IllegalStateException("Generated accessor of " + type.getName() + " is out of date", e);
+				}
+			}
+		}
+		throw new IllegalStateException("Generated accessor of " + type.getName() + " is out of date, no super class " + declaringClass);
+	}
+}
@@ -17,4 +17,14 @@ import com.axonivy.utils.persistence.history.handler.AuditHandler;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Audit {
 	Class<? extends AuditHandler> handler();
+
+	/**
+	 * Attributes extracted into the indexed history attribute table on every audited change.
+	 *
+	 * Attributes are property names, nested properties are separated by a dot (e.g. <code>department.name</code>).
+	 *
+	 * @see com.axonivy.utils.persistence.history.beans.HistoryAttribute
+	 * @return attribute names
+	 */
+	String[] indexedAttributes() default {};
 }
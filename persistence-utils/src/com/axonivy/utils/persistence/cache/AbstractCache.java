@@ -1,5 +1,7 @@
 package com.axonivy.utils.persistence.cache;
 
+import com.axonivy.utils.persistence.jfr.CacheBuildEvent;
+
 /**
  * Base class for simple caches.
  *
@@ -12,6 +14,7 @@ public abstract class AbstractCache {
 
 	private boolean valid = false;
 	private long hits = 0L;
+	private final CacheStatistics statistics = new CacheStatistics();
 
 	/**
 	 * Build the cache.
@@ -25,6 +28,40 @@ public abstract class AbstractCache {
 	 */
 	public abstract boolean build();
 
+	/**
+	 * Get the name of this cache.
+	 *
+	 * The name identifies the cache in the {@link CacheService} and in management beans.
+	 * Override it, if a cache class is used for multiple caches.
+	 *
+	 * @return name, by default the canonical name of the cache class
+	 */
+	public String getName() {
+		return getClass().getCanonicalName();
+	}
+
+	/**
+	 * Get the number of entries in this cache.
+	 *
+	 * Override this function to provide the number for statistics.
+	 *
+	 * @return number of entries or -1 if unknown
+	 */
+	public long getEntryCount() {
+		return -1L;
+	}
+
+	/**
+	 * Get the estimated memory retained by this cache.
+	 *
+	 * Override this function to provide the estimation for statistics.
+	 *
+	 * @return estimated size in bytes or -1 if unknown
+	 */
+	public long getEstimatedSize() {
+		return -1L;
+	}
+
 	/**
 	 * Check case is valid or not
 	 * @return boolean
@@ -41,6 +78,14 @@ public abstract class AbstractCache {
 		return hits;
 	}
 
+	/**
+	 * Return statistics since creation of the cache.
+	 * @return statistics
+	 */
+	public CacheStatistics getStatistics() {
+		return statistics;
+	}
+
 	/**
 	 * Validate the cache.
 	 *
@@ -50,9 +95,16 @@ public abstract class AbstractCache {
 	 */
 	public boolean validate() {
 		if (!valid) {
+			statistics.recordMiss();
+			CacheBuildEvent event = new CacheBuildEvent();
+			event.begin();
+			long start = System.currentTimeMillis();
 			valid = build();
+			statistics.recordBuild(System.currentTimeMillis() - start, valid);
+			event.end(this, valid);
 			hits = 0;
 		} else {
+			statistics.recordHit();
 			hits++;
 		}
 
@@ -0,0 +1,90 @@
+package com.axonivy.utils.persistence.cache;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Management interface of a single cache.
+ */
+public interface CacheMXBean {
+
+	/**
+	 * @return name of the cache
+	 */
+	String getName();
+
+	/**
+	 * @return whether the cache is currently valid
+	 */
+	boolean isValid();
+
+	/**
+	 * @return accesses answered without building
+	 */
+	long getHits();
+
+	/**
+	 * @return accesses which needed a build
+	 */
+	long getMisses();
+
+	/**
+	 * @return hits divided by all accesses
+	 */
+	double getHitRatio();
+
+	/**
+	 * @return number of builds
+	 */
+	long getBuilds();
+
+	/**
+	 * @return number of failed builds
+	 */
+	long getFailedBuilds();
+
+	/**
+	 * @return time of the last build
+	 */
+	Date getLastBuildTime();
+
+	/**
+	 * @return duration of the last build in milliseconds
+	 */
+	long getLastBuildMillis();
+
+	/**
+	 * @return average build duration in milliseconds
+	 */
+	double getAverageBuildMillis();
+
+	/**
+	 * @return number of builds per duration bucket
+	 */
+	Map<String, Long> getBuildDurationHistogram();
+
+	/**
+	 * @return number of entries or -1 if unknown
+	 */
+	long getEntryCount();
+
+	/**
+	 * @return estimated retained size in bytes or -1 if unknown
+	 */
+	long getEstimatedSize();
+
+	/**
+	 * Invalidate and rebuild the cache.
+	 */
+	void refresh();
+
+	/**
+	 * Invalidate the cache.
+	 */
+	void invalidate();
+
+	/**
+	 * Reset the statistics.
+	 */
+	void resetStatistics();
+}
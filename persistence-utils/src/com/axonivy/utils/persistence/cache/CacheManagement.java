@@ -0,0 +1,104 @@
+package com.axonivy.utils.persistence.cache;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * {@link CacheMXBean} of a single {@link AbstractCache}.
+ */
+public class CacheManagement implements CacheMXBean {
+
+	private final AbstractCache cache;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param cache managed cache
+	 */
+	public CacheManagement(AbstractCache cache) {
+		this.cache = cache;
+	}
+
+	@Override
+	public String getName() {
+		return cache.getName();
+	}
+
+	@Override
+	public boolean isValid() {
+		return cache.isValid();
+	}
+
+	@Override
+	public long getHits() {
+		return cache.getStatistics().getHits();
+	}
+
+	@Override
+	public long getMisses() {
+		return cache.getStatistics().getMisses();
+	}
+
+	@Override
+	public double getHitRatio() {
+		long hits = getHits();
+		long total = hits + getMisses();
+		return total > 0 ? (double) hits / total : 0.0;
+	}
+
+	@Override
+	public long getBuilds() {
+		return cache.getStatistics().getBuilds();
+	}
+
+	@Override
+	public long getFailedBuilds() {
+		return cache.getStatistics().getFailedBuilds();
+	}
+
+	@Override
+	public Date getLastBuildTime() {
+		return cache.getStatistics().getLastBuildTime();
+	}
+
+	@Override
+	public long getLastBuildMillis() {
+		return cache.getStatistics().getLastBuildMillis();
+	}
+
+	@Override
+	public double getAverageBuildMillis() {
+		long builds = getBuilds();
+		return builds > 0 ? (double) cache.getStatistics().getTotalBuildMillis() / builds : 0.0;
+	}
+
+	@Override
+	public Map<String, Long> getBuildDurationHistogram() {
+		return cache.getStatistics().getBuildDurationHistogram();
+	}
+
+	@Override
+	public long getEntryCount() {
+		return cache.getEntryCount();
+	}
+
+	@Override
+	public long getEstimatedSize() {
+		return cache.getEstimatedSize();
+	}
+
+	@Override
+	public void refresh() {
+		cache.refresh();
+	}
+
+	@Override
+	public void invalidate() {
+		cache.invalidate();
+	}
+
+	@Override
+	public void resetStatistics() {
+		cache.getStatistics().reset();
+	}
+}
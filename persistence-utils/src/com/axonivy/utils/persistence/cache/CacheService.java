@@ -1,20 +1,30 @@
 package com.axonivy.utils.persistence.cache;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.management.MBeanRegistry;
 
 /**
  * Maintain caches and allow for mass operations.
+ *
+ * Every registered cache is also published as {@link CacheMXBean} and the service itself
+ * as {@link CacheServiceMXBean}.
  */
-public class CacheService {
+public class CacheService implements CacheServiceMXBean {
 
 	private static final Logger LOG = Logger.getLogger(CacheService.class);
 
+	private static final String MBEAN_TYPE_CACHE = "Cache";
+	private static final String MBEAN_TYPE_SERVICE = "CacheService";
+
 	private static CacheService singleton = null;
 
-	protected Map<String, AbstractCache> longTermCacheMap = new HashMap<>();
+	protected Map<String, AbstractCache> longTermCacheMap = new ConcurrentHashMap<>();
 
 	/**
 	 * Hide public constructor.
@@ -29,6 +39,7 @@ public class CacheService {
 	public static synchronized CacheService getInstance() {
 		if(singleton == null) {
 			singleton = new CacheService();
+			MBeanRegistry.register(MBEAN_TYPE_SERVICE, null, singleton);
 		}
 
 		return singleton;
@@ -45,11 +56,64 @@ public class CacheService {
 	 */
 	public <T extends AbstractCache> T registerLongTermCache(T cache) {
 		LOG.info("register long term cache of type " + cache.getClass());
-		longTermCacheMap.put(cache.getClass().getCanonicalName(), cache);
+		longTermCacheMap.put(cache.getName(), cache);
+		MBeanRegistry.register(MBEAN_TYPE_CACHE, cache.getName(), new CacheManagement(cache));
 
 		return cache;
 	}
 
+	/**
+	 * Get a registered long term cache.
+	 *
+	 * @param name name of the cache, see {@link AbstractCache#getName()}
+	 * @return cache or <code>null</code>
+	 */
+	public AbstractCache getCache(String name) {
+		return longTermCacheMap.get(name);
+	}
+
+	@Override
+	public List<String> getCacheNames() {
+		List<String> names = new ArrayList<>(longTermCacheMap.keySet());
+		Collections.sort(names);
+		return names;
+	}
+
+	/**
+	 * Get the statistics of a registered long term cache.
+	 *
+	 * @param name name of the cache, see {@link AbstractCache#getName()}
+	 * @return statistics or <code>null</code> if the cache is not registered
+	 */
+	public CacheStatistics getStatistics(String name) {
+		AbstractCache cache = getCache(name);
+		return cache != null ? cache.getStatistics() : null;
+	}
+
+	@Override
+	public boolean refreshCache(String name) {
+		AbstractCache cache = getCache(name);
+		if (cache == null) {
+			LOG.warn("cannot refresh unknown long term cache: {0}", name);
+			return false;
+		}
+		LOG.info("refresh long term cache: {0}", name);
+		cache.refresh();
+		return true;
+	}
+
+	@Override
+	public boolean invalidateCache(String name) {
+		AbstractCache cache = getCache(name);
+		if (cache == null) {
+			LOG.warn("cannot invalidate unknown long term cache: {0}", name);
+			return false;
+		}
+		LOG.info("invalidating long term cache: {0}", name);
+		cache.invalidate();
+		return true;
+	}
+
 	/**
 	 * Refresh all long term caches.
 	 *
@@ -57,6 +121,7 @@ public class CacheService {
 	 * when calling this function, especially when calling via a
 	 * process!
 	 */
+	@Override
 	public void refreshAllLongTermCaches() {
 		LOG.info("refreshing all long term caches");
 		longTermCacheMap.entrySet().stream().forEach(entry -> {
@@ -68,6 +133,7 @@ public class CacheService {
 	/**
 	 * Invalidate all long term caches.
 	 */
+	@Override
 	public void invalidateAllLongTermCaches() {
 		LOG.info("invalidating all long term caches");
 		longTermCacheMap.entrySet().stream().forEach(entry -> {
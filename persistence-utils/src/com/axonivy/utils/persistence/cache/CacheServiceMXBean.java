@@ -0,0 +1,40 @@
+package com.axonivy.utils.persistence.cache;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link CacheService}.
+ */
+public interface CacheServiceMXBean {
+
+	/**
+	 * @return names of all registered long term caches
+	 */
+	List<String> getCacheNames();
+
+	/**
+	 * Refresh a single cache.
+	 *
+	 * @param name name of the cache
+	 * @return <code>true</code> if the cache was found
+	 */
+	boolean refreshCache(String name);
+
+	/**
+	 * Invalidate a single cache.
+	 *
+	 * @param name name of the cache
+	 * @return <code>true</code> if the cache was found
+	 */
+	boolean invalidateCache(String name);
+
+	/**
+	 * Refresh all long term caches.
+	 */
+	void refreshAllLongTermCaches();
+
+	/**
+	 * Invalidate all long term caches.
+	 */
+	void invalidateAllLongTermCaches();
+}
@@ -0,0 +1,178 @@
+package com.axonivy.utils.persistence.cache;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics of a single cache.
+ *
+ * Counters are kept since creation of the cache (in contrast to {@link AbstractCache#getHits()},
+ * which is reset on every build). All counters are thread safe.
+ */
+public class CacheStatistics {
+
+	/**
+	 * Upper bounds (inclusive, in milliseconds) of the build duration histogram buckets.
+	 * The last bucket collects all longer builds.
+	 */
+	protected static final long[] BUILD_DURATION_BUCKETS = { 10, 50, 100, 500, 1000, 5000, 10000, 60000 };
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong builds = new AtomicLong();
+	private final AtomicLong failedBuilds = new AtomicLong();
+	private final AtomicLong totalBuildMillis = new AtomicLong();
+	private final AtomicLongArray buildDurations = new AtomicLongArray(BUILD_DURATION_BUCKETS.length + 1);
+	private volatile long lastBuildTime = 0L;
+	private volatile long lastBuildMillis = 0L;
+
+	/**
+	 * Record a cache access which could be answered without building.
+	 */
+	public void recordHit() {
+		hits.incrementAndGet();
+	}
+
+	/**
+	 * Record a cache access which needed a build.
+	 */
+	public void recordMiss() {
+		misses.incrementAndGet();
+	}
+
+	/**
+	 * Record a build.
+	 *
+	 * @param millis duration of the build
+	 * @param success whether the build was successful
+	 */
+	public void recordBuild(long millis, boolean success) {
+		builds.incrementAndGet();
+		if (!success) {
+			failedBuilds.incrementAndGet();
+		}
+		totalBuildMillis.addAndGet(millis);
+		buildDurations.incrementAndGet(bucket(millis));
+		lastBuildMillis = millis;
+		lastBuildTime = System.currentTimeMillis();
+	}
+
+	private static int bucket(long millis) {
+		int bucket = 0;
+		while (bucket < BUILD_DURATION_BUCKETS.length && millis > BUILD_DURATION_BUCKETS[bucket]) {
+			bucket++;
+		}
+		return bucket;
+	}
+
+	/**
+	 * Reset all counters and the information about the last build.
+	 */
+	public void reset() {
+		hits.set(0);
+		misses.set(0);
+		builds.set(0);
+		failedBuilds.set(0);
+		totalBuildMillis.set(0);
+		for (int i = 0; i < buildDurations.length(); i++) {
+			buildDurations.set(i, 0);
+		}
+		lastBuildTime = 0L;
+		lastBuildMillis = 0L;
+	}
+
+	/**
+	 * Get the number of accesses answered without building.
+	 *
+	 * @return hits
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Get the number of accesses which needed a build.
+	 *
+	 * @return misses
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Get the number of builds.
+	 *
+	 * @return builds
+	 */
+	public long getBuilds() {
+		return builds.get();
+	}
+
+	/**
+	 * Get the number of builds which failed.
+	 *
+	 * @return failed builds
+	 */
+	public long getFailedBuilds() {
+		return failedBuilds.get();
+	}
+
+	/**
+	 * Get the sum of all build durations.
+	 *
+	 * @return milliseconds
+	 */
+	public long getTotalBuildMillis() {
+		return totalBuildMillis.get();
+	}
+
+	/**
+	 * Get the time of the last build.
+	 *
+	 * @return time or <code>null</code> if the cache was never built
+	 */
+	public Date getLastBuildTime() {
+		long time = lastBuildTime;
+		return time > 0 ? new Date(time) : null;
+	}
+
+	/**
+	 * Get the duration of the last build.
+	 *
+	 * @return milliseconds
+	 */
+	public long getLastBuildMillis() {
+		return lastBuildMillis;
+	}
+
+	/**
+	 * Get the histogram of build durations.
+	 *
+	 * Keys are the upper bounds of the buckets (e.g. <code>&lt;=100ms</code>), values are the number
+	 * of builds in the bucket.
+	 *
+	 * @return histogram in bucket order
+	 */
+	public Map<String, Long> getBuildDurationHistogram() {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (int i = 0; i < BUILD_DURATION_BUCKETS.length; i++) {
+			result.put("<=" + BUILD_DURATION_BUCKETS[i] + "ms", buildDurations.get(i));
+		}
+		result.put(">" + BUILD_DURATION_BUCKETS[BUILD_DURATION_BUCKETS.length - 1] + "ms",
+				buildDurations.get(BUILD_DURATION_BUCKETS.length));
+		return result;
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return "CacheStatistics [hits=" + getHits() + ", misses=" + getMisses() + ", builds=" + getBuilds()
+		+ ", failedBuilds=" + getFailedBuilds() + ", lastBuildMillis=" + getLastBuildMillis()
+		+ ", lastBuildTime=" + getLastBuildTime() + "]";
+	}
+}
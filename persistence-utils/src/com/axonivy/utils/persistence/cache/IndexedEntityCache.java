@@ -0,0 +1,927 @@
+package com.axonivy.utils.persistence.cache;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.persistence.Embeddable;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.hibernate.proxy.HibernateProxy;
+
+import com.axonivy.utils.persistence.beans.GenericEntity;
+import com.axonivy.utils.persistence.dao.QuerySettings;
+import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.search.FilterOrder;
+import com.axonivy.utils.persistence.search.FilterPredicate;
+import com.axonivy.utils.persistence.search.SearchFilter;
+
+/**
+ * In-memory cache for small reference data tables which can answer {@link SearchFilter} queries.
+ *
+ * <p>
+ * All entities of a type are loaded into an immutable snapshot. For every declared search
+ * attribute, secondary indexes are built:
+ * </p>
+ * <ul>
+ * <li>a hash index for equality,</li>
+ * <li>a sorted index for ordering and range queries,</li>
+ * <li>an n-gram index to narrow down <code>like</code> searches.</li>
+ * </ul>
+ *
+ * <p>
+ * Search attributes are declared with the same enumerations which are used in {@link SearchFilter}s,
+ * and they follow the semantics of
+ * {@link com.axonivy.utils.persistence.dao.GenericDAO#addSelectionOrderAndLike} and
+ * {@link com.axonivy.utils.persistence.dao.GenericDAO#addSelectionOrderAndEqual}: every
+ * {@link FilterPredicate} produces one selection, a value produces a restriction, and
+ * {@link FilterOrder}s order the result. <code>like</code> searches are case sensitive,
+ * <code>null</code> values never match a restriction and sort first in ascending order.
+ * </p>
+ *
+ * <p>
+ * A DAO can route eligible queries to the cache by returning it from
+ * {@link com.axonivy.utils.persistence.dao.GenericDAO#getIndexedEntityCache()}.
+ * </p>
+ * <p>Example:</p>
+ * <pre>
+ * {@code
+ * private final IndexedEntityCache<Product> cache = CacheService.getInstance().registerLongTermCache(
+ *     new IndexedEntityCache<>(Product.class, this::findAll)
+ *     .withLike(ProductSearchField.FILTER_NAME_PRODUCT, Product::getName));
+ *
+ * protected IndexedEntityCache<Product> getIndexedEntityCache() {
+ *     return cache;
+ * }
+ * }
+ * </pre>
+ *
+ * <p>
+ * Reading is lock free, only building the snapshot is synchronized. Invalidating while a snapshot is
+ * built makes the next read build it again.
+ * </p>
+ *
+ * <p>
+ * Note: cached entities are detached and shared between all callers, they must not be modified.
+ * </p>
+ *
+ * @param <T> entity
+ */
+public class IndexedEntityCache<T extends GenericEntity<? extends Serializable>> extends AbstractCache {
+	private static final Logger LOG = Logger.getLogger(IndexedEntityCache.class);
+
+	/**
+	 * Length of the n-grams used to index <code>like</code> attributes.
+	 */
+	public static final int NGRAM_LENGTH = 3;
+
+	private static final int[] NO_ROWS = new int[0];
+
+	/**
+	 * How a restriction of a search attribute is evaluated.
+	 */
+	public enum Match {
+		/**
+		 * <code>like '%value%'</code>, as done by <code>addSelectionOrderAndLike</code>.
+		 */
+		LIKE,
+		/**
+		 * <code>= value</code>, as done by <code>addSelectionOrderAndEqual</code>.
+		 */
+		EQUAL
+	}
+
+	private final Class<T> type;
+	private final Supplier<List<T>> loader;
+	private volatile Map<Enum<?>, Column<T>> columns = Collections.emptyMap();
+	private volatile Snapshot<T> snapshot;
+	private final AtomicLong generation = new AtomicLong();
+	private final LongAdder lockFreeHits = new LongAdder();
+
+	/**
+	 * Create a cache.
+	 *
+	 * @param type entity type
+	 * @param loader function loading all entities which should be cached, typically <code>dao::findAll</code>
+	 */
+	public IndexedEntityCache(Class<T> type, Supplier<List<T>> loader) {
+		this.type = type;
+		this.loader = loader;
+	}
+
+	/**
+	 * Declare a search attribute searched with <code>like</code>.
+	 *
+	 * @param searchFilter enumeration to identify filter
+	 * @param extractor function returning the attribute value of an entity
+	 * @return object
+	 */
+	public IndexedEntityCache<T> withLike(Enum<?> searchFilter, Function<? super T, ?> extractor) {
+		return withAttribute(searchFilter, extractor, Match.LIKE);
+	}
+
+	/**
+	 * Declare a search attribute searched with equality.
+	 *
+	 * @param searchFilter enumeration to identify filter
+	 * @param extractor function returning the attribute value of an entity
+	 * @return object
+	 */
+	public IndexedEntityCache<T> withEqual(Enum<?> searchFilter, Function<? super T, ?> extractor) {
+		return withAttribute(searchFilter, extractor, Match.EQUAL);
+	}
+
+	/**
+	 * Declare a search attribute.
+	 *
+	 * Declaring attributes invalidates the cache.
+	 *
+	 * @param searchFilter enumeration to identify filter
+	 * @param extractor function returning the attribute value of an entity
+	 * @param match how restrictions are evaluated
+	 * @return object
+	 */
+	public synchronized IndexedEntityCache<T> withAttribute(Enum<?> searchFilter, Function<? super T, ?> extractor, Match match) {
+		Map<Enum<?>, Column<T>> declared = new LinkedHashMap<>(columns);
+		declared.put(searchFilter, new Column<>(extractor, match));
+		columns = Collections.unmodifiableMap(declared);
+		invalidate();
+		return this;
+	}
+
+	/**
+	 * Get the entity type of this cache.
+	 *
+	 * @return entity type
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+
+	/**
+	 * Get the number of cached entities.
+	 *
+	 * @return number of entities or 0 if the cache was not built yet.
+	 */
+	public int size() {
+		Snapshot<T> current = snapshot;
+		return current != null ? current.size() : 0;
+	}
+
+	/**
+	 * Name of the cache, which includes the entity type.
+	 */
+	@Override
+	public String getName() {
+		return getClass().getCanonicalName() + ":" + type.getCanonicalName();
+	}
+
+	@Override
+	public long getEntryCount() {
+		return size();
+	}
+
+	@Override
+	public long getEstimatedSize() {
+		Snapshot<T> current = snapshot;
+		return current != null ? current.estimatedSize : -1L;
+	}
+
+	@Override
+	public synchronized boolean build() {
+		boolean result = false;
+		try {
+			long start = System.currentTimeMillis();
+			// taken before loading, so that changes committed while loading make the snapshot stale
+			long buildGeneration = generation.get();
+			Map<Enum<?>, Column<T>> declared = columns;
+			List<T> entities = loader.get();
+			snapshot = new Snapshot<>(entities, declared, buildGeneration);
+			lockFreeHits.reset();
+			LOG.info("built indexed cache for {0} with {1} entities and {2} indexes in {3} ms",
+					type.getSimpleName(), snapshot.size(), declared.size(), System.currentTimeMillis() - start);
+			result = true;
+		} catch (Exception e) {
+			LOG.error("Could not build indexed cache for {0}", e, type.getCanonicalName());
+		}
+		return result;
+	}
+
+	/**
+	 * The cache is valid, if the snapshot was built after the last invalidation.
+	 */
+	@Override
+	public boolean isValid() {
+		Snapshot<T> current = snapshot;
+		return current != null && current.generation == generation.get();
+	}
+
+	@Override
+	public long getHits() {
+		return super.getHits() + lockFreeHits.sum();
+	}
+
+	@Override
+	public synchronized boolean validate() {
+		if (!isValid()) {
+			super.invalidate();
+		}
+		return super.validate();
+	}
+
+	/**
+	 * Invalidate the cache without waiting for a running build.
+	 */
+	@Override
+	public void invalidate() {
+		generation.incrementAndGet();
+		super.invalidate();
+	}
+
+	/**
+	 * Check, whether a query can be answered by this cache.
+	 *
+	 * Queries can be answered, if all predicates and orders refer to declared search attributes
+	 * and the {@link QuerySettings} only contain paging. {@link com.axonivy.utils.persistence.dao.markers.QueryMarker}s,
+	 * orders and order attributes would change the query in ways the cache cannot reproduce.
+	 *
+	 * @param searchFilter a search filter combines {@link FilterPredicate}s and {@link FilterOrder}s
+	 * @param querySettings specify paging, markers,orders...
+	 * @return <code>true</code> if the query can be answered by the cache
+	 */
+	public boolean canAnswer(SearchFilter searchFilter, QuerySettings<T> querySettings) {
+		if (searchFilter == null) {
+			return false;
+		}
+		if (querySettings != null && (!querySettings.getMarkers().isEmpty()
+				|| !querySettings.getOrders().isEmpty()
+				|| !querySettings.getOrderAttributes().isEmpty())) {
+			return false;
+		}
+		for (FilterPredicate filterPredicate : searchFilter.getFilterPredicates()) {
+			if (!columns.containsKey(filterPredicate.getSearchFilter())) {
+				return false;
+			}
+		}
+		for (FilterOrder filterOrder : searchFilter.getFilterOrders()) {
+			if (!columns.containsKey(filterOrder.getSearchFilter())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Find entities matching a {@link SearchFilter}.
+	 *
+	 * @param searchFilter a search filter combines {@link FilterPredicate}s and {@link FilterOrder}s
+	 * @param querySettings paging, may be <code>null</code>
+	 * @return list of cached entities
+	 */
+	public List<T> find(SearchFilter searchFilter, QuerySettings<T> querySettings) {
+		Snapshot<T> current = currentSnapshot();
+		int[] rows = current.evaluate(searchFilter, querySettings);
+		List<T> result = new ArrayList<>(rows.length);
+		for (int row : rows) {
+			result.add(current.entity(row));
+		}
+		return result;
+	}
+
+	/**
+	 * Find tuples matching a {@link SearchFilter}.
+	 *
+	 * The tuples contain one element per distinct {@link FilterPredicate} in the order of the
+	 * filter, like the tuples returned by
+	 * {@link com.axonivy.utils.persistence.dao.GenericDAO#findBySearchFilter(SearchFilter, QuerySettings)}.
+	 * Elements can also be accessed by the name of the filter enumeration.
+	 *
+	 * @param searchFilter a search filter combines {@link FilterPredicate}s and {@link FilterOrder}s
+	 * @param querySettings paging, may be <code>null</code>
+	 * @return list of tuples
+	 */
+	public List<Tuple> findTuples(SearchFilter searchFilter, QuerySettings<T> querySettings) {
+		Snapshot<T> current = currentSnapshot();
+		int[] rows = current.evaluate(searchFilter, querySettings);
+		Set<Enum<?>> selected = new LinkedHashSet<>();
+		for (FilterPredicate filterPredicate : searchFilter.getFilterPredicates()) {
+			selected.add(filterPredicate.getSearchFilter());
+		}
+		Enum<?>[] keys = selected.toArray(new Enum<?>[0]);
+		ColumnIndex[] indexes = new ColumnIndex[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			indexes[i] = current.index(keys[i]);
+		}
+		List<Tuple> result = new ArrayList<>(rows.length);
+		for (int row : rows) {
+			Object[] values = new Object[keys.length];
+			for (int i = 0; i < keys.length; i++) {
+				values[i] = indexes[i].values[row];
+			}
+			result.add(new CachedTuple(keys, values));
+		}
+		return result;
+	}
+
+	/**
+	 * Count entities matching a {@link SearchFilter}.
+	 *
+	 * @param searchFilter a search filter combines {@link FilterPredicate}s and {@link FilterOrder}s
+	 * @return number of matching entities
+	 */
+	public long count(SearchFilter searchFilter) {
+		return currentSnapshot().restrict(searchFilter).length;
+	}
+
+	/**
+	 * Find entities with a search attribute inside an interval.
+	 *
+	 * Bounds are inclusive, a <code>null</code> bound is open. Entities are returned in the order
+	 * of the attribute.
+	 *
+	 * @param searchFilter enumeration to identify the search attribute
+	 * @param from lower bound or <code>null</code>
+	 * @param to upper bound or <code>null</code>
+	 * @param <V> type of the attribute
+	 * @return list of cached entities
+	 */
+	public <V extends Comparable<? super V>> List<T> findRange(Enum<?> searchFilter, V from, V to) {
+		Snapshot<T> current = currentSnapshot();
+		ColumnIndex index = current.index(searchFilter);
+		int[] sorted = index.sorted;
+		int lo = lowerBound(index, index.firstNonNull, from);
+		List<T> result = new ArrayList<>();
+		for (int i = lo; i < sorted.length; i++) {
+			@SuppressWarnings("unchecked")
+			V value = (V) index.values[sorted[i]];
+			if (to != null && value.compareTo(to) > 0) {
+				break;
+			}
+			result.add(current.entity(sorted[i]));
+		}
+		return result;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int lowerBound(ColumnIndex index, int from, Comparable bound) {
+		int lo = from;
+		if (bound != null) {
+			int hi = index.sorted.length;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (((Comparable) index.values[index.sorted[mid]]).compareTo(bound) < 0) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+		}
+		return lo;
+	}
+
+	private Snapshot<T> currentSnapshot() {
+		Snapshot<T> current = snapshot;
+		if (current != null && current.generation == generation.get()) {
+			lockFreeHits.increment();
+			getStatistics().recordHit();
+			return current;
+		}
+		synchronized (this) {
+			if (!validate()) {
+				throw new IllegalStateException("Indexed cache for " + type.getCanonicalName() + " could not be built");
+			}
+			return snapshot;
+		}
+	}
+
+	/**
+	 * Declaration of a search attribute.
+	 */
+	private static class Column<T> {
+		private final Function<? super T, ?> extractor;
+		private final Match match;
+
+		private Column(Function<? super T, ?> extractor, Match match) {
+			this.extractor = extractor;
+			this.match = match;
+		}
+	}
+
+	/**
+	 * Immutable indexes of a single search attribute.
+	 */
+	private static class ColumnIndex {
+		private final Match match;
+		/** attribute value per row */
+		private final Object[] values;
+		/** attribute value as used for equality per row */
+		private final String[] keys;
+		/** rows by key, rows are ascending */
+		private final Map<String, int[]> hash;
+		/** rows sorted by value, nulls first */
+		private final int[] sorted;
+		/** position of every row in sorted, equal values share the same rank */
+		private final int[] rank;
+		/** index of the first non null value in sorted */
+		private final int firstNonNull;
+		/** rows by n-gram, rows are ascending, only for like */
+		private final Map<String, int[]> ngrams;
+
+		private <T> ColumnIndex(T[] entities, Column<T> column) {
+			int size = entities.length;
+			match = column.match;
+			values = new Object[size];
+			keys = new String[size];
+			for (int row = 0; row < size; row++) {
+				values[row] = column.extractor.apply(entities[row]);
+				keys[row] = keyOf(values[row]);
+			}
+
+			hash = postings(size, row -> keys[row] != null ? Collections.singleton(keys[row]) : Collections.emptySet());
+			ngrams = match == Match.LIKE ? postings(size, row -> ngramsOf(keys[row])) : Collections.emptyMap();
+
+			Integer[] order = new Integer[size];
+			for (int row = 0; row < size; row++) {
+				order[row] = row;
+			}
+			Comparator<Integer> comparator = (a, b) -> compareValues(values[a], values[b]);
+			// stable, so equal values stay in load order
+			Arrays.sort(order, comparator);
+			sorted = ArrayUtils.toPrimitive(order);
+			rank = new int[size];
+			int nulls = 0;
+			for (int i = 0; i < size; i++) {
+				int row = sorted[i];
+				if (values[row] == null) {
+					nulls++;
+				}
+				rank[row] = i > 0 && comparator.compare(sorted[i - 1], row) == 0 ? rank[sorted[i - 1]] : i;
+			}
+			firstNonNull = nulls;
+		}
+
+		private static Map<String, int[]> postings(int size, Function<Integer, Set<String>> terms) {
+			Map<String, List<Integer>> lists = new HashMap<>();
+			for (int row = 0; row < size; row++) {
+				for (String term : terms.apply(row)) {
+					lists.computeIfAbsent(term, t -> new ArrayList<>()).add(row);
+				}
+			}
+			Map<String, int[]> result = new HashMap<>(lists.size() * 4 / 3 + 1);
+			for (Entry<String, List<Integer>> entry : lists.entrySet()) {
+				result.put(entry.getKey(), ArrayUtils.toPrimitive(entry.getValue().toArray(new Integer[0])));
+			}
+			return Collections.unmodifiableMap(result);
+		}
+
+		/**
+		 * Rough estimation of the memory used by this index.
+		 */
+		private long estimateSize() {
+			long size = (8L + 8L + 4L + 4L) * values.length;
+			for (String key : keys) {
+				size += key != null ? 40L + 2L * key.length() : 0L;
+			}
+			size += postingsSize(hash) + postingsSize(ngrams);
+			return size;
+		}
+
+		private static long postingsSize(Map<String, int[]> postings) {
+			long size = 0L;
+			for (Entry<String, int[]> entry : postings.entrySet()) {
+				size += 48L + 40L + 2L * entry.getKey().length() + 16L + 4L * entry.getValue().length;
+			}
+			return size;
+		}
+
+		/**
+		 * Find the rows matching a value, <code>null</code> means all rows.
+		 */
+		private int[] restrict(String value, int size) {
+			if (match == Match.EQUAL) {
+				int[] rows = hash.get(value);
+				return rows != null ? rows : NO_ROWS;
+			}
+
+			String pattern = "%" + value + "%";
+			int[] candidates = null;
+			for (String ngram : ngramsOf(pattern)) {
+				int[] rows = ngrams.get(ngram);
+				if (rows == null) {
+					return NO_ROWS;
+				}
+				candidates = candidates == null ? rows : intersect(candidates, rows);
+			}
+
+			List<Integer> result = new ArrayList<>();
+			if (candidates != null) {
+				for (int row : candidates) {
+					if (like(keys[row], pattern)) {
+						result.add(row);
+					}
+				}
+			} else {
+				for (int row = 0; row < size; row++) {
+					if (keys[row] != null && like(keys[row], pattern)) {
+						result.add(row);
+					}
+				}
+			}
+			return ArrayUtils.toPrimitive(result.toArray(new Integer[0]));
+		}
+	}
+
+	/**
+	 * Immutable state of the cache.
+	 */
+	private static class Snapshot<T> {
+		private static final int SIZE_SAMPLES = 20;
+		private static final long OBJECT_SIZE = 16L;
+		private static final long REFERENCE_SIZE = 8L;
+		private static final long BOXED_SIZE = 24L;
+
+		private final T[] entities;
+		private final Map<Enum<?>, ColumnIndex> indexes;
+		private final long estimatedSize;
+		private final long generation;
+
+		@SuppressWarnings("unchecked")
+		private Snapshot(List<T> entityList, Map<Enum<?>, Column<T>> columns, long generation) {
+			this.generation = generation;
+			entities = (T[]) entityList.toArray();
+			Map<Enum<?>, ColumnIndex> map = new HashMap<>();
+			long size = 16L + 8L * entities.length + estimateEntitiesSize();
+			for (Entry<Enum<?>, Column<T>> entry : columns.entrySet()) {
+				ColumnIndex index = new ColumnIndex(entities, entry.getValue());
+				map.put(entry.getKey(), index);
+				size += index.estimateSize();
+			}
+			indexes = Collections.unmodifiableMap(map);
+			estimatedSize = size;
+		}
+
+		/**
+		 * Number of entities, the array must not be accessed outside of the snapshot, where its
+		 * element type is erased to <code>Object</code>.
+		 */
+		private int size() {
+			return entities.length;
+		}
+
+		private T entity(int row) {
+			return entities[row];
+		}
+
+		/**
+		 * Estimate the size of the entities by the shallow size of a sample.
+		 *
+		 * The entity objects, their embeddables, strings and boxed values are counted. Associations
+		 * are neither followed nor loaded, they only count as reference.
+		 */
+		private long estimateEntitiesSize() {
+			int samples = Math.min(SIZE_SAMPLES, entities.length);
+			if (samples == 0) {
+				return 0L;
+			}
+			try {
+				long size = 0L;
+				for (int i = 0; i < samples; i++) {
+					size += shallowSize(entities[i]);
+				}
+				return size * entities.length / samples;
+			} catch (Exception e) {
+				LOG.debug("could not estimate size of cached entities", e);
+				return 0L;
+			}
+		}
+
+		private static long shallowSize(Object object) throws IllegalAccessException {
+			if (object instanceof HibernateProxy) {
+				return OBJECT_SIZE;
+			}
+			long size = OBJECT_SIZE;
+			for (Class<?> clazz = object.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+				for (Field field : clazz.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						size += fieldSize(field, object);
+					}
+				}
+			}
+			return size;
+		}
+
+		private static long fieldSize(Field field, Object object) throws IllegalAccessException {
+			Class<?> fieldType = field.getType();
+			if (fieldType.isPrimitive()) {
+				return fieldType == long.class || fieldType == double.class ? 8L : 4L;
+			}
+			long size = REFERENCE_SIZE;
+			boolean value = fieldType == String.class || Number.class.isAssignableFrom(fieldType)
+					|| fieldType == Boolean.class || fieldType == Character.class
+					|| Date.class.isAssignableFrom(fieldType) || fieldType.getName().startsWith("java.time.");
+			if (value || fieldType.isAnnotationPresent(Embeddable.class)) {
+				field.setAccessible(true);
+				Object fieldValue = field.get(object);
+				if (fieldValue instanceof String) {
+					size += 40L + 2L * ((String) fieldValue).length();
+				} else if (fieldValue != null) {
+					size += value ? BOXED_SIZE : shallowSize(fieldValue);
+				}
+			}
+			return size;
+		}
+
+		private ColumnIndex index(Enum<?> searchFilter) {
+			ColumnIndex index = indexes.get(searchFilter);
+			if (index == null) {
+				throw new IllegalArgumentException("Search attribute " + searchFilter + " is not indexed");
+			}
+			return index;
+		}
+
+		/**
+		 * Rows matching all restrictions, ascending.
+		 */
+		private int[] restrict(SearchFilter searchFilter) {
+			// like searchFilterToAttributePredicates, only the last predicate of an enum is used
+			Map<Enum<?>, FilterPredicate> predicates = new LinkedHashMap<>();
+			for (FilterPredicate filterPredicate : searchFilter.getFilterPredicates()) {
+				predicates.put(filterPredicate.getSearchFilter(), filterPredicate);
+			}
+
+			int[] rows = null;
+			for (FilterPredicate filterPredicate : predicates.values()) {
+				String value = filterPredicate.getValue();
+				if (value != null) {
+					int[] matching = index(filterPredicate.getSearchFilter()).restrict(value, entities.length);
+					rows = rows == null ? matching : intersect(rows, matching);
+					if (rows.length == 0) {
+						break;
+					}
+				}
+			}
+
+			if (rows == null) {
+				rows = new int[entities.length];
+				for (int row = 0; row < rows.length; row++) {
+					rows[row] = row;
+				}
+			}
+			return rows;
+		}
+
+		/**
+		 * Rows matching all restrictions, ordered and paged.
+		 */
+		private int[] evaluate(SearchFilter searchFilter, QuerySettings<?> querySettings) {
+			int[] rows = restrict(searchFilter);
+
+			List<FilterOrder> filterOrders = searchFilter.getFilterOrders();
+			if (!filterOrders.isEmpty() && rows.length > 1) {
+				rows = order(rows, filterOrders);
+			}
+
+			int from = 0;
+			int to = rows.length;
+			if (querySettings != null) {
+				Integer firstResult = querySettings.getFirstResult();
+				if (firstResult != null && firstResult >= 0) {
+					from = Math.min(firstResult, rows.length);
+				}
+				Integer maxResults = querySettings.getMaxResults();
+				if (maxResults != null && maxResults >= 0) {
+					to = (int) Math.min((long) from + maxResults, rows.length);
+				}
+			}
+			return from == 0 && to == rows.length ? rows : Arrays.copyOfRange(rows, from, to);
+		}
+
+		private int[] order(int[] rows, List<FilterOrder> filterOrders) {
+			ColumnIndex first = index(filterOrders.get(0).getSearchFilter());
+			if (filterOrders.size() == 1) {
+				// walk the sorted index, no comparisons needed
+				boolean[] selected = new boolean[entities.length];
+				for (int row : rows) {
+					selected[row] = true;
+				}
+				int[] result = new int[rows.length];
+				int n = 0;
+				int[] sorted = first.sorted;
+				if (filterOrders.get(0).isAscending()) {
+					for (int i = 0; i < sorted.length; i++) {
+						if (selected[sorted[i]]) {
+							result[n++] = sorted[i];
+						}
+					}
+				} else {
+					// descending is the reverse of ascending, like Order.reverse()
+					for (int i = sorted.length - 1; i >= 0; i--) {
+						if (selected[sorted[i]]) {
+							result[n++] = sorted[i];
+						}
+					}
+				}
+				return result;
+			}
+
+			int[][] ranks = new int[filterOrders.size()][];
+			boolean[] ascending = new boolean[filterOrders.size()];
+			for (int i = 0; i < ranks.length; i++) {
+				ranks[i] = index(filterOrders.get(i).getSearchFilter()).rank;
+				ascending[i] = filterOrders.get(i).isAscending();
+			}
+			Integer[] boxed = ArrayUtils.toObject(rows);
+			Arrays.sort(boxed, (a, b) -> {
+				for (int i = 0; i < ranks.length; i++) {
+					int result = Integer.compare(ranks[i][a], ranks[i][b]);
+					if (result != 0) {
+						return ascending[i] ? result : -result;
+					}
+				}
+				return 0;
+			});
+			return ArrayUtils.toPrimitive(boxed);
+		}
+	}
+
+	/**
+	 * Read only {@link Tuple} of cached values.
+	 */
+	private static class CachedTuple implements Tuple {
+		private final Enum<?>[] keys;
+		private final Object[] values;
+
+		private CachedTuple(Enum<?>[] keys, Object[] values) {
+			this.keys = keys;
+			this.values = values;
+		}
+
+		@Override
+		public <X> X get(TupleElement<X> tupleElement) {
+			return tupleElement.getJavaType().cast(get(tupleElement.getAlias()));
+		}
+
+		@Override
+		public <X> X get(String alias, Class<X> type) {
+			return type.cast(get(alias));
+		}
+
+		@Override
+		public Object get(String alias) {
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i].name().equals(alias)) {
+					return values[i];
+				}
+			}
+			throw new IllegalArgumentException("Unknown tuple alias " + alias);
+		}
+
+		@Override
+		public <X> X get(int i, Class<X> type) {
+			return type.cast(get(i));
+		}
+
+		@Override
+		public Object get(int i) {
+			if (i < 0 || i >= values.length) {
+				throw new IllegalArgumentException("Tuple index " + i + " out of range");
+			}
+			return values[i];
+		}
+
+		@Override
+		public Object[] toArray() {
+			return values.clone();
+		}
+
+		@Override
+		public List<TupleElement<?>> getElements() {
+			List<TupleElement<?>> elements = new ArrayList<>(keys.length);
+			for (int i = 0; i < keys.length; i++) {
+				Enum<?> key = keys[i];
+				Object value = values[i];
+				elements.add(new TupleElement<Object>() {
+					@SuppressWarnings("unchecked")
+					@Override
+					public Class<? extends Object> getJavaType() {
+						return value != null ? (Class<Object>) value.getClass() : Object.class;
+					}
+
+					@Override
+					public String getAlias() {
+						return key.name();
+					}
+				});
+			}
+			return elements;
+		}
+
+		@Override
+		public String toString() {
+			return "CachedTuple " + Arrays.toString(values);
+		}
+	}
+
+	/**
+	 * Value used for equality and like, enums compare by name as they are stored in the database.
+	 */
+	private static String keyOf(Object value) {
+		if (value == null) {
+			return null;
+		}
+		return value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compareValues(Object a, Object b) {
+		if (a == null || b == null) {
+			return a == null ? (b == null ? 0 : -1) : 1;
+		}
+		if (a instanceof Comparable) {
+			return ((Comparable) a).compareTo(b);
+		}
+		return a.toString().compareTo(b.toString());
+	}
+
+	/**
+	 * All n-grams of the literal parts of a like pattern (or a plain value).
+	 */
+	private static Set<String> ngramsOf(String value) {
+		if (value == null) {
+			return Collections.emptySet();
+		}
+		Set<String> result = new LinkedHashSet<>();
+		for (String literal : value.split("[%_]")) {
+			for (int i = 0; i + NGRAM_LENGTH <= literal.length(); i++) {
+				result.add(literal.substring(i, i + NGRAM_LENGTH));
+			}
+		}
+		return result;
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		int[] result = new int[Math.min(a.length, b.length)];
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return n == result.length ? result : Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * SQL <code>like</code> without escape character, <code>%</code> matches any sequence,
+	 * <code>_</code> matches a single character.
+	 */
+	static boolean like(String value, String pattern) {
+		int v = 0;
+		int p = 0;
+		int starP = -1;
+		int starV = 0;
+		while (v < value.length()) {
+			if (p < pattern.length() && (pattern.charAt(p) == '_' || pattern.charAt(p) == value.charAt(v))) {
+				v++;
+				p++;
+			} else if (p < pattern.length() && pattern.charAt(p) == '%') {
+				starP = p++;
+				starV = v;
+			} else if (starP >= 0) {
+				p = starP + 1;
+				v = ++starV;
+			} else {
+				return false;
+			}
+		}
+		while (p < pattern.length() && pattern.charAt(p) == '%') {
+			p++;
+		}
+		return p == pattern.length();
+	}
+}
@@ -1,28 +1,21 @@
 package com.axonivy.utils.persistence.dao;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.persistence.CascadeType;
-import javax.persistence.Column;
-import javax.persistence.Embedded;
 import javax.persistence.Id;
-import javax.persistence.ManyToMany;
-import javax.persistence.ManyToOne;
-import javax.persistence.OneToMany;
-import javax.persistence.OneToOne;
 import javax.persistence.PersistenceException;
-import javax.persistence.Version;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
@@ -41,10 +34,16 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.proxy.HibernateProxy;
 
+import com.axonivy.utils.persistence.EntityMetadata.Mapping;
 import com.axonivy.utils.persistence.IvyEntityManager;
-import com.axonivy.utils.persistence.ReflectionUtilitities;
 import com.axonivy.utils.persistence.annotations.CascadeCopy;
+import com.axonivy.utils.persistence.cache.AbstractCache;
+import com.axonivy.utils.persistence.jfr.TransactionEvent;
+import com.axonivy.utils.persistence.leaks.LeakDetector;
+import com.axonivy.utils.persistence.leaks.OpenResource;
+import com.axonivy.utils.persistence.leaks.ResourceKind;
 import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.management.ThreadActivity;
 
 /**
  * Base class for all persistent beans.
@@ -53,9 +52,9 @@ public abstract class AbstractDAO implements BaseDAO {
 
 	private static final ThreadLocal<ManagedTransaction> threadLocalTransaction = new ThreadLocal<>();
 	// hold an additional map of transactions which is only used for logging and
-	// debugging purposes
+	// debugging purposes, weak so that ended threads do not keep their entries
 	private static final Map<Thread, ManagedTransaction> currentTransactions = Collections
-			.synchronizedMap(new HashMap<>());
+			.synchronizedMap(new WeakHashMap<>());
 
 	private static final Logger LOG = Logger.getLogger(AbstractDAO.class);
 
@@ -199,15 +198,46 @@ public abstract class AbstractDAO implements BaseDAO {
 		}
 	}
 
+	/**
+	 * Invalidate a cache when the transaction of the current thread ends.
+	 *
+	 * The cache is invalidated after the outermost commit or rollback, so that it is not rebuilt
+	 * from changes which are not yet committed. Without a transaction it is invalidated immediately.
+	 *
+	 * @param cache cache to invalidate
+	 */
+	protected void invalidateOnTransactionEnd(AbstractCache cache) {
+		ManagedTransaction ta = threadLocalTransaction.get();
+		if (ta != null) {
+			ta.invalidateOnEnd.add(cache);
+		} else {
+			cache.invalidate();
+		}
+	}
+
+	/**
+	 * Check, whether the current thread is inside a transaction.
+	 *
+	 * @return <code>true</code> if a transaction was started and not yet committed or rolled back
+	 */
+	public boolean isTransactionActive() {
+		return threadLocalTransaction.get() != null;
+	}
+
 	/**
 	 * Inner class defining transaction contexts Counts open transactions, close
 	 * after closeCount reached
 	 *
 	 */
 	private class ManagedTransaction {
-		private Transaction transaction;
-		private int count = 0;
+		// read by describe() from other threads
+		private volatile Transaction transaction;
+		private volatile int count = 0;
 		private boolean isActive = false;
+		private TransactionEvent event;
+		private OpenResource openTransaction;
+		private volatile long beginNanos;
+		private final Set<AbstractCache> invalidateOnEnd = new LinkedHashSet<>();
 
 		protected ManagedTransaction() {
 		}
@@ -218,16 +248,24 @@ public abstract class AbstractDAO implements BaseDAO {
 		 * @throws TransactionRolledbackException
 		 */
 		public void begin() throws TransactionRolledbackException {
-			LOG.debug("transaction begin (nesting: {0} active: {1} thread: {2})", count + 1, isActive,
-					Thread.currentThread().getId());
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("transaction begin (nesting: {0} active: {1} thread: {2})", count + 1, isActive,
+						Thread.currentThread().getId());
+			}
 			if (count > 0 && !isActive) {
 				throw new TransactionRolledbackException("Transaction was rolled back");
 			}
 			if (count++ == 0) {
+				beginNanos = System.nanoTime();
+				event = TransactionEvent.start(AbstractDAO.this.getClass());
+				openTransaction = LeakDetector.getInstance().open(ResourceKind.TRANSACTION);
 				transaction = getEM().getTransaction();
 				transaction.begin();
 				isActive = true;
 			}
+			if (event != null) {
+				event.nest(count);
+			}
 		}
 
 		/**
@@ -237,8 +275,10 @@ public abstract class AbstractDAO implements BaseDAO {
 		 * @throws TransactionRolledbackException
 		 */
 		public int commit() throws TransactionRolledbackException {
-			LOG.debug("transaction commit (nesting: {0} active: {1} thread: {2})", count, isActive,
-					Thread.currentThread().getId());
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("transaction commit (nesting: {0} active: {1} thread: {2})", count, isActive,
+						Thread.currentThread().getId());
+			}
 			if (count > 0 && !isActive) {
 				throw new TransactionRolledbackException("Transaction was rolled back");
 			}
@@ -246,6 +286,7 @@ public abstract class AbstractDAO implements BaseDAO {
 				LOG.debug("committing to database {0}", Thread.currentThread().getId());
 				transaction.commit();
 				isActive = false;
+				endEvent(TransactionEvent.COMMIT);
 			}
 			return count;
 		}
@@ -254,13 +295,50 @@ public abstract class AbstractDAO implements BaseDAO {
 		 * Rollback all transactions
 		 */
 		public void rollback() {
-			LOG.debug("transaction rollback (nesting: {0} active: {1} thread: {2})", count, isActive,
-					Thread.currentThread().getId());
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("transaction rollback (nesting: {0} active: {1} thread: {2})", count, isActive,
+						Thread.currentThread().getId());
+			}
 			if (isActive) {
 				transaction.rollback();
 			}
 			isActive = false;
 			count = 0;
+			endEvent(TransactionEvent.ROLLBACK);
+		}
+
+		private void endEvent(String outcome) {
+			if (event != null) {
+				event.end(outcome);
+				event = null;
+			}
+			LeakDetector.getInstance().close(openTransaction);
+			openTransaction = null;
+			for (AbstractCache cache : invalidateOnEnd) {
+				try {
+					cache.invalidate();
+				} catch (RuntimeException e) {
+					LOG.warn("Could not invalidate cache {0} at end of transaction", e, cache.getName());
+				}
+			}
+			invalidateOnEnd.clear();
+		}
+
+		/**
+		 * Describe the transaction for management clients, called by other threads.
+		 *
+		 * @param activity activity to fill
+		 */
+		private void describe(ThreadActivity activity) {
+			activity.setTransactionDepth(count);
+			activity.setTransactionAgeMillis((System.nanoTime() - beginNanos) / 1_000_000L);
+			String status;
+			try {
+				status = transaction != null ? transaction.getStatus().name() : "NOT_ACTIVE";
+			} catch (RuntimeException e) {
+				status = "UNKNOWN";
+			}
+			activity.setTransactionStatus(status);
 		}
 
 		@Override
@@ -281,6 +359,25 @@ public abstract class AbstractDAO implements BaseDAO {
 		return currentTransactions;
 	}
 
+	/**
+	 * Describe the current transactions of all threads for management clients.
+	 *
+	 * @return activities by thread id, only thread and transaction are filled
+	 */
+	public static Map<Long, ThreadActivity> getTransactionActivities() {
+		Map<Long, ThreadActivity> result = new HashMap<>();
+		synchronized (currentTransactions) {
+			for (Entry<Thread, ManagedTransaction> entry : currentTransactions.entrySet()) {
+				ThreadActivity activity = new ThreadActivity();
+				activity.setThreadId(entry.getKey().getId());
+				activity.setThreadName(entry.getKey().getName());
+				entry.getValue().describe(activity);
+				result.put(activity.getThreadId(), activity);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Unproxy a Hibernate entity proxy.
 	 * 
@@ -1482,16 +1579,19 @@ public abstract class AbstractDAO implements BaseDAO {
 	private static Expression<?> getExpressionInternal(ExpressionMap expressionMap, boolean create, From<?, ?> from,
 			Attribute<?, ?>... attributes) {
 		Path<?> tmpPath = from;
-		String key = tmpPath.getJavaType().getCanonicalName();
+		AttributePath key = AttributePath.of(tmpPath.getJavaType());
 		Expression result = tmpPath;
+		boolean debug = LOG.isDebugEnabled();
 
 		for (int i = 0; i < attributes.length; i++) {
 			boolean last = i == attributes.length - 1;
 			Attribute<?, ?> attribute = attributes[i];
 
-			key += "." + attribute.getName();
+			key = key.child(attribute);
 
-			LOG.debug("expression key: {0}", key);
+			if (debug) {
+				LOG.debug("expression key: {0}", key);
+			}
 
 			if (!last) {
 				Path cachedPath = null;
@@ -1501,7 +1601,9 @@ public abstract class AbstractDAO implements BaseDAO {
 				}
 				if (cachedPath == null) {
 					if (create) {
-						LOG.debug("creating new expression");
+						if (debug) {
+							LOG.debug("creating new expression");
+						}
 						tmpPath = getNextAttribute(tmpPath, attribute);
 
 						if (expressionMap != null) {
@@ -1513,7 +1615,9 @@ public abstract class AbstractDAO implements BaseDAO {
 					}
 				} else {
 					tmpPath = cachedPath;
-					LOG.debug("re-using join");
+					if (debug) {
+						LOG.debug("re-using join");
+					}
 				}
 			} else {
 				Expression cachedExpression = null;
@@ -1522,7 +1626,9 @@ public abstract class AbstractDAO implements BaseDAO {
 				}
 				if (cachedExpression == null) {
 					if (create) {
-						LOG.debug("creating new expression");
+						if (debug) {
+							LOG.debug("creating new expression");
+						}
 						if (attribute instanceof SingularAttribute) {
 							result = tmpPath.get((SingularAttribute) attribute);
 						} else if (attribute instanceof ListAttribute) {
@@ -1538,7 +1644,9 @@ public abstract class AbstractDAO implements BaseDAO {
 					}
 				} else {
 					result = cachedExpression;
-					LOG.debug("re-using expression");
+					if (debug) {
+						LOG.debug("re-using expression");
+					}
 				}
 			}
 		}
@@ -1594,6 +1702,8 @@ public abstract class AbstractDAO implements BaseDAO {
 	 * Make a cascading copy of a JPA object.
 	 *
 	 * Copy columns and relations, if they are of type {@link CascadeType} ALL.
+	 * Collections of non cascading relations are copied, but still contain the
+	 * original elements (or their copies, for ManyToMany relations).
 	 *
 	 * Do not copy fields annotated with {@link Id}. Finer grained information can
 	 * be passed by {@link CascadeCopy} annotations.
@@ -1624,144 +1734,63 @@ public abstract class AbstractDAO implements BaseDAO {
 		T dst = (T) newObjectCache.get(tmpSrc);
 
 		if (dst == null) {
-			Class<? extends Object> srcClass = tmpSrc.getClass();
-			String className = srcClass.getSimpleName();
+			CascadeCopyPlan plan = CascadeCopyPlan.of(tmpSrc.getClass());
 
 			// new instance
 			@SuppressWarnings("unchecked")
-			T tmpDst = (T) srcClass.getDeclaredConstructor().newInstance();
+			T tmpDst = (T) plan.newInstance();
 			dst = tmpDst;
 			newObjectCache.put(tmpSrc, dst);
 
-			Map<String, Field> fieldMap = ReflectionUtilitities.getFieldMap(tmpSrc);
-
-			List<Entry<String, Field>> entries = new ArrayList<>(fieldMap.entrySet());
-
-			// sort list of fields by name, so debugging will be easier
-			entries.sort((left, right) -> left.getKey().compareTo(right.getKey()));
-
-			// move reference fields to the end
-			List<Entry<String, Field>> first = new ArrayList<>(entries.size());
-			List<Entry<String, Field>> referenced = new ArrayList<>(entries.size());
-			for (Entry<String, Field> entry : entries) {
-				Field f = entry.getValue();
-				f.setAccessible(true);
-				CascadeCopy aCascadeCopy = f.getAnnotation(CascadeCopy.class);
-
-				if (aCascadeCopy == null || aCascadeCopy.reference().equals(CascadeCopy.NOREF)) {
-					first.add(entry);
-				} else {
-					referenced.add(entry);
-				}
-			}
-
-			entries = first;
-			entries.addAll(referenced);
-
 			boolean logged = false;
 			boolean warn = false;
 			String fieldName = "";
 
 			try {
-				// scan all fields
-				for (Entry<String, Field> entry : entries) {
+				// scan all fields, sorted by name with reference fields at the end
+				for (CascadeCopyPlan.CopyField field : plan.getFields(ignoreGroups)) {
 					// LOG field and action AFTER the action
 					logged = false;
 					warn = false;
-					String action = "unknown action";
-					fieldName = className + "." + entry.getKey();
+					String action = field.getSkipReason();
+					fieldName = field.getQualifiedName();
 
-					Field f = entry.getValue();
-					f.setAccessible(true);
-					Object value = f.get(tmpSrc);
+					if (action == null) {
+						Object value = field.get(tmpSrc);
 
-					if (value == null) {
-						action = "skipped because null";
-					} else {
-						Version aVersion = f.getAnnotation(Version.class);
-						CascadeCopy aCascadeCopy = f.getAnnotation(CascadeCopy.class);
-						Embedded aEmbedded = f.getAnnotation(Embedded.class);
-						Id aId = f.getAnnotation(Id.class);
-						Column aColumn = f.getAnnotation(Column.class);
-						OneToMany aOneToMany = f.getAnnotation(OneToMany.class);
-						OneToOne aOneToOne = f.getAnnotation(OneToOne.class);
-						ManyToOne aManyToOne = f.getAnnotation(ManyToOne.class);
-						ManyToMany aManyToMany = f.getAnnotation(ManyToMany.class);
-
-						boolean ignore = false;
-
-						if (aCascadeCopy != null) {
-							// ignore flag is set
-							if (aCascadeCopy.ignore()) {
-								action = "skipped because of CascadeCopy.ignore annotation";
-								ignore = true;
-							} else {
-								// find out whether any ignore group is matching any annotated ignore group
-								// if yes, ignore
-								for (Class<?> group : aCascadeCopy.ignoreGroups()) {
-									if (ignoreGroups.contains(group)) {
-										action = "skipped because of CascadeCopy.ignoreGroups ("
-												+ group.getCanonicalName() + ") annotation";
-										ignore = true;
-										break;
-									}
-								}
-							}
-						}
-
-						if (ignore) {
-							// name says it all
-						} else if (aId != null) {
-							action = "skipped primary key";
-						} else if (aVersion != null) {
-							action = "skipped version";
-						} else if (aColumn != null) {
-							action = "copied";
-							f.set(dst, value);
-						} else if (aEmbedded != null) {
-							// generate a cascade copy
-							action = "created a new instance for embedded";
-							f.set(dst, cascadeCopy(indent + INDENT_INC, value, ignoreGroups, newObjectCache));
-						} else if (aOneToOne != null) {
-							action = copyIfCascade(indent, ignoreGroups, newObjectCache, dst, f, value,
-									aOneToOne.cascade());
-						} else if (aManyToOne != null) {
-							action = copyIfCascade(indent, ignoreGroups, newObjectCache, dst, f, value,
-									aManyToOne.cascade());
-
-						} else if (aOneToMany != null) {
-							// create a copy of the list
-							// if cascade, then insert copies of objects
-							// the other side of the relation is handled by ManyToOne
-							boolean cascade = isCascade(aOneToMany.cascade());
-							if (value instanceof Iterable) {
-								Iterable<?> iterable = (Iterable<?>) value;
-
-								List<Object> copyValue = new ArrayList<>();
-								f.set(dst, copyValue);
-
-								int done = 0;
-								for (Object obj : iterable) {
-									LOG.debug("{0}collection object: {1}", indent, obj);
-									if (cascade) {
-										copyValue.add(
-												cascadeCopy(indent + INDENT_INC, obj, ignoreGroups, newObjectCache));
-									} else {
-										copyValue.add(obj);
-									}
-									done++;
+						if (value == null) {
+							action = "skipped because null";
+						} else {
+							switch (field.getMapping()) {
+							case COLUMN:
+								action = "copied";
+								field.set(dst, value);
+								break;
+							case EMBEDDED:
+								// generate a cascade copy
+								action = "created a new instance for embedded";
+								field.set(dst, cascadeCopy(indent + INDENT_INC, value, ignoreGroups, newObjectCache));
+								break;
+							case ONE_TO_ONE:
+							case MANY_TO_ONE:
+								action = copyIfCascade(indent, ignoreGroups, newObjectCache, dst, field, value);
+								break;
+							case ONE_TO_MANY:
+							case MANY_TO_MANY:
+								// create a copy of the collection
+								// if cascade, then insert copies of objects
+								// the other side of a OneToMany relation is handled by ManyToOne
+								if (value instanceof Iterable) {
+									action = copyCollection(indent, ignoreGroups, newObjectCache, dst, field, (Iterable<?>) value);
+								} else {
+									action = "skipped because value is not iterable";
+									warn = true;
 								}
-								action = "copied " + done + " instances";
-							} else {
-								action = "skipped because value is not iterable";
-								warn = true;
+								break;
+							default:
+								action = "skipped because no DB mapping";
+								break;
 							}
-
-						} else if (aManyToMany != null) {
-							action = "skipped because ManyToMany not implemented";
-							warn = true;
-						} else {
-							action = "skipped because no DB mapping";
 						}
 					}
 
@@ -1786,37 +1815,49 @@ public abstract class AbstractDAO implements BaseDAO {
 	}
 
 	private <T> String copyIfCascade(String indent, Set<Class<?>> ignoreGroups, Map<Object, Object> newObjectCache,
-			T dst, Field f, Object value, CascadeType[] cascadeTypes)
+			T dst, CascadeCopyPlan.CopyField field, Object value)
 					throws IllegalAccessException, InstantiationException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
 		String action;
-		if (isCascade(cascadeTypes)) {
+		if (field.isCascade()) {
 			// for cascade generate a deep copy
 			action = "created a new instance for cascading One(many)ToOne";
-			f.set(dst, cascadeCopy(indent + INDENT_INC, value, ignoreGroups, newObjectCache));
+			field.set(dst, cascadeCopy(indent + INDENT_INC, value, ignoreGroups, newObjectCache));
 		} else {
 			Object copiedValue = newObjectCache.get(value);
 			if (copiedValue != null) {
 				// no cascade, but value was copied previously, so we must take the copy
 				action = "copied because no cascading One(many)ToOne, but using a copy from the cache";
-				f.set(dst, copiedValue);
+				field.set(dst, copiedValue);
 			} else {
 				action = "copied because no cascading One(many)ToOne";
-				f.set(dst, value);
+				field.set(dst, value);
 			}
 		}
 		return action;
 	}
 
-	private boolean isCascade(CascadeType[] ct) {
-		for (CascadeType cascadeType : ct) {
-			if (cascadeType.equals(CascadeType.ALL)) {
-				return true;
-			}
-			if (cascadeType.equals(CascadeType.MERGE)) {
-				return true;
+	private <T> String copyCollection(String indent, Set<Class<?>> ignoreGroups, Map<Object, Object> newObjectCache,
+			T dst, CascadeCopyPlan.CopyField field, Iterable<?> iterable)
+					throws IllegalAccessException, InstantiationException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+		boolean manyToMany = field.getMapping() == Mapping.MANY_TO_MANY;
+		Collection<Object> copyValue = field.newCollection();
+		field.set(dst, copyValue);
+
+		int done = 0;
+		for (Object obj : iterable) {
+			LOG.debug("{0}collection object: {1}", indent, obj);
+			if (field.isCascade()) {
+				copyValue.add(cascadeCopy(indent + INDENT_INC, obj, ignoreGroups, newObjectCache));
+			} else if (manyToMany) {
+				// the other side is shared, but take the copy if it was copied previously
+				Object copiedValue = newObjectCache.get(obj);
+				copyValue.add(copiedValue != null ? copiedValue : obj);
+			} else {
+				copyValue.add(obj);
 			}
+			done++;
 		}
-		return false;
+		return "copied " + done + " instances";
 	}
 
 }
@@ -0,0 +1,102 @@
+package com.axonivy.utils.persistence.dao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.metamodel.Attribute;
+
+/**
+ * Interned path of attributes starting at an entity type.
+ *
+ * Every path is interned once by its dotted string, e.g. <code>com.acme.Person.department</code>,
+ * no matter if it was created from the entity type and its attributes or from the string. So two
+ * paths are equal if and only if they are the same instance. Extending a path by an attribute is
+ * cached per path, so it does not build the string again. The hash code is computed once. Paths are
+ * the keys of the {@link ExpressionMap}.
+ *
+ * Types are identified by their canonical name and attributes by their name,
+ * so that paths do not hold on to classes of redeployed projects.
+ */
+public final class AttributePath {
+	private static final Map<String, AttributePath> paths = new ConcurrentHashMap<>();
+
+	private final String path;
+	private final int hash;
+	private final Map<String, AttributePath> children = new ConcurrentHashMap<>(4);
+
+	private AttributePath(String path) {
+		this.path = path;
+		this.hash = path.hashCode();
+	}
+
+	/**
+	 * Get the path of an entity type.
+	 *
+	 * @param type entity type
+	 * @return interned path
+	 */
+	public static AttributePath of(Class<?> type) {
+		return intern(String.valueOf(type.getCanonicalName()));
+	}
+
+	/**
+	 * Get the path of a dotted path string, e.g. <code>com.acme.Person.department.name</code>.
+	 *
+	 * @param path dotted path
+	 * @param create create the path if it does not exist yet
+	 * @return interned path or <code>null</code> if it does not exist and <code>create</code> is not set
+	 */
+	static AttributePath of(String path, boolean create) {
+		return create ? intern(path) : paths.get(path);
+	}
+
+	private static AttributePath intern(String path) {
+		AttributePath result = paths.get(path);
+		if (result == null) {
+			result = paths.computeIfAbsent(path, AttributePath::new);
+		}
+		return result;
+	}
+
+	/**
+	 * Get the path extended by an attribute.
+	 *
+	 * @param attribute next attribute
+	 * @return interned path
+	 */
+	public AttributePath child(Attribute<?, ?> attribute) {
+		return child(attribute.getName());
+	}
+
+	/**
+	 * Get the path extended by an attribute name.
+	 *
+	 * @param attributeName name of the next attribute
+	 * @return interned path
+	 */
+	public AttributePath child(String attributeName) {
+		AttributePath child = children.get(attributeName);
+		if (child == null) {
+			child = children.computeIfAbsent(attributeName, n -> intern(path + "." + n));
+		}
+		return child;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return this == obj;
+	}
+
+	/**
+	 * @return dotted path, e.g. <code>com.acme.Person.department.name</code>
+	 */
+	@Override
+	public String toString() {
+		return path;
+	}
+}
@@ -0,0 +1,259 @@
+package com.axonivy.utils.persistence.dao;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.axonivy.utils.persistence.beans.GenericIdEntity;
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Request scoped batch loader for {@link GenericIdEntityDAO#findById(java.io.Serializable)}.
+ *
+ * <p>
+ * Instead of loading entities one by one, ids are collected and resolved together by a single
+ * {@link GenericIdEntityDAO#findByIds(List)} query, when the first result is needed or when
+ * {@link #dispatch()} is called.
+ * </p>
+ *
+ * <p>
+ * Entities which are already managed by the persistence context are not fetched again, if the DAO
+ * has no query restrictions, i.e. neither the DAO nor a base class below {@link GenericIdEntityDAO}
+ * overrides {@link GenericDAO#manipulateCriteriaFactory(CriteriaQueryGenericContext)} or
+ * {@link GenericDAO#initializeQuery(Class, Class)}. Otherwise (e.g. for every {@link AuditableDAO})
+ * a managed entity could be one which the query filters out, so all entities are queried.
+ * </p>
+ * <p>Example:</p>
+ * <pre>
+ * {@code
+ * try (BatchLoader<Department> loader = departmentDAO.batchLoader()) {
+ *     Map<Person, BatchLoader.Handle<Department>> handles = new HashMap<>();
+ *     for (Person person : persons) {
+ *         handles.put(person, loader.load(person.getDepartmentId()));
+ *     }
+ *     // the first get() loads all collected departments with one query
+ *     handles.forEach((person, handle) -> process(person, handle.get()));
+ * }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The loader keeps a session open until it is closed and must only be used by the thread
+ * which created it. Entities filtered by the DAO (e.g. deleted entities of an
+ * {@link AuditableDAO}) resolve to <code>null</code>, like they would with {@link GenericIdEntityDAO#findByIds(List)}.
+ * </p>
+ *
+ * @param <G> entity
+ */
+public class BatchLoader<G extends GenericIdEntity> implements Closeable {
+	private static final Logger LOG = Logger.getLogger(BatchLoader.class);
+
+	private static final ClassValue<Boolean> unrestricted = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> daoClass) {
+			return GenericDAO.findQueryHookOverride(daoClass, clazz -> clazz == GenericIdEntityDAO.class) == null;
+		}
+	};
+
+	private final GenericIdEntityDAO<?, G> dao;
+	private final AutoCloseTransaction session;
+	private final boolean usePersistenceContext;
+	private final Map<String, Handle<G>> pending = new LinkedHashMap<>();
+	private final Map<String, Handle<G>> handles = new HashMap<>();
+	private long queries = 0L;
+	private long fromPersistenceContext = 0L;
+
+	/**
+	 * Create a loader for a DAO.
+	 *
+	 * @param dao DAO used to load entities
+	 */
+	protected BatchLoader(GenericIdEntityDAO<?, G> dao) {
+		this.dao = dao;
+		this.usePersistenceContext = unrestricted.get(dao.getClass());
+		this.session = dao.beginSession();
+	}
+
+	/**
+	 * Request an entity by id.
+	 *
+	 * The entity is not loaded immediately, but on the first {@link Handle#get()} of any
+	 * pending handle or on {@link #dispatch()}.
+	 *
+	 * @param id primary key, may be <code>null</code>
+	 * @return handle to the entity
+	 */
+	public Handle<G> load(String id) {
+		Handle<G> handle = handles.get(id);
+		if (handle == null) {
+			handle = new Handle<>(this);
+			handles.put(id, handle);
+			if (id == null) {
+				handle.resolve(null);
+			} else {
+				G managed = usePersistenceContext ? findInPersistenceContext(id) : null;
+				if (managed != null) {
+					fromPersistenceContext++;
+					handle.resolve(managed);
+				} else {
+					pending.put(id, handle);
+				}
+			}
+		}
+		return handle;
+	}
+
+	/**
+	 * Request multiple entities.
+	 *
+	 * @param ids primary keys
+	 * @return handles in the order of the ids
+	 */
+	public List<Handle<G>> loadAll(Collection<String> ids) {
+		List<Handle<G>> result = new ArrayList<>(ids.size());
+		for (String id : ids) {
+			result.add(load(id));
+		}
+		return result;
+	}
+
+	/**
+	 * Resolve all pending handles with a single query.
+	 */
+	public void dispatch() {
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		Map<String, Handle<G>> batch = new LinkedHashMap<>(pending);
+		pending.clear();
+		LOG.debug("batch loading {0} entities of type {1}", batch.size(), dao.getEntityType().getSimpleName());
+
+		try {
+			queries++;
+			for (G entity : dao.findByIds(new ArrayList<>(batch.keySet()))) {
+				Handle<G> handle = batch.remove(entity.getId());
+				if (handle != null) {
+					handle.resolve(entity);
+				}
+			}
+			// not found
+			for (Handle<G> handle : batch.values()) {
+				handle.resolve(null);
+			}
+		} catch (RuntimeException e) {
+			for (Handle<G> handle : batch.values()) {
+				handle.fail(e);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Get the number of queries executed by this loader.
+	 *
+	 * @return number of queries
+	 */
+	public long getQueries() {
+		return queries;
+	}
+
+	/**
+	 * Get the number of requests answered by the persistence context.
+	 *
+	 * @return number of entities which were already managed, always 0 for DAOs with query restrictions
+	 */
+	public long getFromPersistenceContext() {
+		return fromPersistenceContext;
+	}
+
+	/**
+	 * Resolve all pending handles and close the session of this loader.
+	 */
+	@Override
+	public void close() {
+		try {
+			dispatch();
+		} finally {
+			try {
+				session.close();
+			} catch (Exception e) {
+				LOG.warn("closing session of batch loader failed", e);
+			}
+		}
+	}
+
+	private G findInPersistenceContext(String id) {
+		try {
+			SessionImplementor sessionImplementor = dao.getEM().unwrap(SessionImplementor.class);
+			EntityPersister persister = sessionImplementor.getFactory().getMetamodel().entityPersister(dao.getEntityType());
+			Object entity = sessionImplementor.getPersistenceContext().getEntity(sessionImplementor.generateEntityKey(id, persister));
+			return dao.getEntityType().isInstance(entity) ? dao.getEntityType().cast(entity) : null;
+		} catch (RuntimeException e) {
+			LOG.debug("could not look up entity {0} in persistence context", e, id);
+			return null;
+		}
+	}
+
+	/**
+	 * Lazy handle to an entity requested from a {@link BatchLoader}.
+	 *
+	 * @param <G> entity
+	 */
+	public static class Handle<G extends GenericIdEntity> implements Supplier<G> {
+		private final BatchLoader<G> loader;
+		private final CompletableFuture<G> future = new CompletableFuture<>();
+
+		private Handle(BatchLoader<G> loader) {
+			this.loader = loader;
+		}
+
+		/**
+		 * Get the entity, dispatching the loader if needed.
+		 *
+		 * @return entity or <code>null</code> if not found
+		 */
+		@Override
+		public G get() {
+			if (!future.isDone()) {
+				loader.dispatch();
+			}
+			return future.join();
+		}
+
+		/**
+		 * Is the entity already loaded?
+		 *
+		 * @return <code>true</code> if loaded
+		 */
+		public boolean isResolved() {
+			return future.isDone();
+		}
+
+		/**
+		 * Get a future which completes when the loader is dispatched.
+		 *
+		 * @return future
+		 */
+		public CompletableFuture<G> toFuture() {
+			return future;
+		}
+
+		private void resolve(G entity) {
+			future.complete(entity);
+		}
+
+		private void fail(Throwable throwable) {
+			future.completeExceptionally(throwable);
+		}
+	}
+}
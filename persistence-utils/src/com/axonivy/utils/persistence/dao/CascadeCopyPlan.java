@@ -0,0 +1,280 @@
+package com.axonivy.utils.persistence.dao;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.persistence.PersistenceException;
+
+import com.axonivy.utils.persistence.EntityMetadata;
+import com.axonivy.utils.persistence.EntityMetadata.Mapping;
+import com.axonivy.utils.persistence.EntityMetadata.PersistentField;
+import com.axonivy.utils.persistence.annotations.CascadeCopy;
+
+/**
+ * Compiled plan for {@link AbstractDAO#cascadeCopy(Object, Class...)} of a single class.
+ *
+ * <p>
+ * The plan is built once per class. It holds the fields in copy order, each with its mapping, a
+ * {@link VarHandle} to read and write it and, for collections, a factory for the copied collection.
+ * Fields skipped because of their mapping or a {@link CascadeCopy} annotation are resolved in advance,
+ * once for every set of ignore groups.
+ * </p>
+ */
+final class CascadeCopyPlan {
+	private static final ClassValue<CascadeCopyPlan> PLANS = new ClassValue<CascadeCopyPlan>() {
+		@Override
+		protected CascadeCopyPlan computeValue(Class<?> type) {
+			return new CascadeCopyPlan(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final CopyField[] fields;
+	private final Map<Set<Class<?>>, CopyField[]> fieldsByIgnoreGroups = new ConcurrentHashMap<>();
+	private volatile Constructor<?> constructor;
+
+	private CascadeCopyPlan(Class<?> type) {
+		this.type = type;
+		String className = type.getSimpleName();
+		List<CopyField> list = new ArrayList<>();
+		for (PersistentField field : EntityMetadata.of(type).getCopyOrder()) {
+			if (!Modifier.isStatic(field.getField().getModifiers())) {
+				list.add(new CopyField(className, field));
+			}
+		}
+		this.fields = list.toArray(new CopyField[list.size()]);
+	}
+
+	/**
+	 * Get the plan of a class.
+	 *
+	 * @param type class
+	 * @return plan
+	 */
+	static CascadeCopyPlan of(Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * Create a new empty instance by the default constructor.
+	 *
+	 * @return instance
+	 * @throws InstantiationException if the class is abstract
+	 * @throws IllegalAccessException if the constructor is not accessible
+	 * @throws InvocationTargetException if the constructor fails
+	 * @throws NoSuchMethodException if there is no default constructor
+	 */
+	Object newInstance() throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Constructor<?> result = constructor;
+		if (result == null) {
+			result = type.getDeclaredConstructor();
+			constructor = result;
+		}
+		return result.newInstance();
+	}
+
+	/**
+	 * Get the fields in copy order.
+	 *
+	 * @param ignoreGroups ignore groups of the copy
+	 * @return fields, with fields of matching ignore groups marked as skipped
+	 */
+	CopyField[] getFields(Set<Class<?>> ignoreGroups) {
+		if (ignoreGroups.isEmpty()) {
+			return fields;
+		}
+		CopyField[] result = fieldsByIgnoreGroups.get(ignoreGroups);
+		if (result == null) {
+			result = new CopyField[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				result[i] = fields[i].withIgnoreGroups(ignoreGroups);
+			}
+			fieldsByIgnoreGroups.put(Collections.unmodifiableSet(new HashSet<>(ignoreGroups)), result);
+		}
+		return result;
+	}
+
+	/**
+	 * A field of the plan.
+	 */
+	static final class CopyField {
+		private final String qualifiedName;
+		private final PersistentField field;
+		private final String skipReason;
+		private final VarHandle handle;
+		private final MethodHandle finalSetter;
+		private final Supplier<Collection<Object>> collectionFactory;
+
+		private CopyField(String className, PersistentField field) {
+			this.qualifiedName = className + "." + field.getName();
+			this.field = field;
+			this.skipReason = skipReason(field);
+			this.handle = skipReason == null ? varHandle(field.getField()) : null;
+			this.finalSetter = skipReason == null && Modifier.isFinal(field.getField().getModifiers()) ? finalSetter(field.getField()) : null;
+			this.collectionFactory = collectionFactory(field.getField().getType());
+		}
+
+		private CopyField(CopyField copyField, String skipReason) {
+			this.qualifiedName = copyField.qualifiedName;
+			this.field = copyField.field;
+			this.skipReason = skipReason;
+			this.handle = null;
+			this.finalSetter = null;
+			this.collectionFactory = null;
+		}
+
+		private static String skipReason(PersistentField field) {
+			CascadeCopy cascadeCopy = field.getCascadeCopy();
+			if (cascadeCopy != null && cascadeCopy.ignore()) {
+				return "skipped because of CascadeCopy.ignore annotation";
+			}
+			switch (field.getMapping()) {
+			case ID:
+				return "skipped primary key";
+			case VERSION:
+				return "skipped version";
+			case NONE:
+				return "skipped because no DB mapping";
+			default:
+				return null;
+			}
+		}
+
+		private static VarHandle varHandle(Field field) {
+			try {
+				return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+			} catch (IllegalAccessException e) {
+				throw new PersistenceException("Cannot access field " + field + " for cascade copy", e);
+			}
+		}
+
+		/**
+		 * {@link VarHandle}s of final fields are read only, so final fields are written by a setter handle.
+		 */
+		private static MethodHandle finalSetter(Field field) {
+			try {
+				field.setAccessible(true);
+				return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectSetter(field);
+			} catch (IllegalAccessException | RuntimeException e) {
+				throw new PersistenceException("Cannot access final field " + field + " for cascade copy", e);
+			}
+		}
+
+		private static Supplier<Collection<Object>> collectionFactory(Class<?> fieldType) {
+			if (fieldType.isAssignableFrom(ArrayList.class)) {
+				return ArrayList::new;
+			} else if (SortedSet.class.isAssignableFrom(fieldType) && fieldType.isAssignableFrom(TreeSet.class)) {
+				return TreeSet::new;
+			} else if (fieldType.isAssignableFrom(LinkedHashSet.class)) {
+				return LinkedHashSet::new;
+			}
+			return ArrayList::new;
+		}
+
+		private CopyField withIgnoreGroups(Set<Class<?>> ignoreGroups) {
+			CascadeCopy cascadeCopy = field.getCascadeCopy();
+			if (skipReason == null && cascadeCopy != null) {
+				// find out whether any ignore group is matching any annotated ignore group
+				for (Class<?> group : cascadeCopy.ignoreGroups()) {
+					if (ignoreGroups.contains(group)) {
+						return new CopyField(this, "skipped because of CascadeCopy.ignoreGroups ("
+								+ group.getCanonicalName() + ") annotation");
+					}
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Get the name of the field qualified by the simple name of its class.
+		 *
+		 * @return name for logging
+		 */
+		String getQualifiedName() {
+			return qualifiedName;
+		}
+
+		/**
+		 * Get the reason, why this field is not copied.
+		 *
+		 * @return reason or <code>null</code> if the field is copied
+		 */
+		String getSkipReason() {
+			return skipReason;
+		}
+
+		/**
+		 * Get the mapping of the field.
+		 *
+		 * @return mapping
+		 */
+		Mapping getMapping() {
+			return field.getMapping();
+		}
+
+		/**
+		 * Is the relation cascading?
+		 *
+		 * @return <code>true</code> if related objects are copied too
+		 */
+		boolean isCascade() {
+			return field.isCascade();
+		}
+
+		/**
+		 * Read the field.
+		 *
+		 * @param object object
+		 * @return value
+		 */
+		Object get(Object object) {
+			return handle.get(object);
+		}
+
+		/**
+		 * Write the field.
+		 *
+		 * @param object object
+		 * @param value value
+		 */
+		void set(Object object, Object value) {
+			if (finalSetter == null) {
+				handle.set(object, value);
+			} else {
+				try {
+					finalSetter.invoke(object, value);
+				} catch (Error | RuntimeException e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new PersistenceException("Cannot set final field " + qualifiedName, e);
+				}
+			}
+		}
+
+		/**
+		 * Create an empty collection for the copy of a relation.
+		 *
+		 * @return collection matching the type of the field
+		 */
+		Collection<Object> newCollection() {
+			return collectionFactory.get();
+		}
+	}
+}
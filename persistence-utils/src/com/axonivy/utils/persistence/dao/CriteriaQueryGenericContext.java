@@ -56,6 +56,8 @@ public abstract class CriteriaQueryGenericContext<T extends Serializable, R exte
 
 	protected TypedQueryInterceptor<R> typedQueryInterceptor = null;
 
+	protected boolean coalescible = false;
+
 	/**
 	 * Inititalize with specified parameters
 	 * 
@@ -485,6 +487,27 @@ public abstract class CriteriaQueryGenericContext<T extends Serializable, R exte
 		this.typedQueryInterceptor = typedQueryInterceptor;
 	}
 
+	/**
+	 * Is this query allowed to share its execution with identical concurrent queries?
+	 *
+	 * @return coalescible
+	 */
+	public boolean isCoalescible() {
+		return coalescible;
+	}
+
+	/**
+	 * Allow this query to share its execution with identical concurrent queries.
+	 *
+	 * Coalescing is only done, if it is also enabled for the DAO, see
+	 * {@link GenericDAO#isQueryCoalescingEnabled()}.
+	 *
+	 * @param coalescible the new coalescible
+	 */
+	public void setCoalescible(boolean coalescible) {
+		this.coalescible = coalescible;
+	}
+
 	/**
 	 * Return a nice formated asciitree of roots and joins of query
 	 */
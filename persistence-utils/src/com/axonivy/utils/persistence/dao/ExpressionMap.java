@@ -1,6 +1,13 @@
 package com.axonivy.utils.persistence.dao;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
@@ -10,13 +17,22 @@ import javax.persistence.criteria.Join;
  *
  * This helps generic functions to avoid joining tables multiple times if
  * many fields of a {@link Join} destination are accessed.
+ *
+ * Expressions are stored by their interned {@link AttributePath} in a small
+ * open addressing table which compares keys by identity. The map is still
+ * usable as a {@link Map} keyed by the dotted path string, e.g.
+ * <code>com.acme.Person.department</code>, but the {@link AttributePath}
+ * methods should be preferred, since they do not have to resolve the string.
  */
-public class ExpressionMap extends HashMap<String, Expression<?>> {
+public class ExpressionMap extends AbstractMap<String, Expression<?>> {
+	private static final int INITIAL_CAPACITY = 16;
 
-	/**
-	 *
-	 */
-	private static final long serialVersionUID = 1L;
+	private AttributePath[] keys = new AttributePath[INITIAL_CAPACITY];
+	/** A key with a <code>null</code> value is a removed entry. */
+	private Expression<?>[] values = new Expression<?>[INITIAL_CAPACITY];
+	private int size;
+	private int usedSlots;
+	private Set<Map.Entry<String, Expression<?>>> entrySet;
 
 	/**
 	 * Private to avoid calling new() by mistake.
@@ -43,4 +59,233 @@ public class ExpressionMap extends HashMap<String, Expression<?>> {
 	public static ExpressionMap createNewExpressionMap() {
 		return new ExpressionMap();
 	}
+
+	/**
+	 * Get the expression stored for a path.
+	 *
+	 * @param path path of the expression
+	 * @return expression or <code>null</code> if there is none
+	 */
+	public Expression<?> get(AttributePath path) {
+		int slot = slot(path);
+		return slot >= 0 ? values[slot] : null;
+	}
+
+	/**
+	 * Store the expression of a path.
+	 *
+	 * @param path path of the expression
+	 * @param expression expression, <code>null</code> removes the path
+	 * @return expression previously stored for the path or <code>null</code>
+	 */
+	public Expression<?> put(AttributePath path, Expression<?> expression) {
+		if (expression == null) {
+			return remove(path);
+		}
+		int mask = keys.length - 1;
+		for (int i = index(path, mask);; i = (i + 1) & mask) {
+			AttributePath key = keys[i];
+			if (key == path) {
+				Expression<?> previous = values[i];
+				values[i] = expression;
+				if (previous == null) {
+					size++;
+				}
+				return previous;
+			}
+			if (key == null) {
+				keys[i] = path;
+				values[i] = expression;
+				size++;
+				if (++usedSlots * 2 > keys.length) {
+					resize();
+				}
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Remove the expression of a path.
+	 *
+	 * @param path path of the expression
+	 * @return expression previously stored for the path or <code>null</code>
+	 */
+	public Expression<?> remove(AttributePath path) {
+		int slot = slot(path);
+		if (slot < 0 || values[slot] == null) {
+			return null;
+		}
+		Expression<?> previous = values[slot];
+		values[slot] = null;
+		size--;
+		return previous;
+	}
+
+	@Override
+	public Expression<?> get(Object key) {
+		AttributePath path = toPath(key);
+		return path != null ? get(path) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Expression<?> put(String key, Expression<?> expression) {
+		return put(AttributePath.of(key, true), expression);
+	}
+
+	@Override
+	public Expression<?> remove(Object key) {
+		AttributePath path = toPath(key);
+		return path != null ? remove(path) : null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, null);
+		Arrays.fill(values, null);
+		size = 0;
+		usedSlots = 0;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Expression<?>>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	private static AttributePath toPath(Object key) {
+		if (key instanceof AttributePath) {
+			return (AttributePath) key;
+		}
+		return key instanceof String ? AttributePath.of((String) key, false) : null;
+	}
+
+	private static int index(AttributePath path, int mask) {
+		int hash = path.hashCode();
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	private int slot(AttributePath path) {
+		int mask = keys.length - 1;
+		for (int i = index(path, mask);; i = (i + 1) & mask) {
+			AttributePath key = keys[i];
+			if (key == path) {
+				return i;
+			}
+			if (key == null) {
+				return -1;
+			}
+		}
+	}
+
+	private void resize() {
+		AttributePath[] oldKeys = keys;
+		Expression<?>[] oldValues = values;
+		int capacity = size * 2 > oldKeys.length / 2 ? oldKeys.length * 2 : oldKeys.length;
+		keys = new AttributePath[capacity];
+		values = new Expression<?>[capacity];
+		usedSlots = 0;
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldValues[j] != null) {
+				int i = index(oldKeys[j], mask);
+				while (keys[i] != null) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+				usedSlots++;
+			}
+		}
+	}
+
+	private class EntrySet extends AbstractSet<Map.Entry<String, Expression<?>>> {
+		@Override
+		public Iterator<Map.Entry<String, Expression<?>>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			ExpressionMap.this.clear();
+		}
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<String, Expression<?>>> {
+		private final AttributePath[] iteratedKeys = keys;
+		private int next = advance(0);
+		private int last = -1;
+
+		private int advance(int from) {
+			int i = from;
+			while (i < iteratedKeys.length && values[i] == null) {
+				i++;
+			}
+			return i;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < iteratedKeys.length;
+		}
+
+		@Override
+		public Map.Entry<String, Expression<?>> next() {
+			if (iteratedKeys != keys) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = advance(next + 1);
+			return new SimpleEntry<String, Expression<?>>(keys[last].toString(), values[last]) {
+				private static final long serialVersionUID = 1L;
+				private final int slot = last;
+
+				@Override
+				public Expression<?> setValue(Expression<?> value) {
+					if (value == null) {
+						throw new NullPointerException("expression");
+					}
+					values[slot] = value;
+					return super.setValue(value);
+				}
+			};
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (values[last] != null) {
+				values[last] = null;
+				size--;
+			}
+			last = -1;
+		}
+	}
 }
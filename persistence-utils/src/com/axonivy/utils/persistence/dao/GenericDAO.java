@@ -3,25 +3,23 @@ package com.axonivy.utils.persistence.dao;
 import static com.axonivy.utils.persistence.enums.UpdateType.DELETE;
 
 import java.io.Serializable;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.text.MessageFormat;
 import java.text.NumberFormat;
-import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.Parameter;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
 import javax.persistence.Tuple;
@@ -35,39 +33,40 @@ import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
-import javax.persistence.metamodel.Attribute;
-import javax.persistence.metamodel.EntityType;
-import javax.persistence.metamodel.Metamodel;
 import javax.persistence.metamodel.SingularAttribute;
 import javax.transaction.TransactionRolledbackException;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.StopWatch;
 import org.hibernate.Filter;
 import org.hibernate.Session;
 import org.hibernate.proxy.HibernateProxy;
 
+import com.axonivy.utils.persistence.EntityMetadata;
 import com.axonivy.utils.persistence.MaximumSizeMap;
 import com.axonivy.utils.persistence.ReflectionUtilitities;
-import com.axonivy.utils.persistence.annotations.Audit;
 import com.axonivy.utils.persistence.beans.AuditableEntity;
-import com.axonivy.utils.persistence.beans.AuditableEntity_;
 import com.axonivy.utils.persistence.beans.GenericEntity;
 import com.axonivy.utils.persistence.beans.GenericEntity_;
-import com.axonivy.utils.persistence.beans.GenericIdEntity_;
 import com.axonivy.utils.persistence.beans.Header;
 import com.axonivy.utils.persistence.beans.Updatable;
-import com.axonivy.utils.persistence.beans.VersionableEntity_;
+import com.axonivy.utils.persistence.cache.IndexedEntityCache;
 import com.axonivy.utils.persistence.enums.UpdateType;
 import com.axonivy.utils.persistence.history.handler.AuditHandler;
+import com.axonivy.utils.persistence.jfr.DaoOperationEvent;
 import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.metrics.DaoMetrics;
+import com.axonivy.utils.persistence.metrics.QueryOperation;
 import com.axonivy.utils.persistence.search.AttributePredicates;
 import com.axonivy.utils.persistence.search.FilterOrder;
 import com.axonivy.utils.persistence.search.FilterPredicate;
 import com.axonivy.utils.persistence.search.FindByExample;
+import com.axonivy.utils.persistence.search.FindByExamplePlan;
 import com.axonivy.utils.persistence.search.SearchFilter;
+import com.axonivy.utils.persistence.statements.QueryTags;
+
+import ch.ivyteam.ivy.environment.Ivy;
 
 /**
  * @author Various People
@@ -117,7 +116,23 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 	private static final Map<Serializable, UpdateInformation> updateMap =
 			Collections.synchronizedMap(new MaximumSizeMap<>(MAX_UPDATES_TO_KEEP));
 
-	private static final Map<Class<? extends GenericEntity<? extends Serializable>>, AuditHandler> handlerMap = new HashMap<>();
+	/**
+	 * Functions which change search filter queries, see {@link #getIndexedEntityCache()}.
+	 */
+	private static final Set<String> QUERY_HOOKS = Set.of("initializeQuery", "initializeTupleQuery",
+			"manipulateCriteriaFactory", "searchFilterToAttributePredicates");
+
+	private static final ClassValue<Boolean> indexedEntityCacheApplicable = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> daoClass) {
+			String hook = findQueryHookOverride(daoClass,
+					clazz -> GenericDAO.class.getPackageName().equals(clazz.getPackageName()));
+			if (hook != null) {
+				LOG.warn("Indexed entity cache of {0} is not used, because {1} is overridden.", daoClass.getName(), hook);
+			}
+			return hook == null;
+		}
+	};
 
 	/**
 	 * Gets the meta model.
@@ -340,18 +355,10 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 				querySettings.withMaxResults(DEFAULT_MAX_RESULTS);
 			}
 
-			Metamodel mm = getEM().getMetamodel();
-			EntityType<T> et = mm.entity(clazz);
-			Set<Attribute<? super T, ?>> attrs = et.getAttributes();
-			for (Attribute<? super T, ?> a : attrs) {
-				// dont use id, version or header in findbyexample searches
-				if (a.getJavaType().equals(AuditableEntity_.header.getJavaType())
-						|| a.getJavaMember().getName().equals(GenericIdEntity_.id.getJavaMember().getName()) || 
-						a.getJavaMember().getName().equals(VersionableEntity_.version.getJavaMember().getName())) {
-					continue;
-				}
-
-				p = createExpressionViaReflection(example.getE(), likeSyntax, f, isOrSyntax, p, a);
+			T exampleBean = example.getE();
+			FindByExamplePlan plan = FindByExamplePlan.of(getEM().getMetamodel(), clazz, exampleBean.getClass());
+			for (FindByExamplePlan.Accessor accessor : plan.getAccessors()) {
+				p = createExpression(exampleBean, likeSyntax, f, isOrSyntax, p, accessor);
 			}
 
 			q.select(r).where(p);
@@ -382,41 +389,35 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 		}
 	}
 
-	private Predicate createExpressionViaReflection(T example, Optional<Boolean> likeSyntax, CriteriaQueryContext<T> f,
-			boolean isOrSyntax, Predicate p, Attribute<? super T, ?> attr) {
+	private Predicate createExpression(T example, Optional<Boolean> likeSyntax, CriteriaQueryContext<T> f,
+			boolean isOrSyntax, Predicate p, FindByExamplePlan.Accessor accessor) {
 
 		Predicate result = p;
-		String javaName = attr.getJavaMember().getName();
-		String getter = ReflectionUtilitities.getGetterMethodName(javaName);
+		String attributeName = accessor.getAttributeName();
 
 		try {
-			Method m = example.getClass().getMethod(getter, (Class<?>[]) null);
-			if (m != null) {
-				Object value = m.invoke(example, (Object[]) null);
-				if (value != null && !(value instanceof Collection)) {
-					Predicate expr = ((likeSyntax == null || likeSyntax.orElse(true)) && attr.getJavaType().isAssignableFrom(String.class))
-							? f.c.like(f.r.get(attr.getName()), "%" + value.toString() + "%")
-									: f.c.equal(f.r.get(attr.getName()), value);
-
-							result = isOrSyntax ? f.c.or(result, expr) : f.c.and(result, expr);
-				} else if (value != null) {
-					Collection<?> collectionOfValues = (Collection<?>) value;
-					if (!collectionOfValues.isEmpty()) {
-						In<Object> in = f.c.in(f.r.get(attr.getName()));
-						for (Object columnValue : collectionOfValues) {
-							in.value(columnValue);
-						}
-
-						result = in;
+			Object value = accessor.get(example);
+			if (value != null && !(value instanceof Collection)) {
+				Predicate expr = ((likeSyntax == null || likeSyntax.orElse(true)) && accessor.isString())
+						? f.c.like(f.r.get(attributeName), "%" + value.toString() + "%")
+								: f.c.equal(f.r.get(attributeName), value);
+
+						result = isOrSyntax ? f.c.or(result, expr) : f.c.and(result, expr);
+			} else if (value != null) {
+				Collection<?> collectionOfValues = (Collection<?>) value;
+				if (!collectionOfValues.isEmpty()) {
+					In<Object> in = f.c.in(f.r.get(attributeName));
+					for (Object columnValue : collectionOfValues) {
+						in.value(columnValue);
 					}
+
+					result = in;
 				}
 			}
 
 			return result;
-		} catch (IllegalAccessException | IllegalArgumentException
-				| InvocationTargetException | NoSuchMethodException
-				| SecurityException e) {
-			LOG.warn("QueryByExample invoke problem: method {0} example object {1}", e, getter, example);
+		} catch (PersistenceException e) {
+			LOG.warn("QueryByExample invoke problem: attribute {0} example object {1}", e, attributeName, example);
 		}
 
 		return result;
@@ -519,7 +520,7 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 	 *         permissions
 	 */
 	public <U> List<U> findByCriteria(CriteriaQueryGenericContext<T, U> factory) {
-		return factory != null ? findByCriteriaInternal(factory) : new ArrayList<U>();
+		return factory != null ? findByCriteriaInternal(factory, QueryOperation.FIND) : new ArrayList<U>();
 	}
 
 	/**
@@ -562,8 +563,9 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 				};
 
 				tmpQuery.q.multiselect(tmpQuery.c.countDistinct(tmpQuery.r));
+				tmpQuery.setCoalescible(true);
 
-				count = findByCriteriaInternal(tmpQuery).stream().findFirst().orElse(0L);
+				count = findByCriteriaInternal(tmpQuery, QueryOperation.COUNT).stream().findFirst().orElse(0L);
 			} catch (Exception e) {
 				throw new PersistenceException(e);
 			}
@@ -592,10 +594,16 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 	 * This version does not check permissions.
 	 *
 	 * @param criteriaFactory
+	 * @param operation operation recorded in the {@link DaoMetrics}
 	 * @return
 	 */
-	private <U> List<U> findByCriteriaInternal(CriteriaQueryGenericContext<T, U> criteriaFactory) {
-		LocalTime startOfMeasurements = LocalTime.now();
+	private <U> List<U> findByCriteriaInternal(CriteriaQueryGenericContext<T, U> criteriaFactory, QueryOperation operation) {
+		DaoOperationEvent event = new DaoOperationEvent();
+		event.begin();
+		long startOfMeasurements = System.nanoTime();
+		Query executedQuery = null;
+		long rows = 0;
+		boolean success = false;
 		try (AutoCloseable au = beginSession()) {
 
 			QuerySettings<T> querySettings = criteriaFactory.getQuerySettings();
@@ -625,6 +633,7 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 			manipulateCriteriaFactory(criteriaFactory);
 
 			TypedQuery<U> query = getEM().createQuery(criteriaFactory.q);
+			executedQuery = query;
 
 			if (tqi != null) {
 				tqi.beforeGetResultList(query);
@@ -642,39 +651,117 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 
 			handleReadingAudit(criteriaFactory);
 
-			List<U> resultList = query.getResultList();
+			List<U> resultList;
+			List<Object> coalescingKey = null;
+			if (criteriaFactory.isCoalescible() && tqi == null && isQueryCoalescingEnabled() && !isTransactionActive()) {
+				coalescingKey = getCoalescingKey(query);
+			}
+			String previousTag = QueryTags.begin(getClass(), operation, query);
+			try {
+				if (coalescingKey != null) {
+					resultList = QueryCoalescer.getInstance().execute(coalescingKey, getType().getClassLoader(),
+							query::getResultList);
+				} else {
+					resultList = query.getResultList();
+				}
+			} finally {
+				QueryTags.end(previousTag);
+			}
 
 			if (tqi != null) {
 				resultList = tqi.afterGetResultList(resultList);
 			}
 
-			if (LOG.isDebugEnabled()) {
-				LocalTime endOfMeasurements = LocalTime.now();
-				double millis = startOfMeasurements.until(endOfMeasurements,
-						ChronoUnit.NANOS) / 1000000.0;
+			rows = resultList.size();
+			success = true;
 
+			if (LOG.isDebugEnabled()) {
 				String criteriaString = criteriaFactory.getQueryString(query);
 				if (!StringUtils.isBlank(criteriaString)) {
 					criteriaString = ":\n    " + criteriaString;
 				}
 
-				if (millis > 500) {
-					LOG.warn("{0}: find took {2} ms : statement{1}", getType()
-							.getSimpleName(), criteriaString, NumberFormat
-							.getNumberInstance().format(millis));
-					LOG.warn("this query took more than 500 miliseconds");
-				} else {
-					LOG.debug(
-							"{0}: find by criteria took {2} ms : statement{1}",
-							getType().getSimpleName(), criteriaString,
-							NumberFormat.getNumberInstance().format(millis));
-
-				}
+				LOG.debug(
+						"{0}: find by criteria took {2} ms : statement{1}",
+						getType().getSimpleName(), criteriaString,
+						NumberFormat.getNumberInstance().format((System.nanoTime() - startOfMeasurements) / 1000000.0));
 			}
 
 			return resultList;
 		} catch (Exception e) {
+			// also failed, if closing the session fails
+			success = false;
 			throw new PersistenceException(e);
+		} finally {
+			DaoMetrics.getInstance().record(getClass(), operation, executedQuery, System.nanoTime() - startOfMeasurements, rows, !success);
+			event.end(getClass(), getType(), operation, executedQuery, rows, success);
+		}
+	}
+
+	/**
+	 * Override this function to enable coalescing of identical concurrent queries.
+	 *
+	 * <p>
+	 * If enabled, concurrent calls of {@link #findBySearchFilter(SearchFilter, QuerySettings)},
+	 * {@link #countBySearchFilter(SearchFilter, QuerySettings)} and {@link #countByCriteria(CriteriaQueryGenericContext)}
+	 * (and queries marked with {@link CriteriaQueryGenericContext#setCoalescible(boolean)}) with the same
+	 * key (see {@link #getCoalescingKey(TypedQuery)}) share a single database execution. Waiting callers get a
+	 * detached copy of the result (see {@link QueryCoalescer}).
+	 * </p>
+	 *
+	 * <p>
+	 * Queries inside a transaction and queries with a {@link CriteriaQueryGenericContext.TypedQueryInterceptor}
+	 * are never coalesced.
+	 * </p>
+	 *
+	 * @return <code>true</code> to enable coalescing, default is <code>false</code>
+	 */
+	protected boolean isQueryCoalescingEnabled() {
+		return false;
+	}
+
+	/**
+	 * Build the canonical key of a query for coalescing.
+	 *
+	 * The key consists of the DAO, the persistence unit, the query string, all bound parameter values,
+	 * paging and the user scope (see {@link #getCoalescingUserScope()}). Markers are part of the query string,
+	 * because they are applied to the query before.
+	 *
+	 * @param query query ready for execution
+	 * @return key or <code>null</code> if the query cannot be keyed (and will not be coalesced)
+	 */
+	protected List<Object> getCoalescingKey(TypedQuery<?> query) {
+		try {
+			org.hibernate.query.Query<?> hibernateQuery = query.unwrap(org.hibernate.query.Query.class);
+			Map<String, Object> parameters = new TreeMap<>();
+			for (Parameter<?> parameter : hibernateQuery.getParameters()) {
+				String name = parameter.getName() != null ? parameter.getName() : String.valueOf(parameter.getPosition());
+				parameters.put(name, hibernateQuery.isBound(parameter) ? hibernateQuery.getParameterValue(parameter) : null);
+			}
+			return QueryCoalescer.key(getClass(), getPersistenceUnitName(), hibernateQuery.getQueryString(),
+					parameters, hibernateQuery.getFirstResult(), hibernateQuery.getMaxResults(), getCoalescingUserScope());
+		} catch (RuntimeException e) {
+			// e.g. multi valued parameters
+			LOG.debug("query cannot be coalesced", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Get the user scope of coalesced queries.
+	 *
+	 * Queries are only coalesced for callers with the same scope. The default is the session user, override
+	 * this function if results do not depend on the user (then more queries can be coalesced) or depend on
+	 * more than the user.
+	 *
+	 * @return scope
+	 */
+	protected Object getCoalescingUserScope() {
+		try {
+			return Ivy.session().getSessionUserName();
+		} catch (Exception e) {
+			LOG.debug("no session user for coalescing", e);
+			return null;
 		}
 	}
 
@@ -688,18 +775,31 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 	 * @return number of updated row
 	 */
 	public long updateRawByCriteria(UpdateQueryGenericContext<T> criteriaFactory) {
-		LocalTime startOfMeasurements = LocalTime.now();
+		DaoOperationEvent event = new DaoOperationEvent();
+		event.begin();
+		long startOfMeasurements = System.nanoTime();
+		Query executedQuery = null;
+		long rows = 0;
+		boolean success = false;
 		try (AutoCloseable au = beginSession();) {
 			Boolean[] isError = new Boolean[] { true };
 			try (AutoCloseTransaction autoclose = beginTransaction(isError)) {
 
 				manipulateUpdateQuery(criteriaFactory);
 				Query query = getEM().createQuery(criteriaFactory.u);
-				int result = query.executeUpdate();
+				executedQuery = query;
+				int result;
+				String previousTag = QueryTags.begin(getClass(), QueryOperation.UPDATE, query);
+				try {
+					result = query.executeUpdate();
+				} finally {
+					QueryTags.end(previousTag);
+				}
+
+				rows = result;
+				long nanos = System.nanoTime() - startOfMeasurements;
 
 				if (LOG.isDebugEnabled()) {
-					LocalTime endOfMeasurements = LocalTime.now();
-					double millis = startOfMeasurements.until(endOfMeasurements, ChronoUnit.NANOS) / 1000000.0;
 					String criteriaString = criteriaFactory.getQueryString(query);
 
 					if (!StringUtils.isBlank(criteriaString)) {
@@ -709,15 +809,21 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 					LOG.debug(
 							"{0}: update by criteria took {2} ms : statement{1}",
 							getType().getSimpleName(), criteriaString,
-							NumberFormat.getNumberInstance().format(millis));
+							NumberFormat.getNumberInstance().format(nanos / 1000000.0));
 				}
 
 				isError[0] = false;
+				success = true;
 
 				return result;
 			}
 		} catch (Exception e) {
+			// also failed, if the commit of the auto close transaction fails
+			success = false;
 			throw new PersistenceException(e);
+		} finally {
+			DaoMetrics.getInstance().record(getClass(), QueryOperation.UPDATE, executedQuery, System.nanoTime() - startOfMeasurements, rows, !success);
+			event.end(getClass(), getType(), QueryOperation.UPDATE, executedQuery, rows, success);
 		}
 
 	}
@@ -750,18 +856,31 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 	 * @return number of updated row
 	 */
 	public long deletePhysicallyRawByCriteria(DeleteQueryGenericContext<T> criteriaFactory) {
-		LocalTime startOfMeasurements = LocalTime.now();
+		DaoOperationEvent event = new DaoOperationEvent();
+		event.begin();
+		long startOfMeasurements = System.nanoTime();
+		Query executedQuery = null;
+		long rows = 0;
+		boolean success = false;
 
 		try (AutoCloseable au = beginSession();) {
 			Boolean[] isError = new Boolean[] { true };
 
 			try (AutoCloseTransaction autoclose = beginTransaction(isError)) {
 				Query query = getEM().createQuery(criteriaFactory.d);
-				int result = query.executeUpdate();
+				executedQuery = query;
+				int result;
+				String previousTag = QueryTags.begin(getClass(), QueryOperation.DELETE, query);
+				try {
+					result = query.executeUpdate();
+				} finally {
+					QueryTags.end(previousTag);
+				}
+
+				rows = result;
+				long nanos = System.nanoTime() - startOfMeasurements;
 
 				if (LOG.isDebugEnabled()) {
-					LocalTime endOfMeasurements = LocalTime.now();
-					double millis = startOfMeasurements.until(endOfMeasurements, ChronoUnit.NANOS) / 1000000.0;
 					String criteriaString = criteriaFactory.getQueryString(query);
 
 					if (!StringUtils.isBlank(criteriaString)) {
@@ -771,15 +890,21 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 					LOG.debug(
 							"{0}: Delete by criteria took {2} ms : statement{1}",
 							getType().getSimpleName(), criteriaString,
-							NumberFormat.getNumberInstance().format(millis));
+							NumberFormat.getNumberInstance().format(nanos / 1000000.0));
 				}
 
 				isError[0] = false;
+				success = true;
 
 				return result;
 			}
 		} catch (Exception e) {
+			// also failed, if the commit of the auto close transaction fails
+			success = false;
 			throw new PersistenceException(e);
+		} finally {
+			DaoMetrics.getInstance().record(getClass(), QueryOperation.DELETE, executedQuery, System.nanoTime() - startOfMeasurements, rows, !success);
+			event.end(getClass(), getType(), QueryOperation.DELETE, executedQuery, rows, success);
 		}
 
 	}
@@ -1004,12 +1129,15 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 
 	@SuppressWarnings("unchecked")
 	protected T mergeBean(T toBeMergedBean, UpdateType type, T current) {
-		StopWatch sw = new StopWatch();
-		sw.start();
+		DaoOperationEvent event = new DaoOperationEvent();
+		event.begin();
+		long startOfMeasurements = System.nanoTime();
 		T tmpBean = toBeMergedBean;
 
 		UpdateInformation newUpdateInformation = new UpdateInformation(tmpBean, type, tmpBean.getSessionUsername());
+		boolean success = false;
 
+		String previousTag = QueryTags.begin(getClass(), QueryOperation.of(type), null);
 		try (AutoCloseable closeableSession = beginSession()) {
 			beginTransaction();
 
@@ -1034,6 +1162,11 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 				((Caching<T>) this).invalidateCache(type, tmpBean);
 			}
 
+			IndexedEntityCache<T> indexedEntityCache = getIndexedEntityCache();
+			if (indexedEntityCache != null) {
+				invalidateOnTransactionEnd(indexedEntityCache);
+			}
+
 			if (HibernateProxy.class.isAssignableFrom(tmpBean.getClass())) {
 				tmpBean = (T) ((HibernateProxy) tmpBean).getHibernateLazyInitializer().getImplementation();
 			}
@@ -1043,6 +1176,7 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 			// remember information about the operation in
 			// case we get an optimistic lock exception.
 			updateMap.put(tmpBean.getId(), newUpdateInformation);
+			success = true;
 		} catch (Exception e) {
 			rollbackTransaction();
 
@@ -1056,60 +1190,44 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 			LOG.error(message);
 
 			throw new PersistenceException(message, e);
+		} finally {
+			QueryTags.end(previousTag);
+			DaoMetrics.getInstance().record(getClass(), QueryOperation.of(type), null, System.nanoTime() - startOfMeasurements, success ? 1 : 0, !success);
+			event.end(getClass(), getType(), QueryOperation.of(type), null, success ? 1 : 0, success);
 		}
 
-		LOG.debug("{0}({1}): merge execution time: {2}", getType(),	tmpBean.getId(), sw.getTime());
+		long nanos = System.nanoTime() - startOfMeasurements;
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("{0}({1}): merge execution time: {2}", getType(), tmpBean.getId(), nanos / 1000000);
+		}
 		updateEvent(tmpBean, type);
 
 		return tmpBean;
 	}
 
 	@SuppressWarnings("incomplete-switch")
-	private void handleUpdatingAudit(T tmpBean, T current, UpdateType updateType) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
-		Class<T> clazz = getType();
+	private void handleUpdatingAudit(T tmpBean, T current, UpdateType updateType) {
+		AuditHandler handler = EntityMetadata.of(getType()).getAuditHandler();
 
-		if (clazz.isAnnotationPresent(Audit.class)) {
-			AuditHandler handler = getAuditHandler(clazz);
-
-			if (handler != null) {
-				switch (updateType) {
-				case UPDATE:
-					handler.handleUpdate(current, tmpBean);
-					break;
-				case DELETE:
-					handler.handleDelete(tmpBean);
-					break;
-				}	
-			}
+		if (handler != null) {
+			switch (updateType) {
+			case UPDATE:
+				handler.handleUpdate(current, tmpBean);
+				break;
+			case DELETE:
+				handler.handleDelete(tmpBean);
+				break;
+			}	
 		}
 	}
 
-	private void handleReadingAudit(CriteriaQueryGenericContext<?, ?> query) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
-		Class<T> clazz = getType();
-		if (clazz.isAnnotationPresent(Audit.class)) {
-			AuditHandler handler = getAuditHandler(clazz);
-			if (handler != null) {
-				handler.handleRead(query);
-			}
+	private void handleReadingAudit(CriteriaQueryGenericContext<?, ?> query) {
+		AuditHandler handler = EntityMetadata.of(getType()).getAuditHandler();
+		if (handler != null) {
+			handler.handleRead(query);
 		}
 	}
 
-	private AuditHandler getAuditHandler(Class<? extends GenericEntity<? extends Serializable>> clazz)
-			throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
-		AuditHandler handler = handlerMap.get(clazz);
-
-		if (handler == null) {
-			Audit auditAnotation = clazz.getAnnotation(Audit.class);
-			Class<? extends AuditHandler> handlerClass = auditAnotation.handler();
-			if (handlerClass != null) {
-				handler = handlerClass.getDeclaredConstructor().newInstance();
-				handlerMap.put(clazz, handler);
-			}
-		}
-
-		return handler;
-	}
-
 	@SuppressWarnings("unchecked")
 	protected T removeBean(T oldBean) {
 		T bean = oldBean;
@@ -1123,7 +1241,7 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 
 	protected void updateEvent(T bean, UpdateType updateType) {
 		try {
-			if (Updatable.class.isAssignableFrom(getType())) {
+			if (EntityMetadata.of(getType()).isUpdatable()) {
 				Updatable<?> upd = (Updatable<?>) bean;
 				LOG.debug("bean {0} was updated, type {1}", upd.getId(), updateType);
 			}
@@ -1295,7 +1413,7 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 	}
 
 	protected String getTablename() {
-		return ReflectionUtilitities.getTablename(getType());
+		return EntityMetadata.of(getType()).getTableName();
 	}
 
 	protected void copyProperties(Object histBean, Object current) {
@@ -1362,12 +1480,21 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 	public List<Tuple> findBySearchFilter(SearchFilter searchFilter, QuerySettings<T> querySettings) {
 		LOG.debug("find by search filter");
 
+		IndexedEntityCache<T> cache = getApplicableIndexedEntityCache();
+		if (cache != null && cache.canAnswer(searchFilter, querySettings)) {
+			List<Tuple> tuples = cache.findTuples(searchFilter, querySettings);
+			LOG.debug("found {0} cached tuples for given predicates", tuples.size());
+			return tuples;
+		}
+
 		try (CriteriaQueryGenericContext<T, Tuple> query = initializeQuery(getType(), Tuple.class)) {
 
 			if (querySettings != null) {
 				query.setQuerySettings(querySettings);
 			}
 
+			query.setCoalescible(true);
+
 			AttributePredicates totalAps = searchFilterToAttributePredicates(searchFilter, query);
 
 			// build query from all predicates and selections and orders
@@ -1419,12 +1546,22 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 	public long countBySearchFilter(SearchFilter searchFilter,
 			QuerySettings<T> querySettings) {
 		LOG.debug("find by search filter");
+
+		IndexedEntityCache<T> cache = getApplicableIndexedEntityCache();
+		if (cache != null && cache.canAnswer(searchFilter, querySettings)) {
+			long result = cache.count(searchFilter);
+			LOG.debug("counted {0} cached tuples for given predicates", result);
+			return result;
+		}
+
 		try (CriteriaQueryGenericContext<T, Long> query = initializeQuery(getType(), Long.class)) {
 
 			if (querySettings != null) {
 				query.setQuerySettings(querySettings);
 			}
 
+			query.setCoalescible(true);
+
 			AttributePredicates totalAps = searchFilterToAttributePredicates(searchFilter, query);
 
 			// build query from all predicates but ignore selections and orders for counting
@@ -1441,6 +1578,55 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 		}
 	}
 
+	/**
+	 * Override this function to answer search filter queries from memory.
+	 *
+	 * If an {@link IndexedEntityCache} is returned, {@link #findBySearchFilter(SearchFilter, QuerySettings)}
+	 * and {@link #countBySearchFilter(SearchFilter, QuerySettings)} use it for all queries it can answer
+	 * (see {@link IndexedEntityCache#canAnswer(SearchFilter, QuerySettings)}). The cache is invalidated
+	 * when the transaction ends in which an entity was saved or deleted by this DAO. Raw updates and
+	 * deletes are not tracked.
+	 *
+	 * <p>
+	 * Cached results are shared by all users and do not pass {@link #initializeQuery(Class, Class)},
+	 * {@link #manipulateCriteriaFactory(CriteriaQueryGenericContext)} or
+	 * {@link #searchFilterToAttributePredicates(SearchFilter, CriteriaQueryGenericContext)}. The cache is
+	 * therefore ignored (with a warning), if the DAO overrides one of these functions. The restrictions of
+	 * the base DAOs of this library (e.g. deleted entities of an {@link AuditableDAO}) do not depend on the
+	 * user and are applied by loading the cache with {@link #findAll()}. The search attributes of the
+	 * cache must match {@link #getAttributePredicate(CriteriaQueryGenericContext, FilterPredicate, ExpressionMap)}
+	 * and must not add further restrictions.
+	 * </p>
+	 *
+	 * @return cache or <code>null</code> if search filter queries are not cached
+	 */
+	protected IndexedEntityCache<T> getIndexedEntityCache() {
+		return null;
+	}
+
+	private IndexedEntityCache<T> getApplicableIndexedEntityCache() {
+		IndexedEntityCache<T> cache = getIndexedEntityCache();
+		return cache != null && indexedEntityCacheApplicable.get(getClass()) ? cache : null;
+	}
+
+	/**
+	 * Find an overridden function which changes queries of a DAO.
+	 *
+	 * @param daoClass class of the DAO
+	 * @param trusted the first (super) class accepted to override functions, stops the search
+	 * @return name of the function or <code>null</code> if none is overridden
+	 */
+	static String findQueryHookOverride(Class<?> daoClass, java.util.function.Predicate<Class<?>> trusted) {
+		for (Class<?> clazz = daoClass; clazz != null && !trusted.test(clazz); clazz = clazz.getSuperclass()) {
+			for (Method method : clazz.getDeclaredMethods()) {
+				if (!method.isSynthetic() && QUERY_HOOKS.contains(method.getName())) {
+					return clazz.getName() + "." + method.getName();
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Convert {@link SearchFilter} to {@link AttributePredicates}.
 	 *
@@ -1595,6 +1781,24 @@ public abstract class GenericDAO<M extends GenericEntity_, T extends GenericEnti
 		return updateMap.get(key);
 	}
 
+	/**
+	 * Get the number of {@link UpdateInformation}s kept for all DAOs.
+	 *
+	 * @return size of the journal
+	 */
+	public static int getUpdateJournalSize() {
+		return updateMap.size();
+	}
+
+	/**
+	 * Get the maximum number of {@link UpdateInformation}s kept for all DAOs.
+	 *
+	 * @return capacity of the journal
+	 */
+	public static int getUpdateJournalCapacity() {
+		return MAX_UPDATES_TO_KEEP;
+	}
+
 	/**
 	 * Get a list result and return the entry.
 	 *
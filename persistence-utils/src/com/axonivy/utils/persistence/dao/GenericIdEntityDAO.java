@@ -2,6 +2,7 @@ package com.axonivy.utils.persistence.dao;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -57,6 +58,9 @@ public abstract class GenericIdEntityDAO <MetaDataGeneric extends GenericIdEntit
 	 * Find all not deleted entities which have specified ids and where
 	 * the user has permissions and client specific permissions for them.
 	 *
+	 * Large lists of ids are handled by the {@link LargeInStrategy} returned by
+	 * {@link #getLargeInStrategy(int)}.
+	 *
 	 * @param ids of entities which need to be selected
 	 * @return Collection of allowed entities
 	 */
@@ -66,12 +70,51 @@ public abstract class GenericIdEntityDAO <MetaDataGeneric extends GenericIdEntit
 			return new ArrayList<G>();
 		}
 
+		List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+		return getLargeInStrategy(distinctIds.size()).execute(distinctIds, this::findByIdsInternal);
+	}
+
+	/**
+	 * Select the strategy used by {@link #findByIds(List)}.
+	 *
+	 * Override this function to use a different strategy, e.g. {@link LargeInStrategies#parallel(int, java.util.concurrent.Executor)}.
+	 *
+	 * @param size number of distinct ids
+	 * @return strategy, by default {@link LargeInStrategies#forSize(int)}
+	 */
+	protected LargeInStrategy getLargeInStrategy(int size) {
+		return LargeInStrategies.forSize(size);
+	}
+
+	private List<G> findByIdsInternal(List<String> ids) {
 		try(CriteriaQueryContext<G> query = initializeQuery();){
 			Path<String> routeId = query.r.get(MetaDataGeneric.id);
 
-			query.where(routeId.in(ids));
+			// split into chunks which the database accepts
+			query.where(query.in(routeId, new LinkedHashSet<>(ids)));
 
 			return findByCriteria(query);
 		}
 	}
+
+	/**
+	 * Create a request scoped {@link BatchLoader}.
+	 *
+	 * Use it to replace many calls of {@link #findById(java.io.Serializable)} by a single
+	 * query. The loader must be closed.
+	 *<p>Example:</p>
+	 *<pre>
+	 *{@code
+	 *try (BatchLoader<G> loader = dao.batchLoader()) {
+	 *	List<BatchLoader.Handle<G>> handles = loader.loadAll(ids);
+	 *	G first = handles.get(0).get(); // loads all entities
+	 *}
+	 *}
+	 *</pre>
+	 *
+	 * @return batch loader
+	 */
+	public BatchLoader<G> batchLoader() {
+		return new BatchLoader<>(this);
+	}
 }
@@ -0,0 +1,142 @@
+package com.axonivy.utils.persistence.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Available {@link LargeInStrategy}s and automatic selection by set size.
+ *
+ * <ul>
+ * <li>{@link #singleQuery()}: one statement, values are split into padded <code>IN</code> lists which are
+ * combined with <code>OR</code>. Best for small and medium sets.</li>
+ * <li>{@link #chunked(int)}: one statement per chunk, every statement has a single padded <code>IN</code> list,
+ * so all statements share the same text and the same plan. Best for large sets.</li>
+ * <li>{@link #parallel(int, Executor)}: like {@link #chunked(int)}, but chunks are executed in parallel by an
+ * {@link Executor}. Every chunk runs in its own session, so returned entities are detached. The threads
+ * of the executor need access to the Ivy environment. It is never selected automatically.</li>
+ * </ul>
+ *
+ * Note: a session scoped temporary table is not offered, because criteria queries cannot join unmapped
+ * tables and temporary tables are not portable across the supported databases.
+ */
+public final class LargeInStrategies {
+	private static final Logger LOG = Logger.getLogger(LargeInStrategies.class);
+
+	/**
+	 * Number of values in a chunk, one full <code>IN</code> list.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = QueryGenericContext.MAX_IN_PARAMETER;
+
+	/**
+	 * Sets up to this size are handled by {@link #singleQuery()}, larger sets by {@link #chunked(int)}.
+	 */
+	public static final int SINGLE_QUERY_LIMIT = 4 * DEFAULT_CHUNK_SIZE;
+
+	private static final LargeInStrategy SINGLE_QUERY = new LargeInStrategy() {
+		@Override
+		public <V, R> List<R> execute(List<V> values, Function<List<V>, List<R>> query) {
+			return query.apply(values);
+		}
+	};
+
+	/**
+	 * Hide public constructor.
+	 */
+	private LargeInStrategies() {
+	}
+
+	/**
+	 * Select a strategy by the size of the set.
+	 *
+	 * @param size number of values
+	 * @return strategy
+	 */
+	public static LargeInStrategy forSize(int size) {
+		return size <= SINGLE_QUERY_LIMIT ? singleQuery() : chunked(DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Execute a single query for all values.
+	 *
+	 * @return strategy
+	 */
+	public static LargeInStrategy singleQuery() {
+		return SINGLE_QUERY;
+	}
+
+	/**
+	 * Execute one query per chunk and concatenate the results.
+	 *
+	 * @param chunkSize maximum number of values per query
+	 * @return strategy
+	 */
+	public static LargeInStrategy chunked(int chunkSize) {
+		return new LargeInStrategy() {
+			@Override
+			public <V, R> List<R> execute(List<V> values, Function<List<V>, List<R>> query) {
+				List<List<V>> chunks = chunks(values, chunkSize);
+				LOG.debug("executing {0} values in {1} chunks", values.size(), chunks.size());
+				List<R> result = new ArrayList<>();
+				for (List<V> chunk : chunks) {
+					result.addAll(query.apply(chunk));
+				}
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Execute one query per chunk in parallel and concatenate the results in chunk order.
+	 *
+	 * @param chunkSize maximum number of values per query
+	 * @param executor executor running the chunks
+	 * @return strategy
+	 */
+	public static LargeInStrategy parallel(int chunkSize, Executor executor) {
+		return new LargeInStrategy() {
+			@Override
+			public <V, R> List<R> execute(List<V> values, Function<List<V>, List<R>> query) {
+				List<List<V>> chunks = chunks(values, chunkSize);
+				LOG.debug("executing {0} values in {1} parallel chunks", values.size(), chunks.size());
+				List<CompletableFuture<List<R>>> futures = new ArrayList<>(chunks.size());
+				for (List<V> chunk : chunks) {
+					futures.add(CompletableFuture.supplyAsync(() -> query.apply(chunk), executor));
+				}
+				List<R> result = new ArrayList<>();
+				try {
+					for (CompletableFuture<List<R>> future : futures) {
+						result.addAll(future.join());
+					}
+				} catch (CompletionException e) {
+					throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+				}
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Split values into chunks.
+	 *
+	 * @param values values
+	 * @param chunkSize maximum size of a chunk
+	 * @param <V> type of values
+	 * @return chunks
+	 */
+	public static <V> List<List<V>> chunks(List<V> values, int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunk size must be positive: " + chunkSize);
+		}
+		List<List<V>> chunks = new ArrayList<>();
+		for (int from = 0; from < values.size(); from += chunkSize) {
+			chunks.add(values.subList(from, Math.min(from + chunkSize, values.size())));
+		}
+		return chunks;
+	}
+}
@@ -0,0 +1,29 @@
+package com.axonivy.utils.persistence.dao;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Strategy to execute a query which tests membership in a large set of values.
+ *
+ * A strategy decides, how many values are passed to a single query and how the partial
+ * results are combined. The query function is expected to build the <code>IN</code> predicate
+ * with {@link QueryGenericContext#in(javax.persistence.criteria.Expression, java.util.Set)}, which
+ * pads the values to fixed bucket sizes.
+ *
+ * See {@link LargeInStrategies} for the available strategies.
+ */
+@FunctionalInterface
+public interface LargeInStrategy {
+
+	/**
+	 * Execute the query for all values.
+	 *
+	 * @param values distinct values
+	 * @param query query for a part of the values
+	 * @param <V> type of values
+	 * @param <R> type of results
+	 * @return combined result
+	 */
+	<V, R> List<R> execute(List<V> values, Function<List<V>, List<R>> query);
+}
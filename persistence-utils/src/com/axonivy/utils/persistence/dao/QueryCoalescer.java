@@ -0,0 +1,327 @@
+package com.axonivy.utils.persistence.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import org.apache.commons.lang3.SerializationUtils;
+
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Coalesce identical concurrent queries into a single database execution.
+ *
+ * <p>
+ * The first caller of a key (the leader) executes the query. Callers with the same key, which
+ * arrive while the leader is still executing (the followers), wait for it. The leader keeps its
+ * own result. If there are followers, the result is serialized once and every follower gets its
+ * own deserialized, detached copy, so no managed entity is shared between sessions. Copies are
+ * deserialized with the class loader of the follower (e.g. the class loader of the entity), so
+ * that classes of the project can be resolved inside the engine. If the result cannot be copied or
+ * the leader fails, followers execute the query themselves.
+ * </p>
+ *
+ * <p>
+ * Keys must contain everything which could change the result (query, bound values, paging,
+ * persistence unit, user,...), see {@link #key(Object...)}.
+ * </p>
+ */
+public class QueryCoalescer {
+	private static final Logger LOG = Logger.getLogger(QueryCoalescer.class);
+
+	private static final QueryCoalescer singleton = new QueryCoalescer();
+
+	private final Map<List<Object>, InFlight> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Hide public constructor.
+	 */
+	protected QueryCoalescer() {
+	}
+
+	/**
+	 * Get singleton instance.
+	 *
+	 * @return singleton instance
+	 */
+	public static QueryCoalescer getInstance() {
+		return singleton;
+	}
+
+	/**
+	 * Build a canonical key from its parts.
+	 *
+	 * Parts are compared by {@link Object#equals(Object)}, arrays by content.
+	 *
+	 * @param parts parts of the key
+	 * @return key
+	 */
+	public static List<Object> key(Object... parts) {
+		List<Object> key = new ArrayList<>(parts.length);
+		for (Object part : parts) {
+			key.add(part instanceof Object[] ? Arrays.asList((Object[]) part) : part);
+		}
+		return key;
+	}
+
+	/**
+	 * Get the number of queries currently executed.
+	 *
+	 * @return number of keys in flight
+	 */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	/**
+	 * Execute a query or wait for an identical query in flight.
+	 *
+	 * Copies are deserialized with the context class loader of the current thread.
+	 *
+	 * @param key canonical key of the query
+	 * @param query executes the query in the session of the caller
+	 * @param <R> type of result elements
+	 * @return result of the leader or a detached copy of it
+	 */
+	public <R> List<R> execute(List<Object> key, Supplier<List<R>> query) {
+		return execute(key, Thread.currentThread().getContextClassLoader(), query);
+	}
+
+	/**
+	 * Execute a query or wait for an identical query in flight.
+	 *
+	 * @param key canonical key of the query
+	 * @param classLoader class loader to resolve the classes of a copied result
+	 * @param query executes the query in the session of the caller
+	 * @param <R> type of result elements
+	 * @return result of the leader or a detached copy of it
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> List<R> execute(List<Object> key, ClassLoader classLoader, Supplier<List<R>> query) {
+		while (true) {
+			InFlight current = inFlight.get(key);
+			if (current != null) {
+				if (current.join()) {
+					List<R> copy = (List<R>) current.await(classLoader);
+					if (copy != null) {
+						LOG.debug("coalesced query {0}", key);
+						return copy;
+					}
+					// leader failed or result could not be copied or read
+					return query.get();
+				}
+				// leader is just finishing, try again
+				continue;
+			}
+
+			InFlight mine = new InFlight();
+			if (inFlight.putIfAbsent(key, mine) != null) {
+				continue;
+			}
+
+			List<R> result = null;
+			try {
+				result = query.get();
+				return result;
+			} finally {
+				int followers = mine.close();
+				inFlight.remove(key, mine);
+				mine.publish(followers > 0 && result != null ? serialize(result) : null);
+				if (followers > 0) {
+					LOG.debug("query {0} was shared with {1} waiting callers", key, followers);
+				}
+			}
+		}
+	}
+
+	private static byte[] serialize(List<?> result) {
+		try {
+			ArrayList<Object> copy = new ArrayList<>(result.size());
+			for (Object element : result) {
+				copy.add(element instanceof Tuple ? new DetachedTuple((Tuple) element) : element);
+			}
+			return SerializationUtils.serialize(copy);
+		} catch (Exception e) {
+			LOG.debug("could not copy result for waiting callers", e);
+			return null;
+		}
+	}
+
+	/**
+	 * A query in flight.
+	 */
+	private static class InFlight {
+		private final CountDownLatch done = new CountDownLatch(1);
+		private int followers = 0;
+		private boolean closed = false;
+		private volatile byte[] result;
+
+		/**
+		 * Join as follower.
+		 *
+		 * @return <code>false</code> if the leader does not accept followers anymore
+		 */
+		private synchronized boolean join() {
+			if (closed) {
+				return false;
+			}
+			followers++;
+			return true;
+		}
+
+		/**
+		 * Do not accept more followers.
+		 *
+		 * @return number of followers
+		 */
+		private synchronized int close() {
+			closed = true;
+			return followers;
+		}
+
+		private void publish(byte[] serialized) {
+			result = serialized;
+			done.countDown();
+		}
+
+		private Object await(ClassLoader classLoader) {
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			byte[] serialized = result;
+			if (serialized == null) {
+				return null;
+			}
+			try (ObjectInputStream in = new ClassLoaderObjectInputStream(new ByteArrayInputStream(serialized), classLoader)) {
+				return in.readObject();
+			} catch (Exception e) {
+				LOG.debug("could not read copied result, executing query", e);
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * {@link ObjectInputStream} resolving classes with a given class loader first.
+	 */
+	private static class ClassLoaderObjectInputStream extends ObjectInputStream {
+		private final ClassLoader classLoader;
+
+		private ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+			super(in);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (classLoader != null) {
+				try {
+					return Class.forName(desc.getName(), false, classLoader);
+				} catch (ClassNotFoundException e) {
+					// e.g. primitive types, resolved below
+				}
+			}
+			return super.resolveClass(desc);
+		}
+	}
+
+	/**
+	 * Serializable copy of a {@link Tuple}.
+	 */
+	static class DetachedTuple implements Tuple, Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final String[] aliases;
+		private final Object[] values;
+
+		DetachedTuple(Tuple tuple) {
+			List<TupleElement<?>> elements = tuple.getElements();
+			aliases = new String[elements.size()];
+			for (int i = 0; i < aliases.length; i++) {
+				aliases[i] = elements.get(i).getAlias();
+			}
+			values = tuple.toArray();
+		}
+
+		@Override
+		public <X> X get(TupleElement<X> tupleElement) {
+			return tupleElement.getJavaType().cast(get(tupleElement.getAlias()));
+		}
+
+		@Override
+		public <X> X get(String alias, Class<X> type) {
+			return type.cast(get(alias));
+		}
+
+		@Override
+		public Object get(String alias) {
+			for (int i = 0; i < aliases.length; i++) {
+				if (aliases[i] != null && aliases[i].equals(alias)) {
+					return values[i];
+				}
+			}
+			throw new IllegalArgumentException("Unknown tuple alias " + alias);
+		}
+
+		@Override
+		public <X> X get(int i, Class<X> type) {
+			return type.cast(get(i));
+		}
+
+		@Override
+		public Object get(int i) {
+			if (i < 0 || i >= values.length) {
+				throw new IllegalArgumentException("Tuple index " + i + " out of range");
+			}
+			return values[i];
+		}
+
+		@Override
+		public Object[] toArray() {
+			return values.clone();
+		}
+
+		@Override
+		public List<TupleElement<?>> getElements() {
+			List<TupleElement<?>> elements = new ArrayList<>(values.length);
+			for (int i = 0; i < values.length; i++) {
+				String alias = aliases[i];
+				Object value = values[i];
+				elements.add(new TupleElement<Object>() {
+					@SuppressWarnings("unchecked")
+					@Override
+					public Class<? extends Object> getJavaType() {
+						return value != null ? (Class<Object>) value.getClass() : Object.class;
+					}
+
+					@Override
+					public String getAlias() {
+						return alias;
+					}
+				});
+			}
+			return elements;
+		}
+
+		@Override
+		public String toString() {
+			return "DetachedTuple " + Arrays.toString(values);
+		}
+	}
+}
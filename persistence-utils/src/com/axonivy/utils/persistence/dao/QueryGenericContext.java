@@ -2,7 +2,6 @@ package com.axonivy.utils.persistence.dao;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -155,6 +154,10 @@ public abstract class QueryGenericContext<T extends  Serializable> implements Au
 	
 	/**
 	 * In criteria, if values size greater than MAX_IN_PARAMETER, it will be split into OR of many IN clauses. 
+	 *
+	 * Every IN clause is padded to the next bucket size (see {@link #paddedSize(int)}) by repeating its
+	 * last value, so that queries with a similar number of values produce the same statement and
+	 * can share a cached execution plan.
 	 * 
 	 * @param key expression
 	 * @param values a collection
@@ -163,16 +166,17 @@ public abstract class QueryGenericContext<T extends  Serializable> implements Au
 	public Predicate in(Expression<?> key, Set<?> values){
 		List<Predicate> predicates = new ArrayList<>();
 
-		Set<Object> set = new HashSet<>();
+		List<Object> list = new ArrayList<>();
 		int count = 0;
 
 		for (Object value : values) {
-			set.add(value);
+			list.add(value);
 			count++;
 
 			if (count % MAX_IN_PARAMETER == 0 || count == values.size()) {
-				predicates.add(key.in(set));
-				set = new HashSet<>();
+				pad(list);
+				predicates.add(key.in(list));
+				list = new ArrayList<>();
 			}
 		}
 
@@ -183,6 +187,30 @@ public abstract class QueryGenericContext<T extends  Serializable> implements Au
 		return predicates.get(0);
 	}
 
+	/**
+	 * Get the padded size of an IN list.
+	 *
+	 * Sizes are padded to the next power of two, but at most to {@link #MAX_IN_PARAMETER}.
+	 *
+	 * @param size number of values
+	 * @return padded size
+	 */
+	public static int paddedSize(int size) {
+		if (size <= 1) {
+			return size;
+		}
+		int padded = Integer.highestOneBit(size - 1) << 1;
+		return Math.min(padded, Math.max(size, MAX_IN_PARAMETER));
+	}
+
+	private static void pad(List<Object> list) {
+		int padded = paddedSize(list.size());
+		Object last = list.get(list.size() - 1);
+		while (list.size() < padded) {
+			list.add(last);
+		}
+	}
+
 	/**
 	 * Close method which is called at end of try with resources section of this autocloseable.
 	 * It Should end the session, or transaction, etc...
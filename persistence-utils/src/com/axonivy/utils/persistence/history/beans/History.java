@@ -5,7 +5,11 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Lob;
 
+import com.axonivy.utils.persistence.StringUtilities;
 import com.axonivy.utils.persistence.beans.GenericEntity;
+import com.axonivy.utils.persistence.history.util.JsonPatch;
+import com.axonivy.utils.persistence.history.util.PayloadCodec;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import ch.ivyteam.ivy.environment.Ivy;
 
@@ -13,6 +17,9 @@ import ch.ivyteam.ivy.environment.Ivy;
 /**
  * History entity, default schema must be defined in the application
  * persistence. E.g <b>hibernate.default_schema=dbo</b>
+ *
+ * Columns added in later versions (e.g. {@link #getDeltaCount()}, {@link #getPatchData()} and {@link #getCompressedData()}) must be added to
+ * existing tables manually, see the upgrade section of the product README.
  * 
  * @author maonguyen
  *
@@ -33,6 +40,17 @@ public class History extends GenericEntity<HistoryPK> {
 
 	@Column
 	private String updateType;
+
+	@Column(length = 65535)
+	@Lob
+	private byte[] compressedData;
+
+	@Column
+	private Integer deltaCount;
+
+	@Column(length = 65535)
+	@Lob
+	private String patchData;
 	
 	@Override
 	public HistoryPK getId() {
@@ -65,6 +83,63 @@ public class History extends GenericEntity<HistoryPK> {
 		this.jsonData = jsonData;
 	}
 
+	/**
+	 * Get the compressed JSON data, see {@link PayloadCodec}.
+	 *
+	 * The data is mapped as <code>byte[]</code> and loaded completely with the row. A {@link java.sql.Blob}
+	 * locator would only be readable while the session of the DAO call is open, which ends before the caller
+	 * gets the entity. The compressed size is bounded by the column length, and {@link #readData(Class)}
+	 * parses the state directly from the inflating stream without an intermediate string.
+	 * To stream very large payloads, use {@link com.axonivy.utils.persistence.history.util.ClobUtil#convertBlobDataToObject(java.sql.Blob, Class)}
+	 * inside the session.
+	 *
+	 * @return compressed data or <code>null</code> if the data is stored as plain JSON in {@link #getJsonData()}
+	 */
+	public byte[] getCompressedData() {
+		return compressedData;
+	}
+
+	public void setCompressedData(byte[] compressedData) {
+		this.compressedData = compressedData;
+	}
+
+	/**
+	 * Does this row contain a complete entity state (plain or compressed)?
+	 *
+	 * @return <code>true</code> if there is data
+	 */
+	public boolean hasData() {
+		return jsonData != null || compressedData != null;
+	}
+
+	/**
+	 * Read the entity state of this row, independent of how it is stored.
+	 *
+	 * Compressed data is parsed directly from the inflating stream.
+	 *
+	 * @param type entity class
+	 * @param <T> entity type
+	 * @return entity state or <code>null</code> if there is no data
+	 */
+	public <T> T readData(Class<T> type) {
+		if (compressedData != null) {
+			return PayloadCodec.decode(compressedData, type);
+		}
+		return StringUtilities.fromJSONToObject(jsonData, type);
+	}
+
+	/**
+	 * Read the entity state of this row as JSON tree.
+	 *
+	 * @return tree or <code>null</code> if there is no data
+	 */
+	public JsonNode readDataTree() {
+		if (compressedData != null) {
+			return PayloadCodec.decodeTree(compressedData);
+		}
+		return jsonData != null ? JsonPatch.parse(jsonData) : null;
+	}
+
 	public String getUpdateType() {
 		return updateType;
 	}
@@ -72,4 +147,32 @@ public class History extends GenericEntity<HistoryPK> {
 	public void setUpdateType(String updateType) {
 		this.updateType = updateType;
 	}
+
+	/**
+	 * Get the number of deltas since the last snapshot.
+	 *
+	 * @return 0 for a snapshot, the position after the last snapshot for a delta, <code>null</code> for rows without patch
+	 */
+	public Integer getDeltaCount() {
+		return deltaCount;
+	}
+
+	public void setDeltaCount(Integer deltaCount) {
+		this.deltaCount = deltaCount;
+	}
+
+	/**
+	 * Get the JSON patch of the change recorded by this row.
+	 *
+	 * Applied to the state before the change ({@link #getJsonData()} or the replayed state), it results in the state after the change.
+	 *
+	 * @return patch or <code>null</code> if the row was not written with delta encoding
+	 */
+	public String getPatchData() {
+		return patchData;
+	}
+
+	public void setPatchData(String patchData) {
+		this.patchData = patchData;
+	}
 }
@@ -0,0 +1,149 @@
+package com.axonivy.utils.persistence.history.beans;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.axonivy.utils.persistence.beans.GenericEntity;
+
+import ch.ivyteam.ivy.environment.Ivy;
+
+/**
+ * Indexed attribute value extracted from an audited change.
+ *
+ * <p>
+ * For every {@link History} entry, the values of the attributes declared in
+ * {@link com.axonivy.utils.persistence.annotations.Audit#indexedAttributes()} are stored in this narrow table,
+ * so that history can be searched by value without parsing payloads. The value is stored in the column
+ * matching its type, the other value columns are <code>null</code>.
+ * </p>
+ *
+ * This entity and {@link HistoryAttributePK} must be added to the persistence unit of the history table,
+ * see the upgrade section of the product README.
+ */
+@Entity
+@Table(indexes = {
+		@Index(name = "IX_HistoryAttribute_Number", columnList = "entityType,attributeName,numberValue"),
+		@Index(name = "IX_HistoryAttribute_String", columnList = "entityType,attributeName,stringValue"),
+		@Index(name = "IX_HistoryAttribute_Date", columnList = "entityType,attributeName,dateValue")
+})
+public class HistoryAttribute extends GenericEntity<HistoryAttributePK> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Maximum length of stored string values, longer values are truncated.
+	 */
+	public static final int MAX_STRING_LENGTH = 255;
+
+	@Id
+	private HistoryAttributePK id;
+
+	@Column
+	private String userName;
+
+	@Column
+	private String updateType;
+
+	@Column(length = MAX_STRING_LENGTH)
+	private String stringValue;
+
+	@Column(precision = 38, scale = 10)
+	private BigDecimal numberValue;
+
+	@Column
+	private Timestamp dateValue;
+
+	@Column
+	private Boolean booleanValue;
+
+	@Override
+	public HistoryAttributePK getId() {
+		return id;
+	}
+
+	@Override
+	public void setId(HistoryAttributePK id) {
+		this.id = id;
+	}
+
+	@Override
+	public String getSessionUsername() {
+		return Ivy.session().getSessionUserName();
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public void setUserName(String userName) {
+		this.userName = userName;
+	}
+
+	public String getUpdateType() {
+		return updateType;
+	}
+
+	public void setUpdateType(String updateType) {
+		this.updateType = updateType;
+	}
+
+	public String getStringValue() {
+		return stringValue;
+	}
+
+	public void setStringValue(String stringValue) {
+		this.stringValue = stringValue;
+	}
+
+	public BigDecimal getNumberValue() {
+		return numberValue;
+	}
+
+	public void setNumberValue(BigDecimal numberValue) {
+		this.numberValue = numberValue;
+	}
+
+	public Timestamp getDateValue() {
+		return dateValue;
+	}
+
+	public void setDateValue(Timestamp dateValue) {
+		this.dateValue = dateValue;
+	}
+
+	public Boolean getBooleanValue() {
+		return booleanValue;
+	}
+
+	public void setBooleanValue(Boolean booleanValue) {
+		this.booleanValue = booleanValue;
+	}
+
+	/**
+	 * Get the value from the typed columns.
+	 *
+	 * @return value or <code>null</code>
+	 */
+	public Object getValue() {
+		if (numberValue != null) {
+			return numberValue;
+		}
+		if (dateValue != null) {
+			return dateValue;
+		}
+		if (booleanValue != null) {
+			return booleanValue;
+		}
+		return stringValue;
+	}
+
+	@Override
+	public String toString() {
+		return "HistoryAttribute [id=" + id + ", value=" + getValue() + "]";
+	}
+}
@@ -0,0 +1,84 @@
+package com.axonivy.utils.persistence.history.beans;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * Primary key of {@link HistoryAttribute}, the key of the {@link History} entry plus the attribute name.
+ */
+@Embeddable
+public class HistoryAttributePK implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Column(length = 255)
+	private String entityType;
+
+	@Column(length = 64)
+	private String attributeName;
+
+	@Column
+	private Timestamp timestamp;
+
+	@Column(length = 255)
+	private String entityId;
+
+	public String getEntityType() {
+		return entityType;
+	}
+
+	public void setEntityType(String entityType) {
+		this.entityType = entityType;
+	}
+
+	public String getAttributeName() {
+		return attributeName;
+	}
+
+	public void setAttributeName(String attributeName) {
+		this.attributeName = attributeName;
+	}
+
+	public Timestamp getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(Timestamp timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	public String getEntityId() {
+		return entityId;
+	}
+
+	public void setEntityId(String entityId) {
+		this.entityId = entityId;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(entityType, attributeName, timestamp, entityId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof HistoryAttributePK)) {
+			return false;
+		}
+		HistoryAttributePK other = (HistoryAttributePK) obj;
+		return Objects.equals(entityType, other.entityType) && Objects.equals(attributeName, other.attributeName)
+				&& Objects.equals(timestamp, other.timestamp) && Objects.equals(entityId, other.entityId);
+	}
+
+	@Override
+	public String toString() {
+		return entityType + "." + attributeName + " " + entityId + " at " + timestamp;
+	}
+}
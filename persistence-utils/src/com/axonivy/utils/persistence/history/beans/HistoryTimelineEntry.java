@@ -0,0 +1,79 @@
+package com.axonivy.utils.persistence.history.beans;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * Lightweight projection of a {@link History} entry without payload.
+ *
+ * Use {@link com.axonivy.utils.persistence.history.dao.HistoryDAO#findEntry(HistoryTimelineEntry)} to load the
+ * complete entry on demand.
+ */
+public class HistoryTimelineEntry implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final String entityType;
+	private final String entityId;
+	private final Timestamp timestamp;
+	private final String userName;
+	private final String updateType;
+
+	/**
+	 * Create an entry, used by the constructor expression of the timeline queries.
+	 *
+	 * @param entityType entity class name
+	 * @param entityId entity id
+	 * @param timestamp time of the change
+	 * @param userName user who made the change
+	 * @param updateType type of the change
+	 */
+	public HistoryTimelineEntry(String entityType, String entityId, Timestamp timestamp, String userName, String updateType) {
+		this.entityType = entityType;
+		this.entityId = entityId;
+		this.timestamp = timestamp;
+		this.userName = userName;
+		this.updateType = updateType;
+	}
+
+	public String getEntityType() {
+		return entityType;
+	}
+
+	public String getEntityId() {
+		return entityId;
+	}
+
+	public Timestamp getTimestamp() {
+		return timestamp;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public String getUpdateType() {
+		return updateType;
+	}
+
+	/**
+	 * Get the primary key of the complete entry.
+	 *
+	 * @return key
+	 */
+	public HistoryPK toKey() {
+		HistoryPK key = new HistoryPK();
+		key.setEntityType(entityType);
+		key.setEntityId(entityId);
+		key.setTimestamp(timestamp);
+		return key;
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return "HistoryTimelineEntry [entityType=" + entityType + ", entityId=" + entityId + ", timestamp=" + timestamp
+				+ ", userName=" + userName + ", updateType=" + updateType + "]";
+	}
+}
@@ -0,0 +1,261 @@
+package com.axonivy.utils.persistence.history.dao;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.PersistenceException;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.Session;
+
+import com.axonivy.utils.persistence.dao.AutoCloseTransaction;
+import com.axonivy.utils.persistence.dao.CriteriaQueryContext;
+import com.axonivy.utils.persistence.dao.DeleteQueryContext;
+import com.axonivy.utils.persistence.dao.GenericDAO;
+import com.axonivy.utils.persistence.history.beans.HistoryAttribute;
+import com.axonivy.utils.persistence.history.beans.HistoryAttributePK_;
+import com.axonivy.utils.persistence.history.beans.HistoryAttribute_;
+import com.axonivy.utils.persistence.history.util.HistoryAttributes;
+
+/**
+ * DAO for the indexed history attribute table.
+ *
+ * <p>Example, who set a salary above 100000 last month:</p>
+ * <pre>
+ * {@code
+ * List<HistoryAttribute> changes = new HistoryAttributeDAO(pu)
+ *     .findByNumberRange(Employee.class, "salary", new BigDecimal(100000), null, monthStart, monthEnd);
+ * changes.forEach(change -> LOG.info("{0} at {1}", change.getUserName(), change.getId().getTimestamp()));
+ * }
+ * </pre>
+ */
+public class HistoryAttributeDAO extends GenericDAO<HistoryAttribute_, HistoryAttribute> {
+
+	private final String persistenceUnitName;
+
+	public HistoryAttributeDAO(String persistenceUnitName) {
+		this.persistenceUnitName = persistenceUnitName;
+	}
+
+	@Override
+	public String getPersistenceUnitName() {
+		return persistenceUnitName;
+	}
+
+	/**
+	 * Insert new attributes in one transaction, without checking for existing rows.
+	 *
+	 * @param attributes attributes
+	 */
+	public void insertAll(List<HistoryAttribute> attributes) {
+		if (attributes.isEmpty()) {
+			return;
+		}
+		try (AutoCloseTransaction session = beginSession()) {
+			beginTransaction();
+			try {
+				Session em = getEM();
+				for (HistoryAttribute attribute : attributes) {
+					em.persist(attribute);
+				}
+				commitTransaction();
+			} catch (RuntimeException e) {
+				rollbackTransaction();
+				throw e;
+			}
+		} catch (PersistenceException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	/**
+	 * Persist attributes in the current transaction of this persistence unit.
+	 *
+	 * Without an active transaction, the attributes are saved immediately, see {@link #insertAll(List)}.
+	 *
+	 * @param attributes attributes
+	 * @return <code>true</code> if the attributes were added to an active transaction
+	 */
+	public boolean persistInTransaction(List<HistoryAttribute> attributes) {
+		Session session = getEM();
+		if (session.getTransaction().isActive()) {
+			attributes.forEach(session::persist);
+			return true;
+		}
+		insertAll(attributes);
+		return false;
+	}
+
+	/**
+	 * Find changes which set a number attribute to a value in a range.
+	 *
+	 * @param type entity class
+	 * @param attributeName attribute name
+	 * @param min inclusive minimum or <code>null</code>
+	 * @param max inclusive maximum or <code>null</code>
+	 * @param from inclusive start of the changes or <code>null</code>
+	 * @param to exclusive end of the changes or <code>null</code>
+	 * @return changes ordered by timestamp descending
+	 */
+	public List<HistoryAttribute> findByNumberRange(Class<?> type, String attributeName, BigDecimal min, BigDecimal max, Timestamp from, Timestamp to) {
+		try (CriteriaQueryContext<HistoryAttribute> ctx = initializeQuery()) {
+			List<Predicate> predicates = basePredicates(ctx, type, attributeName, from, to);
+			Expression<BigDecimal> valueExpr = ctx.r.get(HistoryAttribute_.numberValue);
+			predicates.add(ctx.c.isNotNull(valueExpr));
+			if (min != null) {
+				predicates.add(ctx.c.greaterThanOrEqualTo(valueExpr, min));
+			}
+			if (max != null) {
+				predicates.add(ctx.c.lessThanOrEqualTo(valueExpr, max));
+			}
+			return find(ctx, predicates);
+		}
+	}
+
+	/**
+	 * Find changes which set a date attribute to a value in a range.
+	 *
+	 * @param type entity class
+	 * @param attributeName attribute name
+	 * @param min inclusive minimum or <code>null</code>
+	 * @param max inclusive maximum or <code>null</code>
+	 * @param from inclusive start of the changes or <code>null</code>
+	 * @param to exclusive end of the changes or <code>null</code>
+	 * @return changes ordered by timestamp descending
+	 */
+	public List<HistoryAttribute> findByDateRange(Class<?> type, String attributeName, Timestamp min, Timestamp max, Timestamp from, Timestamp to) {
+		try (CriteriaQueryContext<HistoryAttribute> ctx = initializeQuery()) {
+			List<Predicate> predicates = basePredicates(ctx, type, attributeName, from, to);
+			Expression<Timestamp> valueExpr = ctx.r.get(HistoryAttribute_.dateValue);
+			predicates.add(ctx.c.isNotNull(valueExpr));
+			if (min != null) {
+				predicates.add(ctx.c.greaterThanOrEqualTo(valueExpr, min));
+			}
+			if (max != null) {
+				predicates.add(ctx.c.lessThanOrEqualTo(valueExpr, max));
+			}
+			return find(ctx, predicates);
+		}
+	}
+
+	/**
+	 * Find changes which set an attribute to a value.
+	 *
+	 * @param type entity class
+	 * @param attributeName attribute name
+	 * @param value value, numbers, dates and booleans are compared in their typed column, everything else as string
+	 * @param from inclusive start of the changes or <code>null</code>
+	 * @param to exclusive end of the changes or <code>null</code>
+	 * @return changes ordered by timestamp descending
+	 */
+	public List<HistoryAttribute> findByValue(Class<?> type, String attributeName, Object value, Timestamp from, Timestamp to) {
+		HistoryAttribute typed = new HistoryAttribute();
+		HistoryAttributes.setValue(typed, value);
+		try (CriteriaQueryContext<HistoryAttribute> ctx = initializeQuery()) {
+			List<Predicate> predicates = basePredicates(ctx, type, attributeName, from, to);
+			if (typed.getNumberValue() != null) {
+				predicates.add(ctx.c.equal(ctx.r.get(HistoryAttribute_.numberValue), typed.getNumberValue()));
+			} else if (typed.getDateValue() != null) {
+				predicates.add(ctx.c.equal(ctx.r.get(HistoryAttribute_.dateValue), typed.getDateValue()));
+			} else if (typed.getBooleanValue() != null) {
+				predicates.add(ctx.c.equal(ctx.r.get(HistoryAttribute_.booleanValue), typed.getBooleanValue()));
+			} else if (typed.getStringValue() != null) {
+				predicates.add(ctx.c.equal(ctx.r.get(HistoryAttribute_.stringValue), typed.getStringValue()));
+			} else {
+				predicates.add(ctx.c.isNull(ctx.r.get(HistoryAttribute_.numberValue)));
+				predicates.add(ctx.c.isNull(ctx.r.get(HistoryAttribute_.dateValue)));
+				predicates.add(ctx.c.isNull(ctx.r.get(HistoryAttribute_.booleanValue)));
+				predicates.add(ctx.c.isNull(ctx.r.get(HistoryAttribute_.stringValue)));
+			}
+			return find(ctx, predicates);
+		}
+	}
+
+	/**
+	 * Check if the attribute table is part of the persistence unit.
+	 *
+	 * @return <code>true</code> if {@link HistoryAttribute} is mapped
+	 */
+	public boolean isMapped() {
+		try {
+			getEM().getMetamodel().entity(HistoryAttribute.class);
+			return true;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Find all attributes of history entries up to a timestamp.
+	 *
+	 * @param entityType entity class name
+	 * @param id entity id or <code>null</code> for all entities of the type
+	 * @param upTo inclusive upper limit
+	 * @return attributes ordered by timestamp
+	 */
+	public List<HistoryAttribute> findUpTo(String entityType, String id, Timestamp upTo) {
+		try (CriteriaQueryContext<HistoryAttribute> ctx = initializeQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, HistoryAttribute_.id, HistoryAttributePK_.timestamp);
+			ctx.q.where(entityPredicate(ctx.c, ctx.r, entityType, id), ctx.c.lessThanOrEqualTo(timeStampExpr, upTo));
+			ctx.q.orderBy(ctx.c.asc(timeStampExpr));
+			return findByCriteria(ctx);
+		}
+	}
+
+	/**
+	 * Physically delete all attributes of history entries up to a timestamp.
+	 *
+	 * @param entityType entity class name
+	 * @param id entity id or <code>null</code> for all entities of the type
+	 * @param upTo inclusive upper limit
+	 * @return number of deleted attributes
+	 */
+	public long deleteUpTo(String entityType, String id, Timestamp upTo) {
+		try (DeleteQueryContext<HistoryAttribute> ctx = initializeDeleteQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, HistoryAttribute_.id, HistoryAttributePK_.timestamp);
+			ctx.d.where(entityPredicate(ctx.c, ctx.r, entityType, id), ctx.c.lessThanOrEqualTo(timeStampExpr, upTo));
+			return deletePhysicallyRawByCriteria(ctx);
+		}
+	}
+
+	private static Predicate entityPredicate(CriteriaBuilder c, Root<HistoryAttribute> r, String entityType, String id) {
+		Expression<String> typeExpr = getExpression(null, r, HistoryAttribute_.id, HistoryAttributePK_.entityType);
+		if (id == null) {
+			return c.equal(typeExpr, entityType);
+		}
+		Expression<String> idExpr = getExpression(null, r, HistoryAttribute_.id, HistoryAttributePK_.entityId);
+		return c.and(c.equal(idExpr, id), c.equal(typeExpr, entityType));
+	}
+
+	private List<Predicate> basePredicates(CriteriaQueryContext<HistoryAttribute> ctx, Class<?> type, String attributeName, Timestamp from, Timestamp to) {
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(ctx.c.equal(getExpression(null, ctx.r, HistoryAttribute_.id, HistoryAttributePK_.entityType), type.getName()));
+		predicates.add(ctx.c.equal(getExpression(null, ctx.r, HistoryAttribute_.id, HistoryAttributePK_.attributeName), attributeName));
+		Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, HistoryAttribute_.id, HistoryAttributePK_.timestamp);
+		if (from != null) {
+			predicates.add(ctx.c.greaterThanOrEqualTo(timeStampExpr, from));
+		}
+		if (to != null) {
+			predicates.add(ctx.c.lessThan(timeStampExpr, to));
+		}
+		return predicates;
+	}
+
+	private List<HistoryAttribute> find(CriteriaQueryContext<HistoryAttribute> ctx, List<Predicate> predicates) {
+		ctx.q.where(predicates.toArray(new Predicate[predicates.size()]));
+		ctx.q.orderBy(ctx.c.desc(getExpression(null, ctx.r, HistoryAttribute_.id, HistoryAttributePK_.timestamp)));
+		return findByCriteria(ctx);
+	}
+
+	@Override
+	protected Class<HistoryAttribute> getType() {
+		return HistoryAttribute.class;
+	}
+}
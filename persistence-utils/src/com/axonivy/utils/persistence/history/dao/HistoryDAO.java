@@ -1,16 +1,47 @@
 package com.axonivy.utils.persistence.history.dao;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
+import javax.persistence.PersistenceException;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+
+import com.axonivy.utils.persistence.dao.AutoCloseTransaction;
 import com.axonivy.utils.persistence.dao.CriteriaQueryContext;
+import com.axonivy.utils.persistence.dao.CriteriaQueryGenericContext;
+import com.axonivy.utils.persistence.dao.DeleteQueryContext;
 import com.axonivy.utils.persistence.dao.GenericDAO;
+import com.axonivy.utils.persistence.dao.LargeInStrategies;
 import com.axonivy.utils.persistence.dao.QuerySettings;
+import com.axonivy.utils.persistence.enums.UpdateType;
 import com.axonivy.utils.persistence.history.beans.History;
 import com.axonivy.utils.persistence.history.beans.HistoryPK_;
+import com.axonivy.utils.persistence.history.beans.HistoryTimelineEntry;
 import com.axonivy.utils.persistence.history.beans.History_;
+import com.axonivy.utils.persistence.history.retention.HistoryBucketNaming;
+import com.axonivy.utils.persistence.history.util.JsonPatch;
+import com.axonivy.utils.persistence.logging.Logger;
+import com.fasterxml.jackson.databind.JsonNode;
 
 /**
  * DAO for create history in History Table
@@ -19,6 +50,7 @@ import com.axonivy.utils.persistence.history.beans.History_;
  *
  */
 public class HistoryDAO extends GenericDAO<History_, History> {
+	private static final Logger LOG = Logger.getLogger(HistoryDAO.class);
 
 	private String persistenceUnitName;
 
@@ -70,6 +102,548 @@ public class HistoryDAO extends GenericDAO<History_, History> {
 		return result;
 	}
 	
+	/**
+	 * Find a page of the timeline of an entity, without loading payloads.
+	 *
+	 * Pages are addressed by keyset: pass the timestamp of the last entry of the previous page to get the next page.
+	 *
+	 * @param type entity class
+	 * @param id entity id
+	 * @param before exclusive upper limit or <code>null</code> to start with the newest entry
+	 * @param maxResults page size
+	 * @return entries ordered by timestamp descending
+	 */
+	public List<HistoryTimelineEntry> findTimeline(Class<?> type, String id, Timestamp before, int maxResults) {
+		try (CriteriaQueryGenericContext<History, HistoryTimelineEntry> ctx = initializeQuery(History.class, HistoryTimelineEntry.class)) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.q.select(timelineEntry(ctx));
+			Predicate predicate = entityPredicate(ctx, type, id);
+			if (before != null) {
+				predicate = ctx.c.and(predicate, ctx.c.lessThan(timeStampExpr, before));
+			}
+			ctx.q.where(predicate);
+			ctx.q.orderBy(ctx.c.desc(timeStampExpr));
+			ctx.setMaxResults(maxResults);
+			return findByCriteria(ctx);
+		}
+	}
+
+	/**
+	 * Find the newest timeline entries of many entities, without loading payloads.
+	 *
+	 * Entries of all entities are selected by one query per {@link LargeInStrategies#DEFAULT_CHUNK_SIZE} ids.
+	 * The limit per entity is applied in the database by a correlated count on the primary key.
+	 *
+	 * @param type entity class
+	 * @param ids entity ids
+	 * @param before exclusive upper limit or <code>null</code> to start with the newest entries
+	 * @param maxPerEntity maximum number of entries per entity
+	 * @return entries ordered by timestamp descending per entity id, ids without history are missing
+	 */
+	public Map<String, List<HistoryTimelineEntry>> findTimelines(Class<?> type, Collection<String> ids, Timestamp before, int maxPerEntity) {
+		List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+		List<HistoryTimelineEntry> entries = LargeInStrategies.chunked(LargeInStrategies.DEFAULT_CHUNK_SIZE)
+				.execute(distinctIds, chunk -> findTimelinesInternal(type, chunk, before, maxPerEntity));
+
+		Map<String, List<HistoryTimelineEntry>> result = new LinkedHashMap<>();
+		for (HistoryTimelineEntry entry : entries) {
+			result.computeIfAbsent(entry.getEntityId(), key -> new ArrayList<>()).add(entry);
+		}
+		return result;
+	}
+
+	private List<HistoryTimelineEntry> findTimelinesInternal(Class<?> type, List<String> ids, Timestamp before, int maxPerEntity) {
+		try (CriteriaQueryGenericContext<History, HistoryTimelineEntry> ctx = initializeQuery(History.class, HistoryTimelineEntry.class)) {
+			Expression<String> idExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.entityId);
+			Expression<String> typeExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.entityType);
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+
+			// number of newer entries of the same entity
+			Subquery<Long> newer = ctx.q.subquery(Long.class);
+			Root<History> other = newer.from(History.class);
+			Expression<Timestamp> otherTimeStampExpr = getExpression(null, other, History_.id, HistoryPK_.timestamp);
+			Predicate newerPredicate = ctx.c.and(
+					ctx.c.equal(getExpression(null, other, History_.id, HistoryPK_.entityType), typeExpr),
+					ctx.c.equal(getExpression(null, other, History_.id, HistoryPK_.entityId), idExpr),
+					ctx.c.greaterThan(otherTimeStampExpr, timeStampExpr));
+			if (before != null) {
+				newerPredicate = ctx.c.and(newerPredicate, ctx.c.lessThan(otherTimeStampExpr, before));
+			}
+			newer.select(ctx.c.count(other)).where(newerPredicate);
+
+			Predicate predicate = ctx.c.and(
+					ctx.c.equal(typeExpr, type.getName()),
+					ctx.in(idExpr, new LinkedHashSet<>(ids)),
+					ctx.c.lessThan(newer, (long) maxPerEntity));
+			if (before != null) {
+				predicate = ctx.c.and(predicate, ctx.c.lessThan(timeStampExpr, before));
+			}
+			ctx.q.select(timelineEntry(ctx));
+			ctx.q.where(predicate);
+			ctx.q.orderBy(ctx.c.asc(idExpr), ctx.c.desc(timeStampExpr));
+			return findByCriteria(ctx);
+		}
+	}
+
+	private static CompoundSelection<HistoryTimelineEntry> timelineEntry(CriteriaQueryGenericContext<History, HistoryTimelineEntry> ctx) {
+		return ctx.c.construct(HistoryTimelineEntry.class,
+				getExpression(null, ctx.r, History_.id, HistoryPK_.entityType),
+				getExpression(null, ctx.r, History_.id, HistoryPK_.entityId),
+				getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp),
+				ctx.r.get(History_.userName),
+				ctx.r.get(History_.updateType));
+	}
+
+	/**
+	 * Load the complete entry, including payload, of a timeline entry.
+	 *
+	 * @param entry timeline entry
+	 * @return entry or <code>null</code> if it does not exist anymore
+	 */
+	public History findEntry(HistoryTimelineEntry entry) {
+		try (AutoCloseTransaction session = beginSession()) {
+			return getEM().find(History.class, entry.toKey());
+		} catch (Exception e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	/**
+	 * Get the delta count of the latest history entry of an entity.
+	 *
+	 * Only the counter is loaded, not the payload.
+	 *
+	 * @param type entity class
+	 * @param id entity id
+	 * @return delta count or <code>null</code> if there is no entry or the latest entry has no patch
+	 */
+	public Integer findLatestDeltaCount(Class<?> type, String id) {
+		try (CriteriaQueryGenericContext<History, Tuple> ctx = initializeTupleQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			Expression<Integer> deltaCountExpr = ctx.r.get(History_.deltaCount);
+			Expression<Boolean> hasPatchExpr = ctx.c.<Boolean>selectCase()
+					.when(ctx.c.isNull(ctx.r.get(History_.patchData)), Boolean.FALSE)
+					.otherwise(Boolean.TRUE);
+			ctx.q.multiselect(deltaCountExpr, hasPatchExpr);
+			ctx.q.where(entityPredicate(ctx, type, id));
+			ctx.q.orderBy(ctx.c.desc(timeStampExpr));
+			ctx.setMaxResults(1);
+			List<Tuple> result = findByCriteria(ctx);
+			if (result.isEmpty() || !Boolean.TRUE.equals(result.get(0).get(1))) {
+				return null;
+			}
+			return result.get(0).get(0, Integer.class);
+		}
+	}
+
+	/**
+	 * Reconstruct the state of an entity at a point in time.
+	 *
+	 * See {@link #findJsonStateAt(Class, String, Timestamp)}.
+	 *
+	 * @param type entity class
+	 * @param id entity id
+	 * @param timestamp point in time
+	 * @param <T> entity type
+	 * @return entity state or <code>null</code>
+	 */
+	public <T> T findStateAt(Class<T> type, String id, Timestamp timestamp) {
+		JsonNode state = findTreeStateAt(type, id, timestamp);
+		return state != null ? JsonPatch.toObject(state, type) : null;
+	}
+
+	/**
+	 * Reconstruct the JSON state of an entity at a point in time.
+	 *
+	 * If the first change after the timestamp stored a complete snapshot, this snapshot is the state.
+	 * Otherwise the nearest snapshot before the timestamp is loaded and the patches of all later changes
+	 * up to the timestamp are applied.
+	 *
+	 * @param type entity class
+	 * @param id entity id
+	 * @param timestamp point in time
+	 * @return JSON state or <code>null</code> if the entity was deleted or the state is not known
+	 * from history (e.g. the timestamp is after the last change of an entity which was not delta encoded)
+	 */
+	public String findJsonStateAt(Class<?> type, String id, Timestamp timestamp) {
+		JsonNode state = findTreeStateAt(type, id, timestamp);
+		return state != null ? state.toString() : null;
+	}
+
+	private JsonNode findTreeStateAt(Class<?> type, String id, Timestamp timestamp) {
+		try (AutoCloseTransaction session = beginSession()) {
+			List<History> next = findChanges(type, id, (ctx, timeStampExpr) -> ctx.c.greaterThan(timeStampExpr, timestamp), true, 1);
+			if (!next.isEmpty() && next.get(0).hasData()) {
+				return next.get(0).readDataTree();
+			}
+
+			List<History> snapshots = findChanges(type, id, (ctx, timeStampExpr) -> ctx.c.and(
+					ctx.c.lessThanOrEqualTo(timeStampExpr, timestamp),
+					ctx.c.or(ctx.c.isNotNull(ctx.r.get(History_.jsonData)), ctx.c.isNotNull(ctx.r.get(History_.compressedData)))), false, 1);
+			if (snapshots.isEmpty()) {
+				LOG.debug("no snapshot of {0} {1} before {2}", type.getName(), id, timestamp);
+				return null;
+			}
+			Timestamp snapshotTime = snapshots.get(0).getId().getTimestamp();
+			List<History> changes = findChanges(type, id, (ctx, timeStampExpr) -> ctx.c.between(timeStampExpr, snapshotTime, timestamp), true, null);
+
+			JsonNode state = null;
+			for (History change : changes) {
+				if (change.hasData()) {
+					state = change.readDataTree();
+				}
+				if (UpdateType.DELETE.name().equals(change.getUpdateType())) {
+					return null;
+				}
+				if (change.getPatchData() == null || state == null) {
+					LOG.debug("cannot replay history of {0} {1} after {2}", type.getName(), id, change.getId().getTimestamp());
+					return null;
+				}
+				state = JsonPatch.apply(state, JsonPatch.parse(change.getPatchData()));
+			}
+			return state != null && !state.isNull() ? state : null;
+		} catch (Exception e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private List<History> findChanges(Class<?> type, String id, BiFunction<CriteriaQueryContext<History>, Expression<Timestamp>, Predicate> timeRestriction, boolean ascending, Integer maxResults) {
+		try (CriteriaQueryContext<History> ctx = initializeQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.q.where(entityPredicate(ctx, type, id), timeRestriction.apply(ctx, timeStampExpr));
+			ctx.q.orderBy(ascending ? ctx.c.asc(timeStampExpr) : ctx.c.desc(timeStampExpr));
+			if (maxResults != null) {
+				ctx.setMaxResults(maxResults);
+			}
+			return findByCriteria(ctx);
+		}
+	}
+
+	private Predicate entityPredicate(CriteriaQueryGenericContext<History, ?> ctx, Class<?> type, String id) {
+		return entityPredicate(ctx.c, ctx.r, type.getName(), id);
+	}
+
+	private static Predicate entityPredicate(CriteriaBuilder c, Root<History> r, String entityType, String id) {
+		Expression<String> typeExpr = getExpression(null, r, History_.id, HistoryPK_.entityType);
+		if (id == null) {
+			return c.equal(typeExpr, entityType);
+		}
+		Expression<String> idExpr = getExpression(null, r, History_.id, HistoryPK_.entityId);
+		return c.and(c.equal(idExpr, id), c.equal(typeExpr, entityType));
+	}
+
+	/**
+	 * Find the end of the next chunk of history entries older than a timestamp.
+	 *
+	 * Only timestamps are loaded.
+	 *
+	 * @param entityType entity class name
+	 * @param id entity id or <code>null</code> for all entities of the type
+	 * @param before exclusive upper limit
+	 * @param chunkSize maximum number of entries in the chunk
+	 * @return timestamp of the last entry in the chunk or <code>null</code> if there are no entries
+	 */
+	public Timestamp findChunkEnd(String entityType, String id, Timestamp before, int chunkSize) {
+		try (CriteriaQueryGenericContext<History, Tuple> ctx = initializeTupleQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.q.multiselect(timeStampExpr);
+			ctx.q.where(entityPredicate(ctx.c, ctx.r, entityType, id), ctx.c.lessThan(timeStampExpr, before));
+			ctx.q.orderBy(ctx.c.asc(timeStampExpr));
+			ctx.setMaxResults(chunkSize);
+			List<Tuple> result = findByCriteria(ctx);
+			return result.isEmpty() ? null : result.get(result.size() - 1).get(0, Timestamp.class);
+		}
+	}
+
+	/**
+	 * Find all history entries up to a timestamp.
+	 *
+	 * @param entityType entity class name
+	 * @param id entity id or <code>null</code> for all entities of the type
+	 * @param upTo inclusive upper limit
+	 * @return entries ordered by timestamp
+	 */
+	public List<History> findUpTo(String entityType, String id, Timestamp upTo) {
+		try (CriteriaQueryContext<History> ctx = initializeQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.q.where(entityPredicate(ctx.c, ctx.r, entityType, id), ctx.c.lessThanOrEqualTo(timeStampExpr, upTo));
+			ctx.q.orderBy(ctx.c.asc(timeStampExpr));
+			return findByCriteria(ctx);
+		}
+	}
+
+	/**
+	 * Physically delete all history entries up to a timestamp.
+	 *
+	 * @param entityType entity class name
+	 * @param id entity id or <code>null</code> for all entities of the type
+	 * @param upTo inclusive upper limit
+	 * @return number of deleted entries
+	 */
+	public long deleteUpTo(String entityType, String id, Timestamp upTo) {
+		try (DeleteQueryContext<History> ctx = initializeDeleteQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.d.where(entityPredicate(ctx.c, ctx.r, entityType, id), ctx.c.lessThanOrEqualTo(timeStampExpr, upTo));
+			return deletePhysicallyRawByCriteria(ctx);
+		}
+	}
+
+	/**
+	 * Find ids of entities with more than a number of history entries.
+	 *
+	 * Uses keyset paging on the entity id.
+	 *
+	 * @param entityType entity class name
+	 * @param versions number of entries
+	 * @param afterId exclusive lower limit of ids or <code>null</code> to start
+	 * @param maxResults page size
+	 * @return ids in ascending order
+	 */
+	public List<String> findIdsWithMoreEntries(String entityType, int versions, String afterId, int maxResults) {
+		try (CriteriaQueryGenericContext<History, Tuple> ctx = initializeTupleQuery()) {
+			Expression<String> idExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.entityId);
+			ctx.q.multiselect(idExpr);
+			Predicate predicate = entityPredicate(ctx.c, ctx.r, entityType, null);
+			if (afterId != null) {
+				predicate = ctx.c.and(predicate, ctx.c.greaterThan(idExpr, afterId));
+			}
+			ctx.q.where(predicate);
+			ctx.q.groupBy(idExpr);
+			ctx.q.having(ctx.c.gt(ctx.c.count(ctx.r), versions));
+			ctx.q.orderBy(ctx.c.asc(idExpr));
+			ctx.setMaxResults(maxResults);
+			return findByCriteria(ctx).stream().map(tuple -> tuple.get(0, String.class)).collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Find the timestamp of the n-th newest history entry of an entity.
+	 *
+	 * @param entityType entity class name
+	 * @param id entity id
+	 * @param versions n
+	 * @return timestamp or <code>null</code> if there are less entries
+	 */
+	public Timestamp findVersionTimestamp(String entityType, String id, int versions) {
+		try (CriteriaQueryGenericContext<History, Tuple> ctx = initializeTupleQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.q.multiselect(timeStampExpr);
+			ctx.q.where(entityPredicate(ctx.c, ctx.r, entityType, id));
+			ctx.q.orderBy(ctx.c.desc(timeStampExpr));
+			ctx.setFirstResult(versions - 1);
+			ctx.setMaxResults(1);
+			List<Tuple> result = findByCriteria(ctx);
+			return result.isEmpty() ? null : result.get(0).get(0, Timestamp.class);
+		}
+	}
+
+	/**
+	 * Find the timestamp up to which (exclusive) the history of an entity can be deleted.
+	 *
+	 * If the first entry at or after the limit is a delta (see {@link History#getDeltaCount()}), the limit is
+	 * moved back to the latest snapshot before it, so that the remaining entries can still be replayed.
+	 *
+	 * @param entityType entity class name
+	 * @param id entity id
+	 * @param limit exclusive upper limit of the policy
+	 * @return limit or timestamp of the snapshot the remaining deltas are based on
+	 */
+	public Timestamp findRetentionCutoff(String entityType, String id, Timestamp limit) {
+		Integer deltaCount;
+		try (CriteriaQueryGenericContext<History, Tuple> ctx = initializeTupleQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.q.multiselect(ctx.r.get(History_.deltaCount));
+			ctx.q.where(entityPredicate(ctx.c, ctx.r, entityType, id), ctx.c.greaterThanOrEqualTo(timeStampExpr, limit));
+			ctx.q.orderBy(ctx.c.asc(timeStampExpr));
+			ctx.setMaxResults(1);
+			List<Tuple> result = findByCriteria(ctx);
+			deltaCount = result.isEmpty() ? null : result.get(0).get(0, Integer.class);
+		}
+		if (deltaCount == null || deltaCount == 0) {
+			return limit;
+		}
+		try (CriteriaQueryGenericContext<History, Tuple> ctx = initializeTupleQuery()) {
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.q.multiselect(timeStampExpr);
+			ctx.q.where(entityPredicate(ctx.c, ctx.r, entityType, id), ctx.c.lessThan(timeStampExpr, limit),
+					ctx.c.or(ctx.c.isNull(ctx.r.get(History_.deltaCount)), ctx.c.equal(ctx.r.get(History_.deltaCount), 0)));
+			ctx.q.orderBy(ctx.c.desc(timeStampExpr));
+			ctx.setMaxResults(1);
+			List<Tuple> result = findByCriteria(ctx);
+			return result.isEmpty() ? limit : result.get(0).get(0, Timestamp.class);
+		}
+	}
+
+	/**
+	 * Check if there are delta encoded entries of an entity type.
+	 *
+	 * @param entityType entity class name
+	 * @return <code>true</code> if at least one entry depends on an earlier snapshot
+	 */
+	public boolean hasDeltas(String entityType) {
+		try (CriteriaQueryGenericContext<History, Tuple> ctx = initializeTupleQuery()) {
+			ctx.q.multiselect(ctx.r.get(History_.deltaCount));
+			ctx.q.where(entityPredicate(ctx.c, ctx.r, entityType, null), ctx.c.gt(ctx.r.get(History_.deltaCount), 0));
+			ctx.setMaxResults(1);
+			return !findByCriteria(ctx).isEmpty();
+		}
+	}
+
+	/**
+	 * Find ids of entities with history entries older than a timestamp.
+	 *
+	 * Uses keyset paging on the entity id.
+	 *
+	 * @param entityType entity class name
+	 * @param before exclusive upper limit
+	 * @param afterId exclusive lower limit of ids or <code>null</code> to start
+	 * @param maxResults page size
+	 * @return ids in ascending order
+	 */
+	public List<String> findIdsWithEntriesBefore(String entityType, Timestamp before, String afterId, int maxResults) {
+		try (CriteriaQueryGenericContext<History, Tuple> ctx = initializeTupleQuery()) {
+			Expression<String> idExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.entityId);
+			Expression<Timestamp> timeStampExpr = getExpression(null, ctx.r, History_.id, HistoryPK_.timestamp);
+			ctx.q.multiselect(idExpr);
+			Predicate predicate = ctx.c.and(entityPredicate(ctx.c, ctx.r, entityType, null), ctx.c.lessThan(timeStampExpr, before));
+			if (afterId != null) {
+				predicate = ctx.c.and(predicate, ctx.c.greaterThan(idExpr, afterId));
+			}
+			ctx.q.where(predicate);
+			ctx.q.groupBy(idExpr);
+			ctx.q.orderBy(ctx.c.asc(idExpr));
+			ctx.setMaxResults(maxResults);
+			return findByCriteria(ctx).stream().map(tuple -> tuple.get(0, String.class)).collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Find tables of a time bucketed naming scheme.
+	 *
+	 * Only tables in the default catalog and schema of the persistence unit are considered.
+	 *
+	 * @param naming naming scheme
+	 * @return names of existing tables matching the scheme
+	 */
+	public List<String> findBucketTables(HistoryBucketNaming naming) {
+		return new ArrayList<>(findQualifiedBucketTables(naming).keySet());
+	}
+
+	/**
+	 * Drop tables of a time bucketed naming scheme, which only contain entries older than a timestamp.
+	 *
+	 * Only names matching the scheme in the default catalog and schema of the persistence unit are dropped.
+	 *
+	 * @param naming naming scheme
+	 * @param before timestamp
+	 * @return dropped tables
+	 */
+	public List<String> dropBucketTables(HistoryBucketNaming naming, Timestamp before) {
+		Map<String, String> tables = findQualifiedBucketTables(naming);
+		List<String> expired = naming.expired(tables.keySet(), before);
+		try (AutoCloseTransaction session = beginSession()) {
+			for (String table : expired) {
+				beginTransaction();
+				LOG.info("dropping history table {0}", tables.get(table));
+				getEM().createNativeQuery("drop table " + tables.get(table)).executeUpdate();
+				commitTransaction();
+			}
+		} catch (Exception e) {
+			rollbackTransaction();
+			throw new PersistenceException(e);
+		}
+		return expired;
+	}
+
+	/**
+	 * Find matching tables in the default catalog and schema.
+	 *
+	 * @return table names mapped to qualified and quoted names
+	 */
+	private Map<String, String> findQualifiedBucketTables(HistoryBucketNaming naming) {
+		try (AutoCloseTransaction session = beginSession()) {
+			Map<String, Object> properties = getEM().getSessionFactory().getProperties();
+			return getEM().doReturningWork(connection -> {
+				DatabaseMetaData metaData = connection.getMetaData();
+				String catalog = identifier(metaData, (String) properties.get(AvailableSettings.DEFAULT_CATALOG), connection.getCatalog());
+				String schema = identifier(metaData, (String) properties.get(AvailableSettings.DEFAULT_SCHEMA), schema(connection));
+				String quote = metaData.getIdentifierQuoteString();
+				Map<String, String> tables = new LinkedHashMap<>();
+				try (ResultSet resultSet = metaData.getTables(catalog, schema, null, new String[] { "TABLE" })) {
+					while (resultSet.next()) {
+						String table = resultSet.getString("TABLE_NAME");
+						if (naming.matches(table)) {
+							tables.put(table, qualify(quote, resultSet.getString("TABLE_CAT"), resultSet.getString("TABLE_SCHEM"), table));
+						}
+					}
+				}
+				return tables;
+			});
+		} catch (Exception e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private static String schema(Connection connection) {
+		try {
+			return connection.getSchema();
+		} catch (SQLException | AbstractMethodError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Convert a configured identifier to the case the database stores unquoted identifiers in.
+	 */
+	private static String identifier(DatabaseMetaData metaData, String configured, String fallback) throws SQLException {
+		if (configured == null || configured.isBlank()) {
+			return fallback;
+		}
+		if (metaData.storesUpperCaseIdentifiers()) {
+			return configured.toUpperCase();
+		}
+		if (metaData.storesLowerCaseIdentifiers()) {
+			return configured.toLowerCase();
+		}
+		return configured;
+	}
+
+	private static String qualify(String quote, String catalog, String schema, String table) {
+		StringBuilder name = new StringBuilder();
+		for (String part : new String[] { catalog, schema }) {
+			if (part != null && !part.isEmpty()) {
+				name.append(quote(quote, part)).append('.');
+			}
+		}
+		return name.append(quote(quote, table)).toString();
+	}
+
+	private static String quote(String quote, String identifier) {
+		if (quote == null || quote.isBlank()) {
+			return identifier;
+		}
+		return quote + identifier.replace(quote, quote + quote) + quote;
+	}
+
+	/**
+	 * Persist a history record in the current transaction of this persistence unit.
+	 *
+	 * The record is inserted with the next flush and committed or rolled back together
+	 * with the transaction. Without an active transaction, the record is saved immediately.
+	 *
+	 * @param history record
+	 * @return <code>true</code> if the record was added to an active transaction
+	 */
+	public boolean persistInTransaction(History history) {
+		Session session = getEM();
+		if (session.getTransaction().isActive()) {
+			session.persist(history);
+			return true;
+		}
+		save(history);
+		return false;
+	}
+
 	@Override
 	protected Class<History> getType() {
 		return History.class;
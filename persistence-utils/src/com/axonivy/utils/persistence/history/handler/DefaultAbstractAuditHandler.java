@@ -2,15 +2,35 @@ package com.axonivy.utils.persistence.history.handler;
 
 import java.io.Serializable;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import javax.persistence.PersistenceException;
+
+import com.axonivy.utils.persistence.EntityMetadata;
+import com.axonivy.utils.persistence.MaximumSizeMap;
 import com.axonivy.utils.persistence.StringUtilities;
+import com.axonivy.utils.persistence.annotations.Audit;
 import com.axonivy.utils.persistence.beans.GenericEntity;
+import com.axonivy.utils.persistence.dao.AutoCloseTransaction;
 import com.axonivy.utils.persistence.dao.CriteriaQueryGenericContext;
 import com.axonivy.utils.persistence.enums.UpdateType;
 import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.beans.HistoryAttribute;
 import com.axonivy.utils.persistence.history.beans.HistoryPK;
+import com.axonivy.utils.persistence.history.dao.HistoryAttributeDAO;
 import com.axonivy.utils.persistence.history.dao.HistoryDAO;
+import com.axonivy.utils.persistence.history.util.HistoryAttributes;
+import com.axonivy.utils.persistence.history.util.JsonPatch;
+import com.axonivy.utils.persistence.history.util.PayloadCodec;
+import com.axonivy.utils.persistence.history.writer.AsyncHistoryWriter;
+import com.axonivy.utils.persistence.history.writer.HistoryDurability;
+import com.axonivy.utils.persistence.jfr.HistoryWriteEvent;
 import com.axonivy.utils.persistence.logging.Logger;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import ch.ivyteam.ivy.environment.Ivy;
 
@@ -25,6 +45,12 @@ import ch.ivyteam.ivy.environment.Ivy;
 public abstract class DefaultAbstractAuditHandler implements AuditHandler {
 
 	private static final Logger LOG = Logger.getLogger(DefaultAbstractAuditHandler.class);
+	private static final int MAX_DELTA_COUNTS = 1000;
+
+	/**
+	 * Delta count of the latest record written by this handler per entity, <code>null</code> if the latest record has no patch.
+	 */
+	private final Map<String, Integer> latestDeltaCounts = Collections.synchronizedMap(new MaximumSizeMap<>(MAX_DELTA_COUNTS));
 
 	@Override
 	public <T extends GenericEntity<? extends Serializable>> void handleCreate(T bean) {
@@ -33,12 +59,12 @@ public abstract class DefaultAbstractAuditHandler implements AuditHandler {
 
 	@Override
 	public <T extends GenericEntity<? extends Serializable>> void handleUpdate(T current, T bean) {
-		createHistory(current, UpdateType.UPDATE);
+		createHistory(current, bean, UpdateType.UPDATE);
 	}
 
 	@Override
 	public <T extends GenericEntity<? extends Serializable>> void handleDelete(T bean) {
-		createHistory(bean, UpdateType.DELETE);
+		createHistory(bean, null, UpdateType.DELETE);
 	}
 
 	@Override
@@ -46,13 +72,54 @@ public abstract class DefaultAbstractAuditHandler implements AuditHandler {
 		// Do nothing 
 	}
 
+	/**
+	 * Get the durability of history records written by this handler.
+	 *
+	 * Override to write history in the transaction of the change or asynchronously in batches.
+	 *
+	 * @return durability, by default {@link HistoryDurability#SYNCHRONOUS}
+	 */
+	protected HistoryDurability getHistoryDurability() {
+		return HistoryDurability.SYNCHRONOUS;
+	}
+
+	/**
+	 * Get the encoding of the entity state in history records written by this handler.
+	 *
+	 * @return encoding, by default {@link HistoryEncoding#FULL}
+	 */
+	protected HistoryEncoding getHistoryEncoding() {
+		return HistoryEncoding.FULL;
+	}
+
+	/**
+	 * Store complete states compressed in {@link History#getCompressedData()} instead of plain JSON in {@link History#getJsonData()}.
+	 *
+	 * Use {@link History#readData(Class)} to read history independent of this setting.
+	 *
+	 * @return whether to compress, by default <code>false</code>
+	 */
+	protected boolean isHistoryCompressed() {
+		return false;
+	}
+
+	/**
+	 * Get the maximum number of history records between two complete snapshots for {@link HistoryEncoding#DELTA}.
+	 *
+	 * @return interval, by default 10
+	 */
+	protected int getSnapshotInterval() {
+		return 10;
+	}
+
 	/**
 	 * Create history by update type in this case exist entity ID 
 	 * 
-	 * @param bean
+	 * @param bean state before the change
+	 * @param next state after the change or <code>null</code> for deletes
 	 * @param updateType
 	 */
-	private <T extends GenericEntity<? extends Serializable>> void createHistory(T bean, UpdateType updateType) {
+	private <T extends GenericEntity<? extends Serializable>> void createHistory(T bean, T next, UpdateType updateType) {
 		if (bean.getId() != null) {
 			History historyEntity = new History();
 			HistoryPK historyPK = new HistoryPK();
@@ -63,12 +130,169 @@ public abstract class DefaultAbstractAuditHandler implements AuditHandler {
 			historyEntity.setId(historyPK);
 			historyEntity.setUserName(Ivy.session().getSessionUserName());
 			historyEntity.setUpdateType(updateType.name());
-			historyEntity.setJsonData(StringUtilities.fromObjectToJSON(bean));
-			HistoryDAO historyDAO = new HistoryDAO(getHandlerPersistenceUnitName());
-			historyDAO.save(historyEntity);
+			if (getHistoryEncoding() == HistoryEncoding.DELTA) {
+				encodeDelta(historyEntity, bean, next);
+			} else {
+				setData(historyEntity, bean);
+			}
+
+			HistoryWriteEvent event = new HistoryWriteEvent();
+			event.begin();
+			int records = 1;
+			boolean success = false;
+			try {
+				Collection<String> indexedAttributes = getIndexedAttributes(bean.getClass());
+				List<HistoryAttribute> attributes = indexedAttributes.isEmpty() ? Collections.emptyList()
+						: HistoryAttributes.extract(historyEntity, bean, next, indexedAttributes);
+				records += attributes.size();
+				if (getHistoryDurability() == HistoryDurability.SYNCHRONOUS) {
+					writeInOneTransaction(historyEntity, attributes);
+				} else {
+					writeHistory(historyEntity);
+					writeAttributes(attributes);
+				}
+				if (getHistoryEncoding() == HistoryEncoding.DELTA) {
+					latestDeltaCounts.put(deltaCountKey(historyPK), historyEntity.getPatchData() != null ? historyEntity.getDeltaCount() : null);
+				}
+				success = true;
+			} finally {
+				event.end(getHandlerPersistenceUnitName(), getHistoryDurability(), historyPK.getEntityType(), records, success);
+			}
 		} else {
 			LOG.info("Do not create history because entity di not set!");
 		}
 	}
 
+	/**
+	 * Store the patch of the change and, if a snapshot is due, the complete state before the change.
+	 *
+	 * A snapshot is due after {@link #getSnapshotInterval()} records or if the latest record has no patch
+	 * (first record, records written before delta encoding was switched on or after a delete).
+	 *
+	 * The delta count is carried forward from the latest record written by this handler, the database is only asked
+	 * for entities not seen recently. If records are written concurrently by other nodes, a snapshot may come
+	 * earlier or later than the interval, which does not affect replay.
+	 */
+	private <T extends GenericEntity<? extends Serializable>> void encodeDelta(History history, T bean, T next) {
+		if (next == null) {
+			history.setDeltaCount(0);
+			setData(history, bean);
+			return;
+		}
+
+		JsonNode before = JsonPatch.toTree(bean);
+		history.setPatchData(JsonPatch.diff(before, JsonPatch.toTree(next)).toString());
+
+		Integer latest = findLatestDeltaCount(history.getId(), bean.getClass());
+		if (latest == null || latest + 1 >= getSnapshotInterval()) {
+			history.setDeltaCount(0);
+			setData(history, before);
+		} else {
+			history.setDeltaCount(latest + 1);
+		}
+	}
+
+	private Integer findLatestDeltaCount(HistoryPK historyPK, Class<?> type) {
+		String key = deltaCountKey(historyPK);
+		synchronized (latestDeltaCounts) {
+			if (latestDeltaCounts.containsKey(key)) {
+				return latestDeltaCounts.get(key);
+			}
+		}
+		return new HistoryDAO(getHandlerPersistenceUnitName()).findLatestDeltaCount(type, historyPK.getEntityId());
+	}
+
+	private String deltaCountKey(HistoryPK historyPK) {
+		return getHandlerPersistenceUnitName() + '|' + historyPK.getEntityType() + '|' + historyPK.getEntityId();
+	}
+
+	/**
+	 * Store the complete state as plain or compressed JSON.
+	 */
+	private void setData(History history, Object state) {
+		if (isHistoryCompressed()) {
+			history.setCompressedData(PayloadCodec.encode(state));
+		} else {
+			history.setJsonData(StringUtilities.fromObjectToJSON(state));
+		}
+	}
+
+	/**
+	 * Write a history record according to {@link #getHistoryDurability()}.
+	 *
+	 * @param history record
+	 */
+	protected void writeHistory(History history) {
+		switch (getHistoryDurability()) {
+		case TRANSACTIONAL:
+			new HistoryDAO(getHandlerPersistenceUnitName()).persistInTransaction(history);
+			break;
+		case ASYNCHRONOUS:
+			AsyncHistoryWriter.getInstance(getHandlerPersistenceUnitName()).enqueue(history);
+			break;
+		case SYNCHRONOUS:
+		default:
+			new HistoryDAO(getHandlerPersistenceUnitName()).save(history);
+			break;
+		}
+	}
+
+	/**
+	 * Write a history record and its attributes in one transaction, so that the attributes never
+	 * exist without their record.
+	 */
+	private void writeInOneTransaction(History history, List<HistoryAttribute> attributes) {
+		HistoryDAO historyDAO = new HistoryDAO(getHandlerPersistenceUnitName());
+		try (AutoCloseTransaction session = historyDAO.beginSession()) {
+			historyDAO.beginTransaction();
+			try {
+				writeHistory(history);
+				writeAttributes(attributes);
+				historyDAO.commitTransaction();
+			} catch (RuntimeException e) {
+				historyDAO.rollbackTransaction();
+				throw e;
+			}
+		} catch (PersistenceException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	/**
+	 * Get the attributes extracted into the indexed history attribute table.
+	 *
+	 * @param type entity class
+	 * @return attribute names, by default {@link Audit#indexedAttributes()} of the entity class
+	 */
+	protected Collection<String> getIndexedAttributes(Class<?> type) {
+		Audit audit = EntityMetadata.of(type).getAudit();
+		return audit != null ? Arrays.asList(audit.indexedAttributes()) : Collections.emptyList();
+	}
+
+	/**
+	 * Write indexed attributes with the same durability as the history record.
+	 *
+	 * @param attributes attributes
+	 */
+	protected void writeAttributes(List<HistoryAttribute> attributes) {
+		if (attributes.isEmpty()) {
+			return;
+		}
+		switch (getHistoryDurability()) {
+		case TRANSACTIONAL:
+			new HistoryAttributeDAO(getHandlerPersistenceUnitName()).persistInTransaction(attributes);
+			break;
+		case ASYNCHRONOUS:
+			AsyncHistoryWriter writer = AsyncHistoryWriter.getInstance(getHandlerPersistenceUnitName());
+			attributes.forEach(writer::enqueue);
+			break;
+		case SYNCHRONOUS:
+		default:
+			new HistoryAttributeDAO(getHandlerPersistenceUnitName()).insertAll(attributes);
+			break;
+		}
+	}
+
 }
@@ -0,0 +1,19 @@
+package com.axonivy.utils.persistence.history.handler;
+
+/**
+ * How the entity state is stored in history records.
+ *
+ * @see DefaultAbstractAuditHandler#getHistoryEncoding()
+ */
+public enum HistoryEncoding {
+	/**
+	 * Store the complete JSON of the entity before the change in every record.
+	 */
+	FULL,
+	/**
+	 * Store a JSON patch of the change in every record and the complete JSON only every
+	 * {@link DefaultAbstractAuditHandler#getSnapshotInterval()} records.
+	 * States are reconstructed with {@link com.axonivy.utils.persistence.history.dao.HistoryDAO#findStateAt(Class, String, java.sql.Timestamp)}.
+	 */
+	DELTA
+}
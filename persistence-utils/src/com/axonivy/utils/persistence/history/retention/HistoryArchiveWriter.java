@@ -0,0 +1,136 @@
+package com.axonivy.utils.persistence.history.retention;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.zip.GZIPOutputStream;
+
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.beans.HistoryAttribute;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+/**
+ * Write history entries to a gzip compressed NDJSON file (one JSON object per line).
+ *
+ * <p>
+ * Every {@link #write(Collection)} is flushed and synced to disk before it returns, so entries can be
+ * deleted from the database afterwards. Payloads are written as stored: <code>jsonData</code> and
+ * <code>patchData</code> as strings, <code>compressedData</code> as base64.
+ * Indexed attributes (see {@link HistoryAttribute}) are written to the same file and can be told apart by
+ * their <code>attributeName</code> field.
+ * </p>
+ */
+public class HistoryArchiveWriter implements Closeable {
+	private static final JsonFactory FACTORY = new JsonFactory();
+
+	private final Path file;
+	private final FileOutputStream fileOut;
+	private final JsonGenerator generator;
+	private long written = 0L;
+
+	/**
+	 * Create a new archive file.
+	 *
+	 * @param file file to create, must not exist
+	 * @throws IOException if the file cannot be created
+	 */
+	public HistoryArchiveWriter(Path file) throws IOException {
+		this.file = file;
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		this.fileOut = new FileOutputStream(Files.createFile(file).toFile());
+		this.generator = FACTORY.createGenerator(new GZIPOutputStream(fileOut, 8192, true), JsonEncoding.UTF8);
+		this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+	}
+
+	/**
+	 * Append entries and sync them to disk.
+	 *
+	 * @param entries entries
+	 * @throws IOException if writing fails
+	 */
+	public void write(Collection<History> entries) throws IOException {
+		for (History history : entries) {
+			generator.writeStartObject();
+			generator.writeStringField("entityType", history.getId().getEntityType());
+			generator.writeStringField("entityId", history.getId().getEntityId());
+			generator.writeNumberField("timestamp", history.getId().getTimestamp().getTime());
+			writeOptional("userName", history.getUserName());
+			writeOptional("updateType", history.getUpdateType());
+			if (history.getDeltaCount() != null) {
+				generator.writeNumberField("deltaCount", history.getDeltaCount());
+			}
+			writeOptional("jsonData", history.getJsonData());
+			writeOptional("patchData", history.getPatchData());
+			if (history.getCompressedData() != null) {
+				generator.writeBinaryField("compressedData", history.getCompressedData());
+			}
+			generator.writeEndObject();
+			written++;
+		}
+		generator.flush();
+		fileOut.getFD().sync();
+	}
+
+	/**
+	 * Append indexed attributes and sync them to disk.
+	 *
+	 * @param attributes attributes
+	 * @throws IOException if writing fails
+	 */
+	public void writeAttributes(Collection<HistoryAttribute> attributes) throws IOException {
+		for (HistoryAttribute attribute : attributes) {
+			generator.writeStartObject();
+			generator.writeStringField("entityType", attribute.getId().getEntityType());
+			generator.writeStringField("entityId", attribute.getId().getEntityId());
+			generator.writeNumberField("timestamp", attribute.getId().getTimestamp().getTime());
+			generator.writeStringField("attributeName", attribute.getId().getAttributeName());
+			writeOptional("userName", attribute.getUserName());
+			writeOptional("updateType", attribute.getUpdateType());
+			writeOptional("stringValue", attribute.getStringValue());
+			if (attribute.getNumberValue() != null) {
+				generator.writeNumberField("numberValue", attribute.getNumberValue());
+			}
+			if (attribute.getDateValue() != null) {
+				generator.writeNumberField("dateValue", attribute.getDateValue().getTime());
+			}
+			if (attribute.getBooleanValue() != null) {
+				generator.writeBooleanField("booleanValue", attribute.getBooleanValue());
+			}
+			generator.writeEndObject();
+			written++;
+		}
+		generator.flush();
+		fileOut.getFD().sync();
+	}
+
+	private void writeOptional(String field, String value) throws IOException {
+		if (value != null) {
+			generator.writeStringField(field, value);
+		}
+	}
+
+	/**
+	 * @return archive file
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * @return number of entries and attributes written
+	 */
+	public long getWritten() {
+		return written;
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+}
@@ -0,0 +1,175 @@
+package com.axonivy.utils.persistence.history.retention;
+
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time bucketed naming scheme for history tables or partitions.
+ *
+ * <p>
+ * A bucket table is named <code>&lt;base&gt;_&lt;period&gt;</code>, e.g. <code>History_202610</code> for
+ * October 2026 with {@link Period#MONTH}. When history is rolled over into bucket tables (or partitions with
+ * these names), retention of a whole bucket is a cheap drop instead of a delete,
+ * see {@link com.axonivy.utils.persistence.history.dao.HistoryDAO#dropBucketTables(HistoryBucketNaming, Timestamp)}.
+ * </p>
+ */
+public class HistoryBucketNaming {
+
+	/**
+	 * Length of a bucket.
+	 */
+	public enum Period {
+		DAY("yyyyMMdd"),
+		MONTH("yyyyMM"),
+		YEAR("yyyy");
+
+		private final String pattern;
+
+		private Period(String pattern) {
+			this.pattern = pattern;
+		}
+
+		private LocalDate start(LocalDate date) {
+			switch (this) {
+			case YEAR:
+				return date.withDayOfYear(1);
+			case MONTH:
+				return date.withDayOfMonth(1);
+			default:
+				return date;
+			}
+		}
+
+		private LocalDate next(LocalDate start) {
+			switch (this) {
+			case YEAR:
+				return start.plusYears(1);
+			case MONTH:
+				return start.plusMonths(1);
+			default:
+				return start.plusDays(1);
+			}
+		}
+
+		private LocalDate parse(String value) {
+			switch (this) {
+			case YEAR:
+				return LocalDate.of(Integer.parseInt(value), 1, 1);
+			case MONTH:
+				return LocalDate.of(Integer.parseInt(value.substring(0, 4)), Integer.parseInt(value.substring(4, 6)), 1);
+			default:
+				return LocalDate.parse(value, DateTimeFormatter.ofPattern(pattern));
+			}
+		}
+	}
+
+	private final String baseName;
+	private final Period period;
+	private final ZoneId zone;
+	private final Pattern namePattern;
+
+	/**
+	 * Create a naming scheme in the default time zone.
+	 *
+	 * @param baseName base name of the tables, must be a plain SQL identifier
+	 * @param period length of a bucket
+	 */
+	public HistoryBucketNaming(String baseName, Period period) {
+		this(baseName, period, ZoneId.systemDefault());
+	}
+
+	/**
+	 * Create a naming scheme.
+	 *
+	 * @param baseName base name of the tables, must be a plain SQL identifier
+	 * @param period length of a bucket
+	 * @param zone time zone of bucket boundaries
+	 */
+	public HistoryBucketNaming(String baseName, Period period, ZoneId zone) {
+		if (!baseName.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+			throw new IllegalArgumentException("Invalid table base name: " + baseName);
+		}
+		this.baseName = baseName;
+		this.period = period;
+		this.zone = zone;
+		this.namePattern = Pattern.compile(Pattern.quote(baseName) + "_(\\d{" + period.pattern.length() + "})", Pattern.CASE_INSENSITIVE);
+	}
+
+	/**
+	 * Get the table name of the bucket containing a timestamp.
+	 *
+	 * @param timestamp timestamp
+	 * @return table name
+	 */
+	public String tableName(Timestamp timestamp) {
+		LocalDate date = timestamp.toLocalDateTime().atZone(ZoneId.systemDefault()).withZoneSameInstant(zone).toLocalDate();
+		return baseName + "_" + DateTimeFormatter.ofPattern(period.pattern).format(date);
+	}
+
+	/**
+	 * Does a table name belong to this scheme?
+	 *
+	 * @param tableName table name
+	 * @return <code>true</code> if it matches
+	 */
+	public boolean matches(String tableName) {
+		return tableName != null && bucketEnd(tableName) != null;
+	}
+
+	/**
+	 * Get the exclusive end of a bucket.
+	 *
+	 * @param tableName table name
+	 * @return end or <code>null</code> if the name does not belong to this scheme
+	 */
+	public Timestamp bucketEnd(String tableName) {
+		Matcher matcher = namePattern.matcher(tableName);
+		if (!matcher.matches()) {
+			return null;
+		}
+		try {
+			LocalDate start = period.start(period.parse(matcher.group(1)));
+			LocalDateTime end = period.next(start).atStartOfDay(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+			return Timestamp.valueOf(end);
+		} catch (DateTimeException | NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Select the tables which contain only entries before a timestamp.
+	 *
+	 * @param tableNames table names, names not belonging to this scheme are ignored
+	 * @param before timestamp
+	 * @return expired tables, oldest first
+	 */
+	public List<String> expired(Collection<String> tableNames, Timestamp before) {
+		List<String> result = new ArrayList<>();
+		for (String tableName : tableNames) {
+			Timestamp end = bucketEnd(tableName);
+			if (end != null && !end.after(before)) {
+				result.add(tableName);
+			}
+		}
+		Collections.sort(result, String.CASE_INSENSITIVE_ORDER);
+		return result;
+	}
+
+	public String getBaseName() {
+		return baseName;
+	}
+
+	public Period getPeriod() {
+		return period;
+	}
+}
@@ -0,0 +1,312 @@
+package com.axonivy.utils.persistence.history.retention;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.PersistenceException;
+
+import com.axonivy.utils.persistence.dao.AutoCloseTransaction;
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.dao.HistoryAttributeDAO;
+import com.axonivy.utils.persistence.history.dao.HistoryDAO;
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Apply {@link RetentionPolicy}s to the history table.
+ *
+ * <p>
+ * Expired entries are deleted in chunks of {@link #withChunkSize(int)} entries, every chunk in its own short
+ * transaction, so locks are held only briefly. The indexed attributes of the entries
+ * (see {@link com.axonivy.utils.persistence.history.beans.HistoryAttribute}) are deleted in the same transaction. Optionally every chunk is appended to a gzip compressed NDJSON
+ * archive file (see {@link HistoryArchiveWriter}) and synced to disk before it is deleted. If deleting fails,
+ * the chunk may be archived again by the next run.
+ * </p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * {@code
+ * new HistoryRetentionJob("history_pu")
+ *     .withPolicy(RetentionPolicy.forType(Person.class).keepDays(365))
+ *     .withPolicy(RetentionPolicy.forType(Order.class).keepVersions(20))
+ *     .withArchiveDirectory(Paths.get("/var/archive/history"))
+ *     .run();
+ * }
+ * </pre>
+ *
+ * Delta encoded history (see {@link com.axonivy.utils.persistence.history.handler.HistoryEncoding#DELTA}) is deleted
+ * only up to the latest snapshot before the limit, so that the remaining entries can still be replayed. Policies may
+ * therefore keep more entries than configured.
+ */
+public class HistoryRetentionJob {
+	private static final Logger LOG = Logger.getLogger(HistoryRetentionJob.class);
+
+	/**
+	 * Default number of entries deleted in one transaction.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
+	private final HistoryDAO historyDAO;
+	private final HistoryAttributeDAO historyAttributeDAO;
+	private Boolean attributesMapped;
+	private final List<RetentionPolicy> policies = new ArrayList<>();
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private long pauseMillis = 0L;
+	private Path archiveDirectory;
+
+	/**
+	 * Create a job for the history of a persistence unit.
+	 *
+	 * @param persistenceUnitName persistence unit of the history table
+	 */
+	public HistoryRetentionJob(String persistenceUnitName) {
+		this.historyDAO = new HistoryDAO(persistenceUnitName);
+		this.historyAttributeDAO = new HistoryAttributeDAO(persistenceUnitName);
+	}
+
+	/**
+	 * Add a policy.
+	 *
+	 * @param policy policy
+	 * @return this job
+	 */
+	public HistoryRetentionJob withPolicy(RetentionPolicy policy) {
+		policies.add(policy);
+		return this;
+	}
+
+	/**
+	 * Set the number of entries deleted in one transaction.
+	 *
+	 * @param chunkSize chunk size
+	 * @return this job
+	 */
+	public HistoryRetentionJob withChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize must be at least 1");
+		}
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * Set a pause between chunks to give other transactions room.
+	 *
+	 * @param pauseMillis pause
+	 * @return this job
+	 */
+	public HistoryRetentionJob withPauseMillis(long pauseMillis) {
+		this.pauseMillis = pauseMillis;
+		return this;
+	}
+
+	/**
+	 * Archive expired entries to files in a directory before deleting them.
+	 *
+	 * @param archiveDirectory directory or <code>null</code> to delete without archive
+	 * @return this job
+	 */
+	public HistoryRetentionJob withArchiveDirectory(Path archiveDirectory) {
+		this.archiveDirectory = archiveDirectory;
+		return this;
+	}
+
+	/**
+	 * Apply all policies now.
+	 *
+	 * @return number of deleted entries per entity type
+	 */
+	public Map<String, Long> run() {
+		return run(new Timestamp(System.currentTimeMillis()));
+	}
+
+	/**
+	 * Apply all policies relative to a point in time.
+	 *
+	 * @param now reference time for {@link RetentionPolicy#keepDays(int)}
+	 * @return number of deleted entries per entity type
+	 */
+	public Map<String, Long> run(Timestamp now) {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (RetentionPolicy policy : policies) {
+			long start = System.currentTimeMillis();
+			long deleted = apply(policy, now);
+			result.merge(policy.getEntityType(), deleted, Long::sum);
+			LOG.info("retention {0} deleted {1} history entries in {2} ms", policy, deleted, System.currentTimeMillis() - start);
+		}
+		return result;
+	}
+
+	private long apply(RetentionPolicy policy, Timestamp now) {
+		Timestamp ageLimit = policy.getMaxAgeDays() != null
+				? new Timestamp(now.getTime() - policy.getMaxAgeDays() * MILLIS_PER_DAY) : null;
+
+		if (policy.getMaxVersions() == null && ageLimit == null) {
+			return 0L;
+		}
+
+		try (ArchiveHolder archive = new ArchiveHolder(policy.getEntityType(), now)) {
+			if (policy.getMaxVersions() == null) {
+				if (!historyDAO.hasDeltas(policy.getEntityType())) {
+					return purge(policy.getEntityType(), null, ageLimit, archive);
+				}
+				return purgeEntities(policy.getEntityType(), ageLimit, archive);
+			}
+
+			long deleted = 0L;
+			String afterId = null;
+			List<String> ids;
+			do {
+				ids = historyDAO.findIdsWithMoreEntries(policy.getEntityType(), policy.getMaxVersions(), afterId, chunkSize);
+				for (String id : ids) {
+					Timestamp limit = historyDAO.findVersionTimestamp(policy.getEntityType(), id, policy.getMaxVersions());
+					if (limit != null) {
+						if (ageLimit != null && ageLimit.before(limit)) {
+							limit = ageLimit;
+						}
+						deleted += purge(policy.getEntityType(), id, historyDAO.findRetentionCutoff(policy.getEntityType(), id, limit), archive);
+					}
+					afterId = id;
+				}
+			} while (ids.size() == chunkSize);
+			return deleted;
+		} catch (IOException e) {
+			throw new PersistenceException("Could not archive history of " + policy.getEntityType(), e);
+		}
+	}
+
+	/**
+	 * Delete entries before a limit entity by entity, keeping the snapshots remaining deltas are based on.
+	 */
+	private long purgeEntities(String entityType, Timestamp ageLimit, ArchiveHolder archive) throws IOException {
+		long deleted = 0L;
+		String afterId = null;
+		List<String> ids;
+		do {
+			ids = historyDAO.findIdsWithEntriesBefore(entityType, ageLimit, afterId, chunkSize);
+			for (String id : ids) {
+				deleted += purge(entityType, id, historyDAO.findRetentionCutoff(entityType, id, ageLimit), archive);
+				afterId = id;
+			}
+		} while (ids.size() == chunkSize);
+		return deleted;
+	}
+
+	/**
+	 * Delete all entries before a limit chunk by chunk.
+	 */
+	private long purge(String entityType, String id, Timestamp before, ArchiveHolder archive) throws IOException {
+		long deleted = 0L;
+		Timestamp chunkEnd;
+		while ((chunkEnd = historyDAO.findChunkEnd(entityType, id, before, chunkSize)) != null) {
+			long chunkDeleted = purgeChunk(entityType, id, chunkEnd, archive);
+			if (chunkDeleted == 0) {
+				break;
+			}
+			deleted += chunkDeleted;
+			pause();
+		}
+		return deleted;
+	}
+
+	private long purgeChunk(String entityType, String id, Timestamp chunkEnd, ArchiveHolder archive) throws IOException {
+		try (AutoCloseTransaction session = historyDAO.beginSession()) {
+			historyDAO.beginTransaction();
+			try {
+				boolean attributes = isAttributesMapped();
+				if (archive.isEnabled()) {
+					List<History> entries = historyDAO.findUpTo(entityType, id, chunkEnd);
+					archive.get().write(entries);
+					if (attributes) {
+						archive.get().writeAttributes(historyAttributeDAO.findUpTo(entityType, id, chunkEnd));
+					}
+				}
+				if (attributes) {
+					historyAttributeDAO.deleteUpTo(entityType, id, chunkEnd);
+				}
+				long deleted = historyDAO.deleteUpTo(entityType, id, chunkEnd);
+				historyDAO.commitTransaction();
+				return deleted;
+			} catch (IOException | RuntimeException e) {
+				historyDAO.rollbackTransaction();
+				throw e;
+			}
+		} catch (IOException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new PersistenceException(e);
+		}
+	}
+
+	private boolean isAttributesMapped() {
+		if (attributesMapped == null) {
+			attributesMapped = historyAttributeDAO.isMapped();
+		}
+		return attributesMapped;
+	}
+
+	private void pause() {
+		if (pauseMillis > 0) {
+			try {
+				Thread.sleep(pauseMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Get the archive file of an entity type for a run.
+	 *
+	 * @param entityType entity class name
+	 * @param now reference time of the run
+	 * @return file
+	 */
+	protected Path getArchiveFile(String entityType, Timestamp now) {
+		String name = "history-" + entityType.replaceAll("[^A-Za-z0-9_.-]", "_") + "-"
+				+ new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date(now.getTime())) + ".ndjson.gz";
+		return archiveDirectory.resolve(name);
+	}
+
+	/**
+	 * Opens the archive of a policy lazily, so no empty files are created.
+	 */
+	private class ArchiveHolder implements AutoCloseable {
+		private final String entityType;
+		private final Timestamp now;
+		private HistoryArchiveWriter writer;
+
+		private ArchiveHolder(String entityType, Timestamp now) {
+			this.entityType = entityType;
+			this.now = now;
+		}
+
+		private boolean isEnabled() {
+			return archiveDirectory != null;
+		}
+
+		private HistoryArchiveWriter get() throws IOException {
+			if (writer == null) {
+				writer = new HistoryArchiveWriter(getArchiveFile(entityType, now));
+				LOG.info("archiving history of {0} to {1}", entityType, writer.getFile());
+			}
+			return writer;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (writer != null) {
+				writer.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.axonivy.utils.persistence.history.retention;
+
+/**
+ * Retention policy for the history of one entity type.
+ *
+ * <p>
+ * If only days are set, entries older than this are expired. If only versions are set, all but the newest
+ * versions of every entity are expired. If both are set, an entry is expired only if it is older than the days
+ * and not one of the newest versions.
+ * </p>
+ */
+public class RetentionPolicy {
+	private final String entityType;
+	private Integer maxAgeDays;
+	private Integer maxVersions;
+
+	/**
+	 * Create a policy for an entity type.
+	 *
+	 * @param entityType entity class name as stored in history
+	 */
+	protected RetentionPolicy(String entityType) {
+		this.entityType = entityType;
+	}
+
+	/**
+	 * Create a policy for an entity class.
+	 *
+	 * @param type entity class
+	 * @return policy keeping everything
+	 */
+	public static RetentionPolicy forType(Class<?> type) {
+		return new RetentionPolicy(type.getName());
+	}
+
+	/**
+	 * Create a policy for an entity type.
+	 *
+	 * @param entityType entity class name as stored in history
+	 * @return policy keeping everything
+	 */
+	public static RetentionPolicy forType(String entityType) {
+		return new RetentionPolicy(entityType);
+	}
+
+	/**
+	 * Keep entries for a number of days.
+	 *
+	 * @param days number of days
+	 * @return this policy
+	 */
+	public RetentionPolicy keepDays(int days) {
+		if (days < 0) {
+			throw new IllegalArgumentException("days must not be negative");
+		}
+		this.maxAgeDays = days;
+		return this;
+	}
+
+	/**
+	 * Keep the newest entries of every entity.
+	 *
+	 * @param versions number of entries per entity
+	 * @return this policy
+	 */
+	public RetentionPolicy keepVersions(int versions) {
+		if (versions < 1) {
+			throw new IllegalArgumentException("versions must be at least 1");
+		}
+		this.maxVersions = versions;
+		return this;
+	}
+
+	public String getEntityType() {
+		return entityType;
+	}
+
+	public Integer getMaxAgeDays() {
+		return maxAgeDays;
+	}
+
+	public Integer getMaxVersions() {
+		return maxVersions;
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return "RetentionPolicy [entityType=" + entityType + ", maxAgeDays=" + maxAgeDays + ", maxVersions=" + maxVersions + "]";
+	}
+}
@@ -1,13 +1,15 @@
 package com.axonivy.utils.persistence.history.util;
 
-import static com.axonivy.utils.persistence.StringUtilities.fromJSONToObject;
-import static com.axonivy.utils.persistence.StringUtilities.fromObjectToJSON;
-
 import java.io.BufferedReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.SQLException;
 
+import javax.sql.rowset.serial.SerialBlob;
 import javax.sql.rowset.serial.SerialException;
 
 import org.apache.commons.io.IOUtils;
@@ -35,15 +37,60 @@ public class ClobUtil {
 	public static Clob convertObjectToClobData(Object object) {
 		Clob clobData = null;
 		try {
-			clobData = new javax.sql.rowset.serial.SerialClob(fromObjectToJSON(object).toCharArray());
+			// serialize directly into a character buffer, no intermediate String
+			CharArrayWriter writer = new CharArrayWriter();
+			PayloadCodec.WRITER.writeValue(writer, object);
+			clobData = new javax.sql.rowset.serial.SerialClob(writer.toCharArray());
 		} catch (SerialException e) {
 			LOG.error(e);
 		} catch (SQLException e) {
 			LOG.error(e);
+		} catch (IOException e) {
+			LOG.error(e);
 		}
 
 		return clobData;
 	}
+
+	/**
+	 * Convert Object to a compressed binary data type to store in DB
+	 *
+	 * @param object need to convert
+	 * @return blob data type, see {@link PayloadCodec#encode(Object)}
+	 */
+	public static Blob convertObjectToBlobData(Object object) {
+		Blob blobData = null;
+		try {
+			blobData = new SerialBlob(PayloadCodec.encode(object));
+		} catch (SQLException e) {
+			LOG.error(e);
+		}
+
+		return blobData;
+	}
+
+	/**
+	 * Convert compressed or plain JSON binary data to object destination by type class
+	 *
+	 * The data is parsed directly from the stream of the blob.
+	 *
+	 * @param blobData object store in DB
+	 * @param clazz type of class
+	 * @param <T> object
+	 * @return object converted
+	 */
+	public static <T> T convertBlobDataToObject(Blob blobData, Class<T> clazz) {
+		T object = null;
+		if (blobData != null) {
+			try (InputStream in = blobData.getBinaryStream()) {
+				object = PayloadCodec.decode(in, clazz);
+			} catch (Exception e) {
+				LOG.error(e);
+			}
+		}
+
+		return object;
+	}
 	
 	/**
 	 * Convert Clob data type to object destination by type class
@@ -55,8 +102,8 @@ public class ClobUtil {
 	 */
 	public static <T> T convertClobDataToObject(Clob clobData, Class<T> clazz) {
 		T object = null;
-		try {
-			object = fromJSONToObject(clobData.getSubString(1, (int) clobData.length()), clazz);
+		try (Reader reader = clobData.getCharacterStream()) {
+			object = PayloadCodec.READER.forType(clazz).readValue(reader);
 		} catch (Exception e) {
 			LOG.error(e);
 		}
@@ -0,0 +1,127 @@
+package com.axonivy.utils.persistence.history.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.axonivy.utils.persistence.ReflectionUtilitities;
+import com.axonivy.utils.persistence.beans.GenericEntity;
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.beans.HistoryAttribute;
+import com.axonivy.utils.persistence.history.beans.HistoryAttributePK;
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Extraction of {@link HistoryAttribute}s from audited changes.
+ */
+public class HistoryAttributes {
+	private static final Logger LOG = Logger.getLogger(HistoryAttributes.class);
+
+	private HistoryAttributes() {}
+
+	/**
+	 * Extract the declared attributes of a change.
+	 *
+	 * For updates only attributes which were changed are extracted with their new value.
+	 * For deletes all attributes are extracted with their last value.
+	 *
+	 * @param history history entry of the change
+	 * @param before state before the change
+	 * @param after state after the change or <code>null</code> for deletes
+	 * @param attributeNames attribute names
+	 * @return attributes
+	 */
+	public static List<HistoryAttribute> extract(History history, Object before, Object after, Collection<String> attributeNames) {
+		List<HistoryAttribute> result = new ArrayList<>(attributeNames.size());
+		for (String attributeName : attributeNames) {
+			Object value = readAttribute(after != null ? after : before, attributeName);
+			if (after != null && Objects.equals(readAttribute(before, attributeName), value)) {
+				continue;
+			}
+			HistoryAttributePK key = new HistoryAttributePK();
+			key.setEntityType(history.getId().getEntityType());
+			key.setEntityId(history.getId().getEntityId());
+			key.setTimestamp(history.getId().getTimestamp());
+			key.setAttributeName(attributeName);
+
+			HistoryAttribute attribute = new HistoryAttribute();
+			attribute.setId(key);
+			attribute.setUserName(history.getUserName());
+			attribute.setUpdateType(history.getUpdateType());
+			setValue(attribute, value);
+			result.add(attribute);
+		}
+		return result;
+	}
+
+	/**
+	 * Read an attribute by getters.
+	 *
+	 * @param bean object
+	 * @param attributeName property name, nested properties are separated by a dot
+	 * @return value or <code>null</code> if any object on the path is <code>null</code>
+	 */
+	public static Object readAttribute(Object bean, String attributeName) {
+		Object value = bean;
+		for (String property : StringUtils.split(attributeName, '.')) {
+			if (value == null) {
+				return null;
+			}
+			try {
+				value = ReflectionUtilitities.getValue(value, property);
+			} catch (NoSuchMethodException e) {
+				LOG.warn("cannot read history attribute {0} of {1}", attributeName, bean.getClass().getName());
+				return null;
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Store a value in the column matching its type.
+	 *
+	 * @param attribute attribute
+	 * @param value value
+	 */
+	public static void setValue(HistoryAttribute attribute, Object value) {
+		attribute.setNumberValue(null);
+		attribute.setDateValue(null);
+		attribute.setBooleanValue(null);
+		attribute.setStringValue(null);
+
+		if (value == null) {
+			return;
+		}
+		if (value instanceof BigDecimal) {
+			attribute.setNumberValue((BigDecimal) value);
+		} else if (value instanceof BigInteger) {
+			attribute.setNumberValue(new BigDecimal((BigInteger) value));
+		} else if (value instanceof Number) {
+			attribute.setNumberValue(new BigDecimal(value.toString()));
+		} else if (value instanceof Date) {
+			attribute.setDateValue(new Timestamp(((Date) value).getTime()));
+		} else if (value instanceof LocalDateTime) {
+			attribute.setDateValue(Timestamp.valueOf((LocalDateTime) value));
+		} else if (value instanceof LocalDate) {
+			attribute.setDateValue(Timestamp.valueOf(((LocalDate) value).atStartOfDay()));
+		} else if (value instanceof Boolean) {
+			attribute.setBooleanValue((Boolean) value);
+		} else if (value instanceof Enum) {
+			attribute.setStringValue(((Enum<?>) value).name());
+		} else if (value instanceof GenericEntity) {
+			Object id = ((GenericEntity<?>) value).getId();
+			attribute.setStringValue(id != null ? StringUtils.left(id.toString(), HistoryAttribute.MAX_STRING_LENGTH) : null);
+		} else {
+			attribute.setStringValue(StringUtils.left(value.toString(), HistoryAttribute.MAX_STRING_LENGTH));
+		}
+	}
+}
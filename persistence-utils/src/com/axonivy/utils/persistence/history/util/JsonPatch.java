@@ -0,0 +1,175 @@
+package com.axonivy.utils.persistence.history.util;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import com.axonivy.utils.persistence.StringUtilities;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Minimal JSON patch (RFC 6902) support for delta encoded history.
+ *
+ * <p>
+ * {@link #diff(JsonNode, JsonNode)} creates <code>add</code>, <code>remove</code> and <code>replace</code>
+ * operations. Objects are compared member by member, arrays and values are replaced as a whole when they
+ * differ. {@link #apply(JsonNode, JsonNode)} applies these operations.
+ * </p>
+ */
+public class JsonPatch {
+
+	private static final String OP = "op";
+	private static final String PATH = "path";
+	private static final String VALUE = "value";
+	private static final String OP_ADD = "add";
+	private static final String OP_REMOVE = "remove";
+	private static final String OP_REPLACE = "replace";
+
+	private JsonPatch() {}
+
+	/**
+	 * Convert an object to a JSON tree.
+	 *
+	 * Uses the settings of {@link StringUtilities#fromObjectToJSON(Object)}, so that patches can be applied to full snapshots.
+	 *
+	 * @param value object
+	 * @return tree, a <code>null</code> node for <code>null</code>
+	 */
+	public static JsonNode toTree(Object value) {
+		return StringUtilities.fromObjectToJSONTree(value);
+	}
+
+	/**
+	 * Convert a JSON tree to an object, unknown properties are ignored.
+	 *
+	 * @param tree tree
+	 * @param type target class
+	 * @param <T> target type
+	 * @return object
+	 */
+	public static <T> T toObject(JsonNode tree, Class<T> type) {
+		try {
+			return PayloadCodec.READER.treeToValue(tree, type);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Could not convert json into " + type, e);
+		}
+	}
+
+	/**
+	 * Parse a JSON string.
+	 *
+	 * @param json string
+	 * @return tree
+	 */
+	public static JsonNode parse(String json) {
+		try {
+			return PayloadCodec.READER.readTree(json);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Could not parse json", e);
+		}
+	}
+
+	/**
+	 * Create the patch transforming one tree into another.
+	 *
+	 * @param from source tree
+	 * @param to target tree
+	 * @return patch, an empty array if both trees are equal
+	 */
+	public static ArrayNode diff(JsonNode from, JsonNode to) {
+		ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+		diff(patch, "", from, to);
+		return patch;
+	}
+
+	private static void diff(ArrayNode patch, String path, JsonNode from, JsonNode to) {
+		if (from != null && from.equals(to)) {
+			return;
+		}
+		if (from != null && to != null && from.isObject() && to.isObject()) {
+			Iterator<Entry<String, JsonNode>> fields = from.fields();
+			while (fields.hasNext()) {
+				Entry<String, JsonNode> field = fields.next();
+				String fieldPath = path + "/" + escape(field.getKey());
+				JsonNode target = to.get(field.getKey());
+				if (target == null) {
+					patch.addObject().put(OP, OP_REMOVE).put(PATH, fieldPath);
+				} else {
+					diff(patch, fieldPath, field.getValue(), target);
+				}
+			}
+			fields = to.fields();
+			while (fields.hasNext()) {
+				Entry<String, JsonNode> field = fields.next();
+				if (!from.has(field.getKey())) {
+					patch.addObject().put(OP, OP_ADD).put(PATH, path + "/" + escape(field.getKey())).set(VALUE, field.getValue());
+				}
+			}
+		} else {
+			patch.addObject().put(OP, OP_REPLACE).put(PATH, path).set(VALUE, to);
+		}
+	}
+
+	/**
+	 * Apply a patch created by {@link #diff(JsonNode, JsonNode)}.
+	 *
+	 * @param target tree to patch, it is modified if possible
+	 * @param patch patch
+	 * @return patched tree
+	 */
+	public static JsonNode apply(JsonNode target, JsonNode patch) {
+		JsonNode result = target;
+		for (JsonNode operation : patch) {
+			String op = operation.path(OP).asText();
+			String path = operation.path(PATH).asText();
+			JsonNode value = operation.get(VALUE);
+			if (path.isEmpty()) {
+				if (OP_REMOVE.equals(op)) {
+					result = JsonNodeFactory.instance.nullNode();
+				} else {
+					result = value != null ? value.deepCopy() : JsonNodeFactory.instance.nullNode();
+				}
+				continue;
+			}
+			int last = path.lastIndexOf('/');
+			JsonNode parent = resolve(result, path.substring(0, last));
+			if (!(parent instanceof ObjectNode)) {
+				throw new IllegalArgumentException("Cannot apply " + op + " to missing path " + path);
+			}
+			String name = unescape(path.substring(last + 1));
+			switch (op) {
+			case OP_REMOVE:
+				((ObjectNode) parent).remove(name);
+				break;
+			case OP_ADD:
+			case OP_REPLACE:
+				((ObjectNode) parent).set(name, value != null ? value.deepCopy() : null);
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported patch operation " + op);
+			}
+		}
+		return result;
+	}
+
+	private static JsonNode resolve(JsonNode root, String path) {
+		JsonNode node = root;
+		if (!path.isEmpty()) {
+			for (String token : path.substring(1).split("/", -1)) {
+				node = node != null ? node.get(unescape(token)) : null;
+			}
+		}
+		return node;
+	}
+
+	private static String escape(String name) {
+		return name.replace("~", "~0").replace("/", "~1");
+	}
+
+	private static String unescape(String token) {
+		return token.replace("~1", "/").replace("~0", "~");
+	}
+}
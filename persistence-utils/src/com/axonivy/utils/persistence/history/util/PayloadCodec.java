@@ -0,0 +1,170 @@
+package com.axonivy.utils.persistence.history.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.axonivy.utils.persistence.StringUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Streaming codec for JSON payloads stored in binary LOBs.
+ *
+ * <p>
+ * Objects are serialized by the Jackson streaming generator directly into a zlib (deflate) stream,
+ * without an intermediate {@link String}. Decoding parses directly from the (inflated) input stream.
+ * </p>
+ *
+ * <p>
+ * Decoding detects the format by the zlib header, so plain UTF-8 JSON written before compression was
+ * used is still readable. A JSON document can never start with a valid zlib header byte pair.
+ * </p>
+ */
+public class PayloadCodec {
+
+	/**
+	 * Shares the mapper of {@link StringUtilities#fromObjectToJSON(Object)}, streams are left open.
+	 */
+	static final ObjectWriter WRITER = StringUtilities.getJSONWriter().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	/**
+	 * Shares the mapper of {@link StringUtilities#fromJSONToObject(String, Class)}, streams are left open.
+	 */
+	static final ObjectReader READER = StringUtilities.getJSONReader().without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private PayloadCodec() {}
+
+	/**
+	 * Serialize an object to compressed JSON.
+	 *
+	 * @param value object
+	 * @return compressed bytes or <code>null</code> for <code>null</code>
+	 */
+	public static byte[] encode(Object value) {
+		if (value == null) {
+			return null;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+		encode(value, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Serialize an object to compressed JSON into a stream.
+	 *
+	 * The target stream is not closed.
+	 *
+	 * @param value object
+	 * @param target stream
+	 */
+	public static void encode(Object value, OutputStream target) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			DeflaterOutputStream deflating = new DeflaterOutputStream(target, deflater, BUFFER_SIZE);
+			WRITER.writeValue(deflating, value);
+			deflating.finish();
+			deflating.flush();
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not encode payload", e);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Deserialize compressed or plain JSON.
+	 *
+	 * @param data bytes, may be <code>null</code>
+	 * @param type target class
+	 * @param <T> target type
+	 * @return object or <code>null</code>
+	 */
+	public static <T> T decode(byte[] data, Class<T> type) {
+		return data != null ? decode(new ByteArrayInputStream(data), type) : null;
+	}
+
+	/**
+	 * Deserialize compressed or plain JSON from a stream.
+	 *
+	 * The stream is consumed, but not closed.
+	 *
+	 * @param in stream, may be <code>null</code>
+	 * @param type target class
+	 * @param <T> target type
+	 * @return object or <code>null</code>
+	 */
+	public static <T> T decode(InputStream in, Class<T> type) {
+		if (in == null) {
+			return null;
+		}
+		Inflater inflater = new Inflater();
+		try {
+			return READER.forType(type).readValue(open(in, inflater));
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not decode payload into " + type, e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Deserialize compressed or plain JSON into a tree.
+	 *
+	 * @param data bytes, may be <code>null</code>
+	 * @return tree or <code>null</code>
+	 */
+	public static JsonNode decodeTree(byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		Inflater inflater = new Inflater();
+		try {
+			return READER.readTree(open(new ByteArrayInputStream(data), inflater));
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not decode payload", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Check for the zlib header.
+	 *
+	 * @param data bytes
+	 * @return <code>true</code> if the data is compressed
+	 */
+	public static boolean isCompressed(byte[] data) {
+		return data != null && data.length >= 2 && isZlibHeader(data[0], data[1]);
+	}
+
+	private static boolean isZlibHeader(int first, int second) {
+		int cmf = first & 0xFF;
+		int flg = second & 0xFF;
+		return (cmf & 0x0F) == Deflater.DEFLATED && (cmf >> 4) <= 7 && ((cmf << 8) | flg) % 31 == 0;
+	}
+
+	private static InputStream open(InputStream in, Inflater inflater) throws IOException {
+		InputStream buffered = in.markSupported() ? in : new BufferedInputStream(in, BUFFER_SIZE);
+		buffered.mark(2);
+		int first = buffered.read();
+		int second = buffered.read();
+		buffered.reset();
+		if (first >= 0 && second >= 0 && isZlibHeader(first, second)) {
+			return new InflaterInputStream(buffered, inflater, BUFFER_SIZE);
+		}
+		return buffered;
+	}
+}
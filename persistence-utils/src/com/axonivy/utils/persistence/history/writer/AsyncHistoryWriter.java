@@ -0,0 +1,437 @@
+package com.axonivy.utils.persistence.history.writer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.PersistenceException;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.dao.AutoCloseTransaction;
+import com.axonivy.utils.persistence.beans.GenericEntity;
+import com.axonivy.utils.persistence.history.beans.History;
+import com.axonivy.utils.persistence.history.beans.HistoryAttribute;
+import com.axonivy.utils.persistence.history.beans.HistoryPK;
+import com.axonivy.utils.persistence.jfr.HistoryWriteEvent;
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Background writer for {@link History} records and their {@link HistoryAttribute}s.
+ *
+ * <p>
+ * Records are put into a bounded queue and inserted by a single daemon thread per {@link SessionFactory}
+ * in batches of {@link #getBatchSize()} records, using a {@link StatelessSession} with JDBC batching.
+ * Writers of different projects using the same persistence unit name are therefore separate.
+ * </p>
+ *
+ * <p>
+ * Backpressure: if the queue is full, the caller waits up to {@link #getOfferTimeoutMillis()} and then
+ * writes the record itself (synchronously), so records are never dropped because of a full queue.
+ * </p>
+ *
+ * <p>
+ * Shutdown: {@link #shutdown(long)} stops accepting records, drains the queue and waits for the thread
+ * to end. It is called when the {@link SessionFactory} starts closing (e.g. when the project is
+ * stopped or redeployed), so that the queue is written while the factory is still open and neither the
+ * thread nor the writer keep the project loaded. Records enqueued after shutdown are written synchronously.
+ * </p>
+ *
+ * The writer does not depend on the Ivy environment in its thread, it uses the {@link SessionFactory}
+ * of the persistence unit, which is looked up in the thread of the caller of {@link #getInstance(String)}.
+ */
+public class AsyncHistoryWriter {
+	private static final Logger LOG = Logger.getLogger(AsyncHistoryWriter.class);
+
+	/**
+	 * Default maximum number of queued records.
+	 */
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	/**
+	 * Default number of records inserted in one batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+
+	/**
+	 * Default time a caller waits for space in a full queue.
+	 */
+	public static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 100L;
+
+	/**
+	 * Time to wait for draining when the session factory is closed.
+	 */
+	public static final long SHUTDOWN_TIMEOUT_MILLIS = 10000L;
+
+	private static final Map<SessionFactory, AsyncHistoryWriter> writers = new ConcurrentHashMap<>();
+
+	private final String persistenceUnitName;
+	private final BlockingQueue<GenericEntity<?>> queue;
+	private final int batchSize;
+	private final long offerTimeoutMillis;
+	private final Thread thread;
+	private final Object drainLock = new Object();
+	private final SessionFactory sessionFactory;
+	private volatile boolean running = true;
+	/** records from enqueue until they are written, changed under drainLock when decremented */
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final AtomicLong enqueued = new AtomicLong();
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong writtenByCaller = new AtomicLong();
+
+	/**
+	 * Create and start a writer.
+	 *
+	 * @param persistenceUnitName persistence unit of the history table
+	 * @param sessionFactory session factory of the persistence unit
+	 * @param capacity maximum number of queued records
+	 * @param batchSize maximum number of records per batch
+	 * @param offerTimeoutMillis time a caller waits for space in a full queue
+	 */
+	protected AsyncHistoryWriter(String persistenceUnitName, SessionFactory sessionFactory, int capacity,
+			int batchSize, long offerTimeoutMillis) {
+		this.persistenceUnitName = persistenceUnitName;
+		this.sessionFactory = sessionFactory;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.batchSize = batchSize;
+		this.offerTimeoutMillis = offerTimeoutMillis;
+		this.thread = new Thread(this::run, "history-writer-" + persistenceUnitName);
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Get the writer of a persistence unit, create it with default settings if needed.
+	 *
+	 * The writer belongs to the {@link SessionFactory} of the persistence unit in the current project
+	 * and is shut down when the session factory is closed.
+	 *
+	 * @param persistenceUnitName persistence unit of the history table
+	 * @return writer
+	 */
+	public static AsyncHistoryWriter getInstance(String persistenceUnitName) {
+		SessionFactory sessionFactory = lookupSessionFactory(persistenceUnitName);
+		return writers.computeIfAbsent(sessionFactory, factory -> {
+			AsyncHistoryWriter writer = new AsyncHistoryWriter(persistenceUnitName, factory, DEFAULT_CAPACITY,
+					DEFAULT_BATCH_SIZE, DEFAULT_OFFER_TIMEOUT_MILLIS);
+			factory.unwrap(SessionFactoryImplementor.class).addObserver(new ShutdownObserver(writer));
+			return writer;
+		});
+	}
+
+	/**
+	 * Get all writers.
+	 *
+	 * @return writers
+	 */
+	public static Collection<AsyncHistoryWriter> getInstances() {
+		return writers.values();
+	}
+
+	/**
+	 * Shut down all writers and drain their queues.
+	 */
+	public static void shutdownAll() {
+		for (AsyncHistoryWriter writer : writers.values()) {
+			writer.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+		}
+	}
+
+	/**
+	 * Queue a record.
+	 *
+	 * If the queue stays full for {@link #getOfferTimeoutMillis()} or the writer is shut down,
+	 * the record is written by the caller.
+	 *
+	 * @param record {@link History} or {@link HistoryAttribute}
+	 */
+	public void enqueue(GenericEntity<?> record) {
+		boolean queued = false;
+		if (running) {
+			pending.incrementAndGet();
+			try {
+				queued = queue.offer(record, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				if (queued && !running && queue.remove(record)) {
+					// shut down meanwhile, the thread might have ended already
+					queued = false;
+				}
+				if (!queued) {
+					completed(1);
+				}
+			}
+		}
+		if (queued) {
+			enqueued.incrementAndGet();
+		} else {
+			LOG.debug("history queue of {0} is full or shut down, writing in caller", persistenceUnitName);
+			writtenByCaller.incrementAndGet();
+			if (!insert(Collections.singletonList(record))) {
+				failed.incrementAndGet();
+				throw new PersistenceException("Could not write history record " + describe(record));
+			}
+		}
+	}
+
+	/**
+	 * Wait until all records queued so far are written.
+	 *
+	 * Records count from {@link #enqueue(GenericEntity)} until their batch is written, so records
+	 * taken from the queue but not yet written are waited for.
+	 *
+	 * @param timeoutMillis maximum time to wait
+	 * @return <code>true</code> if the queue was drained in time
+	 */
+	public boolean flush(long timeoutMillis) {
+		long end = System.currentTimeMillis() + timeoutMillis;
+		synchronized (drainLock) {
+			while (pending.get() > 0) {
+				long wait = end - System.currentTimeMillis();
+				if (wait <= 0 || !thread.isAlive()) {
+					return pending.get() == 0;
+				}
+				try {
+					drainLock.wait(wait);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stop accepting records, drain the queue and wait for the thread to end.
+	 *
+	 * The thread is not interrupted, a batch being written is finished.
+	 *
+	 * @param timeoutMillis maximum time to wait for draining
+	 * @return <code>true</code> if all records were written
+	 */
+	public boolean shutdown(long timeoutMillis) {
+		LOG.info("shutting down history writer of {0}, {1} records queued", persistenceUnitName, queue.size());
+		running = false;
+		try {
+			thread.join(timeoutMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writers.remove(sessionFactory, this);
+		boolean drained = pending.get() == 0;
+		if (!drained) {
+			LOG.error("history writer of {0} could not write {1} records before shutdown", persistenceUnitName, pending.get());
+		}
+		return drained;
+	}
+
+	private static SessionFactory lookupSessionFactory(String persistenceUnitName) {
+		try (AutoCloseTransaction session = IvyEntityManager.getInstance().beginSession()) {
+			return IvyEntityManager.getInstance().getHibernateSession(persistenceUnitName, new HashMap<>()).getSessionFactory();
+		} catch (Exception e) {
+			throw new PersistenceException("Could not look up session factory for history of " + persistenceUnitName, e);
+		}
+	}
+
+	private void run() {
+		List<GenericEntity<?>> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				// polling with a timeout notices a shutdown without interrupting a write
+				GenericEntity<?> first = running ? queue.poll(1, TimeUnit.SECONDS) : queue.poll();
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				write(batch);
+			} catch (InterruptedException e) {
+				// stop requested, drain remaining records
+				running = false;
+			} catch (Exception e) {
+				LOG.error("history writer of {0} failed", e, persistenceUnitName);
+			} finally {
+				if (!batch.isEmpty()) {
+					completed(batch.size());
+					batch.clear();
+				}
+			}
+		}
+		LOG.info("history writer of {0} stopped", persistenceUnitName);
+	}
+
+	private void completed(int records) {
+		synchronized (drainLock) {
+			pending.addAndGet(-records);
+			drainLock.notifyAll();
+		}
+	}
+
+	private void write(List<GenericEntity<?>> batch) {
+		if (insert(batch)) {
+			batches.incrementAndGet();
+			written.addAndGet(batch.size());
+			return;
+		}
+		// write single records, so a single bad record does not lose the batch
+		for (GenericEntity<?> record : batch) {
+			if (insert(Collections.singletonList(record))) {
+				written.incrementAndGet();
+			} else {
+				failed.incrementAndGet();
+				LOG.error("could not write history record {0}", describe(record));
+			}
+		}
+	}
+
+	private boolean insert(List<GenericEntity<?>> records) {
+		HistoryWriteEvent event = new HistoryWriteEvent();
+		event.begin();
+		Transaction transaction = null;
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			session.setJdbcBatchSize(batchSize);
+			transaction = session.beginTransaction();
+			for (GenericEntity<?> record : records) {
+				session.insert(record);
+			}
+			transaction.commit();
+			event.end(persistenceUnitName, HistoryDurability.ASYNCHRONOUS, null, records.size(), true);
+			return true;
+		} catch (Exception e) {
+			event.end(persistenceUnitName, HistoryDurability.ASYNCHRONOUS, null, records.size(), false);
+			LOG.warn("inserting {0} history records into {1} failed", e, records.size(), persistenceUnitName);
+			if (transaction != null && transaction.isActive()) {
+				try {
+					transaction.rollback();
+				} catch (Exception rollbackException) {
+					LOG.warn("rollback failed", rollbackException);
+				}
+			}
+			return false;
+		}
+	}
+
+	private static String describe(GenericEntity<?> record) {
+		if (record instanceof History) {
+			HistoryPK key = ((History) record).getId();
+			return key.getEntityType() + " " + key.getEntityId() + " at " + key.getTimestamp();
+		}
+		return String.valueOf(record);
+	}
+
+	/**
+	 * @return persistence unit of the history table
+	 */
+	public String getPersistenceUnitName() {
+		return persistenceUnitName;
+	}
+
+	/**
+	 * @return maximum number of records per batch
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return time a caller waits for space in a full queue
+	 */
+	public long getOfferTimeoutMillis() {
+		return offerTimeoutMillis;
+	}
+
+	/**
+	 * @return number of currently queued records
+	 */
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	/**
+	 * @return number of queued records and records being written
+	 */
+	public int getPending() {
+		return pending.get();
+	}
+
+	/**
+	 * @return number of records queued since start
+	 */
+	public long getEnqueued() {
+		return enqueued.get();
+	}
+
+	/**
+	 * @return number of records written by the background thread
+	 */
+	public long getWritten() {
+		return written.get();
+	}
+
+	/**
+	 * @return number of records which could not be written
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * @return number of successful batches
+	 */
+	public long getBatches() {
+		return batches.get();
+	}
+
+	/**
+	 * @return number of records written by callers because of a full queue or shutdown
+	 */
+	public long getWrittenByCaller() {
+		return writtenByCaller.get();
+	}
+
+	/**
+	 * @return whether the writer accepts records
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Shut down a writer when its session factory starts closing.
+	 */
+	private static class ShutdownObserver implements SessionFactoryObserver {
+		private static final long serialVersionUID = 1L;
+
+		private final transient AsyncHistoryWriter writer;
+
+		private ShutdownObserver(AsyncHistoryWriter writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public void sessionFactoryClosing(SessionFactory factory) {
+			if (writer != null) {
+				writer.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+			}
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.axonivy.utils.persistence.history.writer;
+
+/**
+ * How history records are written by the audit handler.
+ *
+ * @see com.axonivy.utils.persistence.history.handler.DefaultAbstractAuditHandler#getHistoryDurability()
+ */
+public enum HistoryDurability {
+	/**
+	 * Save every record immediately with its own find and flush. This is the original behavior.
+	 * The indexed attributes of the record are saved in the same transaction.
+	 */
+	SYNCHRONOUS,
+	/**
+	 * Persist the record into the session of the audited change (an outbox row), so it is committed
+	 * or rolled back together with the change and inserted with the flush of the change. If the history
+	 * persistence unit has no active transaction, the record is written {@link #SYNCHRONOUS}.
+	 */
+	TRANSACTIONAL,
+	/**
+	 * Queue the record in memory, a background writer inserts queued records in batches.
+	 * Records are lost, if the server stops without draining the queue.
+	 */
+	ASYNCHRONOUS
+}
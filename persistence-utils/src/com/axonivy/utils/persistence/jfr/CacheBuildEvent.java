@@ -0,0 +1,45 @@
+package com.axonivy.utils.persistence.jfr;
+
+import com.axonivy.utils.persistence.cache.AbstractCache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a cache build.
+ */
+@Name(CacheBuildEvent.NAME)
+@Label("Cache Build")
+@Category({ PersistenceEvents.CATEGORY, PersistenceEvents.SUBCATEGORY })
+@Description("Build of a cache after it was invalidated")
+public class CacheBuildEvent extends Event {
+	public static final String NAME = PersistenceEvents.PREFIX + "CacheBuild";
+
+	@Label("Cache")
+	String cache;
+
+	@Label("Success")
+	boolean success;
+
+	@Label("Entries")
+	@Description("Number of entries after the build or -1 if unknown")
+	long entries;
+
+	/**
+	 * End the event and commit it, if it is recorded.
+	 *
+	 * @param builtCache the cache
+	 * @param successful whether the build was successful
+	 */
+	public void end(AbstractCache builtCache, boolean successful) {
+		if (shouldCommit()) {
+			cache = builtCache.getName();
+			success = successful;
+			entries = builtCache.getEntryCount();
+			commit();
+		}
+	}
+}
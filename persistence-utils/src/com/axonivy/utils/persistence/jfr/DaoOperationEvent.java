@@ -0,0 +1,68 @@
+package com.axonivy.utils.persistence.jfr;
+
+import javax.persistence.Query;
+
+import com.axonivy.utils.persistence.metrics.QueryOperation;
+import com.axonivy.utils.persistence.metrics.SlowQueryLog;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a DAO operation.
+ *
+ * Create and begin the event before the operation and call {@link #end(Class, Class, QueryOperation, Query, long, boolean)}
+ * in a <code>finally</code> block afterwards, so that failed operations are recorded, too. If recording is off, the event is never committed and the JIT removes it completely.
+ */
+@Name(DaoOperationEvent.NAME)
+@Label("DAO Operation")
+@Category({ PersistenceEvents.CATEGORY, PersistenceEvents.SUBCATEGORY })
+@Description("Find, count, save, update or delete of a DAO")
+public class DaoOperationEvent extends Event {
+	public static final String NAME = PersistenceEvents.PREFIX + "DaoOperation";
+
+	@Label("DAO")
+	Class<?> dao;
+
+	@Label("Entity")
+	Class<?> entity;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Rows")
+	@Description("Rows returned or changed")
+	long rows;
+
+	@Label("Query")
+	@Description("Query string with placeholders for bound values")
+	String query;
+
+	@Label("Success")
+	boolean success;
+
+	/**
+	 * End the event and commit it, if it is recorded.
+	 *
+	 * @param daoClass class of the DAO
+	 * @param entityClass class of the entity
+	 * @param queryOperation operation
+	 * @param executedQuery executed query or <code>null</code> if there is no query
+	 * @param rowCount number of rows returned or changed
+	 * @param successful whether the operation was successful
+	 */
+	public void end(Class<?> daoClass, Class<?> entityClass, QueryOperation queryOperation, Query executedQuery, long rowCount, boolean successful) {
+		if (shouldCommit()) {
+			dao = daoClass;
+			entity = entityClass;
+			operation = queryOperation.name();
+			rows = rowCount;
+			query = SlowQueryLog.getQueryString(executedQuery);
+			success = successful;
+			commit();
+		}
+	}
+}
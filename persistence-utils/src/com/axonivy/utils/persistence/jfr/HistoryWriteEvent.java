@@ -0,0 +1,59 @@
+package com.axonivy.utils.persistence.jfr;
+
+import com.axonivy.utils.persistence.history.writer.HistoryDurability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of writing audit history.
+ *
+ * Recorded when an audit handler writes (or enqueues) history records and when the asynchronous history
+ * writer inserts a batch.
+ */
+@Name(HistoryWriteEvent.NAME)
+@Label("History Write")
+@Category({ PersistenceEvents.CATEGORY, PersistenceEvents.SUBCATEGORY })
+@Description("Write of audit history records or attributes")
+public class HistoryWriteEvent extends Event {
+	public static final String NAME = PersistenceEvents.PREFIX + "HistoryWrite";
+
+	@Label("Persistence Unit")
+	String persistenceUnit;
+
+	@Label("Durability")
+	String durability;
+
+	@Label("Entity Type")
+	@Description("Type of the audited entity or empty for batches of the asynchronous writer")
+	String entityType;
+
+	@Label("Records")
+	int records;
+
+	@Label("Success")
+	boolean success;
+
+	/**
+	 * End the event and commit it, if it is recorded.
+	 *
+	 * @param persistenceUnitName persistence unit of the history
+	 * @param historyDurability durability of the write
+	 * @param type type of the audited entity or <code>null</code>
+	 * @param recordCount number of records written
+	 * @param successful whether the write was successful
+	 */
+	public void end(String persistenceUnitName, HistoryDurability historyDurability, String type, int recordCount, boolean successful) {
+		if (shouldCommit()) {
+			persistenceUnit = persistenceUnitName;
+			durability = historyDurability.name();
+			entityType = type;
+			records = recordCount;
+			success = successful;
+			commit();
+		}
+	}
+}
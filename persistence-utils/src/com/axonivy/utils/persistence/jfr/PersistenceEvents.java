@@ -0,0 +1,58 @@
+package com.axonivy.utils.persistence.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Flight recorder events of the persistence utilities.
+ *
+ * <p>
+ * All events are in the category {@value #CATEGORY} / {@value #SUBCATEGORY} and named with the prefix
+ * {@value #PREFIX}. Enable them in a recording, e.g.
+ * <code>jcmd &lt;pid&gt; JFR.start settings=profile</code> (custom events are enabled by default) and
+ * look at them in JDK Mission Control next to the JDBC and Hibernate frames.
+ * </p>
+ *
+ * <p>
+ * If recording is off, events are not committed and cost nothing.
+ * </p>
+ */
+public final class PersistenceEvents {
+
+	/**
+	 * Top level category of all events.
+	 */
+	public static final String CATEGORY = "Axon Ivy";
+
+	/**
+	 * Category of all events.
+	 */
+	public static final String SUBCATEGORY = "Persistence";
+
+	/**
+	 * Prefix of the names of all events.
+	 */
+	public static final String PREFIX = "com.axonivy.utils.persistence.";
+
+	@SuppressWarnings("unchecked")
+	private static final Class<? extends Event>[] EVENTS = new Class[] { DaoOperationEvent.class,
+			TransactionEvent.class, SessionEvent.class, CacheBuildEvent.class, HistoryWriteEvent.class };
+
+	/**
+	 * Hide public constructor.
+	 */
+	private PersistenceEvents() {
+	}
+
+	/**
+	 * Register all events with the flight recorder.
+	 *
+	 * Events are registered automatically on first use. Register them before, so they can be configured in
+	 * a running recording before any persistence operation happened.
+	 */
+	public static void register() {
+		for (Class<? extends Event> event : EVENTS) {
+			FlightRecorder.register(event);
+		}
+	}
+}
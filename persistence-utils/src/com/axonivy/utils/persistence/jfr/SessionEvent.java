@@ -0,0 +1,48 @@
+package com.axonivy.utils.persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a session of the <code>IvyEntityManager</code> from the outermost open to the close.
+ */
+@Name(SessionEvent.NAME)
+@Label("Session")
+@Category({ PersistenceEvents.CATEGORY, PersistenceEvents.SUBCATEGORY })
+@Description("Session of the IvyEntityManager, including all nested sessions")
+public class SessionEvent extends Event {
+	public static final String NAME = PersistenceEvents.PREFIX + "Session";
+
+	@Label("Closed Entity Managers")
+	@Description("Number of Hibernate sessions closed at the end of the session")
+	int closedEntityManagers;
+
+	/**
+	 * Begin the event, if it is recorded.
+	 *
+	 * @return event or <code>null</code> if sessions are not recorded
+	 */
+	public static SessionEvent start() {
+		SessionEvent event = new SessionEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End the event and commit it, if it is recorded.
+	 *
+	 * @param closed number of Hibernate sessions closed
+	 */
+	public void end(int closed) {
+		if (shouldCommit()) {
+			closedEntityManagers = closed;
+			commit();
+		}
+	}
+}
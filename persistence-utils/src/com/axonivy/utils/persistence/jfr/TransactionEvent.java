@@ -0,0 +1,76 @@
+package com.axonivy.utils.persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a managed transaction from the outermost begin to the commit or rollback.
+ */
+@Name(TransactionEvent.NAME)
+@Label("Transaction")
+@Category({ PersistenceEvents.CATEGORY, PersistenceEvents.SUBCATEGORY })
+@Description("Managed transaction of the DAOs, including all nested transactions")
+public class TransactionEvent extends Event {
+	public static final String NAME = PersistenceEvents.PREFIX + "Transaction";
+
+	/**
+	 * Outcome of a committed transaction.
+	 */
+	public static final String COMMIT = "COMMIT";
+
+	/**
+	 * Outcome of a rolled back transaction.
+	 */
+	public static final String ROLLBACK = "ROLLBACK";
+
+	@Label("DAO")
+	@Description("DAO which began the outermost transaction")
+	Class<?> dao;
+
+	@Label("Nesting Depth")
+	@Description("Maximum nesting depth of the transaction")
+	int depth;
+
+	@Label("Outcome")
+	String outcome;
+
+	/**
+	 * Begin the event, if it is recorded.
+	 *
+	 * @param daoClass class of the DAO beginning the transaction
+	 * @return event or <code>null</code> if transactions are not recorded
+	 */
+	public static TransactionEvent start(Class<?> daoClass) {
+		TransactionEvent event = new TransactionEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.dao = daoClass;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Remember the nesting depth.
+	 *
+	 * @param nesting current nesting depth
+	 */
+	public void nest(int nesting) {
+		depth = Math.max(depth, nesting);
+	}
+
+	/**
+	 * End the event and commit it, if it is recorded.
+	 *
+	 * @param transactionOutcome {@link #COMMIT} or {@link #ROLLBACK}
+	 */
+	public void end(String transactionOutcome) {
+		if (shouldCommit()) {
+			outcome = transactionOutcome;
+			commit();
+		}
+	}
+}
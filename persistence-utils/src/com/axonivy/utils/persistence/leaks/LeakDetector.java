@@ -0,0 +1,380 @@
+package com.axonivy.utils.persistence.leaks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.dao.AbstractDAO;
+import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.management.MBeanRegistry;
+
+/**
+ * Detector of leaked sessions and transactions.
+ *
+ * <p>
+ * The outermost session ({@link IvyEntityManager#beginSession()}) and transaction
+ * ({@link AbstractDAO#beginTransaction()}) of every thread is watched until it is closed. A sample of them
+ * also remembers the stack of the opening call. A watchdog thread reports resources which are open longer
+ * than the threshold with their age and, if sampled, the opening stack. Resources of threads which ended
+ * without closing them are reported too.
+ * </p>
+ *
+ * <p>
+ * The initial settings can be changed by the system properties {@value #ENABLED_PROPERTY},
+ * {@value #SAMPLE_RATE_PROPERTY}, {@value #THRESHOLD_PROPERTY} (milliseconds) and
+ * {@value #CHECK_INTERVAL_PROPERTY} (milliseconds). The detector is published as
+ * {@link LeakDetectorMXBean} while a session factory is attached ({@link #attach(SessionFactory)}). When
+ * the last attached session factory is closed, the bean is unregistered and the watchdog is stopped, so
+ * that neither keeps the classes of an undeployed project.
+ * </p>
+ */
+public class LeakDetector implements LeakDetectorMXBean {
+	private static final Logger LOG = Logger.getLogger(LeakDetector.class);
+
+	/**
+	 * System property to enable or disable the detector initially.
+	 */
+	public static final String ENABLED_PROPERTY = "com.axonivy.utils.persistence.leakDetection";
+
+	/**
+	 * System property of the initial sample rate.
+	 */
+	public static final String SAMPLE_RATE_PROPERTY = "com.axonivy.utils.persistence.leakSampleRate";
+
+	/**
+	 * System property of the initial threshold.
+	 */
+	public static final String THRESHOLD_PROPERTY = "com.axonivy.utils.persistence.leakThresholdMillis";
+
+	/**
+	 * System property of the interval of the watchdog.
+	 */
+	public static final String CHECK_INTERVAL_PROPERTY = "com.axonivy.utils.persistence.leakCheckMillis";
+
+	/**
+	 * Default sample rate.
+	 */
+	public static final double DEFAULT_SAMPLE_RATE = 0.01;
+
+	/**
+	 * Default threshold.
+	 */
+	public static final long DEFAULT_THRESHOLD_MILLIS = 300_000L;
+
+	/**
+	 * Default interval of the watchdog.
+	 */
+	public static final long DEFAULT_CHECK_INTERVAL_MILLIS = 30_000L;
+
+	private static final String MBEAN_TYPE = "LeakDetector";
+
+	private static final LeakDetector singleton = new LeakDetector();
+
+	private final Set<SessionFactory> sessionFactories = ConcurrentHashMap.newKeySet();
+	private final Set<OpenResource> open = ConcurrentHashMap.newKeySet();
+	private final LongAdder leakedSessions = new LongAdder();
+	private final LongAdder leakedTransactions = new LongAdder();
+
+	private volatile boolean enabled = Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+	private volatile double sampleRate = Double.parseDouble(System.getProperty(SAMPLE_RATE_PROPERTY,
+			String.valueOf(DEFAULT_SAMPLE_RATE)));
+	private volatile long thresholdMillis = Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD_MILLIS);
+	private final long checkIntervalMillis = Long.getLong(CHECK_INTERVAL_PROPERTY, DEFAULT_CHECK_INTERVAL_MILLIS);
+	private volatile ScheduledExecutorService watchdog;
+
+	/**
+	 * Hide public constructor.
+	 */
+	protected LeakDetector() {
+	}
+
+	/**
+	 * Get singleton instance.
+	 *
+	 * @return singleton instance
+	 */
+	public static LeakDetector getInstance() {
+		return singleton;
+	}
+
+	/**
+	 * Attach the detector to a session factory.
+	 *
+	 * Called by the {@link IvyEntityManager} whenever it creates a session, does nothing if the session
+	 * factory is already attached. The first attached session factory publishes the management bean.
+	 *
+	 * @param sessionFactory session factory
+	 */
+	public void attach(SessionFactory sessionFactory) {
+		if (!sessionFactories.contains(sessionFactory)) {
+			attachNew(sessionFactory);
+		}
+	}
+
+	private synchronized void attachNew(SessionFactory sessionFactory) {
+		boolean first = sessionFactories.isEmpty();
+		if (sessionFactories.add(sessionFactory)) {
+			sessionFactory.unwrap(SessionFactoryImplementor.class).addObserver(new DetachObserver(this));
+			if (first) {
+				MBeanRegistry.register(MBEAN_TYPE, null, this);
+			}
+		}
+	}
+
+	/**
+	 * Detach the detector from a closing session factory.
+	 *
+	 * If it was the last attached session factory, the watchdog is stopped and the management bean is
+	 * unregistered.
+	 *
+	 * @param sessionFactory session factory
+	 */
+	public synchronized void detach(SessionFactory sessionFactory) {
+		if (sessionFactories.remove(sessionFactory) && sessionFactories.isEmpty()) {
+			LOG.info("last session factory closed, stopping leak detection");
+			shutdown();
+			MBeanRegistry.unregister(MBEAN_TYPE, null, this);
+		}
+	}
+
+	/**
+	 * Start watching a resource opened by the current thread.
+	 *
+	 * @param kind kind of resource
+	 * @return the watched resource, to be passed to {@link #close(OpenResource)}, or <code>null</code> if the
+	 *         detector is disabled
+	 */
+	public OpenResource open(ResourceKind kind) {
+		if (!enabled) {
+			return null;
+		}
+		double rate = sampleRate;
+		boolean sampled = rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+		OpenResource resource = new OpenResource(kind, Thread.currentThread(),
+				sampled ? new Throwable().getStackTrace() : null);
+		open.add(resource);
+		if (watchdog == null) {
+			startWatchdog();
+		}
+		return resource;
+	}
+
+	/**
+	 * Stop watching a resource.
+	 *
+	 * @param resource resource returned by {@link #open(ResourceKind)}, may be <code>null</code>
+	 */
+	public void close(OpenResource resource) {
+		if (resource != null && open.remove(resource) && resource.isReported()) {
+			LOG.info("{0} of thread {1} reported as leak was closed after {2} ms", resource.getKind(),
+					resource.getThreadName(), resource.getAgeMillis());
+		}
+	}
+
+	/**
+	 * Report resources open longer than the threshold and resources of ended threads.
+	 *
+	 * Every resource is reported once. Called periodically by the watchdog.
+	 *
+	 * @return resources reported by this call
+	 */
+	public List<OpenResource> check() {
+		List<OpenResource> result = new ArrayList<>();
+		long threshold = thresholdMillis;
+		for (OpenResource resource : open) {
+			boolean threadAlive = resource.isThreadAlive();
+			if (!threadAlive) {
+				open.remove(resource);
+			}
+			if (resource.isReported() || (threadAlive && resource.getAgeMillis() <= threshold)) {
+				continue;
+			}
+			resource.setReported(true);
+			(resource.getKind() == ResourceKind.SESSION ? leakedSessions : leakedTransactions).increment();
+			result.add(resource);
+			if (threadAlive) {
+				LOG.warn("{0} of thread {1} is open since {2} ms, longer than {3} ms, opened at{4}",
+						resource.getKind(), resource.getThreadName(), resource.getAgeMillis(), threshold,
+						formatStack(resource));
+			} else {
+				LOG.warn("{0} of thread {1} was never closed, the thread ended, opened {2} ms ago at{3}",
+						resource.getKind(), resource.getThreadName(), resource.getAgeMillis(), formatStack(resource));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get all watched resources.
+	 *
+	 * @return open sessions and transactions, oldest first
+	 */
+	public List<OpenResource> getOpenResources() {
+		List<OpenResource> result = new ArrayList<>(open);
+		result.sort(Comparator.comparingLong(OpenResource::getAgeMillis).reversed());
+		return result;
+	}
+
+	/**
+	 * Stop the watchdog thread, it is started again when the next resource is opened.
+	 */
+	public synchronized void shutdown() {
+		if (watchdog != null) {
+			watchdog.shutdownNow();
+			watchdog = null;
+		}
+	}
+
+	private synchronized void startWatchdog() {
+		if (watchdog == null) {
+			ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "persistence-leak-watchdog");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.scheduleWithFixedDelay(this::checkSafely, checkIntervalMillis, checkIntervalMillis,
+					TimeUnit.MILLISECONDS);
+			watchdog = executor;
+		}
+	}
+
+	private void checkSafely() {
+		try {
+			check();
+		} catch (RuntimeException e) {
+			LOG.warn("Leak check failed", e);
+		}
+	}
+
+	private static String formatStack(OpenResource resource) {
+		if (!resource.isSampled()) {
+			return " (unknown, stack not sampled, see " + SAMPLE_RATE_PROPERTY + ")";
+		}
+		StringBuilder result = new StringBuilder();
+		for (String element : resource.getStackTrace()) {
+			result.append(System.lineSeparator()).append("    at ").append(element);
+		}
+		return result.toString();
+	}
+
+	private int count(ResourceKind kind) {
+		int result = 0;
+		for (OpenResource resource : open) {
+			if (resource.getKind() == kind) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public double getSampleRate() {
+		return sampleRate;
+	}
+
+	@Override
+	public void setSampleRate(double sampleRate) {
+		this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+	}
+
+	@Override
+	public long getThresholdMillis() {
+		return thresholdMillis;
+	}
+
+	@Override
+	public void setThresholdMillis(long thresholdMillis) {
+		LOG.info("leak threshold set to {0} ms", thresholdMillis);
+		this.thresholdMillis = Math.max(0L, thresholdMillis);
+	}
+
+	@Override
+	public int getOpenSessions() {
+		return count(ResourceKind.SESSION);
+	}
+
+	@Override
+	public int getOpenTransactions() {
+		return count(ResourceKind.TRANSACTION);
+	}
+
+	@Override
+	public long getOldestAgeMillis() {
+		long result = 0;
+		for (OpenResource resource : open) {
+			result = Math.max(result, resource.getAgeMillis());
+		}
+		return result;
+	}
+
+	@Override
+	public long getLeakedSessions() {
+		return leakedSessions.sum();
+	}
+
+	@Override
+	public long getLeakedTransactions() {
+		return leakedTransactions.sum();
+	}
+
+	@Override
+	public List<OpenResource> getLeaks() {
+		long threshold = thresholdMillis;
+		List<OpenResource> result = getOpenResources();
+		result.removeIf(resource -> resource.getAgeMillis() <= threshold);
+		return result;
+	}
+
+	@Override
+	public int checkNow() {
+		return check().size();
+	}
+
+	@Override
+	public void resetStatistics() {
+		leakedSessions.reset();
+		leakedTransactions.reset();
+	}
+
+	/**
+	 * Detach the detector when a session factory starts closing.
+	 */
+	private static class DetachObserver implements SessionFactoryObserver {
+		private static final long serialVersionUID = 1L;
+
+		private final transient LeakDetector detector;
+
+		private DetachObserver(LeakDetector detector) {
+			this.detector = detector;
+		}
+
+		@Override
+		public void sessionFactoryClosing(SessionFactory factory) {
+			if (detector != null) {
+				detector.detach(factory);
+			}
+		}
+	}
+}
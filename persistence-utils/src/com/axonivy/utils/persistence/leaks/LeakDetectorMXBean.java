@@ -0,0 +1,81 @@
+package com.axonivy.utils.persistence.leaks;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link LeakDetector}.
+ */
+public interface LeakDetectorMXBean {
+
+	/**
+	 * @return true, if sessions and transactions are watched
+	 */
+	boolean isEnabled();
+
+	/**
+	 * @param enabled true to watch sessions and transactions opened from now on
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return fraction of sessions and transactions whose opening stack is captured
+	 */
+	double getSampleRate();
+
+	/**
+	 * @param sampleRate fraction of sessions and transactions whose opening stack is captured (0 to 1)
+	 */
+	void setSampleRate(double sampleRate);
+
+	/**
+	 * @return age in milliseconds after which an open session or transaction is reported
+	 */
+	long getThresholdMillis();
+
+	/**
+	 * @param thresholdMillis age in milliseconds after which an open session or transaction is reported
+	 */
+	void setThresholdMillis(long thresholdMillis);
+
+	/**
+	 * @return number of open sessions
+	 */
+	int getOpenSessions();
+
+	/**
+	 * @return number of open transactions
+	 */
+	int getOpenTransactions();
+
+	/**
+	 * @return age in milliseconds of the oldest open session or transaction
+	 */
+	long getOldestAgeMillis();
+
+	/**
+	 * @return number of sessions reported as leak
+	 */
+	long getLeakedSessions();
+
+	/**
+	 * @return number of transactions reported as leak
+	 */
+	long getLeakedTransactions();
+
+	/**
+	 * @return open sessions and transactions older than the threshold, oldest first
+	 */
+	List<OpenResource> getLeaks();
+
+	/**
+	 * Check for leaks now instead of waiting for the watchdog.
+	 *
+	 * @return number of newly reported leaks
+	 */
+	int checkNow();
+
+	/**
+	 * Reset the leak counters.
+	 */
+	void resetStatistics();
+}
@@ -0,0 +1,141 @@
+package com.axonivy.utils.persistence.leaks;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+
+/**
+ * A session or transaction which is open, watched by the {@link LeakDetector}.
+ */
+public class OpenResource {
+	private static final int MAX_STACK_DEPTH = 40;
+
+	private final ResourceKind kind;
+	private final WeakReference<Thread> thread;
+	private final String threadName;
+	private final long threadId;
+	private final long openedMillis;
+	private final long openedNanos;
+	private final StackTraceElement[] stack;
+	private volatile boolean reported = false;
+	private volatile int depth = 1;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param kind kind of resource
+	 * @param thread thread which opened the resource
+	 * @param stack stack of the opening call or <code>null</code> if not sampled
+	 */
+	public OpenResource(ResourceKind kind, Thread thread, StackTraceElement[] stack) {
+		this.kind = kind;
+		this.thread = new WeakReference<>(thread);
+		this.threadName = thread.getName();
+		this.threadId = thread.getId();
+		this.openedMillis = System.currentTimeMillis();
+		this.openedNanos = System.nanoTime();
+		this.stack = stack;
+	}
+
+	public ResourceKind getKind() {
+		return kind;
+	}
+
+	public String getThreadName() {
+		return threadName;
+	}
+
+	public long getThreadId() {
+		return threadId;
+	}
+
+	public Date getOpenedAt() {
+		return new Date(openedMillis);
+	}
+
+	public long getAgeMillis() {
+		return (System.nanoTime() - openedNanos) / 1_000_000L;
+	}
+
+	/**
+	 * @return true, if the thread which opened the resource is still alive
+	 */
+	public boolean isThreadAlive() {
+		Thread owner = thread.get();
+		return owner != null && owner.isAlive();
+	}
+
+	/**
+	 * @return true, if the stack of the opening call was captured
+	 */
+	public boolean isSampled() {
+		return stack != null;
+	}
+
+	/**
+	 * @return stack of the opening call, starting at the caller of the persistence utilities, empty if not sampled
+	 */
+	public List<String> getStackTrace() {
+		if (stack == null) {
+			return Collections.emptyList();
+		}
+		List<String> result = new ArrayList<>();
+		for (StackTraceElement element : stack) {
+			if (result.isEmpty() && isInternal(element.getClassName())) {
+				continue;
+			}
+			if (result.size() >= MAX_STACK_DEPTH) {
+				result.add("...");
+				break;
+			}
+			result.add(element.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * @return nesting depth, e.g. of {@link IvyEntityManager#beginSession()}
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Set the nesting depth, called by the thread which opened the resource.
+	 *
+	 * @param depth nesting depth
+	 */
+	public void setDepth(int depth) {
+		this.depth = depth;
+	}
+
+	/**
+	 * @return true, if the resource was reported as leak
+	 */
+	public boolean isReported() {
+		return reported;
+	}
+
+	void setReported(boolean reported) {
+		this.reported = reported;
+	}
+
+	private static boolean isInternal(String className) {
+		return className.startsWith(OpenResource.class.getPackage().getName())
+				|| className.equals(IvyEntityManager.class.getName())
+				|| className.startsWith("com.axonivy.utils.persistence.dao.");
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return "OpenResource [kind=" + kind + ", thread=" + threadName + " (" + threadId + "), ageMillis="
+				+ getAgeMillis() + ", sampled=" + isSampled() + "]";
+	}
+}
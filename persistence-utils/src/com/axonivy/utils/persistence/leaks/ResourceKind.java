@@ -0,0 +1,15 @@
+package com.axonivy.utils.persistence.leaks;
+
+/**
+ * Kind of resource watched by the {@link LeakDetector}.
+ */
+public enum ResourceKind {
+	/**
+	 * Outermost session of a thread, opened by {@link com.axonivy.utils.persistence.IvyEntityManager#beginSession()}.
+	 */
+	SESSION,
+	/**
+	 * Outermost transaction of a thread, opened by {@link com.axonivy.utils.persistence.dao.AbstractDAO#beginTransaction()}.
+	 */
+	TRANSACTION;
+}
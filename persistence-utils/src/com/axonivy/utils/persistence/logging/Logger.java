@@ -1,7 +1,7 @@
 package com.axonivy.utils.persistence.logging;
 
-import java.text.MessageFormat;
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -16,6 +16,12 @@ import com.axonivy.utils.persistence.StringUtilities;
  * This ILogger logs to the Ivy Logger if it is available and to a
  * secondary log4j {@link org.apache.log4j.Logger} which allows for better
  * filtering.
+ *
+ * Messages are {@link java.text.MessageFormat} patterns which are parsed once
+ * and cached (see {@link MessageTemplate}). The fixed arity, primitive and
+ * {@link Supplier} overloads of {@link #debug(String, Object)} and
+ * {@link #info(String, Object)} do not allocate anything if the level is
+ * disabled, use them on hot paths.
  */
 public class Logger {
 
@@ -90,7 +96,7 @@ public class Logger {
 			formattedMessageStr = formattedMessage;
 		}
 		if (level.isGreaterOrEqual(logger4j.getEffectiveLevel())) {
-			logger4j.log(level, MessageFormat.format(formattedMessageStr, args));
+			logger4j.log(level, MessageTemplate.format(formattedMessageStr, args));
 		}
 	}
 
@@ -103,7 +109,7 @@ public class Logger {
 		}
 
 		if (level.isGreaterOrEqual(logger4j.getEffectiveLevel())) {
-			logger4j.log(level, MessageFormat.format(formattedMessageStr, args), throwable);
+			logger4j.log(level, MessageTemplate.format(formattedMessageStr, args), throwable);
 		}
 	}
 
@@ -137,6 +143,77 @@ public class Logger {
 		}
 	}
 
+	public void debug(String formattedMessage) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			log(Level.DEBUG, formattedMessage, (Object[]) null);
+		}
+	}
+
+	public void debug(String formattedMessage, Object arg) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			log(Level.DEBUG, formattedMessage, new Object[] { arg });
+		}
+	}
+
+	public void debug(String formattedMessage, long arg) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			log(Level.DEBUG, formattedMessage, new Object[] { arg });
+		}
+	}
+
+	public void debug(String formattedMessage, Object arg1, Object arg2) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			log(Level.DEBUG, formattedMessage, new Object[] { arg1, arg2 });
+		}
+	}
+
+	public void debug(String formattedMessage, Object arg1, Object arg2, Object arg3) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			log(Level.DEBUG, formattedMessage, new Object[] { arg1, arg2, arg3 });
+		}
+	}
+
+	public void debug(String formattedMessage, Throwable throwable) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			log(Level.DEBUG, formattedMessage, throwable, (Object[]) null);
+		}
+	}
+
+	public void debug(String formattedMessage, Throwable throwable, Object arg) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			log(Level.DEBUG, formattedMessage, throwable, new Object[] { arg });
+		}
+	}
+
+	public void debug(String formattedMessage, Throwable throwable, Object arg1, Object arg2) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			log(Level.DEBUG, formattedMessage, throwable, new Object[] { arg1, arg2 });
+		}
+	}
+
+	/**
+	 * Log a message which is only built if the level is enabled.
+	 *
+	 * @param message supplier of the message, not a pattern
+	 */
+	public void debug(Supplier<String> message) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			logger4j.log(Level.DEBUG, message.get());
+		}
+	}
+
+	/**
+	 * Log a message which is only built if the level is enabled.
+	 *
+	 * @param message supplier of the message, not a pattern
+	 * @param throwable throwable to log
+	 */
+	public void debug(Supplier<String> message, Throwable throwable) {
+		if (isLevelEnabled(Level.DEBUG)) {
+			logger4j.log(Level.DEBUG, message.get(), throwable);
+		}
+	}
+
 	public void debug(String formattedMessage, Object... args) {
 		log(Level.DEBUG, formattedMessage, args);
 	}
@@ -149,6 +226,77 @@ public class Logger {
 		log(Level.INFO, message);
 	}
 
+	public void info(String formattedMessage) {
+		if (isLevelEnabled(Level.INFO)) {
+			log(Level.INFO, formattedMessage, (Object[]) null);
+		}
+	}
+
+	public void info(String formattedMessage, Object arg) {
+		if (isLevelEnabled(Level.INFO)) {
+			log(Level.INFO, formattedMessage, new Object[] { arg });
+		}
+	}
+
+	public void info(String formattedMessage, long arg) {
+		if (isLevelEnabled(Level.INFO)) {
+			log(Level.INFO, formattedMessage, new Object[] { arg });
+		}
+	}
+
+	public void info(String formattedMessage, Object arg1, Object arg2) {
+		if (isLevelEnabled(Level.INFO)) {
+			log(Level.INFO, formattedMessage, new Object[] { arg1, arg2 });
+		}
+	}
+
+	public void info(String formattedMessage, Object arg1, Object arg2, Object arg3) {
+		if (isLevelEnabled(Level.INFO)) {
+			log(Level.INFO, formattedMessage, new Object[] { arg1, arg2, arg3 });
+		}
+	}
+
+	public void info(String formattedMessage, Throwable throwable) {
+		if (isLevelEnabled(Level.INFO)) {
+			log(Level.INFO, formattedMessage, throwable, (Object[]) null);
+		}
+	}
+
+	public void info(String formattedMessage, Throwable throwable, Object arg) {
+		if (isLevelEnabled(Level.INFO)) {
+			log(Level.INFO, formattedMessage, throwable, new Object[] { arg });
+		}
+	}
+
+	public void info(String formattedMessage, Throwable throwable, Object arg1, Object arg2) {
+		if (isLevelEnabled(Level.INFO)) {
+			log(Level.INFO, formattedMessage, throwable, new Object[] { arg1, arg2 });
+		}
+	}
+
+	/**
+	 * Log a message which is only built if the level is enabled.
+	 *
+	 * @param message supplier of the message, not a pattern
+	 */
+	public void info(Supplier<String> message) {
+		if (isLevelEnabled(Level.INFO)) {
+			logger4j.log(Level.INFO, message.get());
+		}
+	}
+
+	/**
+	 * Log a message which is only built if the level is enabled.
+	 *
+	 * @param message supplier of the message, not a pattern
+	 * @param throwable throwable to log
+	 */
+	public void info(Supplier<String> message, Throwable throwable) {
+		if (isLevelEnabled(Level.INFO)) {
+			logger4j.log(Level.INFO, message.get(), throwable);
+		}
+	}
+
 	public void info(String formattedMessage, Object... args) {
 		log(Level.INFO, formattedMessage, args);
 	}
@@ -0,0 +1,158 @@
+package com.axonivy.utils.persistence.logging;
+
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-parsed, immutable {@link MessageFormat} pattern.
+ *
+ * <p>
+ * {@link MessageFormat#format(String, Object...)} parses the pattern and creates the formatter on
+ * every call. Templates are parsed once, cached per pattern and can be shared between threads. Simple
+ * arguments like <code>{0}</code> are formatted exactly as {@link MessageFormat} does, patterns with
+ * format types or styles (e.g. <code>{0,number,#.##}</code>) fall back to {@link MessageFormat}.
+ * </p>
+ */
+final class MessageTemplate {
+	private static final int MAX_CACHED = 1024;
+	private static final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+	private static final ThreadLocal<NumberFormat> numberFormat = ThreadLocal.withInitial(NumberFormat::getInstance);
+
+	private final String pattern;
+	/**
+	 * Literal text before every argument and after the last one, <code>null</code> if the pattern is
+	 * not simple.
+	 */
+	private final String[] literals;
+	private final int[] arguments;
+
+	private MessageTemplate(String pattern) {
+		this.pattern = pattern;
+		List<String> parsedLiterals = new ArrayList<>();
+		List<Integer> parsedArguments = new ArrayList<>();
+		if (parse(pattern, parsedLiterals, parsedArguments)) {
+			literals = parsedLiterals.toArray(new String[parsedLiterals.size()]);
+			arguments = parsedArguments.stream().mapToInt(Integer::intValue).toArray();
+		} else {
+			literals = null;
+			arguments = null;
+		}
+	}
+
+	/**
+	 * Get the template of a pattern.
+	 *
+	 * @param pattern {@link MessageFormat} pattern
+	 * @return template, cached if there are not too many different patterns
+	 */
+	static MessageTemplate of(String pattern) {
+		MessageTemplate template = templates.get(pattern);
+		if (template == null) {
+			template = new MessageTemplate(pattern);
+			if (templates.size() < MAX_CACHED) {
+				templates.putIfAbsent(pattern, template);
+			}
+		}
+		return template;
+	}
+
+	/**
+	 * Format a message with the given arguments.
+	 *
+	 * @param pattern {@link MessageFormat} pattern
+	 * @param args arguments, may be <code>null</code>
+	 * @return formatted message
+	 */
+	static String format(String pattern, Object... args) {
+		return of(pattern).format(args);
+	}
+
+	/**
+	 * Format the template with the given arguments.
+	 *
+	 * @param args arguments, may be <code>null</code>
+	 * @return formatted message
+	 */
+	String format(Object... args) {
+		if (literals == null) {
+			return MessageFormat.format(pattern, args);
+		}
+		if (arguments.length == 0) {
+			return literals[0];
+		}
+		StringBuilder result = new StringBuilder(pattern.length() + 16 * arguments.length);
+		for (int i = 0; i < arguments.length; i++) {
+			result.append(literals[i]);
+			int argument = arguments[i];
+			if (args == null || argument >= args.length) {
+				result.append('{').append(argument).append('}');
+			} else {
+				appendArgument(result, args[argument]);
+			}
+		}
+		return result.append(literals[arguments.length]).toString();
+	}
+
+	/**
+	 * Append an argument the way {@link MessageFormat} formats arguments without format type.
+	 */
+	private static void appendArgument(StringBuilder result, Object argument) {
+		if (argument == null) {
+			result.append("null");
+		} else if (argument instanceof Number) {
+			result.append(numberFormat.get().format(argument));
+		} else if (argument instanceof Date) {
+			result.append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(argument));
+		} else if (argument instanceof String) {
+			result.append((String) argument);
+		} else {
+			String string = argument.toString();
+			result.append(string != null ? string : "null");
+		}
+	}
+
+	/**
+	 * Parse the quoting and simple arguments of a {@link MessageFormat} pattern.
+	 *
+	 * @return <code>false</code> if the pattern is not simple and must be handled by {@link MessageFormat}
+	 */
+	private static boolean parse(String pattern, List<String> literals, List<Integer> arguments) {
+		StringBuilder literal = new StringBuilder(pattern.length());
+		boolean inQuote = false;
+		int i = 0;
+		while (i < pattern.length()) {
+			char ch = pattern.charAt(i++);
+			if (ch == '\'') {
+				if (i < pattern.length() && pattern.charAt(i) == '\'') {
+					literal.append('\'');
+					i++;
+				} else {
+					inQuote = !inQuote;
+				}
+			} else if (ch == '{' && !inQuote) {
+				int end = pattern.indexOf('}', i);
+				if (end < 0) {
+					return false;
+				}
+				String index = pattern.substring(i, end);
+				if (index.isEmpty() || index.length() > 4 || !index.chars().allMatch(Character::isDigit)) {
+					return false;
+				}
+				literals.add(literal.toString());
+				literal.setLength(0);
+				arguments.add(Integer.parseInt(index));
+				i = end + 1;
+			} else {
+				literal.append(ch);
+			}
+		}
+		literals.add(literal.toString());
+		return true;
+	}
+}
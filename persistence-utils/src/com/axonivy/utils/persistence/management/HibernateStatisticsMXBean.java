@@ -0,0 +1,152 @@
+package com.axonivy.utils.persistence.management;
+
+/**
+ * Management interface of the Hibernate {@link org.hibernate.stat.Statistics} of a persistence unit.
+ */
+public interface HibernateStatisticsMXBean {
+
+	/**
+	 * @return name of the persistence unit
+	 */
+	String getPersistenceUnitName();
+
+	/**
+	 * @return true, if Hibernate collects statistics
+	 */
+	boolean isStatisticsEnabled();
+
+	/**
+	 * @param enabled true to collect statistics (see <code>hibernate.generate_statistics</code>)
+	 */
+	void setStatisticsEnabled(boolean enabled);
+
+	/**
+	 * @return start of the statistics
+	 */
+	long getStartTime();
+
+	/**
+	 * @return number of opened sessions
+	 */
+	long getSessionOpenCount();
+
+	/**
+	 * @return number of closed sessions
+	 */
+	long getSessionCloseCount();
+
+	/**
+	 * @return number of finished transactions
+	 */
+	long getTransactionCount();
+
+	/**
+	 * @return number of committed transactions
+	 */
+	long getSuccessfulTransactionCount();
+
+	/**
+	 * @return number of acquired JDBC connections
+	 */
+	long getConnectCount();
+
+	/**
+	 * @return number of prepared statements
+	 */
+	long getPrepareStatementCount();
+
+	/**
+	 * @return number of flushes
+	 */
+	long getFlushCount();
+
+	/**
+	 * @return number of optimistic lock failures
+	 */
+	long getOptimisticFailureCount();
+
+	/**
+	 * @return number of loaded entities
+	 */
+	long getEntityLoadCount();
+
+	/**
+	 * @return number of entities fetched by an extra select
+	 */
+	long getEntityFetchCount();
+
+	/**
+	 * @return number of inserted entities
+	 */
+	long getEntityInsertCount();
+
+	/**
+	 * @return number of updated entities
+	 */
+	long getEntityUpdateCount();
+
+	/**
+	 * @return number of deleted entities
+	 */
+	long getEntityDeleteCount();
+
+	/**
+	 * @return number of loaded collections
+	 */
+	long getCollectionLoadCount();
+
+	/**
+	 * @return number of collections fetched by an extra select
+	 */
+	long getCollectionFetchCount();
+
+	/**
+	 * @return number of executed queries
+	 */
+	long getQueryExecutionCount();
+
+	/**
+	 * @return time in milliseconds of the slowest query
+	 */
+	long getQueryExecutionMaxTime();
+
+	/**
+	 * @return slowest query
+	 */
+	String getQueryExecutionMaxTimeQueryString();
+
+	/**
+	 * @return number of entities found in the second level cache
+	 */
+	long getSecondLevelCacheHitCount();
+
+	/**
+	 * @return number of entities not found in the second level cache
+	 */
+	long getSecondLevelCacheMissCount();
+
+	/**
+	 * @return number of entities put into the second level cache
+	 */
+	long getSecondLevelCachePutCount();
+
+	/**
+	 * @return number of queries answered by the query cache
+	 */
+	long getQueryCacheHitCount();
+
+	/**
+	 * @return number of queries not found in the query cache
+	 */
+	long getQueryCacheMissCount();
+
+	/**
+	 * @return number of queries put into the query cache
+	 */
+	long getQueryCachePutCount();
+
+	/**
+	 * Reset the statistics.
+	 */
+	void resetStatistics();
+}
@@ -0,0 +1,173 @@
+package com.axonivy.utils.persistence.management;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * {@link HibernateStatisticsMXBean} of the {@link SessionFactory} of a persistence unit.
+ */
+public class HibernateStatisticsManagement implements HibernateStatisticsMXBean {
+
+	private final String persistenceUnitName;
+	private final SessionFactory sessionFactory;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param persistenceUnitName name of the persistence unit
+	 * @param sessionFactory session factory of the persistence unit
+	 */
+	public HibernateStatisticsManagement(String persistenceUnitName, SessionFactory sessionFactory) {
+		this.persistenceUnitName = persistenceUnitName;
+		this.sessionFactory = sessionFactory;
+	}
+
+	private Statistics statistics() {
+		return sessionFactory.getStatistics();
+	}
+
+	@Override
+	public String getPersistenceUnitName() {
+		return persistenceUnitName;
+	}
+
+	@Override
+	public boolean isStatisticsEnabled() {
+		return statistics().isStatisticsEnabled();
+	}
+
+	@Override
+	public void setStatisticsEnabled(boolean enabled) {
+		statistics().setStatisticsEnabled(enabled);
+	}
+
+	@Override
+	public long getStartTime() {
+		return statistics().getStartTime();
+	}
+
+	@Override
+	public long getSessionOpenCount() {
+		return statistics().getSessionOpenCount();
+	}
+
+	@Override
+	public long getSessionCloseCount() {
+		return statistics().getSessionCloseCount();
+	}
+
+	@Override
+	public long getTransactionCount() {
+		return statistics().getTransactionCount();
+	}
+
+	@Override
+	public long getSuccessfulTransactionCount() {
+		return statistics().getSuccessfulTransactionCount();
+	}
+
+	@Override
+	public long getConnectCount() {
+		return statistics().getConnectCount();
+	}
+
+	@Override
+	public long getPrepareStatementCount() {
+		return statistics().getPrepareStatementCount();
+	}
+
+	@Override
+	public long getFlushCount() {
+		return statistics().getFlushCount();
+	}
+
+	@Override
+	public long getOptimisticFailureCount() {
+		return statistics().getOptimisticFailureCount();
+	}
+
+	@Override
+	public long getEntityLoadCount() {
+		return statistics().getEntityLoadCount();
+	}
+
+	@Override
+	public long getEntityFetchCount() {
+		return statistics().getEntityFetchCount();
+	}
+
+	@Override
+	public long getEntityInsertCount() {
+		return statistics().getEntityInsertCount();
+	}
+
+	@Override
+	public long getEntityUpdateCount() {
+		return statistics().getEntityUpdateCount();
+	}
+
+	@Override
+	public long getEntityDeleteCount() {
+		return statistics().getEntityDeleteCount();
+	}
+
+	@Override
+	public long getCollectionLoadCount() {
+		return statistics().getCollectionLoadCount();
+	}
+
+	@Override
+	public long getCollectionFetchCount() {
+		return statistics().getCollectionFetchCount();
+	}
+
+	@Override
+	public long getQueryExecutionCount() {
+		return statistics().getQueryExecutionCount();
+	}
+
+	@Override
+	public long getQueryExecutionMaxTime() {
+		return statistics().getQueryExecutionMaxTime();
+	}
+
+	@Override
+	public String getQueryExecutionMaxTimeQueryString() {
+		return statistics().getQueryExecutionMaxTimeQueryString();
+	}
+
+	@Override
+	public long getSecondLevelCacheHitCount() {
+		return statistics().getSecondLevelCacheHitCount();
+	}
+
+	@Override
+	public long getSecondLevelCacheMissCount() {
+		return statistics().getSecondLevelCacheMissCount();
+	}
+
+	@Override
+	public long getSecondLevelCachePutCount() {
+		return statistics().getSecondLevelCachePutCount();
+	}
+
+	@Override
+	public long getQueryCacheHitCount() {
+		return statistics().getQueryCacheHitCount();
+	}
+
+	@Override
+	public long getQueryCacheMissCount() {
+		return statistics().getQueryCacheMissCount();
+	}
+
+	@Override
+	public long getQueryCachePutCount() {
+		return statistics().getQueryCachePutCount();
+	}
+
+	@Override
+	public void resetStatistics() {
+		statistics().clear();
+	}
+}
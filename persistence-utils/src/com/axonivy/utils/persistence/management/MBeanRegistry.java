@@ -0,0 +1,112 @@
+package com.axonivy.utils.persistence.management;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Register management beans of the persistence utilities with the platform {@link MBeanServer}.
+ *
+ * All beans are registered in the domain {@value #DOMAIN}. Problems while registering are
+ * logged but never thrown, management must not break persistence.
+ */
+public final class MBeanRegistry {
+	private static final Logger LOG = Logger.getLogger(MBeanRegistry.class);
+
+	/**
+	 * JMX domain of all management beans.
+	 */
+	public static final String DOMAIN = "com.axonivy.utils.persistence";
+
+	/**
+	 * Hide public constructor.
+	 */
+	private MBeanRegistry() {
+	}
+
+	/**
+	 * Build the {@link ObjectName} of a management bean.
+	 *
+	 * @param type type of the bean, e.g. <code>Cache</code>
+	 * @param name name of the bean or <code>null</code> for singletons
+	 * @return object name
+	 * @throws MalformedObjectNameException if the name is not valid
+	 */
+	public static ObjectName objectName(String type, String name) throws MalformedObjectNameException {
+		String objectName = DOMAIN + ":type=" + ObjectName.quote(type);
+		if (name != null) {
+			objectName += ",name=" + ObjectName.quote(name);
+		}
+		return new ObjectName(objectName);
+	}
+
+	/**
+	 * Register a management bean, replacing a bean registered before with the same name.
+	 *
+	 * @param type type of the bean
+	 * @param name name of the bean or <code>null</code> for singletons
+	 * @param mbean the bean
+	 * @return <code>true</code> if registration was successful
+	 */
+	public static synchronized boolean register(String type, String name, Object mbean) {
+		boolean result = false;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = objectName(type, name);
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(mbean, objectName);
+			LOG.debug("registered management bean {0}", objectName);
+			result = true;
+		} catch (Exception e) {
+			LOG.warn("Could not register management bean of type {0} with name {1}", e, type, name);
+		}
+		return result;
+	}
+
+	/**
+	 * Unregister a management bean.
+	 *
+	 * @param type type of the bean
+	 * @param name name of the bean or <code>null</code> for singletons
+	 */
+	public static synchronized void unregister(String type, String name) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = objectName(type, name);
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+		} catch (Exception e) {
+			LOG.warn("Could not unregister management bean of type {0} with name {1}", e, type, name);
+		}
+	}
+
+	/**
+	 * Unregister a management bean if it was registered by the class loader of the given bean.
+	 *
+	 * Used by beans which are registered under the same name by several projects, so that a project
+	 * shutting down does not remove the bean of another project.
+	 *
+	 * @param type type of the bean
+	 * @param name name of the bean or <code>null</code> for singletons
+	 * @param mbean the bean which was registered
+	 */
+	public static synchronized void unregister(String type, String name, Object mbean) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = objectName(type, name);
+			if (server.isRegistered(objectName)
+					&& server.getClassLoaderFor(objectName) == mbean.getClass().getClassLoader()) {
+				server.unregisterMBean(objectName);
+			}
+		} catch (Exception e) {
+			LOG.warn("Could not unregister management bean of type {0} with name {1}", e, type, name);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package com.axonivy.utils.persistence.management;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.IvyUtilities;
+import com.axonivy.utils.persistence.dao.AbstractDAO;
+import com.axonivy.utils.persistence.dao.GenericDAO;
+import com.axonivy.utils.persistence.leaks.LeakDetector;
+import com.axonivy.utils.persistence.leaks.OpenResource;
+import com.axonivy.utils.persistence.leaks.ResourceKind;
+import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.metrics.DaoMetrics;
+
+/**
+ * Management of sessions, transactions and statistics of the persistence utilities.
+ *
+ * <p>
+ * Publishes a {@link HibernateStatisticsMXBean} for every persistence unit used by the
+ * {@link IvyEntityManager}, named by the process model version and the persistence unit (e.g.
+ * <code>app/project$1/pu</code>) and unregistered when its session factory closes. The
+ * {@link PersistenceManagementMXBean} is published with the first and unregistered with the last session
+ * factory, so that no bean keeps the classes of an undeployed project. Together with the beans of the
+ * {@link DaoMetrics}, the {@link LeakDetector} and the caches, everything can be read locally with
+ * <code>jconsole</code> in the domain {@value MBeanRegistry#DOMAIN}.
+ * </p>
+ *
+ * <p>
+ * Sessions are known if the {@link LeakDetector} is enabled, transactions always.
+ * </p>
+ */
+public class PersistenceManagement implements PersistenceManagementMXBean {
+	private static final Logger LOG = Logger.getLogger(PersistenceManagement.class);
+
+	private static final String MBEAN_TYPE_PERSISTENCE = "Persistence";
+	private static final String MBEAN_TYPE_HIBERNATE_STATISTICS = "HibernateStatistics";
+
+	private static final PersistenceManagement singleton = new PersistenceManagement();
+
+	/** Qualified names of the published persistence units by their session factories. */
+	private final Map<SessionFactory, String> sessionFactories = new ConcurrentHashMap<>();
+
+	/**
+	 * Hide public constructor.
+	 */
+	protected PersistenceManagement() {
+	}
+
+	/**
+	 * Get singleton instance.
+	 *
+	 * @return singleton instance
+	 */
+	public static PersistenceManagement getInstance() {
+		return singleton;
+	}
+
+	/**
+	 * Publish the Hibernate statistics of a persistence unit.
+	 *
+	 * Called by the {@link IvyEntityManager} whenever it creates a session, does nothing if the session
+	 * factory is already published. The statistics are unpublished when the session factory is closed.
+	 *
+	 * @param persistenceUnitName name of the persistence unit
+	 * @param sessionFactory session factory of the persistence unit
+	 */
+	public void registerSessionFactory(String persistenceUnitName, SessionFactory sessionFactory) {
+		if (!sessionFactories.containsKey(sessionFactory)) {
+			registerNewSessionFactory(persistenceUnitName, sessionFactory);
+		}
+	}
+
+	private synchronized void registerNewSessionFactory(String persistenceUnitName, SessionFactory sessionFactory) {
+		if (!sessionFactories.containsKey(sessionFactory)) {
+			if (sessionFactories.isEmpty()) {
+				MBeanRegistry.register(MBEAN_TYPE_PERSISTENCE, null, this);
+			}
+			String processModelVersionName = IvyUtilities.getProcessModelVersionName();
+			String name = processModelVersionName != null ? processModelVersionName + "/" + persistenceUnitName
+					: persistenceUnitName;
+			sessionFactories.put(sessionFactory, name);
+			sessionFactory.unwrap(SessionFactoryImplementor.class).addObserver(new UnregisterObserver(this));
+			LOG.info("publishing Hibernate statistics of persistence unit {0}", name);
+			MBeanRegistry.register(MBEAN_TYPE_HIBERNATE_STATISTICS, name,
+					new HibernateStatisticsManagement(persistenceUnitName, sessionFactory));
+		}
+	}
+
+	/**
+	 * Unpublish the Hibernate statistics of a closing session factory.
+	 *
+	 * If it was the last published session factory, the {@link PersistenceManagementMXBean} is
+	 * unpublished, too.
+	 *
+	 * @param sessionFactory session factory of the persistence unit
+	 */
+	public synchronized void unregisterSessionFactory(SessionFactory sessionFactory) {
+		String name = sessionFactories.remove(sessionFactory);
+		if (name != null) {
+			LOG.info("unpublishing Hibernate statistics of persistence unit {0}", name);
+			MBeanRegistry.unregister(MBEAN_TYPE_HIBERNATE_STATISTICS, name);
+			if (sessionFactories.isEmpty()) {
+				MBeanRegistry.unregister(MBEAN_TYPE_PERSISTENCE, null, this);
+			}
+		}
+	}
+
+	@Override
+	public List<ThreadActivity> getThreads() {
+		Map<Long, ThreadActivity> activities = AbstractDAO.getTransactionActivities();
+		for (OpenResource resource : LeakDetector.getInstance().getOpenResources()) {
+			if (resource.getKind() == ResourceKind.SESSION && resource.isThreadAlive()) {
+				ThreadActivity activity = activities.computeIfAbsent(resource.getThreadId(), id -> new ThreadActivity());
+				activity.setThreadId(resource.getThreadId());
+				activity.setThreadName(resource.getThreadName());
+				activity.setSessionDepth(resource.getDepth());
+				activity.setSessionAgeMillis(resource.getAgeMillis());
+			}
+		}
+		List<ThreadActivity> result = new ArrayList<>(activities.values());
+		result.sort(Comparator.comparingLong(
+				(ThreadActivity a) -> Math.max(a.getSessionAgeMillis(), a.getTransactionAgeMillis())).reversed());
+		return result;
+	}
+
+	@Override
+	public int getOpenSessions() {
+		return LeakDetector.getInstance().getOpenSessions();
+	}
+
+	@Override
+	public int getOpenTransactions() {
+		return AbstractDAO.getTransactionActivities().size();
+	}
+
+	@Override
+	public int getUpdateJournalSize() {
+		return GenericDAO.getUpdateJournalSize();
+	}
+
+	@Override
+	public int getUpdateJournalCapacity() {
+		return GenericDAO.getUpdateJournalCapacity();
+	}
+
+	@Override
+	public List<String> getPersistenceUnitNames() {
+		List<String> result = new ArrayList<>(sessionFactories.values());
+		Collections.sort(result);
+		return result;
+	}
+
+	@Override
+	public void resetStatistics() {
+		LOG.info("resetting persistence statistics");
+		DaoMetrics.getInstance().resetStatistics();
+		LeakDetector.getInstance().resetStatistics();
+		for (SessionFactory sessionFactory : sessionFactories.keySet()) {
+			sessionFactory.getStatistics().clear();
+		}
+	}
+
+	/**
+	 * Unpublish the statistics when a session factory starts closing.
+	 */
+	private static class UnregisterObserver implements SessionFactoryObserver {
+		private static final long serialVersionUID = 1L;
+
+		private final transient PersistenceManagement management;
+
+		private UnregisterObserver(PersistenceManagement management) {
+			this.management = management;
+		}
+
+		@Override
+		public void sessionFactoryClosing(SessionFactory factory) {
+			if (management != null) {
+				management.unregisterSessionFactory(factory);
+			}
+		}
+	}
+}
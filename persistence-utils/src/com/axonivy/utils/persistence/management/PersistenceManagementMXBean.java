@@ -0,0 +1,44 @@
+package com.axonivy.utils.persistence.management;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link PersistenceManagement}.
+ */
+public interface PersistenceManagementMXBean {
+
+	/**
+	 * @return open sessions and transactions by thread, oldest first
+	 */
+	List<ThreadActivity> getThreads();
+
+	/**
+	 * @return number of threads with an open session
+	 */
+	int getOpenSessions();
+
+	/**
+	 * @return number of threads with an open transaction
+	 */
+	int getOpenTransactions();
+
+	/**
+	 * @return number of entries in the journal of the last updates of all DAOs
+	 */
+	int getUpdateJournalSize();
+
+	/**
+	 * @return maximum number of entries in the journal of the last updates
+	 */
+	int getUpdateJournalCapacity();
+
+	/**
+	 * @return qualified names of the persistence units with published Hibernate statistics
+	 */
+	List<String> getPersistenceUnitNames();
+
+	/**
+	 * Reset the DAO metrics, the leak counters and the Hibernate statistics of all persistence units.
+	 */
+	void resetStatistics();
+}
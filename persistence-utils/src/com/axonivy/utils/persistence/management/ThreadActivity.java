@@ -0,0 +1,89 @@
+package com.axonivy.utils.persistence.management;
+
+/**
+ * Open session and transaction of a thread, for management clients.
+ */
+public class ThreadActivity {
+	private long threadId;
+	private String threadName;
+	private int sessionDepth;
+	private long sessionAgeMillis;
+	private int transactionDepth;
+	private long transactionAgeMillis;
+	private String transactionStatus;
+
+	public long getThreadId() {
+		return threadId;
+	}
+
+	public void setThreadId(long threadId) {
+		this.threadId = threadId;
+	}
+
+	public String getThreadName() {
+		return threadName;
+	}
+
+	public void setThreadName(String threadName) {
+		this.threadName = threadName;
+	}
+
+	/**
+	 * @return nesting depth of the session, 0 if the thread has no session (or it is not watched)
+	 */
+	public int getSessionDepth() {
+		return sessionDepth;
+	}
+
+	public void setSessionDepth(int sessionDepth) {
+		this.sessionDepth = sessionDepth;
+	}
+
+	public long getSessionAgeMillis() {
+		return sessionAgeMillis;
+	}
+
+	public void setSessionAgeMillis(long sessionAgeMillis) {
+		this.sessionAgeMillis = sessionAgeMillis;
+	}
+
+	/**
+	 * @return nesting depth of the transaction, 0 if the thread has no transaction
+	 */
+	public int getTransactionDepth() {
+		return transactionDepth;
+	}
+
+	public void setTransactionDepth(int transactionDepth) {
+		this.transactionDepth = transactionDepth;
+	}
+
+	public long getTransactionAgeMillis() {
+		return transactionAgeMillis;
+	}
+
+	public void setTransactionAgeMillis(long transactionAgeMillis) {
+		this.transactionAgeMillis = transactionAgeMillis;
+	}
+
+	/**
+	 * @return status of the Hibernate transaction or <code>null</code> if the thread has no transaction
+	 */
+	public String getTransactionStatus() {
+		return transactionStatus;
+	}
+
+	public void setTransactionStatus(String transactionStatus) {
+		this.transactionStatus = transactionStatus;
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return "ThreadActivity [thread=" + threadName + " (" + threadId + "), sessionDepth=" + sessionDepth
+				+ ", sessionAgeMillis=" + sessionAgeMillis + ", transactionDepth=" + transactionDepth
+				+ ", transactionAgeMillis=" + transactionAgeMillis + ", transactionStatus=" + transactionStatus + "]";
+	}
+}
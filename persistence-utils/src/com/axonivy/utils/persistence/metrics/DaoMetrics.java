@@ -0,0 +1,263 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.Query;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.axonivy.utils.persistence.logging.Logger;
+import com.axonivy.utils.persistence.management.MBeanRegistry;
+
+/**
+ * Always-on latency metrics of all DAOs.
+ *
+ * <p>
+ * DAOs record every execution with its duration (measured by {@link System#nanoTime()}) and number of
+ * rows. Recording is lock-free and does not allocate once the statistics of a DAO and its query shapes
+ * exist. Slow executions are logged and the worst of them captured by the {@link SlowQueryLog}.
+ * </p>
+ *
+ * <p>
+ * The metrics are published as {@link DaoMetricsMXBean} and the statistics of every DAO as
+ * {@link DaoStatisticsMXBean} while a session factory is attached ({@link #attach(SessionFactory)}). When
+ * the last attached session factory is closed, the beans are unregistered and the statistics are
+ * dropped, so that neither keeps the classes of an undeployed project.
+ * </p>
+ */
+public class DaoMetrics implements DaoMetricsMXBean {
+	private static final Logger LOG = Logger.getLogger(DaoMetrics.class);
+
+	private static final String MBEAN_TYPE_METRICS = "DaoMetrics";
+	private static final String MBEAN_TYPE_STATISTICS = "DaoStatistics";
+
+	private static final DaoMetrics singleton = new DaoMetrics();
+
+	private final Set<SessionFactory> sessionFactories = ConcurrentHashMap.newKeySet();
+	private final Map<Class<?>, DaoStatistics> statistics = new ConcurrentHashMap<>();
+	private final SlowQueryLog slowQueryLog = new SlowQueryLog();
+	private volatile boolean published;
+
+	/**
+	 * Hide public constructor.
+	 */
+	protected DaoMetrics() {
+	}
+
+	/**
+	 * Get singleton instance.
+	 *
+	 * @return singleton instance
+	 */
+	public static DaoMetrics getInstance() {
+		return singleton;
+	}
+
+	/**
+	 * Attach the metrics to a session factory.
+	 *
+	 * Called by the {@link com.axonivy.utils.persistence.IvyEntityManager} whenever it creates a session,
+	 * does nothing if the session factory is already attached. The first attached session factory
+	 * publishes the management beans.
+	 *
+	 * @param sessionFactory session factory
+	 */
+	public void attach(SessionFactory sessionFactory) {
+		if (!sessionFactories.contains(sessionFactory)) {
+			attachNew(sessionFactory);
+		}
+	}
+
+	private synchronized void attachNew(SessionFactory sessionFactory) {
+		boolean first = sessionFactories.isEmpty();
+		if (sessionFactories.add(sessionFactory)) {
+			sessionFactory.unwrap(SessionFactoryImplementor.class).addObserver(new DetachObserver(this));
+			if (first) {
+				published = true;
+				MBeanRegistry.register(MBEAN_TYPE_METRICS, null, this);
+				for (DaoStatistics daoStatistics : statistics.values()) {
+					register(daoStatistics);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Detach the metrics from a closing session factory.
+	 *
+	 * If it was the last attached session factory, the management beans are unregistered and the
+	 * statistics are dropped.
+	 *
+	 * @param sessionFactory session factory
+	 */
+	public synchronized void detach(SessionFactory sessionFactory) {
+		if (sessionFactories.remove(sessionFactory) && sessionFactories.isEmpty()) {
+			LOG.info("last session factory closed, unpublishing DAO metrics");
+			published = false;
+			for (DaoStatistics daoStatistics : statistics.values()) {
+				MBeanRegistry.unregister(MBEAN_TYPE_STATISTICS, daoStatistics.getName(), this);
+			}
+			MBeanRegistry.unregister(MBEAN_TYPE_METRICS, null, this);
+			statistics.clear();
+			slowQueryLog.clear();
+		}
+	}
+
+	private static void register(DaoStatistics daoStatistics) {
+		MBeanRegistry.register(MBEAN_TYPE_STATISTICS, daoStatistics.getName(), new DaoStatisticsManagement(daoStatistics));
+	}
+
+	/**
+	 * Record an execution of a DAO.
+	 *
+	 * @param daoClass class of the DAO
+	 * @param operation operation
+	 * @param query executed query or <code>null</code> if there is no query
+	 * @param nanos duration (see {@link System#nanoTime()})
+	 * @param rows number of rows returned or changed
+	 */
+	public void record(Class<?> daoClass, QueryOperation operation, Query query, long nanos, long rows) {
+		record(daoClass, operation, query, nanos, rows, false);
+	}
+
+	/**
+	 * Record an execution of a DAO, which may have failed.
+	 *
+	 * DAOs call this in a <code>finally</code> block, so that failed executions are measured, too.
+	 *
+	 * @param daoClass class of the DAO
+	 * @param operation operation
+	 * @param query executed query or <code>null</code> if there is no query (yet)
+	 * @param nanos duration (see {@link System#nanoTime()})
+	 * @param rows number of rows returned or changed
+	 * @param failed whether the execution failed with an exception
+	 */
+	public void record(Class<?> daoClass, QueryOperation operation, Query query, long nanos, long rows, boolean failed) {
+		DaoStatistics daoStatistics = getStatistics(daoClass);
+		String queryString = SlowQueryLog.getQueryString(query);
+		daoStatistics.record(operation, queryString, nanos, rows, failed);
+
+		if (slowQueryLog.isSlow(nanos)) {
+			LOG.warn("{0}: {1} {2} {3} ms, more than {4} ms : statement{5}", daoStatistics.getName(), operation,
+					failed ? "failed after" : "took", NumberFormat.getNumberInstance().format(nanos / 1_000_000.0),
+					slowQueryLog.getThresholdMillis(), queryString != null ? ":\n    " + queryString : "");
+			slowQueryLog.offer(daoStatistics.getName(), operation, query, nanos, rows, failed);
+		}
+	}
+
+	/**
+	 * Get the statistics of a DAO, created on first use.
+	 *
+	 * @param daoClass class of the DAO
+	 * @return statistics
+	 */
+	public DaoStatistics getStatistics(Class<?> daoClass) {
+		DaoStatistics daoStatistics = statistics.get(daoClass);
+		if (daoStatistics == null) {
+			DaoStatistics created = new DaoStatistics(daoClass.getName());
+			daoStatistics = statistics.putIfAbsent(daoClass, created);
+			if (daoStatistics == null) {
+				daoStatistics = created;
+				if (published) {
+					register(created);
+				}
+			}
+		}
+		return daoStatistics;
+	}
+
+	/**
+	 * Get the statistics of all DAOs measured so far.
+	 *
+	 * @return statistics
+	 */
+	public List<DaoStatistics> getAllStatistics() {
+		return new ArrayList<>(statistics.values());
+	}
+
+	/**
+	 * Get the log of slow executions.
+	 *
+	 * @return slow query log
+	 */
+	public SlowQueryLog getSlowQueryLog() {
+		return slowQueryLog;
+	}
+
+	@Override
+	public List<String> getDaoNames() {
+		List<String> result = new ArrayList<>();
+		for (DaoStatistics daoStatistics : statistics.values()) {
+			result.add(daoStatistics.getName());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	@Override
+	public long getSlowQueryThresholdMillis() {
+		return slowQueryLog.getThresholdMillis();
+	}
+
+	@Override
+	public void setSlowQueryThresholdMillis(long thresholdMillis) {
+		LOG.info("slow query threshold set to {0} ms", thresholdMillis);
+		slowQueryLog.setThresholdMillis(thresholdMillis);
+	}
+
+	@Override
+	public int getSlowQueryLogSize() {
+		return slowQueryLog.getSize();
+	}
+
+	@Override
+	public void setSlowQueryLogSize(int size) {
+		slowQueryLog.setSize(size);
+	}
+
+	@Override
+	public List<SlowQuery> getSlowQueries() {
+		return slowQueryLog.getSlowQueries();
+	}
+
+	@Override
+	public void clearSlowQueries() {
+		slowQueryLog.clear();
+	}
+
+	@Override
+	public void resetStatistics() {
+		for (DaoStatistics daoStatistics : statistics.values()) {
+			daoStatistics.reset();
+		}
+		slowQueryLog.clear();
+	}
+
+	/**
+	 * Detach the metrics when a session factory starts closing.
+	 */
+	private static class DetachObserver implements SessionFactoryObserver {
+		private static final long serialVersionUID = 1L;
+
+		private final transient DaoMetrics metrics;
+
+		private DetachObserver(DaoMetrics metrics) {
+			this.metrics = metrics;
+		}
+
+		@Override
+		public void sessionFactoryClosing(SessionFactory factory) {
+			if (metrics != null) {
+				metrics.detach(factory);
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link DaoMetrics}.
+ */
+public interface DaoMetricsMXBean {
+
+	/**
+	 * @return names of all measured DAOs
+	 */
+	List<String> getDaoNames();
+
+	/**
+	 * @return threshold of slow executions in milliseconds
+	 */
+	long getSlowQueryThresholdMillis();
+
+	/**
+	 * @param thresholdMillis threshold of slow executions in milliseconds
+	 */
+	void setSlowQueryThresholdMillis(long thresholdMillis);
+
+	/**
+	 * @return number of slow executions kept
+	 */
+	int getSlowQueryLogSize();
+
+	/**
+	 * @param size number of slow executions kept
+	 */
+	void setSlowQueryLogSize(int size);
+
+	/**
+	 * @return slow executions kept, slowest first
+	 */
+	List<SlowQuery> getSlowQueries();
+
+	/**
+	 * Forget all slow executions kept.
+	 */
+	void clearSlowQueries();
+
+	/**
+	 * Reset the statistics of all DAOs and forget all slow executions.
+	 */
+	void resetStatistics();
+}
@@ -0,0 +1,164 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency statistics of a single DAO.
+ *
+ * Every execution is recorded in the histogram of its operation and, if the query string is known,
+ * in the histogram of its query shape. The query string is the statement with placeholders for bound
+ * values, so all executions of the same query share one shape. The number of shapes per operation is
+ * limited by {@link #MAX_SHAPES}, executions of further shapes are only counted for the operation.
+ */
+public class DaoStatistics {
+
+	/**
+	 * Maximum number of query shapes kept per operation.
+	 */
+	public static final int MAX_SHAPES = 200;
+
+	private final String name;
+	private final LatencyHistogram[] operations = new LatencyHistogram[QueryOperation.values().length];
+	private final Map<QueryOperation, Map<String, LatencyHistogram>> shapes = new EnumMap<>(QueryOperation.class);
+	private final LongAdder droppedShapes = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name name of the DAO
+	 */
+	public DaoStatistics(String name) {
+		this.name = name;
+		for (QueryOperation operation : QueryOperation.values()) {
+			operations[operation.ordinal()] = new LatencyHistogram();
+			shapes.put(operation, new ConcurrentHashMap<>());
+		}
+	}
+
+	/**
+	 * Record an execution.
+	 *
+	 * @param operation operation
+	 * @param queryString query string or <code>null</code> if unknown
+	 * @param nanos duration (see {@link System#nanoTime()})
+	 * @param rows number of rows returned or changed
+	 */
+	public void record(QueryOperation operation, String queryString, long nanos, long rows) {
+		record(operation, queryString, nanos, rows, false);
+	}
+
+	/**
+	 * Record an execution, which may have failed.
+	 *
+	 * Failed executions are recorded with their duration like successful ones and counted in {@link #getFailures()}.
+	 *
+	 * @param operation operation
+	 * @param queryString query string or <code>null</code> if unknown
+	 * @param nanos duration (see {@link System#nanoTime()})
+	 * @param rows number of rows returned or changed
+	 * @param failed whether the execution failed with an exception
+	 */
+	public void record(QueryOperation operation, String queryString, long nanos, long rows, boolean failed) {
+		if (failed) {
+			failures.increment();
+		}
+		operations[operation.ordinal()].record(nanos, rows);
+		if (queryString != null) {
+			LatencyHistogram shape = getShape(operation, queryString);
+			if (shape != null) {
+				shape.record(nanos, rows);
+			}
+		}
+	}
+
+	private LatencyHistogram getShape(QueryOperation operation, String queryString) {
+		Map<String, LatencyHistogram> operationShapes = shapes.get(operation);
+		LatencyHistogram shape = operationShapes.get(queryString);
+		if (shape == null) {
+			if (operationShapes.size() < MAX_SHAPES) {
+				shape = operationShapes.computeIfAbsent(queryString, s -> new LatencyHistogram());
+			} else {
+				droppedShapes.increment();
+			}
+		}
+		return shape;
+	}
+
+	/**
+	 * Reset all counters and forget all query shapes.
+	 */
+	public void reset() {
+		for (LatencyHistogram histogram : operations) {
+			histogram.reset();
+		}
+		for (Map<String, LatencyHistogram> operationShapes : shapes.values()) {
+			operationShapes.clear();
+		}
+		droppedShapes.reset();
+		failures.reset();
+	}
+
+	/**
+	 * Get the name of the DAO.
+	 *
+	 * @return name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the histogram of all executions of an operation.
+	 *
+	 * @param operation operation
+	 * @return histogram
+	 */
+	public LatencyHistogram getHistogram(QueryOperation operation) {
+		return operations[operation.ordinal()];
+	}
+
+	/**
+	 * Get the histograms of the query shapes of an operation.
+	 *
+	 * @param operation operation
+	 * @return histograms by query string
+	 */
+	public Map<String, LatencyHistogram> getShapes(QueryOperation operation) {
+		return Collections.unmodifiableMap(shapes.get(operation));
+	}
+
+	/**
+	 * Get the number of executions which were not recorded for their shape, because there were too many shapes.
+	 *
+	 * @return executions
+	 */
+	public long getDroppedShapes() {
+		return droppedShapes.sum();
+	}
+
+	/**
+	 * Get the number of executions which failed with an exception.
+	 *
+	 * @return executions
+	 */
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("DaoStatistics [name=").append(name);
+		for (QueryOperation operation : QueryOperation.values()) {
+			result.append(", ").append(operation).append("=").append(getHistogram(operation));
+		}
+		return result.append("]").toString();
+	}
+}
@@ -0,0 +1,39 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of the statistics of a single DAO.
+ */
+public interface DaoStatisticsMXBean {
+
+	/**
+	 * @return name of the DAO
+	 */
+	String getName();
+
+	/**
+	 * @return latencies of every operation
+	 */
+	List<LatencySummary> getOperations();
+
+	/**
+	 * @return latencies of every query shape, slowest total first
+	 */
+	List<LatencySummary> getQueryShapes();
+
+	/**
+	 * @return executions not recorded for their shape, because there were too many shapes
+	 */
+	long getDroppedShapes();
+
+	/**
+	 * @return executions which failed with an exception
+	 */
+	long getFailures();
+
+	/**
+	 * Reset the statistics.
+	 */
+	void resetStatistics();
+}
@@ -0,0 +1,64 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * {@link DaoStatisticsMXBean} of a single {@link DaoStatistics}.
+ */
+public class DaoStatisticsManagement implements DaoStatisticsMXBean {
+
+	private final DaoStatistics statistics;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param statistics managed statistics
+	 */
+	public DaoStatisticsManagement(DaoStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	@Override
+	public String getName() {
+		return statistics.getName();
+	}
+
+	@Override
+	public List<LatencySummary> getOperations() {
+		List<LatencySummary> result = new ArrayList<>();
+		for (QueryOperation operation : QueryOperation.values()) {
+			result.add(new LatencySummary(operation, null, statistics.getHistogram(operation)));
+		}
+		return result;
+	}
+
+	@Override
+	public List<LatencySummary> getQueryShapes() {
+		List<LatencySummary> result = new ArrayList<>();
+		for (QueryOperation operation : QueryOperation.values()) {
+			for (Entry<String, LatencyHistogram> shape : statistics.getShapes(operation).entrySet()) {
+				result.add(new LatencySummary(operation, shape.getKey(), shape.getValue()));
+			}
+		}
+		result.sort(Comparator.comparingDouble((LatencySummary s) -> s.getAverageMillis() * s.getCount()).reversed());
+		return result;
+	}
+
+	@Override
+	public long getDroppedShapes() {
+		return statistics.getDroppedShapes();
+	}
+
+	@Override
+	public long getFailures() {
+		return statistics.getFailures();
+	}
+
+	@Override
+	public void resetStatistics() {
+		statistics.reset();
+	}
+}
@@ -0,0 +1,170 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies and row counts.
+ *
+ * Recording does not allocate and never blocks, so histograms can always be on. Latencies are counted
+ * in fixed buckets, percentiles are estimated by the upper bound of the bucket containing them.
+ */
+public class LatencyHistogram {
+
+	/**
+	 * Upper bounds (inclusive, in microseconds) of the latency buckets.
+	 * The last bucket collects all longer latencies.
+	 */
+	protected static final long[] LATENCY_BUCKETS = { 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+			100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000, 30_000_000, 60_000_000 };
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAdder rows = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+
+	/**
+	 * Record an execution.
+	 *
+	 * @param nanos duration (see {@link System#nanoTime()})
+	 * @param rowCount number of rows returned or changed
+	 */
+	public void record(long nanos, long rowCount) {
+		count.increment();
+		totalNanos.add(nanos);
+		rows.add(rowCount);
+		latencies.incrementAndGet(bucket(nanos));
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+	}
+
+	private static int bucket(long nanos) {
+		int bucket = Arrays.binarySearch(LATENCY_BUCKETS, TimeUnit.NANOSECONDS.toMicros(nanos));
+		return bucket < 0 ? -bucket - 1 : bucket;
+	}
+
+	/**
+	 * Reset all counters.
+	 */
+	public void reset() {
+		count.reset();
+		totalNanos.reset();
+		rows.reset();
+		maxNanos.set(0);
+		for (int i = 0; i < latencies.length(); i++) {
+			latencies.set(i, 0);
+		}
+	}
+
+	/**
+	 * Get the number of executions.
+	 *
+	 * @return count
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Get the sum of all durations.
+	 *
+	 * @return nanoseconds
+	 */
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	/**
+	 * Get the sum of all rows returned or changed.
+	 *
+	 * @return rows
+	 */
+	public long getRows() {
+		return rows.sum();
+	}
+
+	/**
+	 * Get the longest duration.
+	 *
+	 * @return nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * Get the average duration.
+	 *
+	 * @return milliseconds
+	 */
+	public double getAverageMillis() {
+		long executions = getCount();
+		return executions > 0 ? getTotalNanos() / 1_000_000.0 / executions : 0.0;
+	}
+
+	/**
+	 * Estimate a percentile of the durations.
+	 *
+	 * @param percentile percentile between 0 and 100
+	 * @return upper bound of the bucket containing the percentile in milliseconds, the maximum
+	 * duration if it is in the last bucket or 0 if nothing was recorded
+	 */
+	public double getPercentileMillis(double percentile) {
+		long total = 0;
+		for (int i = 0; i < latencies.length(); i++) {
+			total += latencies.get(i);
+		}
+		if (total == 0) {
+			return 0.0;
+		}
+		long rank = (long) Math.ceil(total * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+			seen += latencies.get(i);
+			if (seen >= rank) {
+				return Math.min(LATENCY_BUCKETS[i] / 1000.0, getMaxNanos() / 1_000_000.0);
+			}
+		}
+		return getMaxNanos() / 1_000_000.0;
+	}
+
+	/**
+	 * Get the histogram of durations.
+	 *
+	 * Keys are the upper bounds of the buckets (e.g. <code>&lt;=2.5ms</code>), values are the number
+	 * of executions in the bucket.
+	 *
+	 * @return histogram in bucket order
+	 */
+	public Map<String, Long> getLatencyHistogram() {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+			result.put("<=" + millis(LATENCY_BUCKETS[i]) + "ms", latencies.get(i));
+		}
+		result.put(">" + millis(LATENCY_BUCKETS[LATENCY_BUCKETS.length - 1]) + "ms",
+				latencies.get(LATENCY_BUCKETS.length));
+		return result;
+	}
+
+	private static String millis(long micros) {
+		return BigDecimal.valueOf(micros, 3).stripTrailingZeros().toPlainString();
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return "LatencyHistogram [count=" + getCount() + ", rows=" + getRows() + ", averageMillis="
+				+ getAverageMillis() + ", maxNanos=" + getMaxNanos() + "]";
+	}
+}
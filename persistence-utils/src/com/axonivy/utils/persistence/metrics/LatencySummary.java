@@ -0,0 +1,90 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.util.Map;
+
+import com.axonivy.utils.persistence.statements.QueryTags;
+
+/**
+ * Snapshot of a {@link LatencyHistogram} for management clients.
+ */
+public class LatencySummary {
+	private final QueryOperation operation;
+	private final String query;
+	private final String shapeId;
+	private final long count;
+	private final long rows;
+	private final double averageMillis;
+	private final double p50Millis;
+	private final double p90Millis;
+	private final double p99Millis;
+	private final double maxMillis;
+	private final Map<String, Long> histogram;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param operation operation
+	 * @param query query string or <code>null</code> for all executions of the operation
+	 * @param histogram histogram
+	 */
+	public LatencySummary(QueryOperation operation, String query, LatencyHistogram histogram) {
+		this.operation = operation;
+		this.query = query;
+		this.shapeId = query != null ? QueryTags.shapeId(query) : null;
+		this.count = histogram.getCount();
+		this.rows = histogram.getRows();
+		this.averageMillis = histogram.getAverageMillis();
+		this.p50Millis = histogram.getPercentileMillis(50);
+		this.p90Millis = histogram.getPercentileMillis(90);
+		this.p99Millis = histogram.getPercentileMillis(99);
+		this.maxMillis = histogram.getMaxNanos() / 1_000_000.0;
+		this.histogram = histogram.getLatencyHistogram();
+	}
+
+	public QueryOperation getOperation() {
+		return operation;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return id of the query shape used in the SQL comments of the {@link QueryTags}
+	 */
+	public String getShapeId() {
+		return shapeId;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public double getAverageMillis() {
+		return averageMillis;
+	}
+
+	public double getP50Millis() {
+		return p50Millis;
+	}
+
+	public double getP90Millis() {
+		return p90Millis;
+	}
+
+	public double getP99Millis() {
+		return p99Millis;
+	}
+
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+
+	public Map<String, Long> getHistogram() {
+		return histogram;
+	}
+}
@@ -0,0 +1,46 @@
+package com.axonivy.utils.persistence.metrics;
+
+import com.axonivy.utils.persistence.enums.UpdateType;
+
+/**
+ * Operations of a DAO measured by {@link DaoMetrics}.
+ */
+public enum QueryOperation {
+	/**
+	 * find by criteria
+	 */
+	FIND,
+	/**
+	 * count by criteria
+	 */
+	COUNT,
+	/**
+	 * save of a new bean
+	 */
+	SAVE,
+	/**
+	 * update of a bean or update by criteria
+	 */
+	UPDATE,
+	/**
+	 * delete of a bean or delete by criteria
+	 */
+	DELETE;
+
+	/**
+	 * Get the operation of an update type.
+	 *
+	 * @param updateType update type
+	 * @return operation
+	 */
+	public static QueryOperation of(UpdateType updateType) {
+		switch (updateType) {
+		case ADD:
+			return SAVE;
+		case DELETE:
+			return DELETE;
+		default:
+			return UPDATE;
+		}
+	}
+}
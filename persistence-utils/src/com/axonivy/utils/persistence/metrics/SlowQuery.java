@@ -0,0 +1,125 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.axonivy.utils.persistence.statements.QueryTags;
+
+/**
+ * A slow execution captured by the {@link SlowQueryLog}.
+ */
+public class SlowQuery {
+	private final String dao;
+	private final QueryOperation operation;
+	private final String query;
+	private final String shapeId;
+	private final Map<String, String> parameters;
+	private final long nanos;
+	private final long rows;
+	private final long time;
+	private final List<String> stackTrace;
+	private final boolean failed;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dao name of the DAO
+	 * @param operation operation
+	 * @param query query string or <code>null</code> if unknown
+	 * @param parameters bound values by parameter name
+	 * @param nanos duration
+	 * @param rows number of rows returned or changed
+	 * @param stackTrace stack of the caller
+	 */
+	public SlowQuery(String dao, QueryOperation operation, String query, Map<String, String> parameters, long nanos,
+			long rows, List<String> stackTrace) {
+		this(dao, operation, query, parameters, nanos, rows, stackTrace, false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dao name of the DAO
+	 * @param operation operation
+	 * @param query query string or <code>null</code> if unknown
+	 * @param parameters bound values by parameter name
+	 * @param nanos duration
+	 * @param rows number of rows returned or changed
+	 * @param stackTrace stack of the caller
+	 * @param failed whether the execution failed with an exception
+	 */
+	public SlowQuery(String dao, QueryOperation operation, String query, Map<String, String> parameters, long nanos,
+			long rows, List<String> stackTrace, boolean failed) {
+		this.dao = dao;
+		this.operation = operation;
+		this.query = query;
+		this.shapeId = query != null ? QueryTags.shapeId(query) : null;
+		this.parameters = Collections.unmodifiableMap(parameters);
+		this.nanos = nanos;
+		this.rows = rows;
+		this.time = System.currentTimeMillis();
+		this.stackTrace = Collections.unmodifiableList(stackTrace);
+		this.failed = failed;
+	}
+
+	public String getDao() {
+		return dao;
+	}
+
+	public QueryOperation getOperation() {
+		return operation;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return id of the query shape used in the SQL comments of the {@link QueryTags}
+	 */
+	public String getShapeId() {
+		return shapeId;
+	}
+
+	public Map<String, String> getParameters() {
+		return parameters;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	public double getMillis() {
+		return nanos / 1_000_000.0;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public Date getTime() {
+		return new Date(time);
+	}
+
+	public List<String> getStackTrace() {
+		return stackTrace;
+	}
+
+	/**
+	 * @return <code>true</code> if the execution failed with an exception
+	 */
+	public boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return "SlowQuery [dao=" + dao + ", operation=" + operation + ", millis=" + getMillis() + ", rows=" + rows
+				+ ", failed=" + failed + ", time=" + getTime() + ", shapeId=" + shapeId + ", query=" + query + ", parameters=" + parameters + "]";
+	}
+}
@@ -0,0 +1,246 @@
+package com.axonivy.utils.persistence.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Keep the slowest executions above a threshold.
+ *
+ * <p>
+ * Executions taking at least the threshold (see {@link #setThresholdMillis(long)}) are slow. Of all slow
+ * executions the worst (see {@link #setSize(int)}) are kept with their query string, bound values and the
+ * stack of the caller. Capturing only happens for slow executions, which would be kept, so the check on
+ * the normal path is a single comparison.
+ * </p>
+ *
+ * <p>
+ * The initial threshold can be set by the system property {@value #THRESHOLD_PROPERTY} (milliseconds),
+ * the initial size by {@value #SIZE_PROPERTY}.
+ * </p>
+ */
+public class SlowQueryLog {
+	private static final Logger LOG = Logger.getLogger(SlowQueryLog.class);
+
+	/**
+	 * System property of the initial threshold in milliseconds.
+	 */
+	public static final String THRESHOLD_PROPERTY = "com.axonivy.utils.persistence.slowQueryMillis";
+
+	/**
+	 * System property of the initial number of slow executions kept.
+	 */
+	public static final String SIZE_PROPERTY = "com.axonivy.utils.persistence.slowQueryLogSize";
+
+	/**
+	 * Default threshold in milliseconds.
+	 */
+	public static final long DEFAULT_THRESHOLD_MILLIS = 500;
+
+	/**
+	 * Default number of slow executions kept.
+	 */
+	public static final int DEFAULT_SIZE = 20;
+
+	private static final int MAX_STACK_DEPTH = 40;
+	private static final int MAX_VALUE_LENGTH = 200;
+
+	private final PriorityQueue<SlowQuery> worst = new PriorityQueue<>(Comparator.comparingLong(SlowQuery::getNanos));
+	private volatile long thresholdNanos;
+	private volatile long admissionNanos;
+	private volatile int size;
+
+	/**
+	 * Constructor, initialized from system properties.
+	 */
+	public SlowQueryLog() {
+		setThresholdMillis(Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD_MILLIS));
+		setSize(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+	}
+
+	/**
+	 * Is an execution slow?
+	 *
+	 * @param nanos duration
+	 * @return <code>true</code> if the duration reaches the threshold
+	 */
+	public boolean isSlow(long nanos) {
+		return nanos >= thresholdNanos;
+	}
+
+	/**
+	 * Offer a slow execution.
+	 *
+	 * The execution is captured only, if it is slower than the fastest execution kept.
+	 *
+	 * @param dao name of the DAO
+	 * @param operation operation
+	 * @param query executed query or <code>null</code> if there is no query
+	 * @param nanos duration
+	 * @param rows number of rows returned or changed
+	 * @return <code>true</code> if the execution was kept
+	 */
+	public boolean offer(String dao, QueryOperation operation, Query query, long nanos, long rows) {
+		return offer(dao, operation, query, nanos, rows, false);
+	}
+
+	/**
+	 * Offer a slow execution, which may have failed.
+	 *
+	 * @param dao name of the DAO
+	 * @param operation operation
+	 * @param query executed query or <code>null</code> if there is no query
+	 * @param nanos duration
+	 * @param rows number of rows returned or changed
+	 * @param failed whether the execution failed with an exception
+	 * @return <code>true</code> if the execution was kept
+	 */
+	public boolean offer(String dao, QueryOperation operation, Query query, long nanos, long rows, boolean failed) {
+		if (!isSlow(nanos) || nanos <= admissionNanos) {
+			return false;
+		}
+		SlowQuery slowQuery = new SlowQuery(dao, operation, getQueryString(query), getParameters(query), nanos, rows,
+				getStackTrace(), failed);
+		synchronized (worst) {
+			worst.add(slowQuery);
+			while (worst.size() > size) {
+				worst.poll();
+			}
+			admissionNanos = worst.size() >= size ? worst.peek().getNanos() : 0L;
+		}
+		return true;
+	}
+
+	/**
+	 * Get the query string of a query.
+	 *
+	 * @param query query or <code>null</code>
+	 * @return query string or <code>null</code> if unknown
+	 */
+	public static String getQueryString(Query query) {
+		if (query == null) {
+			return null;
+		}
+		try {
+			return query.unwrap(org.hibernate.query.Query.class).getQueryString();
+		} catch (RuntimeException e) {
+			LOG.debug("no query string of {0}", e, query);
+			return null;
+		}
+	}
+
+	private static Map<String, String> getParameters(Query query) {
+		Map<String, String> parameters = new TreeMap<>();
+		if (query != null) {
+			try {
+				for (Parameter<?> parameter : query.getParameters()) {
+					String name = parameter.getName() != null ? parameter.getName() : String.valueOf(parameter.getPosition());
+					String value;
+					try {
+						value = query.isBound(parameter) ? String.valueOf(query.getParameterValue(parameter)) : "<unbound>";
+					} catch (RuntimeException e) {
+						// e.g. multi valued parameters
+						value = "<unknown>";
+					}
+					parameters.put(name, StringUtils.abbreviate(value, MAX_VALUE_LENGTH));
+				}
+			} catch (RuntimeException e) {
+				LOG.debug("no parameters of {0}", e, query);
+			}
+		}
+		return parameters;
+	}
+
+	private static List<String> getStackTrace() {
+		List<String> result = new ArrayList<>();
+		for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+			if (result.isEmpty() && (element.getClassName().equals(Thread.class.getName())
+					|| element.getClassName().startsWith(SlowQueryLog.class.getPackage().getName()))) {
+				continue;
+			}
+			if (result.size() >= MAX_STACK_DEPTH) {
+				result.add("...");
+				break;
+			}
+			result.add(element.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * Get the slow executions kept.
+	 *
+	 * @return executions, slowest first
+	 */
+	public List<SlowQuery> getSlowQueries() {
+		List<SlowQuery> result;
+		synchronized (worst) {
+			result = new ArrayList<>(worst);
+		}
+		result.sort(Comparator.comparingLong(SlowQuery::getNanos).reversed());
+		return result;
+	}
+
+	/**
+	 * Forget all slow executions kept.
+	 */
+	public void clear() {
+		synchronized (worst) {
+			worst.clear();
+			admissionNanos = 0L;
+		}
+	}
+
+	/**
+	 * Get the threshold.
+	 *
+	 * @return milliseconds
+	 */
+	public long getThresholdMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+	}
+
+	/**
+	 * Set the threshold, executions taking at least this time are slow.
+	 *
+	 * @param thresholdMillis milliseconds
+	 */
+	public void setThresholdMillis(long thresholdMillis) {
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, thresholdMillis));
+	}
+
+	/**
+	 * Get the number of slow executions kept.
+	 *
+	 * @return size
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Set the number of slow executions kept.
+	 *
+	 * @param size size
+	 */
+	public void setSize(int size) {
+		synchronized (worst) {
+			this.size = Math.max(1, size);
+			while (worst.size() > this.size) {
+				worst.poll();
+			}
+			admissionNanos = worst.size() >= this.size ? worst.peek().getNanos() : 0L;
+		}
+	}
+}
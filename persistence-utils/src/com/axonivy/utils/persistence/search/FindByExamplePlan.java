@@ -0,0 +1,155 @@
+package com.axonivy.utils.persistence.search;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.PersistenceException;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.Metamodel;
+
+import com.axonivy.utils.persistence.ReflectionUtilitities;
+import com.axonivy.utils.persistence.beans.AuditableEntity_;
+import com.axonivy.utils.persistence.beans.GenericIdEntity_;
+import com.axonivy.utils.persistence.beans.VersionableEntity_;
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Precompiled accessors of the attributes used by a find by example search.
+ *
+ * <p>
+ * A plan is built once per entity type and class of the example bean. It contains only the attributes
+ * which take part in the search (no id, version or header) together with a {@link MethodHandle} for
+ * their getters, so a search does not need to look up the metamodel or any methods.
+ * </p>
+ */
+public final class FindByExamplePlan {
+	private static final Logger LOG = Logger.getLogger(FindByExamplePlan.class);
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final ClassValue<Map<Class<?>, FindByExamplePlan>> PLANS = new ClassValue<Map<Class<?>, FindByExamplePlan>>() {
+		@Override
+		protected Map<Class<?>, FindByExamplePlan> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final List<Accessor> accessors;
+
+	private FindByExamplePlan(List<Accessor> accessors) {
+		this.accessors = Collections.unmodifiableList(accessors);
+	}
+
+	/**
+	 * Get the plan for an entity type and the class of an example bean.
+	 *
+	 * @param metamodel metamodel used if the plan must be built
+	 * @param entityType entity type searched for
+	 * @param exampleClass class of the example bean (the entity type or a sub-class)
+	 * @return plan
+	 */
+	public static FindByExamplePlan of(Metamodel metamodel, Class<?> entityType, Class<?> exampleClass) {
+		Map<Class<?>, FindByExamplePlan> plans = PLANS.get(entityType);
+		FindByExamplePlan plan = plans.get(exampleClass);
+		if (plan == null) {
+			plan = build(metamodel, entityType, exampleClass);
+			FindByExamplePlan other = plans.putIfAbsent(exampleClass, plan);
+			if (other != null) {
+				plan = other;
+			}
+		}
+		return plan;
+	}
+
+	private static FindByExamplePlan build(Metamodel metamodel, Class<?> entityType, Class<?> exampleClass) {
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		List<Accessor> accessors = new ArrayList<>();
+		for (Attribute<?, ?> attribute : metamodel.entity(entityType).getAttributes()) {
+			String javaName = attribute.getJavaMember().getName();
+			// dont use id, version or header in findbyexample searches
+			if (attribute.getJavaType().equals(AuditableEntity_.header.getJavaType())
+					|| javaName.equals(GenericIdEntity_.id.getJavaMember().getName())
+					|| javaName.equals(VersionableEntity_.version.getJavaMember().getName())) {
+				continue;
+			}
+
+			String getter = ReflectionUtilitities.getGetterMethodName(javaName);
+			try {
+				Method method = exampleClass.getMethod(getter);
+				MethodHandle handle = lookup.unreflect(method).asType(GETTER_TYPE);
+				accessors.add(new Accessor(attribute.getName(), attribute.getJavaType().isAssignableFrom(String.class), handle));
+			} catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+				LOG.warn("QueryByExample ignores attribute {0}, getter {1} of {2} is not accessible", e, attribute.getName(),
+						getter, exampleClass.getName());
+			}
+		}
+		LOG.debug("built find by example plan for {0} with {1} attributes", exampleClass.getName(), accessors.size());
+		return new FindByExamplePlan(accessors);
+	}
+
+	/**
+	 * Get the accessors of all attributes taking part in the search.
+	 *
+	 * @return unmodifiable list of accessors
+	 */
+	public List<Accessor> getAccessors() {
+		return accessors;
+	}
+
+	/**
+	 * Accessor of a single attribute.
+	 */
+	public static final class Accessor {
+		private final String attributeName;
+		private final boolean string;
+		private final MethodHandle getter;
+
+		private Accessor(String attributeName, boolean string, MethodHandle getter) {
+			this.attributeName = attributeName;
+			this.string = string;
+			this.getter = getter;
+		}
+
+		/**
+		 * Get the name of the attribute.
+		 *
+		 * @return attribute name
+		 */
+		public String getAttributeName() {
+			return attributeName;
+		}
+
+		/**
+		 * Can the attribute be searched by like expressions?
+		 *
+		 * @return <code>true</code> for string attributes
+		 */
+		public boolean isString() {
+			return string;
+		}
+
+		/**
+		 * Read the attribute of the example bean.
+		 *
+		 * @param example example bean
+		 * @return value
+		 * @throws PersistenceException if the getter fails
+		 */
+		public Object get(Object example) {
+			try {
+				return getter.invokeExact(example);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new PersistenceException("Could not read attribute " + attributeName + " of " + example, e);
+			}
+		}
+	}
+}
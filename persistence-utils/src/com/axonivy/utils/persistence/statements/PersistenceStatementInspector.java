@@ -0,0 +1,32 @@
+package com.axonivy.utils.persistence.statements;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} of the persistence utilities.
+ *
+ * <p>
+ * Counts the statements of every session (see {@link SessionStatements}), checks them against the
+ * {@link StatementBudget} and tags them with the DAO operation (see {@link QueryTags}). Configure it in
+ * the persistence unit:
+ * </p>
+ * <pre>
+ *&lt;property name="hibernate.session_factory.statement_inspector" value="com.axonivy.utils.persistence.statements.PersistenceStatementInspector"/&gt;
+ * </pre>
+ */
+public class PersistenceStatementInspector implements StatementInspector {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor, called by Hibernate.
+	 */
+	public PersistenceStatementInspector() {
+		SessionStatements.enable();
+	}
+
+	@Override
+	public String inspect(String sql) {
+		SessionStatements.recordCurrent(sql);
+		return QueryTags.tag(sql);
+	}
+}
@@ -0,0 +1,258 @@
+package com.axonivy.utils.persistence.statements;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import javax.persistence.Query;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.metrics.DaoMetrics;
+import com.axonivy.utils.persistence.metrics.QueryOperation;
+import com.axonivy.utils.persistence.metrics.SlowQueryLog;
+
+/**
+ * SQL comments attributing statements to the DAO operation which issued them.
+ *
+ * <p>
+ * If enabled, every statement executed during a DAO operation starts with a comment like
+ * </p>
+ * <pre>
+ * /* dao=com.acme.PersonDAO op=FIND shape=1c291ca3 request=4711 *&#47; select ...
+ * </pre>
+ * <p>
+ * so that statements found in the statistics or slow query logs of the database can be mapped back to
+ * the DAO and to the query shapes of the {@link DaoMetrics} (see {@link #shapeId(String)}). The comment of
+ * a query shape is built once and cached. The request id is optional and is set by the caller for the
+ * current session of the {@link IvyEntityManager}. It is only added to the statements if requested by
+ * {@link #setRequestId(String, boolean)}, since it makes every statement text unique.
+ * </p>
+ *
+ * <p>
+ * Tagging needs the {@link PersistenceStatementInspector} configured in the persistence unit. It can be
+ * enabled initially by the system property {@value #ENABLED_PROPERTY}.
+ * </p>
+ */
+public final class QueryTags {
+
+	/**
+	 * System property to enable tagging initially.
+	 */
+	public static final String ENABLED_PROPERTY = "com.axonivy.utils.persistence.queryTags";
+
+	private static final String CLOSE = " */ ";
+	private static final int MAX_REQUEST_ID_LENGTH = 64;
+	private static final int MAX_SHAPES = 200;
+
+	private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	private static final ThreadLocal<String> currentComment = new ThreadLocal<>();
+	private static final ThreadLocal<String> currentRequestId = new ThreadLocal<>();
+	private static final ThreadLocal<String> currentRequest = new ThreadLocal<>();
+
+	private static final ClassValue<Map<String, String>[]> comments = new ClassValue<Map<String, String>[]>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Map<String, String>[] computeValue(Class<?> daoClass) {
+			Map<String, String>[] result = new Map[QueryOperation.values().length];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = new ConcurrentHashMap<>();
+			}
+			return result;
+		}
+	};
+
+	/**
+	 * Hide public constructor.
+	 */
+	private QueryTags() {
+	}
+
+	/**
+	 * @return true, if statements are tagged
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enable or disable tagging.
+	 *
+	 * @param enabled true to tag statements
+	 */
+	public static void setEnabled(boolean enabled) {
+		QueryTags.enabled = enabled;
+	}
+
+	/**
+	 * Set the request id of the current thread without adding it to the statements.
+	 *
+	 * @param requestId request id or <code>null</code> to remove it
+	 * @see #setRequestId(String, boolean)
+	 */
+	public static void setRequestId(String requestId) {
+		setRequestId(requestId, false);
+	}
+
+	/**
+	 * Set the request id of the current thread.
+	 *
+	 * The request id is kept until the outermost session of the {@link IvyEntityManager} is closed.
+	 * Outside of a session it must be reset by calling this function with <code>null</code>.
+	 * Characters which are not letters, digits, <code>.</code>, <code>_</code>, <code>:</code>,
+	 * <code>-</code> or <code>$</code> are replaced, ids are cut after 64 characters.
+	 *
+	 * <p>
+	 * If <code>tagStatements</code> is set, the request id is also added to the comments of the
+	 * statements. Note, that this makes the text of every statement unique, so the database and the
+	 * JDBC driver can not reuse cached statements and execution plans for these statements. Only
+	 * enable it for single requests which must be traced in the database.
+	 * </p>
+	 *
+	 * @param requestId request id or <code>null</code> to remove it
+	 * @param tagStatements add the request id to the comments of the statements
+	 */
+	public static void setRequestId(String requestId, boolean tagStatements) {
+		if (requestId == null) {
+			endSession();
+		} else {
+			String sanitized = sanitize(requestId, MAX_REQUEST_ID_LENGTH);
+			currentRequestId.set(sanitized);
+			if (tagStatements) {
+				currentRequest.set(" request=" + sanitized);
+			} else {
+				currentRequest.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return request id of the current thread or <code>null</code>
+	 */
+	public static String getRequestId() {
+		return currentRequestId.get();
+	}
+
+	/**
+	 * Remove the request id of the current thread.
+	 *
+	 * Called by {@link IvyEntityManager} when the outermost session is closed.
+	 */
+	public static void endSession() {
+		currentRequestId.remove();
+		currentRequest.remove();
+	}
+
+	/**
+	 * Start tagging the statements of a DAO operation.
+	 *
+	 * @param daoClass class of the DAO
+	 * @param operation operation
+	 * @param query executed query or <code>null</code> if there is no query
+	 * @return comment of an enclosing operation, to be passed to {@link #end(String)}
+	 */
+	public static String begin(Class<?> daoClass, QueryOperation operation, Query query) {
+		if (!enabled) {
+			return null;
+		}
+		String previous = currentComment.get();
+		currentComment.set(getComment(daoClass, operation, SlowQueryLog.getQueryString(query)));
+		return previous;
+	}
+
+	/**
+	 * Stop tagging the statements of a DAO operation.
+	 *
+	 * @param previous comment returned by {@link #begin(Class, QueryOperation, Query)}
+	 */
+	public static void end(String previous) {
+		if (previous != null) {
+			currentComment.set(previous);
+		} else if (currentComment.get() != null) {
+			currentComment.remove();
+		}
+	}
+
+	/**
+	 * Prepend the comment of the current DAO operation to a statement.
+	 *
+	 * Called by the {@link PersistenceStatementInspector}.
+	 *
+	 * @param sql statement
+	 * @return tagged statement or the statement itself if there is no DAO operation
+	 */
+	public static String tag(String sql) {
+		String comment = currentComment.get();
+		if (comment == null) {
+			return sql;
+		}
+		String request = currentRequest.get();
+		if (request == null) {
+			return comment.concat(sql);
+		}
+		return new StringBuilder(comment.length() + request.length() + sql.length())
+				.append(comment, 0, comment.length() - CLOSE.length())
+				.append(request)
+				.append(CLOSE)
+				.append(sql)
+				.toString();
+	}
+
+	/**
+	 * Get the comment of a query shape, built once and cached.
+	 *
+	 * @param daoClass class of the DAO
+	 * @param operation operation
+	 * @param queryString query string or <code>null</code> if there is no query
+	 * @return comment
+	 */
+	public static String getComment(Class<?> daoClass, QueryOperation operation, String queryString) {
+		Map<String, String> shapes = comments.get(daoClass)[operation.ordinal()];
+		String key = queryString != null ? queryString : "";
+		String comment = shapes.get(key);
+		if (comment == null) {
+			comment = buildComment(daoClass, operation, queryString);
+			if (shapes.size() < MAX_SHAPES) {
+				shapes.putIfAbsent(key, comment);
+			}
+		}
+		return comment;
+	}
+
+	private static String buildComment(Class<?> daoClass, QueryOperation operation, String queryString) {
+		StringBuilder comment = new StringBuilder("/* dao=").append(sanitize(daoClass.getName(), Integer.MAX_VALUE))
+				.append(" op=").append(operation);
+		if (queryString != null) {
+			comment.append(" shape=").append(shapeId(queryString));
+		}
+		return comment.append(CLOSE).toString();
+	}
+
+	/**
+	 * Get the id of a query shape.
+	 *
+	 * The id is the CRC32 of the UTF-8 query string in hex, so it is stable across restarts and can
+	 * be computed by other tools.
+	 *
+	 * @param queryString query string
+	 * @return shape id
+	 */
+	public static String shapeId(String queryString) {
+		CRC32 crc = new CRC32();
+		crc.update(queryString.getBytes(StandardCharsets.UTF_8));
+		return String.format("%08x", crc.getValue());
+	}
+
+	private static String sanitize(String value, int maxLength) {
+		int length = Math.min(value.length(), maxLength);
+		StringBuilder result = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			char ch = value.charAt(i);
+			boolean allowed = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+					|| ch == '.' || ch == '_' || ch == ':' || ch == '-' || ch == '$';
+			result.append(allowed ? ch : '_');
+		}
+		return result.toString();
+	}
+}
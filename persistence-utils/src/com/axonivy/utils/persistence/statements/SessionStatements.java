@@ -0,0 +1,252 @@
+package com.axonivy.utils.persistence.statements;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+import com.axonivy.utils.persistence.IvyEntityManager;
+import com.axonivy.utils.persistence.MaximumSizeMap;
+import com.axonivy.utils.persistence.logging.Logger;
+
+/**
+ * Statements executed within one session of the {@link IvyEntityManager}.
+ *
+ * <p>
+ * A session starts with the outermost {@link IvyEntityManager#beginSession()} of a thread and ends with
+ * its close. Statements are counted by shape (see {@link #shape(String)}) if the
+ * {@link PersistenceStatementInspector} is configured for the persistence unit. Statements outside of a
+ * session are not counted.
+ * </p>
+ *
+ * <p>
+ * Example of a statement budget in a test:
+ * </p>
+ * <pre>
+ *try (AutoCloseTransaction session = IvyEntityManager.getInstance().beginSession()) {
+ *	dao.findAll();
+ *	assertThat(SessionStatements.current().getCount()).isLessThanOrEqualTo(2);
+ *}
+ * </pre>
+ */
+public class SessionStatements {
+	private static final Logger LOG = Logger.getLogger(SessionStatements.class);
+
+	private static final ThreadLocal<SessionStatements> current = new ThreadLocal<>();
+	private static volatile boolean enabled = false;
+
+	private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*.*?\\*/", Pattern.DOTALL);
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+	private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	/**
+	 * Hibernate reuses a small set of statements, so shapes are computed once per statement.
+	 */
+	private static final int MAX_SHAPES = 1000;
+	private static final Map<String, String> shapes = Collections.synchronizedMap(new MaximumSizeMap<>(MAX_SHAPES));
+
+	/**
+	 * Packages of the persistence layer, which are skipped when looking for the call site.
+	 */
+	private static final String[] INTERNAL_PACKAGES = { "java.", "javax.", "jdk.", "sun.", "com.sun.",
+			"org.hibernate.", "net.bytebuddy.", "org.hsqldb.", "com.axonivy.utils.persistence.dao.",
+			"com.axonivy.utils.persistence.statements.", IvyEntityManager.class.getName() };
+
+	private final Map<String, int[]> counts = new HashMap<>();
+	private int count = 0;
+
+	/**
+	 * Start counting statements of the current thread.
+	 *
+	 * Called by {@link IvyEntityManager} for the outermost session, does nothing if no persistence unit is
+	 * inspected.
+	 */
+	public static void begin() {
+		if (enabled) {
+			current.set(new SessionStatements());
+		}
+	}
+
+	/**
+	 * Stop counting statements of the current thread.
+	 *
+	 * Called by {@link IvyEntityManager} when the outermost session is closed.
+	 */
+	public static void end() {
+		if (enabled) {
+			current.remove();
+		}
+	}
+
+	/**
+	 * Get the statements of the session of the current thread.
+	 *
+	 * @return statements or <code>null</code> if the thread has no session or no persistence unit is inspected
+	 */
+	public static SessionStatements current() {
+		return current.get();
+	}
+
+	/**
+	 * Enable counting, called when a {@link PersistenceStatementInspector} is created.
+	 */
+	static void enable() {
+		enabled = true;
+	}
+
+	/**
+	 * Record a statement of the current thread.
+	 *
+	 * @param sql statement
+	 */
+	static void recordCurrent(String sql) {
+		SessionStatements statements = current.get();
+		if (statements != null) {
+			statements.record(sql);
+		}
+	}
+
+	/**
+	 * Record a statement.
+	 *
+	 * @param sql statement
+	 */
+	protected void record(String sql) {
+		count++;
+		String shape = shape(sql);
+		int[] shapeCount = counts.computeIfAbsent(shape, s -> new int[1]);
+		shapeCount[0]++;
+
+		int threshold = StatementBudget.getThreshold();
+		StatementBudgetMode mode = StatementBudget.getMode();
+		if (shapeCount[0] == threshold + 1 && mode != StatementBudgetMode.OFF && isChecked(shape)) {
+			StatementBudgetExceededException exception = new StatementBudgetExceededException(MessageFormat.format(
+					"Statement executed more than {0} times in one session (N+1?) at {1}: {2}",
+					threshold, getCallSite(), shape));
+			if (mode == StatementBudgetMode.FAIL) {
+				throw exception;
+			}
+			LOG.warn(exception.getMessage(), exception);
+		}
+	}
+
+	/**
+	 * Is the budget checked for a shape?
+	 *
+	 * Only selects are checked, inserts, updates and deletes of batches are expected to repeat.
+	 *
+	 * @param shape statement shape
+	 * @return <code>true</code> if the shape is checked
+	 */
+	protected boolean isChecked(String shape) {
+		return shape.regionMatches(true, 0, "select", 0, 6);
+	}
+
+	private static String getCallSite() {
+		for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+			if (!isInternal(element.getClassName())) {
+				return element.toString();
+			}
+		}
+		return "unknown";
+	}
+
+	private static boolean isInternal(String className) {
+		for (String prefix : INTERNAL_PACKAGES) {
+			if (className.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the shape of a statement.
+	 *
+	 * The shape is the statement without leading comment, literals replaced by <code>?</code>, lists of
+	 * parameters collapsed to a single parameter and whitespace normalized. Shapes of the last
+	 * {@value #MAX_SHAPES} statements are cached.
+	 *
+	 * @param sql statement
+	 * @return shape
+	 */
+	public static String shape(String sql) {
+		String shape = shapes.get(sql);
+		if (shape == null) {
+			shape = computeShape(sql);
+			shapes.put(sql, shape);
+		}
+		return shape;
+	}
+
+	private static String computeShape(String sql) {
+		String shape = LEADING_COMMENT.matcher(sql).replaceFirst("");
+		shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+		shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+		shape = IN_LIST.matcher(shape).replaceAll("(?)");
+		return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+	}
+
+	/**
+	 * Get the number of all statements.
+	 *
+	 * @return count
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Get the number of executions of a shape.
+	 *
+	 * @param shape shape (see {@link #shape(String)})
+	 * @return count
+	 */
+	public int getCount(String shape) {
+		int[] shapeCount = counts.get(shape);
+		return shapeCount != null ? shapeCount[0] : 0;
+	}
+
+	/**
+	 * Get the highest number of executions of a single shape.
+	 *
+	 * @return count
+	 */
+	public int getMaxCount() {
+		int max = 0;
+		for (int[] shapeCount : counts.values()) {
+			max = Math.max(max, shapeCount[0]);
+		}
+		return max;
+	}
+
+	/**
+	 * Get the number of executions of all shapes.
+	 *
+	 * @return counts by shape, most executed first
+	 */
+	public Map<String, Integer> getCounts() {
+		Map<String, Integer> result = new LinkedHashMap<>();
+		counts.entrySet().stream()
+		.sorted((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]))
+		.forEach(e -> result.put(e.getKey(), e.getValue()[0]));
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * See {@link Object#toString()}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("SessionStatements [count=").append(count);
+		for (Entry<String, Integer> entry : getCounts().entrySet()) {
+			result.append(System.lineSeparator()).append("  ").append(entry.getValue()).append(" x ").append(entry.getKey());
+		}
+		return result.append("]").toString();
+	}
+}
@@ -0,0 +1,79 @@
+package com.axonivy.utils.persistence.statements;
+
+/**
+ * Budget of executions of the same statement shape within one session.
+ *
+ * <p>
+ * The same select shape executed many times in one session usually is a N+1 pattern, e.g. lazy or eager
+ * associations loaded one by one. If a select shape is executed more often than the threshold, the
+ * {@link StatementBudgetMode} decides what happens.
+ * </p>
+ *
+ * <p>
+ * The initial threshold can be set by the system property {@value #THRESHOLD_PROPERTY}, the initial mode
+ * by {@value #MODE_PROPERTY}.
+ * </p>
+ */
+public final class StatementBudget {
+
+	/**
+	 * System property of the initial threshold.
+	 */
+	public static final String THRESHOLD_PROPERTY = "com.axonivy.utils.persistence.statementThreshold";
+
+	/**
+	 * System property of the initial mode.
+	 */
+	public static final String MODE_PROPERTY = "com.axonivy.utils.persistence.statementBudgetMode";
+
+	/**
+	 * Default threshold.
+	 */
+	public static final int DEFAULT_THRESHOLD = 20;
+
+	private static volatile int threshold = Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD);
+	private static volatile StatementBudgetMode mode = StatementBudgetMode
+			.valueOf(System.getProperty(MODE_PROPERTY, StatementBudgetMode.WARN.name()).trim().toUpperCase());
+
+	/**
+	 * Hide public constructor.
+	 */
+	private StatementBudget() {
+	}
+
+	/**
+	 * Get the maximum number of executions of the same select shape within one session.
+	 *
+	 * @return threshold
+	 */
+	public static int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Set the maximum number of executions of the same select shape within one session.
+	 *
+	 * @param threshold threshold
+	 */
+	public static void setThreshold(int threshold) {
+		StatementBudget.threshold = Math.max(1, threshold);
+	}
+
+	/**
+	 * Get the mode.
+	 *
+	 * @return mode
+	 */
+	public static StatementBudgetMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Set the mode.
+	 *
+	 * @param mode mode
+	 */
+	public static void setMode(StatementBudgetMode mode) {
+		StatementBudget.mode = mode;
+	}
+}
@@ -0,0 +1,19 @@
+package com.axonivy.utils.persistence.statements;
+
+import javax.persistence.PersistenceException;
+
+/**
+ * A statement shape was executed more often within one session than the {@link StatementBudget} allows.
+ */
+public class StatementBudgetExceededException extends PersistenceException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param message message
+	 */
+	public StatementBudgetExceededException(String message) {
+		super(message);
+	}
+}
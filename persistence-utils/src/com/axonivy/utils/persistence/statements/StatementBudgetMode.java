@@ -0,0 +1,19 @@
+package com.axonivy.utils.persistence.statements;
+
+/**
+ * What happens, if a statement shape exceeds the {@link StatementBudget} of a session.
+ */
+public enum StatementBudgetMode {
+	/**
+	 * Statements are counted, but never checked.
+	 */
+	OFF,
+	/**
+	 * Log a warning with the call site, once per shape and session.
+	 */
+	WARN,
+	/**
+	 * Throw a {@link StatementBudgetExceededException} at the call site, e.g. in tests.
+	 */
+	FAIL
+}